@@ -0,0 +1,50 @@
+package com.ecommerce.gateway;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class GatewayRoutesTest {
+
+    @Autowired
+    private RouteLocator routeLocator;
+
+    @Test
+    void reservations_ShouldBeBlockedOnEveryPath() {
+        assertThat(routeOf("/api/v1/reservations:confirm")).isEqualTo("reservations-blocked");
+        assertThat(routeOf("/CATALOG-SERVICE/api/v1/reservations:reserve")).isEqualTo("reservations-blocked");
+        assertThat(routeOf("/catalog-service/api/v1/reservations:release")).isEqualTo("reservations-blocked");
+    }
+
+    @Test
+    void cartAdmin_ShouldBeBlockedOnEveryPath() {
+        assertThat(routeOf("/api/v1/cart/admin/promotions/PROMO-1")).isEqualTo("cart-admin-blocked");
+        assertThat(routeOf("/CART-SERVICE/api/v1/cart/admin/export")).isEqualTo("cart-admin-blocked");
+    }
+
+    @Test
+    void publicEndpoints_ShouldStillBeRouted() {
+        assertThat(routeOf("/api/v1/products:batchGet")).isEqualTo("catalog-service");
+        assertThat(routeOf("/api/v1/cart/promotions")).isEqualTo("cart-service");
+    }
+
+    // The first route matching the request, in order, as the gateway's handler mapping picks it
+    private String routeOf(String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post(path));
+        return routeLocator.getRoutes()
+                .concatMap(route -> Mono.from(route.getPredicate().apply(exchange))
+                        .filter(Boolean::booleanValue)
+                        .map(matched -> route))
+                .next()
+                .map(Route::getId)
+                .block();
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.cart.benchmark;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link Cart} mutations a request performs, at one, ten and a hundred lines.
+ * Run with {@code -prof gc} (the default of the {@code jmh} profile) for the allocation per operation.
+ * <p>
+ * Adding a new line is paired with its removal so the cart keeps its size across invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartDomainBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int lines;
+
+    private Cart cart;
+    private String[] productIds;
+    private CartItem[] increments;
+    private CartItem extraLine;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        cart = CartFixtures.cart(lines);
+        productIds = new String[lines];
+        increments = new CartItem[lines];
+        for (int i = 0; i < lines; i++) {
+            productIds[i] = CartFixtures.productId(i);
+            increments[i] = CartFixtures.item(i, now).toBuilder().quantity(1).build();
+        }
+        extraLine = CartFixtures.item(lines, now);
+    }
+
+    @Benchmark
+    public Cart addItemToExistingLine() {
+        cart.addItem(increments[nextLine()]);
+        return cart;
+    }
+
+    @Benchmark
+    public Cart addAndRemoveItem() {
+        cart.addItem(extraLine);
+        cart.removeItem(extraLine.getProductId());
+        return cart;
+    }
+
+    @Benchmark
+    public Cart updateItemQuantity() {
+        int line = nextLine();
+        cart.updateItemQuantity(productIds[line], 1 + next % 7);
+        return cart;
+    }
+
+    @Benchmark
+    public Cart calculateTotals() {
+        cart.calculateTotals();
+        return cart;
+    }
+
+    private int nextLine() {
+        next++;
+        return next % lines;
+    }
+}
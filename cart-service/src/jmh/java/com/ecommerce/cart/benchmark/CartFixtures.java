@@ -0,0 +1,57 @@
+package com.ecommerce.cart.benchmark;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Realistic carts shared by the benchmarks.
+ */
+public final class CartFixtures {
+
+    private CartFixtures() {
+    }
+
+    public static Cart cart(int lines) {
+        LocalDateTime now = LocalDateTime.now();
+        Cart cart = Cart.builder()
+                .cartId(Cart.generateCartId())
+                .userId("user-" + lines)
+                .items(new ArrayList<>())
+                .createdAt(now)
+                .updatedAt(now)
+                .expiresAt(now.plusDays(7))
+                .version(lines)
+                .build();
+        for (int i = 0; i < lines; i++) {
+            cart.getItems().add(item(i, now));
+        }
+        cart.calculateTotals();
+        return cart;
+    }
+
+    public static CartItem item(int index, LocalDateTime addedAt) {
+        return CartItem.builder()
+                .itemId(CartItem.generateItemId())
+                .productId(productId(index))
+                .productName("Product " + index + " - Wireless noise cancelling headphones")
+                .productImage("https://example.com/images/products/" + index + ".jpg")
+                .category(category(index))
+                .quantity(1 + index % 5)
+                .unitPrice(new BigDecimal("129.99").add(BigDecimal.valueOf(index)))
+                .available(true)
+                .addedAt(addedAt.plusNanos(index * 1000L))
+                .build();
+    }
+
+    public static String category(int index) {
+        return "category-" + index % 20;
+    }
+
+    public static String productId(int index) {
+        return String.format("PROD-%05d", index);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.cart.benchmark;
+
+import com.ecommerce.cart.domain.service.CartMetrics;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.ecommerce.cart.domain.service.CartMetrics.Phase.CATALOG;
+import static com.ecommerce.cart.domain.service.CartMetrics.Phase.MAPPING;
+import static com.ecommerce.cart.domain.service.CartMetrics.Phase.MUTATION;
+import static com.ecommerce.cart.domain.service.CartMetrics.Phase.REDIS_READ;
+import static com.ecommerce.cart.domain.service.CartMetrics.Phase.REDIS_WRITE;
+
+/**
+ * Overhead of the {@link CartMetrics} instrumentation against the Prometheus registry, which keeps
+ * the percentile histograms. {@code operation} times a whole instrumented operation (one total and
+ * five phases, i.e. six spans) and must stay under six microseconds; {@code startAndLap} is the cost
+ * of starting a stopwatch and charging a single phase.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartMetricsBenchmark {
+
+    private CartMetrics cartMetrics;
+
+    @Setup
+    public void setUp() {
+        cartMetrics = new CartMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        cartMetrics.start("updateItemQuantity");
+    }
+
+    @Benchmark
+    public Object operation() {
+        return cartMetrics.record("updateItemQuantity", watch -> {
+            watch.lap(REDIS_READ);
+            watch.lap(CATALOG);
+            watch.lap(MUTATION);
+            watch.lap(REDIS_WRITE);
+            return watch.lap(MAPPING, watch);
+        });
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object operationContended() {
+        return operation();
+    }
+
+    @Benchmark
+    public Object startAndLap() {
+        CartMetrics.Stopwatch watch = cartMetrics.start("updateItemQuantity");
+        watch.lap(REDIS_READ);
+        return watch;
+    }
+}
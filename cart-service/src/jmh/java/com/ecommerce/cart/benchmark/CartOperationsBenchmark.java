@@ -0,0 +1,94 @@
+package com.ecommerce.cart.benchmark;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line operations of the indexed {@link Cart} against the list-scanning {@link LegacyCart}. Each
+ * operation is followed by the reads a request does afterwards (item count and subtotal), and
+ * leaves the cart with the same number of lines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartOperationsBenchmark {
+
+    @Param({"10", "50", "100"})
+    public int lines;
+
+    private Cart cart;
+    private LegacyCart legacyCart;
+    private String[] productIds;
+    private CartItem[] spareLines;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cart = CartFixtures.cart(lines);
+        legacyCart = new LegacyCart(cart.getItems());
+        LocalDateTime now = LocalDateTime.now();
+        productIds = new String[lines];
+        spareLines = new CartItem[lines];
+        for (int i = 0; i < lines; i++) {
+            productIds[i] = CartFixtures.productId(i);
+            spareLines[i] = CartFixtures.item(i, now);
+        }
+    }
+
+    @Benchmark
+    public void updateQuantity(Blackhole blackhole) {
+        int line = nextLine();
+        cart.updateItemQuantity(productIds[line], 1 + next % 7);
+        blackhole.consume(cart.getTotalItems());
+        blackhole.consume(cart.getSubtotal());
+    }
+
+    @Benchmark
+    public void updateQuantityLegacy(Blackhole blackhole) {
+        int line = nextLine();
+        legacyCart.updateItemQuantity(productIds[line], 1 + next % 7);
+        blackhole.consume(legacyCart.getTotalItems());
+        blackhole.consume(legacyCart.getSubtotal());
+    }
+
+    @Benchmark
+    public void removeAndAdd(Blackhole blackhole) {
+        int line = nextLine();
+        cart.removeItem(productIds[line]);
+        cart.addItem(spareLines[line].toBuilder().build());
+        blackhole.consume(cart.getTotalItems());
+        blackhole.consume(cart.getSubtotal());
+    }
+
+    @Benchmark
+    public void removeAndAddLegacy(Blackhole blackhole) {
+        int line = nextLine();
+        legacyCart.removeItem(productIds[line]);
+        legacyCart.addItem(spareLines[line].toBuilder().build());
+        blackhole.consume(legacyCart.getTotalItems());
+        blackhole.consume(legacyCart.getSubtotal());
+    }
+
+    private int nextLine() {
+        next++;
+        return next % lines;
+    }
+}
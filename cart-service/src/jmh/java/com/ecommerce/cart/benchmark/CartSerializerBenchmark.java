@@ -0,0 +1,72 @@
+package com.ecommerce.cart.benchmark;
+
+import com.ecommerce.cart.config.RedisConfig;
+import com.ecommerce.cart.domain.entity.Cart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a whole-cart round trip through the original default-typed JSON serializer and
+ * the binary one, with and without compression. The serialized size of each variant is printed
+ * once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartSerializerBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int lines;
+
+    @Param({"legacy-json", "binary", "binary-deflate"})
+    public String format;
+
+    private RedisSerializer<Cart> serializer;
+    private Cart cart;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        RedisConfig config = new RedisConfig();
+        serializer = switch (format) {
+            case "legacy-json" -> new Jackson2JsonRedisSerializer<>(RedisConfig.typedObjectMapper(), Cart.class);
+            case "binary" -> config.cartSerializer("binary", 0);
+            case "binary-deflate" -> config.cartSerializer("binary", 1);
+            default -> throw new IllegalArgumentException(format);
+        };
+        cart = CartFixtures.cart(lines);
+        serialized = serializer.serialize(cart);
+        System.out.printf("%n[%s, %d lines] %d bytes per cart%n", format, lines, serialized.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(cart);
+    }
+
+    @Benchmark
+    public Cart deserialize() {
+        return serializer.deserialize(serialized);
+    }
+
+    @Benchmark
+    public Cart roundTrip() {
+        return serializer.deserialize(serializer.serialize(cart));
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.cart.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files and prints a Markdown table, ready to paste in a review:
+ * score and allocation per operation ({@code gc.alloc.rate.norm}, with {@code -prof gc}) of each
+ * benchmark and parameter set, with their change against the baseline.
+ * <p>
+ * A change beyond the threshold in the wrong direction (lower throughput, higher average time or
+ * more allocation) is flagged as a regression, and the exit status is 1 when there is any.
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.main=com.ecommerce.cart.benchmark.JmhReport \
+ *     -Djmh.args="src/jmh/baseline.json target/jmh-result.json 10"
+ * </pre>
+ */
+public final class JmhReport {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    private JmhReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhReport <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> current = read(Path.of(args[1]));
+
+        int regressions = 0;
+        StringBuilder report = new StringBuilder()
+                .append("| Benchmark | Baseline | Current | Change | Alloc baseline (B/op) | Alloc current (B/op) | Alloc change | |\n")
+                .append("|---|---:|---:|---:|---:|---:|---:|---|\n");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            Double scoreChange = before == null ? null : change(before.score, now.score);
+            Double allocationChange = before == null || before.allocation == null || now.allocation == null
+                    ? null : change(before.allocation, now.allocation);
+
+            boolean slower = scoreChange != null
+                    && (now.higherIsBetter() ? -scoreChange : scoreChange) > threshold;
+            // a few bytes more on a tiny allocation is noise, not a regression
+            boolean allocates = allocationChange != null && allocationChange > threshold
+                    && now.allocation - before.allocation >= 16;
+            if (slower || allocates) {
+                regressions++;
+            }
+
+            report.append("| ").append(entry.getKey())
+                    .append(" | ").append(before == null ? "-" : format(before.score, before.unit))
+                    .append(" | ").append(format(now.score, now.unit))
+                    .append(" | ").append(percent(scoreChange))
+                    .append(" | ").append(before == null || before.allocation == null ? "-" : format(before.allocation))
+                    .append(" | ").append(now.allocation == null ? "-" : format(now.allocation))
+                    .append(" | ").append(percent(allocationChange))
+                    .append(" | ").append(slower || allocates ? "REGRESSION" : before == null ? "new" : "")
+                    .append(" |\n");
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> report.append("| ").append(key).append(" | ")
+                        .append(format(baseline.get(key).score, baseline.get(key).unit))
+                        .append(" | - | - | - | - | - | removed |\n"));
+
+        System.out.print(report);
+        System.out.printf("%n%d benchmarks compared, %d regressions beyond %.1f%%%n",
+                current.size(), regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(Files.readString(file))) {
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode allocation = run.path("secondaryMetrics").path(ALLOCATION);
+            results.put(key(run), new Result(
+                    run.path("mode").asText(),
+                    primary.path("score").asDouble(),
+                    primary.path("scoreUnit").asText(),
+                    allocation.isMissingNode() ? null : allocation.path("score").asDouble()));
+        }
+        return results;
+    }
+
+    // short benchmark name plus its parameters, e.g. CartDomainBenchmark.calculateTotals{lines=10}
+    private static String key(JsonNode run) {
+        String benchmark = run.path("benchmark").asText();
+        String[] parts = benchmark.split("\\.");
+        String name = parts.length >= 2 ? parts[parts.length - 2] + "." + parts[parts.length - 1] : benchmark;
+        Map<String, String> params = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = run.path("params").fields();
+        fields.forEachRemaining(field -> params.put(field.getKey(), field.getValue().asText()));
+        return params.isEmpty() ? name : name + params.toString().replace(", ", ",");
+    }
+
+    private static double change(double before, double now) {
+        return before == 0 ? 0 : (now - before) / before * 100;
+    }
+
+    private static String percent(Double change) {
+        return change == null ? "-" : String.format(Locale.ROOT, "%+.1f%%", change);
+    }
+
+    private static String format(double value, String unit) {
+        return format(value) + " " + unit;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, value >= 100 ? "%.0f" : "%.3f", value);
+    }
+
+    private record Result(String mode, double score, String unit, Double allocation) {
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
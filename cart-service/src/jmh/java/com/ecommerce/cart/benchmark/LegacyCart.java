@@ -0,0 +1,69 @@
+package com.ecommerce.cart.benchmark;
+
+import com.ecommerce.cart.domain.entity.CartItem;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line operations of {@code Cart} as they were before the product index: a scan of the lines for
+ * every lookup and a full {@link BigDecimal} recomputation after every change. Kept as a baseline.
+ */
+final class LegacyCart {
+
+    private final List<CartItem> items = new ArrayList<>();
+    private BigDecimal subtotal;
+
+    LegacyCart(List<CartItem> lines) {
+        for (CartItem line : lines) {
+            items.add(line.toBuilder().build());
+        }
+        calculateTotals();
+    }
+
+    void addItem(CartItem newItem) {
+        CartItem existingItem = items.stream()
+                .filter(item -> item.getProductId().equals(newItem.getProductId()))
+                .findFirst()
+                .orElse(null);
+        if (existingItem != null) {
+            existingItem.setQuantity(existingItem.getQuantity() + newItem.getQuantity());
+        } else {
+            items.add(newItem);
+        }
+        calculateTotals();
+    }
+
+    void removeItem(String productId) {
+        items.removeIf(item -> item.getProductId().equals(productId));
+        calculateTotals();
+    }
+
+    void updateItemQuantity(String productId, int quantity) {
+        CartItem updatedItem = items.stream()
+                .filter(item -> item.getProductId().equals(productId))
+                .findFirst()
+                .orElse(null);
+        if (updatedItem != null) {
+            updatedItem.setQuantity(quantity);
+            calculateTotals();
+        }
+    }
+
+    void calculateTotals() {
+        BigDecimal cumul = BigDecimal.ZERO;
+        for (CartItem item : items) {
+            cumul = cumul.add(item.getLineTotal());
+        }
+        subtotal = cumul;
+    }
+
+    int getTotalItems() {
+        return items.stream().mapToInt(CartItem::getQuantity).sum();
+    }
+
+    BigDecimal getSubtotal() {
+        return subtotal;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.cart.benchmark;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.service.PromotionEngine;
+import com.ecommerce.cart.dto.response.CartResponse;
+import com.ecommerce.cart.mapper.MapperToResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link MapperToResponse#mapToResponse}, which every cart endpoint goes through.
+ * The promotion engine holds no rules here, pricing with rules is covered by {@link PromotionEngineBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperToResponseBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int lines;
+
+    private MapperToResponse mapper;
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        // never refreshed, so the repository is not needed
+        mapper = new MapperToResponse(new PromotionEngine(null, new SimpleMeterRegistry()));
+        cart = CartFixtures.cart(lines);
+    }
+
+    @Benchmark
+    public CartResponse mapToResponse() {
+        return mapper.mapToResponse(cart);
+    }
+}
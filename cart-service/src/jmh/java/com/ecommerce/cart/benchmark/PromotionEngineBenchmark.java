@@ -0,0 +1,121 @@
+package com.ecommerce.cart.benchmark;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.entity.Money;
+import com.ecommerce.cart.domain.entity.Promotion;
+import com.ecommerce.cart.domain.enums.DiscountType;
+import com.ecommerce.cart.domain.service.PromotionRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing a cart with the indexed {@link PromotionRules} against scanning every active promotion
+ * for every line. Most promotions target products that are not in the cart, as in a real catalog,
+ * plus a few category and cart-wide ones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromotionEngineBenchmark {
+
+    private static final int CATALOG_SIZE = 100_000;
+
+    @Param({"1000", "5000", "20000"})
+    public int promotions;
+
+    @Param({"10", "50"})
+    public int lines;
+
+    private Cart cart;
+    private List<Promotion> activePromotions;
+    private PromotionRules rules;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        now = LocalDateTime.now();
+        cart = CartFixtures.cart(lines);
+        activePromotions = new ArrayList<>(promotions);
+        for (int i = 0; i < promotions; i++) {
+            activePromotions.add(promotion(i));
+        }
+        rules = PromotionRules.compile(1, activePromotions, now);
+    }
+
+    @Benchmark
+    public long indexed() {
+        return rules.evaluate(cart, now).discountCents();
+    }
+
+    @Benchmark
+    public long linearScan() {
+        long discount = 0;
+        for (CartItem item : cart.getItems()) {
+            long lineCents = item.getLineTotalCents();
+            long best = 0;
+            for (Promotion promotion : activePromotions) {
+                boolean global = promotion.getProductIds().isEmpty() && promotion.getCategories().isEmpty();
+                if (global || promotion.getProductIds().contains(item.getProductId())
+                        || promotion.getCategories().contains(item.getCategory())) {
+                    long cents = Math.min(lineCents, Money.toCents(lineDiscount(promotion, item)));
+                    best = Math.max(best, cents);
+                }
+            }
+            discount += best;
+        }
+        return discount;
+    }
+
+    @Benchmark
+    public long compile() {
+        return PromotionRules.compile(2, activePromotions, now).size();
+    }
+
+    private static BigDecimal lineDiscount(Promotion promotion, CartItem item) {
+        return switch (promotion.getType()) {
+            case PERCENTAGE -> item.getLineTotal().multiply(promotion.getValue()).movePointLeft(2);
+            case FIXED_AMOUNT -> promotion.getValue().min(item.getUnitPrice()).multiply(BigDecimal.valueOf(item.getQuantity()));
+            case BUY_X_GET_Y -> item.getUnitPrice().multiply(BigDecimal.valueOf(
+                    item.getQuantity() / (promotion.getBuyQuantity() + promotion.getFreeQuantity())
+                            * promotion.getFreeQuantity()));
+        };
+    }
+
+    // one in 100 promotions is category-wide and one in 1000 cart-wide, the rest target products
+    private static Promotion promotion(int index) {
+        Promotion.PromotionBuilder builder = Promotion.builder().promotionId("PROMO-" + index);
+        switch (index % 3) {
+            case 0 -> builder.type(DiscountType.PERCENTAGE).value(BigDecimal.valueOf(5 + index % 30));
+            case 1 -> builder.type(DiscountType.FIXED_AMOUNT).value(BigDecimal.valueOf(1 + index % 10));
+            default -> builder.type(DiscountType.BUY_X_GET_Y).buyQuantity(2).freeQuantity(1);
+        }
+        if (index % 1000 == 999) {
+            builder.productIds(Set.of()).categories(Set.of());
+        } else if (index % 100 == 0) {
+            builder.productIds(Set.of()).categories(Set.of(CartFixtures.category(index / 100)));
+        } else {
+            builder.productIds(Set.of(CartFixtures.productId(index * 7 % CATALOG_SIZE))).categories(Set.of());
+        }
+        return builder.build();
+    }
+}
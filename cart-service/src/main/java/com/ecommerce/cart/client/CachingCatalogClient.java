@@ -0,0 +1,170 @@
+package com.ecommerce.cart.client;
+
+import com.ecommerce.cart.dto.external.AvailabilityDTO;
+import com.ecommerce.cart.dto.external.BatchAvailabilityRequest;
+import com.ecommerce.cart.dto.external.BatchGetProductsRequest;
+import com.ecommerce.cart.dto.external.ProductDTO;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * {@link CatalogClient} keeping a bounded cache of product snapshots in front of the catalog.
+ * <p>
+ * A snapshot is served as is while younger than {@code freshFor}. Until {@code staleFor} it is
+ * still served, and the first read triggers a refresh in the background. Older snapshots are
+ * loaded again synchronously. Availability is answered locally only for a fresh snapshot with
+ * enough stock left above the low-stock threshold, everything else goes to the catalog.
+ * Unavailable products are never kept, which also keeps fallback placeholders out of the cache.
+ */
+@Slf4j
+public class CachingCatalogClient implements CatalogClient {
+
+    static final String METRIC_PREFIX = "cart.product-snapshots";
+
+    private final CatalogClient delegate;
+    private final LoadingCache<String, ProductDTO> snapshots;
+    private final Duration freshFor;
+    private final int lowStockThreshold;
+    private final MeterRegistry meterRegistry;
+    private final Counter localAvailability;
+    private final Counter remoteAvailability;
+
+    public CachingCatalogClient(CatalogClient delegate, long maximumSize, Duration freshFor, Duration staleFor,
+                                int lowStockThreshold, Executor refreshExecutor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.freshFor = freshFor;
+        this.lowStockThreshold = lowStockThreshold;
+        this.meterRegistry = meterRegistry;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(freshFor)
+                .expireAfterWrite(staleFor)
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(new SnapshotLoader());
+        this.localAvailability = meterRegistry.counter(METRIC_PREFIX + ".availability", "source", "local");
+        this.remoteAvailability = meterRegistry.counter(METRIC_PREFIX + ".availability", "source", "catalog");
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, METRIC_PREFIX);
+    }
+
+    @Override
+    public ProductDTO getProduct(String productId) {
+        ProductDTO product = snapshots.get(productId);
+        evictIfUnavailable(product);
+        return product;
+    }
+
+    @Override
+    public Boolean checkAvailability(String productId, int quantity) {
+        if (isAvailableLocally(productId, quantity)) {
+            localAvailability.increment();
+            return true;
+        }
+        remoteAvailability.increment();
+        return delegate.checkAvailability(productId, quantity);
+    }
+
+    @Override
+    public List<ProductDTO> getProducts(BatchGetProductsRequest request) {
+        List<ProductDTO> products = new ArrayList<>(snapshots.getAll(request.getProductIds()).values());
+        products.forEach(this::evictIfUnavailable);
+        return products;
+    }
+
+    @Override
+    public List<AvailabilityDTO> checkAvailabilities(BatchAvailabilityRequest request) {
+        // a snapshot does not know the holds of a cart, such checks always go to the catalog
+        List<AvailabilityDTO> remote = request.getItems().stream()
+                .filter(item -> item.getHolderId() != null
+                        || !isAvailableLocally(item.getProductId(), item.getQuantity()))
+                .collect(Collectors.toList());
+        localAvailability.increment(request.getItems().size() - remote.size());
+        remoteAvailability.increment(remote.size());
+
+        Map<String, AvailabilityDTO> checked = remote.isEmpty()
+                ? Map.of()
+                : delegate.checkAvailabilities(BatchAvailabilityRequest.builder().items(remote).build()).stream()
+                        .collect(Collectors.toMap(CachingCatalogClient::availabilityKey, Function.identity(),
+                                (a, b) -> a));
+
+        return request.getItems().stream()
+                .map(item -> checked.getOrDefault(availabilityKey(item), AvailabilityDTO.builder()
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .holderId(item.getHolderId())
+                        .available(!remote.contains(item))
+                        .build()))
+                .collect(Collectors.toList());
+    }
+
+    private static String availabilityKey(AvailabilityDTO item) {
+        return item.getHolderId() == null ? item.getProductId() : item.getHolderId() + '|' + item.getProductId();
+    }
+
+    private boolean isAvailableLocally(String productId, int quantity) {
+        // Quiet read: availability checks neither count as cache hits nor trigger refreshes
+        ProductDTO product = snapshots.policy().getIfPresentQuietly(productId);
+        if (product == null || !Boolean.TRUE.equals(product.getAvailable()) || product.getStockQuantity() == null
+                || product.getStockQuantity() - quantity < lowStockThreshold) {
+            return false;
+        }
+        return snapshots.policy().refreshAfterWrite()
+                .flatMap(policy -> policy.ageOf(productId))
+                .map(age -> age.compareTo(freshFor) < 0)
+                .orElse(false);
+    }
+
+    private void evictIfUnavailable(ProductDTO product) {
+        if (product != null && !Boolean.TRUE.equals(product.getAvailable())) {
+            snapshots.invalidate(product.getProductId());
+        }
+    }
+
+    private <T> T timed(Supplier<T> load) {
+        long start = System.nanoTime();
+        String result = "failure";
+        try {
+            T value = load.get();
+            result = "success";
+            return value;
+        } finally {
+            meterRegistry.timer(METRIC_PREFIX + ".load", "result", result)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private class SnapshotLoader implements CacheLoader<String, ProductDTO> {
+
+        @Override
+        public ProductDTO load(String productId) {
+            return timed(() -> delegate.getProduct(productId));
+        }
+
+        @Override
+        public Map<String, ProductDTO> loadAll(Set<? extends String> productIds) {
+            List<ProductDTO> products = timed(() -> delegate.getProducts(BatchGetProductsRequest.builder()
+                    .productIds(new ArrayList<>(productIds))
+                    .build()));
+            Map<String, ProductDTO> loaded = new HashMap<>();
+            products.forEach(product -> loaded.putIfAbsent(product.getProductId(), product));
+            return loaded;
+        }
+    }
+}
@@ -1,25 +1,41 @@
 package com.ecommerce.cart.client;
 
+import com.ecommerce.cart.dto.external.AvailabilityDTO;
+import com.ecommerce.cart.dto.external.BatchAvailabilityRequest;
+import com.ecommerce.cart.dto.external.BatchGetProductsRequest;
 import com.ecommerce.cart.dto.external.ProductDTO;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "catalog-service",fallback = CatalogClientFallback.class)
+import java.util.List;
+
+@FeignClient(name = "catalog-service",fallback = CatalogClientFallback.class,
+        primary = false, qualifiers = CatalogClient.FEIGN_QUALIFIER)
 public interface CatalogClient {
 
+    // The Feign proxy itself, the primary CatalogClient bean being the caching one over GuardedCatalogClient
+    String FEIGN_QUALIFIER = "catalogFeignClient";
+
     @GetMapping("/api/v1/products/{productId}")
     @CircuitBreaker(name = "catalogService", fallbackMethod = "getProductFallback")
-    @Retry(name = "catalogService")
     ProductDTO getProduct(@PathVariable("productId") String productId);
 
     @GetMapping("/api/v1/products/{productId}/availability")
     @CircuitBreaker(name = "catalogService")
-    @Retry(name = "catalogService")
     Boolean checkAvailability(@PathVariable("productId") String productId, @RequestParam("quantity") int quantity
     );
-}
\ No newline at end of file
+
+    @PostMapping("/api/v1/products:batchGet")
+    @CircuitBreaker(name = "catalogService")
+    List<ProductDTO> getProducts(@RequestBody BatchGetProductsRequest request);
+
+    @PostMapping("/api/v1/products/availability:batch")
+    @CircuitBreaker(name = "catalogService")
+    List<AvailabilityDTO> checkAvailabilities(@RequestBody BatchAvailabilityRequest request);
+}
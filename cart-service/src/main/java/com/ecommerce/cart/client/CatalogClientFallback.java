@@ -1,10 +1,15 @@
 package com.ecommerce.cart.client;
 
+import com.ecommerce.cart.dto.external.AvailabilityDTO;
+import com.ecommerce.cart.dto.external.BatchAvailabilityRequest;
+import com.ecommerce.cart.dto.external.BatchGetProductsRequest;
 import com.ecommerce.cart.dto.external.ProductDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Component
 @Slf4j
@@ -21,6 +26,7 @@ public class CatalogClientFallback implements CatalogClient {
                 .price(BigDecimal.ZERO)
                 .available(false)
                 .stockQuantity(0)
+                .placeholder(true)
                 .build();
     }
 
@@ -29,4 +35,29 @@ public class CatalogClientFallback implements CatalogClient {
         log.warn("Fallback: Catalog Service unavailable for availability check: {}", productId);
         return false;
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<ProductDTO> getProducts(BatchGetProductsRequest request) {
+        log.warn("Fallback: Catalog Service unavailable for {} products", request.getProductIds().size());
+
+        return request.getProductIds().stream()
+                .map(this::getProduct)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<AvailabilityDTO> checkAvailabilities(BatchAvailabilityRequest request) {
+        log.warn("Fallback: Catalog Service unavailable for availability check of {} items",
+                request.getItems().size());
+
+        return request.getItems().stream()
+                .map(item -> AvailabilityDTO.builder()
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .holderId(item.getHolderId())
+                        .available(false)
+                        .placeholder(true)
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.cart.client;
+
+import com.ecommerce.cart.domain.exception.RemoteCallTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Runs independent remote calls concurrently, one virtual thread per call.
+ * <p>
+ * All calls of a group share a single deadline ({@code cart.remote-calls.timeout}). The first
+ * failure is rethrown as is and interrupts the calls still running, as does an expired deadline.
+ */
+@Component
+@Slf4j
+public class ConcurrentCalls implements DisposableBean {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration timeout;
+
+    public ConcurrentCalls(@Value("${cart.remote-calls.timeout:5s}") Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <A, B, R> R invokeBoth(Callable<A> first, Callable<B> second, BiFunction<A, B, R> combiner) {
+        List<Future<?>> done = invokeAll(List.of(first, second));
+        return combiner.apply((A) done.get(0).resultNow(), (B) done.get(1).resultNow());
+    }
+
+    private List<Future<?>> invokeAll(List<Callable<?>> calls) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        CompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+        List<Future<?>> futures = new ArrayList<>(calls.size());
+        try {
+            for (Callable<?> call : calls) {
+                futures.add(completion.submit(call::call));
+            }
+            for (int i = 0; i < calls.size(); i++) {
+                Future<Object> next = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    throw new RemoteCallTimeoutException(
+                            "Remote calls did not complete within " + timeout.toMillis() + " ms");
+                }
+                next.get();
+            }
+            return futures;
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteCallTimeoutException("Interrupted while waiting for remote calls");
+        } finally {
+            // No-op for completed calls, interrupts the siblings of a failed or late call
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,282 @@
+package com.ecommerce.cart.client;
+
+import com.ecommerce.cart.domain.exception.RemoteCallTimeoutException;
+import com.ecommerce.cart.dto.external.AvailabilityDTO;
+import com.ecommerce.cart.dto.external.BatchAvailabilityRequest;
+import com.ecommerce.cart.dto.external.BatchGetProductsRequest;
+import com.ecommerce.cart.dto.external.ProductDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CatalogClient} bounding what a slow catalog can cost the cart service, per operation:
+ * <ul>
+ *     <li>a bulkhead: a fair semaphore caps the calls in flight, and a caller waits at most
+ *     {@code maxWait} for a permit before being rejected;</li>
+ *     <li>an adaptive timeout: a multiple of the recent latency percentile of the operation,
+ *     between {@code minTimeout} and {@code maxTimeout};</li>
+ *     <li>hedging, for the idempotent GETs only: when the first request has not answered after the
+ *     recent p95, a second one is sent if a permit is free, and the first answer wins.</li>
+ * </ul>
+ * Requests run on virtual threads, so the caller is released at its timeout even when the socket
+ * read is not interruptible; the abandoned request keeps its permit until it really ends. Until an
+ * operation has {@code minSamples} latencies, it is timed out at {@code maxTimeout} and not hedged.
+ * Timeouts and rejections surface as {@link RemoteCallTimeoutException}.
+ */
+public class GuardedCatalogClient implements CatalogClient, DisposableBean {
+
+    static final String METRIC_PREFIX = "cart.catalog";
+
+    private final CatalogClient delegate;
+    private final Settings settings;
+    private final Map<Operation, Guard> guards = new EnumMap<>(Operation.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public record Settings(int maxConcurrent, Duration maxWait, double timeoutPercentile, double timeoutMultiplier,
+                           Duration minTimeout, Duration maxTimeout, boolean hedging, double hedgePercentile,
+                           Duration minHedgeDelay, long minSamples, Duration refreshInterval) {
+    }
+
+    enum Operation {
+        GET_PRODUCT("get-product", true),
+        CHECK_AVAILABILITY("check-availability", true),
+        GET_PRODUCTS("get-products", false),
+        CHECK_AVAILABILITIES("check-availabilities", false);
+
+        private final String tag;
+        private final boolean idempotentGet;
+
+        Operation(String tag, boolean idempotentGet) {
+            this.tag = tag;
+            this.idempotentGet = idempotentGet;
+        }
+    }
+
+    public GuardedCatalogClient(CatalogClient delegate, Settings settings, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.settings = settings;
+        for (Operation operation : Operation.values()) {
+            guards.put(operation, new Guard(operation, meterRegistry));
+        }
+    }
+
+    @Override
+    public ProductDTO getProduct(String productId) {
+        return guards.get(Operation.GET_PRODUCT).call(() -> delegate.getProduct(productId));
+    }
+
+    @Override
+    public Boolean checkAvailability(String productId, int quantity) {
+        return guards.get(Operation.CHECK_AVAILABILITY).call(() -> delegate.checkAvailability(productId, quantity));
+    }
+
+    @Override
+    public List<ProductDTO> getProducts(BatchGetProductsRequest request) {
+        return guards.get(Operation.GET_PRODUCTS).call(() -> delegate.getProducts(request));
+    }
+
+    @Override
+    public List<AvailabilityDTO> checkAvailabilities(BatchAvailabilityRequest request) {
+        return guards.get(Operation.CHECK_AVAILABILITIES).call(() -> delegate.checkAvailabilities(request));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private final class Guard {
+
+        private final Operation operation;
+        private final Semaphore permits;
+        private final Timer latency;
+        private final Counter rejected;
+        private final Counter timeouts;
+        private final Counter hedgesSent;
+        private final Counter hedgesWon;
+        private volatile long timeoutNanos;
+        private volatile long hedgeDelayNanos;
+        private volatile long refreshedAt;
+
+        Guard(Operation operation, MeterRegistry meterRegistry) {
+            this.operation = operation;
+            this.permits = new Semaphore(settings.maxConcurrent(), true);
+            this.timeoutNanos = settings.maxTimeout().toNanos();
+            this.hedgeDelayNanos = Long.MAX_VALUE;
+            this.refreshedAt = System.nanoTime();
+            String tag = operation.tag;
+            this.latency = Timer.builder(METRIC_PREFIX + ".calls")
+                    .tag("operation", tag)
+                    .publishPercentiles(settings.hedgePercentile(), settings.timeoutPercentile())
+                    .distributionStatisticExpiry(Duration.ofMinutes(1))
+                    .register(meterRegistry);
+            this.rejected = meterRegistry.counter(METRIC_PREFIX + ".bulkhead.rejected", "operation", tag);
+            this.timeouts = meterRegistry.counter(METRIC_PREFIX + ".timeouts", "operation", tag);
+            this.hedgesSent = meterRegistry.counter(METRIC_PREFIX + ".hedges", "operation", tag, "result", "sent");
+            this.hedgesWon = meterRegistry.counter(METRIC_PREFIX + ".hedges", "operation", tag, "result", "won");
+            Gauge.builder(METRIC_PREFIX + ".bulkhead.in-flight", permits, p -> settings.maxConcurrent() - p.availablePermits())
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".bulkhead.waiting", permits, Semaphore::getQueueLength)
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            TimeGauge.builder(METRIC_PREFIX + ".timeout", this, TimeUnit.NANOSECONDS, guard -> guard.timeoutNanos)
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+        }
+
+        <T> T call(Callable<T> call) {
+            acquire();
+            refreshDelays();
+            long start = System.nanoTime();
+            long deadline = start + timeoutNanos;
+            boolean hedge = settings.hedging() && operation.idempotentGet && hedgeDelayNanos < timeoutNanos;
+            CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+            List<Future<T>> attempts = new ArrayList<>(2);
+            submit(completion, attempts, call);
+
+            Throwable failure = null;
+            int pending = 1;
+            try {
+                while (pending > 0) {
+                    long until = hedge ? Math.min(start + hedgeDelayNanos, deadline) : deadline;
+                    Future<T> done = completion.poll(until - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        if (hedge) {
+                            hedge = false;
+                            // a hedge never waits for a permit: a saturated bulkhead means no hedging
+                            if (System.nanoTime() - deadline < 0 && permits.tryAcquire()) {
+                                hedgesSent.increment();
+                                submit(completion, attempts, call);
+                                pending++;
+                            }
+                            continue;
+                        }
+                        timeouts.increment();
+                        throw new RemoteCallTimeoutException("Catalog " + operation.tag + " did not answer within "
+                                + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+                    }
+                    pending--;
+                    try {
+                        T result = done.get();
+                        if (attempts.size() > 1 && done == attempts.get(1)) {
+                            hedgesWon.increment();
+                        }
+                        return result;
+                    } catch (ExecutionException e) {
+                        // the other attempt, if any, may still succeed
+                        if (failure == null) {
+                            failure = e.getCause();
+                        }
+                    }
+                }
+                throw propagate(failure);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RemoteCallTimeoutException("Interrupted while waiting for the catalog");
+            } finally {
+                // No-op for the completed attempt, abandons the other one
+                attempts.forEach(attempt -> attempt.cancel(true));
+            }
+        }
+
+        private void acquire() {
+            try {
+                if (!permits.tryAcquire(settings.maxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                    rejected.increment();
+                    throw new RemoteCallTimeoutException("Catalog " + operation.tag + " bulkhead full ("
+                            + settings.maxConcurrent() + " calls in flight)");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RemoteCallTimeoutException("Interrupted while waiting for the catalog");
+            }
+        }
+
+        /**
+         * Submits an attempt holding a permit already acquired, which the attempt releases when it ends.
+         */
+        private <T> void submit(CompletionService<T> completion, List<Future<T>> attempts, Callable<T> call) {
+            try {
+                attempts.add(completion.submit(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        return call.call();
+                    } finally {
+                        // late and failed answers count too, that is how the timeout learns the catalog slowed down
+                        latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        permits.release();
+                    }
+                }));
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        /**
+         * Recomputes the timeout and the hedge delay from the latency percentiles, at most once per
+         * refresh interval; concurrent callers may both recompute, to the same values.
+         */
+        private void refreshDelays() {
+            long now = System.nanoTime();
+            if (now - refreshedAt < settings.refreshInterval().toNanos()) {
+                return;
+            }
+            refreshedAt = now;
+            HistogramSnapshot snapshot = latency.takeSnapshot();
+            if (snapshot.count() < settings.minSamples()) {
+                return;
+            }
+            long timeoutPercentile = 0;
+            long hedgePercentile = 0;
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                if (value.percentile() == settings.timeoutPercentile()) {
+                    timeoutPercentile = (long) value.value(TimeUnit.NANOSECONDS);
+                }
+                if (value.percentile() == settings.hedgePercentile()) {
+                    hedgePercentile = (long) value.value(TimeUnit.NANOSECONDS);
+                }
+            }
+            long timeout = clamp((long) (timeoutPercentile * settings.timeoutMultiplier()),
+                    settings.minTimeout().toNanos(), settings.maxTimeout().toNanos());
+            timeoutNanos = timeout;
+            hedgeDelayNanos = clamp(hedgePercentile, settings.minHedgeDelay().toNanos(), timeout);
+        }
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(value, max));
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.cart.client;
+
+import com.ecommerce.cart.dto.external.ReleaseStockRequest;
+import com.ecommerce.cart.dto.external.ReservationDTO;
+import com.ecommerce.cart.dto.external.ReserveStockRequest;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+/**
+ * Stock reservations of the catalog, held per cart. Writes, so neither cached nor hedged.
+ */
+@FeignClient(name = "catalog-service", contextId = "catalogReservations")
+public interface StockReservationClient {
+
+    @PostMapping("/api/v1/reservations:reserve")
+    @CircuitBreaker(name = "catalogService")
+    List<ReservationDTO> reserve(@RequestBody ReserveStockRequest request);
+
+    @PostMapping("/api/v1/reservations:release")
+    @CircuitBreaker(name = "catalogService")
+    void release(@RequestBody ReleaseStockRequest request);
+}
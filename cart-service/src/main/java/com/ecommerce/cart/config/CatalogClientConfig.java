@@ -0,0 +1,38 @@
+package com.ecommerce.cart.config;
+
+import com.ecommerce.cart.client.CatalogClient;
+import com.ecommerce.cart.client.GuardedCatalogClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Bulkheads, adaptive timeouts and hedging around the Feign catalog client, under the product cache.
+ */
+@Configuration
+public class CatalogClientConfig {
+
+    @Bean
+    public GuardedCatalogClient guardedCatalogClient(
+            @Qualifier(CatalogClient.FEIGN_QUALIFIER) CatalogClient catalogFeignClient,
+            @Value("${cart.catalog-guard.max-concurrent:32}") int maxConcurrent,
+            @Value("${cart.catalog-guard.max-wait:50ms}") Duration maxWait,
+            @Value("${cart.catalog-guard.timeout-percentile:0.99}") double timeoutPercentile,
+            @Value("${cart.catalog-guard.timeout-multiplier:2}") double timeoutMultiplier,
+            @Value("${cart.catalog-guard.min-timeout:200ms}") Duration minTimeout,
+            @Value("${cart.catalog-guard.max-timeout:2s}") Duration maxTimeout,
+            @Value("${cart.catalog-guard.hedging:true}") boolean hedging,
+            @Value("${cart.catalog-guard.hedge-percentile:0.95}") double hedgePercentile,
+            @Value("${cart.catalog-guard.min-hedge-delay:20ms}") Duration minHedgeDelay,
+            @Value("${cart.catalog-guard.min-samples:50}") long minSamples,
+            @Value("${cart.catalog-guard.refresh-interval:1s}") Duration refreshInterval,
+            MeterRegistry meterRegistry) {
+        return new GuardedCatalogClient(catalogFeignClient, new GuardedCatalogClient.Settings(
+                maxConcurrent, maxWait, timeoutPercentile, timeoutMultiplier, minTimeout, maxTimeout,
+                hedging, hedgePercentile, minHedgeDelay, minSamples, refreshInterval), meterRegistry);
+    }
+}
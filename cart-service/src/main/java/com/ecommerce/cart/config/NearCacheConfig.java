@@ -0,0 +1,63 @@
+package com.ecommerce.cart.config;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.repository.CartRedisRepository;
+import com.ecommerce.cart.repository.NearCacheCartRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+/**
+ * Optional local cache in front of Redis ({@code cart.near-cache.enabled=true}).
+ */
+@Configuration
+@Profile("!inmemory")
+@ConditionalOnProperty(prefix = "cart.near-cache", name = "enabled", havingValue = "true")
+public class NearCacheConfig {
+
+    @Bean
+    public Cache<String, Cart> cartNearCache(
+            @Value("${cart.near-cache.maximum-size:10000}") long maximumSize,
+            @Value("${cart.near-cache.expire-after-write:30s}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        Cache<String, Cart> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "cart.near-cache");
+        return cache;
+    }
+
+    @Bean
+    @Primary
+    public NearCacheCartRepository nearCacheCartRepository(CartRedisRepository cartRedisRepository,
+                                                           Cache<String, Cart> cartNearCache,
+                                                           StringRedisTemplate stringRedisTemplate,
+                                                           MeterRegistry meterRegistry) {
+        return new NearCacheCartRepository(cartRedisRepository, cartNearCache, stringRedisTemplate, meterRegistry);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cartInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           NearCacheCartRepository nearCacheCartRepository) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(nearCacheCartRepository,
+                new ChannelTopic(NearCacheCartRepository.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.cart.config;
+
+import com.ecommerce.cart.client.CachingCatalogClient;
+import com.ecommerce.cart.client.CatalogClient;
+import com.ecommerce.cart.client.GuardedCatalogClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Product snapshot cache wrapped around the guarded catalog client.
+ * <p>
+ * Refreshes block on the catalog, so they run on virtual threads of their own rather than on the
+ * common pool. The executor is not a bean, which would replace Boot's application task executor.
+ */
+@Configuration
+public class ProductCacheConfig implements DisposableBean {
+
+    private final ExecutorService refreshExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("product-refresh-", 0).factory());
+
+    @Bean
+    @Primary
+    public CatalogClient cachingCatalogClient(
+            GuardedCatalogClient guardedCatalogClient,
+            @Value("${cart.product-cache.maximum-size:10000}") long maximumSize,
+            @Value("${cart.product-cache.fresh-for:5s}") Duration freshFor,
+            @Value("${cart.product-cache.stale-for:60s}") Duration staleFor,
+            @Value("${cart.product-cache.low-stock-threshold:10}") int lowStockThreshold,
+            MeterRegistry meterRegistry) {
+        return new CachingCatalogClient(guardedCatalogClient, maximumSize, freshFor, staleFor,
+                lowStockThreshold, refreshExecutor, meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -1,21 +1,31 @@
 package com.ecommerce.cart.config;
 
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.repository.serializer.CartBinaryCodec;
+import com.ecommerce.cart.repository.serializer.CartItemBinaryCodec;
+import com.ecommerce.cart.repository.serializer.VersionedRedisSerializer;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
 
+    private static final String BINARY_FORMAT = "binary";
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
@@ -26,23 +36,52 @@ public class RedisConfig {
         template.setKeySerializer(stringSerializer);
         template.setHashKeySerializer(stringSerializer);
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(typedObjectMapper());
+        template.setValueSerializer(jsonSerializer);
+        template.setHashValueSerializer(jsonSerializer);
 
-        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    // Carts are written in the binary format; JSON written by previous versions stays readable
+    @Bean
+    public RedisSerializer<CartItem> cartItemSerializer(
+            @Value("${cart.serialization.format:binary}") String format,
+            @Value("${cart.serialization.compression-threshold:1024}") int compressionThreshold) {
+        return new VersionedRedisSerializer<>(new CartItemBinaryCodec(),
+                new Jackson2JsonRedisSerializer<>(plainObjectMapper(), CartItem.class),
+                BINARY_FORMAT.equalsIgnoreCase(format), compressionThreshold);
+    }
 
+    @Bean
+    public RedisSerializer<Cart> cartSerializer(
+            @Value("${cart.serialization.format:binary}") String format,
+            @Value("${cart.serialization.compression-threshold:1024}") int compressionThreshold) {
+        return new VersionedRedisSerializer<>(new CartBinaryCodec(new CartItemBinaryCodec()),
+                new Jackson2JsonRedisSerializer<>(typedObjectMapper(), Cart.class),
+                BINARY_FORMAT.equalsIgnoreCase(format), compressionThreshold);
+    }
+
+    /**
+     * Mapper of the original whole-document format, with type information on every value.
+     */
+    public static ObjectMapper typedObjectMapper() {
+        ObjectMapper objectMapper = plainObjectMapper();
         objectMapper.activateDefaultTyping(
                 LaissezFaireSubTypeValidator.instance,
                 ObjectMapper.DefaultTyping.NON_FINAL,
                 JsonTypeInfo.As.PROPERTY
         );
+        return objectMapper;
+    }
 
-        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-        template.setValueSerializer(jsonSerializer);
-        template.setHashValueSerializer(jsonSerializer);
+    public static ObjectMapper plainObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
-        template.afterPropertiesSet();
-        return template;
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return objectMapper;
     }
-}
\ No newline at end of file
+}
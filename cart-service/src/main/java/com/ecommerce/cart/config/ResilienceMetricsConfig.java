@@ -0,0 +1,42 @@
+package com.ecommerce.cart.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+/**
+ * Counts the circuit breaker events of the catalog calls ({@code catalogService}), tagged with the
+ * instance name and the event type only. Breakers created lazily on their first call are bound when
+ * they are added to the registry.
+ */
+@Configuration
+public class ResilienceMetricsConfig {
+
+    @Bean
+    public SmartInitializingSingleton resilienceEventMetrics(ObjectProvider<CircuitBreakerRegistry> circuitBreakers,
+                                                             MeterRegistry meterRegistry) {
+        return () -> circuitBreakers.ifAvailable(registry -> {
+            registry.getAllCircuitBreakers().forEach(breaker -> bind(breaker, meterRegistry));
+            registry.getEventPublisher().onEntryAdded(event -> bind(event.getAddedEntry(), meterRegistry));
+        });
+    }
+
+    private static void bind(CircuitBreaker breaker, MeterRegistry meterRegistry) {
+        String name = breaker.getName();
+        breaker.getEventPublisher().onEvent(event -> meterRegistry.counter("cart.catalog.circuit-breaker.events",
+                "name", name, "type", tag(event.getEventType().name())).increment());
+        meterRegistry.gauge("cart.catalog.circuit-breaker.state", Tags.of("name", name), breaker,
+                b -> b.getState().getOrder());
+    }
+
+    private static String tag(String eventType) {
+        return eventType.toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
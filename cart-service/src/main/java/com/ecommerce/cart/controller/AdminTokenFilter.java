@@ -0,0 +1,76 @@
+package com.ecommerce.cart.controller;
+
+import com.ecommerce.cart.config.RedisConfig;
+import com.ecommerce.cart.domain.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+
+/**
+ * Guards the {@code /api/v1/cart/admin} endpoints with a shared secret, {@code cart.admin.token},
+ * sent in the {@value #ADMIN_TOKEN} header. Without a configured token the admin endpoints are
+ * refused altogether.
+ */
+@Component
+@Slf4j
+public class AdminTokenFilter extends OncePerRequestFilter {
+
+    public static final String ADMIN_TOKEN = "X-Admin-Token";
+    static final String ADMIN_PATH = "/api/v1/cart/admin";
+
+    private final ObjectMapper objectMapper = RedisConfig.plainObjectMapper();
+    private final byte[] token;
+
+    public AdminTokenFilter(@Value("${cart.admin.token:}") String token) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        if (token.isEmpty()) {
+            log.info("No cart.admin.token configured, admin endpoints are disabled");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.equals(ADMIN_PATH) && !path.startsWith(ADMIN_PATH + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String provided = request.getHeader(ADMIN_TOKEN);
+        // constant time, the comparison must not tell how much of the token matched
+        if (token.length == 0 || provided == null
+                || !MessageDigest.isEqual(token, provided.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Admin request to {} refused", request.getRequestURI());
+            writeError(response);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void writeError(HttpServletResponse response) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.FORBIDDEN.value())
+                .error(HttpStatus.FORBIDDEN.getReasonPhrase())
+                .message("Admin access denied")
+                .build();
+        response.setStatus(HttpStatus.FORBIDDEN.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(objectMapper.writeValueAsString(error));
+    }
+}
@@ -2,17 +2,25 @@ package com.ecommerce.cart.controller;
 
 import com.ecommerce.cart.domain.service.CartService;
 import com.ecommerce.cart.dto.request.AddItemRequest;
+import com.ecommerce.cart.dto.request.BatchAddItemsRequest;
+import com.ecommerce.cart.dto.request.MergeCartRequest;
 import com.ecommerce.cart.dto.request.UpdateQuantityRequest;
+import com.ecommerce.cart.dto.response.BatchAddItemsResponse;
 import com.ecommerce.cart.dto.response.CartResponse;
+import com.ecommerce.cart.dto.response.CartValidationResponse;
+import com.ecommerce.cart.mapper.CartETag;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/v1/cart")
 @RequiredArgsConstructor
@@ -32,52 +40,108 @@ public class CartController {
     @PostMapping("/{cartId}/items")
     public ResponseEntity<CartResponse> addItem(
             @PathVariable String cartId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody AddItemRequest request) {
 
         log.info("REST request to add item to cart {}: {}", cartId, request);
-        CartResponse cart = cartService.addItem(cartId, request);
+        CartResponse cart = cartService.addItem(cartId, request, CartETag.precondition(ifMatch));
+
+        return ResponseEntity.ok().eTag(cart.getEntityTag()).body(cart);
+    }
+
+    @PostMapping("/{cartId}/items:batch")
+    public ResponseEntity<BatchAddItemsResponse> addItems(
+            @PathVariable String cartId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody BatchAddItemsRequest request) {
+
+        log.info("REST request to add {} items to cart {}", request.getItems().size(), cartId);
+        BatchAddItemsResponse result = cartService.addItems(cartId, request, CartETag.precondition(ifMatch));
+
+        return ResponseEntity.ok().eTag(result.getCart().getEntityTag()).body(result);
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<CartResponse> getCartByUser(@PathVariable String userId) {
+
+        log.info("REST request to get cart of user: {}", userId);
+        CartResponse cart = cartService.getCartByUser(userId);
 
-        return ResponseEntity.ok(cart);
+        return ResponseEntity.ok().eTag(cart.getEntityTag()).body(cart);
+    }
+
+    @PostMapping("/user/{userId}/merge")
+    public ResponseEntity<CartResponse> mergeCarts(
+            @PathVariable String userId,
+            @Valid @RequestBody MergeCartRequest request) {
+
+        log.info("REST request to merge guest cart {} into cart of user {}", request.getGuestCartId(), userId);
+        CartResponse cart = cartService.mergeCarts(userId, request);
+
+        return ResponseEntity.ok().eTag(cart.getEntityTag()).body(cart);
     }
 
     @GetMapping("/{cartId}")
-    public ResponseEntity<CartResponse> getCart(@PathVariable String cartId) {
+    public ResponseEntity<CartResponse> getCart(
+            @PathVariable String cartId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("REST request to get cart: {}", cartId);
+        if (ifNoneMatch != null) {
+            // Polling clients are answered from the version alone while the cart is unchanged
+            Optional<String> etag = cartService.getCartETag(cartId);
+            if (etag.isPresent() && CartETag.matches(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
         CartResponse cart = cartService.getCart(cartId);
 
-        return ResponseEntity.ok(cart);
+        return ResponseEntity.ok().eTag(cart.getEntityTag()).body(cart);
     }
 
 
     @PutMapping("/{cartId}/items/{productId}")
     public ResponseEntity<CartResponse> updateItemQuantity(@PathVariable String cartId, @PathVariable String productId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdateQuantityRequest request) {
 
         log.info("REST request to update quantity in cart {}: productId={}, quantity={}",
                 cartId, productId, request.getQuantity());
 
-        CartResponse cart = cartService.updateItemQuantity(cartId, productId, request);
+        CartResponse cart = cartService.updateItemQuantity(cartId, productId, request,
+                CartETag.precondition(ifMatch));
 
-        return ResponseEntity.ok(cart);
+        return ResponseEntity.ok().eTag(cart.getEntityTag()).body(cart);
     }
 
     @DeleteMapping("/{cartId}/items/{productId}")
     public ResponseEntity<CartResponse> removeItem(
             @PathVariable String cartId,
-            @PathVariable String productId) {
+            @PathVariable String productId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         log.info("REST request to remove item from cart {}: productId={}", cartId, productId);
-        CartResponse cart = cartService.removeItem(cartId, productId);
+        CartResponse cart = cartService.removeItem(cartId, productId, CartETag.precondition(ifMatch));
 
-        return ResponseEntity.ok(cart);
+        return ResponseEntity.ok().eTag(cart.getEntityTag()).body(cart);
+    }
+
+    @PostMapping("/{cartId}/validate")
+    public ResponseEntity<CartValidationResponse> validateCart(@PathVariable String cartId) {
+
+        log.info("REST request to validate cart: {}", cartId);
+        CartValidationResponse validation = cartService.validateCart(cartId);
+
+        return ResponseEntity.ok(validation);
     }
 
     @DeleteMapping("/{cartId}/items")
-    public ResponseEntity<Void> clearCart(@PathVariable String cartId) {
+    public ResponseEntity<Void> clearCart(
+            @PathVariable String cartId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         log.info("REST request to clear cart: {}", cartId);
-        cartService.clearCart(cartId);
+        cartService.clearCart(cartId, CartETag.precondition(ifMatch));
 
         return ResponseEntity.noContent().build();
     }
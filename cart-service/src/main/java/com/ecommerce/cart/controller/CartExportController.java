@@ -0,0 +1,50 @@
+package com.ecommerce.cart.controller;
+
+import com.ecommerce.cart.domain.service.CartExportService;
+import com.ecommerce.cart.dto.response.CartExportLine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/v1/cart/admin")
+@RequiredArgsConstructor
+@Slf4j
+public class CartExportController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final CartExportService cartExportService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Streams every stored cart as NDJSON, flushed page by page. After a disconnect, the export is
+     * resumed by passing the cursor of the last line received.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportCarts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer batchSize) {
+
+        log.info("REST request to export carts from cursor {}", cursor);
+        // parsed before the response starts, so that a bad cursor is still a 400
+        String from = cartExportService.parseCursor(cursor);
+        ObjectWriter writer = objectMapper.writerFor(CartExportLine.class);
+
+        StreamingResponseBody body = output -> cartExportService.export(from, batchSize, lines -> {
+            for (CartExportLine line : lines) {
+                output.write(writer.writeValueAsBytes(line));
+                output.write('\n');
+            }
+            output.flush();
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+}
@@ -0,0 +1,321 @@
+package com.ecommerce.cart.controller;
+
+import com.ecommerce.cart.config.RedisConfig;
+import com.ecommerce.cart.domain.entity.IdempotencyRecord;
+import com.ecommerce.cart.domain.exception.ErrorResponse;
+import com.ecommerce.cart.repository.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@code Idempotency-Key} support for the mutating cart endpoints.
+ * <p>
+ * The first request with a key executes and its response is stored; a retry with the same key,
+ * method and path gets that response replayed without reaching the controller, so neither the
+ * catalog nor the cart is touched again. Duplicates arriving while the first one is still running
+ * wait for it: on this instance through the in-flight future, on other instances by polling the
+ * record. Server errors and conflicts are not stored, a retry after them executes again. Reusing a
+ * key with a different body is rejected with 422.
+ */
+@Component
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final IdempotencyStore idempotencyStore;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = RedisConfig.plainObjectMapper();
+    private final Map<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Duration waitTimeout;
+    private final Duration pollInterval;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore, MeterRegistry meterRegistry,
+                             @Value("${cart.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                             @Value("${cart.idempotency.poll-interval:50ms}") Duration pollInterval) {
+        this.idempotencyStore = idempotencyStore;
+        this.meterRegistry = meterRegistry;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(IDEMPOTENCY_KEY) == null
+                || SAFE_METHODS.contains(request.getMethod())
+                || !request.getRequestURI().startsWith("/api/v1/cart");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Invalid " + IDEMPOTENCY_KEY + " header");
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String scope = request.getMethod() + ":" + request.getRequestURI() + ":" + key;
+        String fingerprint = fingerprint(cachedRequest);
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+            CompletableFuture<IdempotencyRecord> execution = new CompletableFuture<>();
+            CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(scope, execution);
+            if (running != null) {
+                // duplicate of a request executing on this instance
+                IdempotencyRecord outcome = await(running, deadline);
+                if (outcome != null) {
+                    replay(outcome, fingerprint, response, "collapsed");
+                    return;
+                }
+            } else {
+                IdempotencyRecord outcome = null;
+                try {
+                    String owner = instanceId + ":" + UUID.randomUUID();
+                    Optional<IdempotencyRecord> existing =
+                            idempotencyStore.reserve(scope, IdempotencyRecord.pending(owner, fingerprint));
+                    if (existing.isEmpty()) {
+                        outcome = execute(scope, owner, fingerprint, cachedRequest, response, chain);
+                        return;
+                    }
+                    if (existing.get().isCompleted()) {
+                        outcome = existing.get();
+                        replay(outcome, fingerprint, response, "replayed");
+                        return;
+                    }
+                    if (!fingerprint.equals(existing.get().getFingerprint())) {
+                        rejectMismatch(response);
+                        return;
+                    }
+                } finally {
+                    inFlight.remove(scope, execution);
+                    execution.complete(outcome);
+                }
+            }
+
+            // executing on another instance, or finished without a stored outcome: try again
+            if (System.nanoTime() >= deadline || !pause()) {
+                count("in-progress");
+                writeError(response, HttpStatus.CONFLICT,
+                        "A request with this " + IDEMPOTENCY_KEY + " is still in progress, please retry");
+                return;
+            }
+        }
+    }
+
+    private IdempotencyRecord execute(String scope, String owner, String fingerprint, HttpServletRequest request,
+                                      HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        IdempotencyRecord outcome = null;
+        try {
+            chain.doFilter(request, wrapper);
+            if (isReplayable(wrapper.getStatus())) {
+                outcome = IdempotencyRecord.builder()
+                        .owner(owner)
+                        .fingerprint(fingerprint)
+                        .completed(true)
+                        .status(wrapper.getStatus())
+                        .contentType(wrapper.getContentType())
+                        .etag(wrapper.getHeader(HttpHeaders.ETAG))
+                        .body(new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8))
+                        .build();
+                if (!idempotencyStore.complete(scope, outcome)) {
+                    log.warn("Outcome of {} not stored: its reservation expired and was taken over", scope);
+                }
+            }
+            count("executed");
+            return outcome;
+        } finally {
+            if (outcome == null) {
+                idempotencyStore.release(scope, owner);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(IdempotencyRecord record, String fingerprint, HttpServletResponse response, String result)
+            throws IOException {
+        if (!fingerprint.equals(record.getFingerprint())) {
+            rejectMismatch(response);
+            return;
+        }
+        count(result);
+        response.setStatus(record.getStatus());
+        response.setHeader(REPLAYED, "true");
+        if (record.getEtag() != null) {
+            response.setHeader(HttpHeaders.ETAG, record.getEtag());
+        }
+        if (record.getBody() != null && !record.getBody().isEmpty()) {
+            response.setContentType(record.getContentType());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(record.getBody());
+        }
+    }
+
+    private void rejectMismatch(HttpServletResponse response) throws IOException {
+        count("mismatch");
+        writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                IDEMPOTENCY_KEY + " was already used for a different request");
+    }
+
+    // Version conflicts, rate limiting and server errors are transient: a retry must run again
+    private static boolean isReplayable(int status) {
+        return status < 500 && status != HttpStatus.CONFLICT.value()
+                && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private IdempotencyRecord await(CompletableFuture<IdempotencyRecord> running, long deadline) {
+        try {
+            return running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pollInterval.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(objectMapper.writeValueAsString(error));
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("cart.idempotency.requests", "result", result).increment();
+    }
+
+    private static String fingerprint(CachedBodyRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (request.getQueryString() != null) {
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            digest.update(request.body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Keeps the body in memory so it can be fingerprinted and still be read by the controller.
+     * Cart requests are small.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // the whole body is already there: it is available, then read, right away
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() == null ? StandardCharsets.UTF_8.name() : getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+    }
+}
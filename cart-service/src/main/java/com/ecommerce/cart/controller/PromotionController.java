@@ -0,0 +1,49 @@
+package com.ecommerce.cart.controller;
+
+import com.ecommerce.cart.domain.entity.Promotion;
+import com.ecommerce.cart.domain.service.PromotionService;
+import com.ecommerce.cart.dto.request.PromotionRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Promotions are read publicly; they are only written under {@code /api/v1/cart/admin}, which
+ * {@link AdminTokenFilter} guards and the gateway does not route.
+ */
+@RestController
+@RequestMapping("/api/v1/cart")
+@RequiredArgsConstructor
+@Slf4j
+public class PromotionController {
+    private final PromotionService promotionService;
+
+    @GetMapping("/promotions")
+    public ResponseEntity<List<Promotion>> getPromotions() {
+        return ResponseEntity.ok(promotionService.getPromotions());
+    }
+
+    @PutMapping("/admin/promotions/{promotionId}")
+    public ResponseEntity<Promotion> savePromotion(
+            @PathVariable String promotionId,
+            @Valid @RequestBody PromotionRequest request) {
+
+        log.info("REST request to save promotion {}", promotionId);
+        Promotion promotion = promotionService.savePromotion(promotionId, request);
+
+        return ResponseEntity.ok(promotion);
+    }
+
+    @DeleteMapping("/admin/promotions/{promotionId}")
+    public ResponseEntity<Void> deletePromotion(@PathVariable String promotionId) {
+
+        log.info("REST request to delete promotion {}", promotionId);
+        promotionService.deletePromotion(promotionId);
+
+        return ResponseEntity.noContent().build();
+    }
+}
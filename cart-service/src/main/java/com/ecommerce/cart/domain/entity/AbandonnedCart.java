@@ -1,4 +1,36 @@
 package com.ecommerce.cart.domain.entity;
 
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
 public class AbandonnedCart {
+    private String cartId;
+    private String userId;
+    private List<String> productIds;
+    private int totalItems;
+    private BigDecimal subtotal;
+    private LocalDateTime lastActivityAt;
+    private LocalDateTime abandonedAt;
+
+    public static AbandonnedCart of(Cart cart, LocalDateTime abandonedAt) {
+        return AbandonnedCart.builder()
+                .cartId(cart.getCartId())
+                .userId(cart.getUserId())
+                .productIds(cart.getItems().stream().map(CartItem::getProductId).toList())
+                .totalItems(cart.getTotalItems())
+                .subtotal(cart.getSubtotal())
+                .lastActivityAt(cart.getUpdatedAt())
+                .abandonedAt(abandonedAt)
+                .build();
+    }
 }
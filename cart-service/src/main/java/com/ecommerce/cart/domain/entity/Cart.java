@@ -1,18 +1,24 @@
 package com.ecommerce.cart.domain.entity;
 
+import com.ecommerce.cart.domain.enums.CartEventType;
+import com.ecommerce.cart.domain.enums.CartStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Cart implements Serializable {
     private String cartId;
     private String userId;
@@ -23,70 +29,237 @@ public class Cart implements Serializable {
     private BigDecimal totalPrice;
     private BigDecimal subtotal;
     private BigDecimal total;
+    private BigDecimal discount;
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime expiresAt;
+    private LocalDateTime revalidatedAt;
+
+    @Builder.Default
+    private CartStatus status = CartStatus.ACTIVE;
+
+    private long version;
+
+    // Product index and running totals over items, rebuilt whenever items is replaced or resized
+    // behind the cart's back. Lines whose quantity or price is changed directly need calculateTotals().
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final LineIndex lineIndex = new LineIndex();
+
+    // Change events waiting for the next write, which appends them to the event stream
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final List<CartEvent> pendingEvents = new ArrayList<>();
 
     public void addItem(CartItem newItem) {
-        CartItem existingItem = items.stream()
-                .filter(item -> item.getProductId().equals(newItem.getProductId()))
-                .findFirst()
-                .orElse(null);
+        LineIndex index = index();
+        CartItem existingItem = index.lines.get(newItem.getProductId());
 
         if (existingItem != null) {
             int newQuantity = existingItem.getQuantity() + newItem.getQuantity();
-            existingItem.setQuantity(newQuantity);
+            index.changeQuantity(existingItem, newQuantity);
         } else {
             this.items.add(newItem);
+            index.add(newItem);
         }
-        this.updatedAt = LocalDateTime.now();
-        calculateTotals();
+        touch();
+        applyTotals();
     }
 
     public void removeItem(String productId) {
-        this.items.removeIf(item -> item.getProductId().equals(productId));
-        this.updatedAt = LocalDateTime.now();
-        calculateTotals();
+        LineIndex index = index();
+        CartItem removed = index.lines.get(productId);
+        if (removed != null) {
+            // identity scan, no equals() on every line
+            for (int i = 0; i < items.size(); i++) {
+                if (items.get(i) == removed) {
+                    items.remove(i);
+                    break;
+                }
+            }
+            index.remove(removed);
+        }
+        touch();
+        applyTotals();
     }
 
     public void updateItemQuantity(String productId, int quantity) {
-        CartItem updatedItem =  items.stream()
-                .filter(item -> item.getProductId().equals(productId))
-                .findFirst()
-                .orElse(null);
+        LineIndex index = index();
+        CartItem updatedItem = index.lines.get(productId);
         if (updatedItem != null) {
-            updatedItem.setQuantity(quantity);
-            this.updatedAt = LocalDateTime.now();
-            calculateTotals();
+            index.changeQuantity(updatedItem, quantity);
+            touch();
+            applyTotals();
+        }
+    }
+    /**
+     * Applies catalog data to a line without touching {@code updatedAt}.
+     *
+     * @return whether the line changed
+     */
+    public boolean repriceItem(String productId, BigDecimal unitPrice, boolean available) {
+        LineIndex index = index();
+        CartItem item = index.lines.get(productId);
+        if (item == null || (item.getUnitPrice().compareTo(unitPrice) == 0 && item.isAvailable() == available)) {
+            return false;
         }
+        index.reprice(item, unitPrice);
+        item.setAvailable(available);
+        applyTotals();
+        return true;
     }
+
+    /**
+     * Makes an abandoned cart active again, for a shopper coming back to it.
+     */
+    public void reactivate() {
+        touch();
+    }
+
     public void clear() {
         this.items.clear();
-        this.updatedAt = LocalDateTime.now();
+        touch();
         calculateTotals();
     }
 
     public void calculateTotals() {
-        BigDecimal cumul = BigDecimal.ZERO;
+        lineIndex.rebuild(items);
+        applyTotals();
+    }
 
-        if (items != null) {
-            for (CartItem item : items) {
-                BigDecimal montantLigne = item.getLineTotal();
-                cumul = cumul.add(montantLigne);
-            }
+    /**
+     * Sets the promotion discount and the total after discount. The discount is derived data: any
+     * change to the lines resets it, and it is applied again when the cart is priced.
+     */
+    public void applyDiscount(long discountCents) {
+        long applied = Math.max(0, Math.min(discountCents, index().subtotalCents));
+        this.discount = Money.fromCents(applied);
+        this.total = Money.fromCents(index().subtotalCents - applied);
+    }
+
+    public void recordEvent(CartEventType type, String productId, Integer quantity) {
+        pendingEvents.add(CartEvent.builder()
+                .type(type)
+                .cartId(cartId)
+                .userId(userId)
+                .productId(productId)
+                .quantity(quantity)
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Hands the recorded events over to the write that persists them, they are recorded again if
+     * that write has to be retried.
+     */
+    public List<CartEvent> drainEvents() {
+        if (pendingEvents.isEmpty()) {
+            return List.of();
         }
-        this.subtotal = cumul;
-        this.totalPrice = this.subtotal;
+        List<CartEvent> events = new ArrayList<>(pendingEvents);
+        pendingEvents.clear();
+        return events;
+    }
+
+    public Optional<CartItem> findItem(String productId) {
+        return Optional.ofNullable(index().lines.get(productId));
     }
 
     public int getTotalItems() {
-        return items.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+        return index().totalItems;
     }
+    /**
+     * Deep copy, lines included, for callers that must not share a cart instance.
+     */
+    public Cart copy() {
+        Cart copy = toBuilder().items(new ArrayList<>(items.size())).build();
+        for (CartItem item : items) {
+            copy.items.add(item.toBuilder().build());
+        }
+        return copy;
+    }
+
     public static String generateCartId() {
         return "CART-" + UUID.randomUUID().toString();
     }
 
-}
\ No newline at end of file
+    // Any change by the shopper makes an abandoned cart active again
+    private void touch() {
+        this.updatedAt = LocalDateTime.now();
+        this.status = CartStatus.ACTIVE;
+    }
+
+    private LineIndex index() {
+        if (lineIndex.isStale(items)) {
+            lineIndex.rebuild(items);
+        }
+        return lineIndex;
+    }
+
+    private void applyTotals() {
+        this.subtotal = Money.fromCents(lineIndex.subtotalCents);
+        this.totalPrice = this.subtotal;
+        this.discount = Money.fromCents(0);
+        this.total = this.subtotal;
+    }
+
+    private static final class LineIndex implements Serializable {
+        private final Map<String, CartItem> lines = new HashMap<>();
+        private List<CartItem> source;
+        private int size;
+        private long subtotalCents;
+        private int totalItems;
+
+        boolean isStale(List<CartItem> items) {
+            return source != items || items == null || size != items.size();
+        }
+
+        void rebuild(List<CartItem> items) {
+            lines.clear();
+            source = items;
+            size = 0;
+            subtotalCents = 0;
+            totalItems = 0;
+            if (items != null) {
+                for (CartItem item : items) {
+                    add(item);
+                }
+            }
+        }
+
+        void add(CartItem item) {
+            lines.putIfAbsent(item.getProductId(), item);
+            size++;
+            subtotalCents += item.getLineTotalCents();
+            totalItems += item.getQuantity();
+        }
+
+        void remove(CartItem item) {
+            lines.remove(item.getProductId());
+            size--;
+            subtotalCents -= item.getLineTotalCents();
+            totalItems -= item.getQuantity();
+        }
+
+        void reprice(CartItem item, BigDecimal unitPrice) {
+            subtotalCents -= item.getLineTotalCents();
+            item.setUnitPrice(unitPrice);
+            subtotalCents += item.getLineTotalCents();
+        }
+
+        void changeQuantity(CartItem item, int quantity) {
+            subtotalCents -= item.getLineTotalCents();
+            totalItems -= item.getQuantity();
+            item.setQuantity(quantity);
+            subtotalCents += item.getLineTotalCents();
+            totalItems += item.getQuantity();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.cart.domain.entity;
+
+import com.ecommerce.cart.domain.enums.CartEventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entry of the cart event stream. {@code version} is the cart version the change produced, and
+ * {@code id} the stream entry id, only set on events read back from the stream.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CartEvent {
+    private String id;
+    private CartEventType type;
+    private String cartId;
+    private String userId;
+    private String productId;
+    private Integer quantity;
+    private String guestCartId;
+    private long version;
+    private LocalDateTime occurredAt;
+}
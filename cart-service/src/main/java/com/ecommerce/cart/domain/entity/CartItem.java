@@ -1,29 +1,39 @@
 package com.ecommerce.cart.domain.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class CartItem {
     private String itemId;
     private String productId;
     private String productName;
     private String productImage;
+    private String category;
     private int quantity;
     private BigDecimal unitPrice;
 
     private boolean available;
 
+    private LocalDateTime addedAt;
+
     public BigDecimal getLineTotal() {
         return unitPrice.multiply(BigDecimal.valueOf(quantity));
     }
+
+    @JsonIgnore
+    public long getLineTotalCents() {
+        return Money.times(Money.toCents(unitPrice), quantity);
+    }
     public static String generateItemId() {
         return "ITEM-" + UUID.randomUUID().toString();
     }
@@ -0,0 +1,34 @@
+package com.ecommerce.cart.domain.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a request sent with an {@code Idempotency-Key}. A pending record only reserves the key
+ * for the instance executing the request; a completed one holds the response to replay.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class IdempotencyRecord {
+    private String owner;
+    private String fingerprint;
+    private boolean completed;
+    private int status;
+    private String contentType;
+    private String etag;
+    private String body;
+
+    public static IdempotencyRecord pending(String owner, String fingerprint) {
+        return IdempotencyRecord.builder().owner(owner).fingerprint(fingerprint).build();
+    }
+
+    @JsonIgnore
+    public boolean isPending() {
+        return !completed;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.cart.domain.entity;
+
+import com.ecommerce.cart.domain.enums.DiscountType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A discount rule. It applies to the lines whose product is in {@code productIds} or whose category
+ * is in {@code categories}, and to every line when both are empty. A line gets the single best
+ * discount among the promotions that apply to it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Promotion {
+    private String promotionId;
+    private String name;
+    private DiscountType type;
+    private BigDecimal value;
+    private Integer buyQuantity;
+    private Integer freeQuantity;
+
+    @Builder.Default
+    private Set<String> productIds = new HashSet<>();
+
+    @Builder.Default
+    private Set<String> categories = new HashSet<>();
+
+    private LocalDateTime startsAt;
+    private LocalDateTime endsAt;
+
+    @Builder.Default
+    private boolean active = true;
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.cart.domain.enums;
+
+public enum CartEventType {
+    // quantity is the quantity added
+    ITEM_ADDED,
+    // quantity is the new line quantity
+    ITEM_UPDATED,
+    ITEM_REMOVED,
+    CART_CLEARED,
+    CART_DELETED,
+    CARTS_MERGED
+}
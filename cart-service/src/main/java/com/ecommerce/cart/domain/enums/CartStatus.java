@@ -1,4 +1,6 @@
 package com.ecommerce.cart.domain.enums;
 
 public enum CartStatus {
+    ACTIVE,
+    ABANDONED
 }
@@ -1,4 +1,10 @@
 package com.ecommerce.cart.domain.enums;
 
 public enum DiscountType {
+    // value is a percentage of the line total
+    PERCENTAGE,
+    // value is taken off the unit price
+    FIXED_AMOUNT,
+    // every buyQuantity + freeQuantity units, freeQuantity are free
+    BUY_X_GET_Y
 }
@@ -0,0 +1,7 @@
+package com.ecommerce.cart.domain.exception;
+
+public class CartAccessDeniedException extends RuntimeException {
+    public CartAccessDeniedException(String message) {
+        super(message);
+    }
+}
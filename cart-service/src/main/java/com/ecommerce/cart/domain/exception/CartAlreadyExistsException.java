@@ -0,0 +1,7 @@
+package com.ecommerce.cart.domain.exception;
+
+public class CartAlreadyExistsException extends RuntimeException {
+    public CartAlreadyExistsException(String message) {
+        super(message);
+    }
+}
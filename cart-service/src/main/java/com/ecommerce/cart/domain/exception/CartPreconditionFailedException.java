@@ -0,0 +1,7 @@
+package com.ecommerce.cart.domain.exception;
+
+public class CartPreconditionFailedException extends RuntimeException {
+    public CartPreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.cart.domain.exception;
+
+public class CartVersionConflictException extends RuntimeException {
+    public CartVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.cart.domain.exception;
+
+public class InvalidPromotionException extends RuntimeException {
+    public InvalidPromotionException(String message) {
+        super(message);
+    }
+}
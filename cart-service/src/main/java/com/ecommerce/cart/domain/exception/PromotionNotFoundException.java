@@ -0,0 +1,7 @@
+package com.ecommerce.cart.domain.exception;
+
+public class PromotionNotFoundException extends RuntimeException {
+    public PromotionNotFoundException(String message) {
+        super(message);
+    }
+}
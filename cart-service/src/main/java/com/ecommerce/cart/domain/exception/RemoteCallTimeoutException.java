@@ -0,0 +1,7 @@
+package com.ecommerce.cart.domain.exception;
+
+public class RemoteCallTimeoutException extends RuntimeException {
+    public RemoteCallTimeoutException(String message) {
+        super(message);
+    }
+}
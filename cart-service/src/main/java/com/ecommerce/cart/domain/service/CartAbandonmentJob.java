@@ -0,0 +1,105 @@
+package com.ecommerce.cart.domain.service;
+
+import com.ecommerce.cart.domain.entity.AbandonnedCart;
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.enums.CartStatus;
+import com.ecommerce.cart.domain.exception.CartVersionConflictException;
+import com.ecommerce.cart.repository.AbandonedCartRepository;
+import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.cart.repository.JobLock;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Marks carts idle for longer than {@code cart.abandonment.idle-after} as abandoned.
+ * <p>
+ * Idle carts are read from the low end of the activity index, one bounded batch at a time. A cart
+ * that gets marked, or that has expired, leaves the index, so the index itself is the cursor and
+ * a run holds no more than one batch in memory. Carts that could not be processed stay in place
+ * and are skipped with an offset until the next run.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cart.abandonment", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CartAbandonmentJob {
+
+    private final CartRepository cartRepository;
+    private final AbandonedCartRepository abandonedCartRepository;
+    private final JobLock jobLock;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cart.abandonment.idle-after:24h}")
+    private Duration idleAfter;
+
+    @Value("${cart.abandonment.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cart.abandonment.interval:5m}")
+    private Duration interval;
+
+    @Scheduled(fixedDelayString = "${cart.abandonment.interval:5m}",
+            initialDelayString = "${cart.abandonment.initial-delay:2m}")
+    public void detectAbandonedCarts() {
+        jobLock.runExclusively("abandonment", interval, () -> {
+            int abandoned = processIdleCarts(LocalDateTime.now());
+            log.info("Abandoned cart detection done: {} carts abandoned", abandoned);
+        });
+    }
+
+    public int processIdleCarts(LocalDateTime now) {
+        LocalDateTime idleSince = now.minus(idleAfter);
+        int skipped = 0;
+        int abandoned = 0;
+        List<String> cartIds;
+        do {
+            cartIds = cartRepository.findIdleCartIds(idleSince, skipped, batchSize);
+            for (String cartId : cartIds) {
+                String result = process(cartId, idleSince, now);
+                meterRegistry.counter("cart.abandonment.carts", "result", result).increment();
+                if ("abandoned".equals(result)) {
+                    abandoned++;
+                } else if ("failed".equals(result)) {
+                    skipped++;
+                }
+            }
+        } while (cartIds.size() == batchSize);
+        return abandoned;
+    }
+
+    private String process(String cartId, LocalDateTime idleSince, LocalDateTime now) {
+        try {
+            Optional<Cart> found = cartRepository.findById(cartId);
+            if (found.isEmpty()) {
+                // expired through its TTL
+                cartRepository.removeFromActivityIndex(cartId);
+                return "expired";
+            }
+            Cart cart = found.get();
+            if (cart.getUpdatedAt() != null && cart.getUpdatedAt().isAfter(idleSince)) {
+                // touched since the index was read, its score has moved on already
+                return "active";
+            }
+            cart.setStatus(CartStatus.ABANDONED);
+            // keeps the remaining TTL, an abandoned cart must still expire on time
+            cartRepository.saveHeader(cart, true);
+            abandonedCartRepository.save(AbandonnedCart.of(cart, now));
+            return "abandoned";
+        } catch (CartVersionConflictException e) {
+            return "failed";
+        } catch (RuntimeException e) {
+            log.warn("Abandoned cart detection failed for cart {}: {}", cartId, e.getMessage());
+            return "failed";
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.ecommerce.cart.domain.service;
+
+import com.ecommerce.cart.domain.entity.CartEvent;
+import com.ecommerce.cart.repository.CartEventStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs the {@link CartEventHandler} beans against the event stream.
+ * <p>
+ * Each handler gets {@code consumers-per-group} consumers on this instance, each one a virtual
+ * thread looping over: read a batch, handle it, acknowledge what succeeded. The next batch is only
+ * read once the current one is done, so a slow handler slows its own reads down instead of piling
+ * up events in memory. Events left pending longer than {@code retry-after}, by a failure here or a
+ * consumer that died elsewhere, are claimed and handled again; after {@code max-deliveries} they
+ * go to the dead-letter stream.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cart.events.consumers", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class CartEventConsumers implements SmartLifecycle {
+
+    private final CartEventStream eventStream;
+    private final List<CartEventHandler> handlers;
+    private final MeterRegistry meterRegistry;
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Value("${cart.events.consumers.consumers-per-group:1}")
+    private int consumersPerGroup;
+
+    @Value("${cart.events.consumers.batch-size:100}")
+    private int batchSize;
+
+    @Value("${cart.events.consumers.block:2s}")
+    private Duration block;
+
+    @Value("${cart.events.consumers.retry-after:30s}")
+    private Duration retryAfter;
+
+    @Value("${cart.events.consumers.max-deliveries:5}")
+    private int maxDeliveries;
+
+    public CartEventConsumers(CartEventStream eventStream, List<CartEventHandler> handlers, MeterRegistry meterRegistry) {
+        this.eventStream = eventStream;
+        this.handlers = handlers;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        for (CartEventHandler handler : handlers) {
+            for (int i = 0; i < consumersPerGroup; i++) {
+                String consumer = handler.group() + "-" + instanceId + "-" + i;
+                workers.add(Thread.ofVirtual().name("cart-events-" + consumer).start(() -> consume(handler, consumer)));
+            }
+        }
+        log.info("Started {} cart event consumers for {} handlers", workers.size(), handlers.size());
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                // a worker notices the flag once its blocking read returns
+                worker.join(block.plusSeconds(1).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void consume(CartEventHandler handler, String consumer) {
+        String group = handler.group();
+        boolean groupReady = false;
+        long nextRecovery = 0;
+        while (running) {
+            try {
+                if (!groupReady) {
+                    eventStream.createGroup(group);
+                    groupReady = true;
+                }
+                if (System.nanoTime() >= nextRecovery) {
+                    recover(handler, consumer);
+                    nextRecovery = System.nanoTime() + retryAfter.toNanos() / 2;
+                }
+                dispatch(handler, eventStream.read(group, consumer, batchSize, block));
+            } catch (RuntimeException e) {
+                log.warn("Cart event consumer {} failed: {}", consumer, e.getMessage());
+                pause();
+            }
+        }
+    }
+
+    /**
+     * Handles a batch and acknowledges the events handled successfully; the others stay pending.
+     */
+    public void dispatch(CartEventHandler handler, List<CartEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<String> handled = new ArrayList<>(events.size());
+        for (CartEvent event : events) {
+            try {
+                handler.handle(event);
+                handled.add(event.getId());
+            } catch (RuntimeException e) {
+                count(handler, "failed");
+                log.warn("Cart event {} ({}) failed in {}: {}", event.getId(), event.getType(), handler.group(), e.getMessage());
+            }
+        }
+        eventStream.acknowledge(handler.group(), handled);
+        count(handler, "handled", handled.size());
+    }
+
+    /**
+     * Claims the events pending for too long in the handler's group and handles them again, or
+     * dead-letters them once they were delivered {@code max-deliveries} times.
+     */
+    public void recover(CartEventHandler handler, String consumer) {
+        List<String> retry = new ArrayList<>();
+        List<String> dead = new ArrayList<>();
+        for (PendingMessage message : eventStream.pending(handler.group(), batchSize)) {
+            if (message.getElapsedTimeSinceLastDelivery().compareTo(retryAfter) < 0) {
+                continue;
+            }
+            if (message.getTotalDeliveryCount() >= maxDeliveries) {
+                dead.add(message.getIdAsString());
+            } else {
+                retry.add(message.getIdAsString());
+            }
+        }
+        if (!dead.isEmpty()) {
+            eventStream.deadLetter(handler.group(), dead);
+            count(handler, "dead-lettered", dead.size());
+            log.warn("{} cart events moved to {} after {} deliveries in {}", dead.size(),
+                    CartEventStream.DEAD_LETTER_KEY, maxDeliveries, handler.group());
+        }
+        dispatch(handler, eventStream.claim(handler.group(), consumer, retryAfter, retry));
+    }
+
+    private void count(CartEventHandler handler, String result) {
+        count(handler, result, 1);
+    }
+
+    private void count(CartEventHandler handler, String result, int amount) {
+        meterRegistry.counter("cart.events.consumed", "group", handler.group(), "result", result).increment(amount);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(block.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
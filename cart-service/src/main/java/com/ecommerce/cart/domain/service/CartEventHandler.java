@@ -0,0 +1,17 @@
+package com.ecommerce.cart.domain.service;
+
+import com.ecommerce.cart.domain.entity.CartEvent;
+
+/**
+ * Downstream consumer of the cart event stream. Every handler bean gets its own consumer group,
+ * so each handler sees every event once, while the instances of the service share the work.
+ * <p>
+ * Delivery is at least once: an event whose handling throws is redelivered, possibly to another
+ * instance, so handlers must tolerate duplicates.
+ */
+public interface CartEventHandler {
+
+    String group();
+
+    void handle(CartEvent event);
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.cart.domain.service;
+
+import com.ecommerce.cart.domain.entity.CartEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cart activity counters, by event type, fed from the event stream instead of the request path.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cart.events.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CartEventMetricsHandler implements CartEventHandler {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public String group() {
+        return "cart-metrics";
+    }
+
+    @Override
+    public void handle(CartEvent event) {
+        meterRegistry.counter("cart.activity", "type", event.getType().name()).increment();
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.cart.domain.service;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.exception.InvalidCartOperationException;
+import com.ecommerce.cart.dto.response.CartExportLine;
+import com.ecommerce.cart.mapper.MapperToResponse;
+import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.cart.repository.CartScan;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Exports every stored cart, abandoned and legacy ones included, by walking the cart keyspace one
+ * bounded step at a time: memory use depends on the batch size only, never on the number of carts.
+ * <p>
+ * Every line carries the cursor of the step it was read in, so an export resumed from the last
+ * line received reads that step again. A cart stored from the start to the end of an export is
+ * never missed, including across a resumed export, but it may be written more than once, and a
+ * cart updated during the export may be written with either state: readers keep the last line of
+ * each cart. The closing line carries no cursor.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CartExportService {
+
+    private final CartRepository cartRepository;
+    private final MapperToResponse response;
+
+    @Value("${cart.export.batch-size:200}")
+    private int defaultBatchSize;
+
+    @Value("${cart.export.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    @FunctionalInterface
+    public interface LineWriter {
+        void write(List<CartExportLine> lines) throws IOException;
+    }
+
+    /**
+     * Position an export resumes from, the start of the walk when there is no cursor.
+     */
+    public String parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return CartScan.START;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (position.isEmpty()) {
+                throw new IllegalArgumentException("empty cursor");
+            }
+            return position;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCartOperationException("Invalid export cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Writes the carts from {@code from}, one step of the walk per call of the writer, then the
+     * closing line.
+     *
+     * @return the number of carts written
+     */
+    public long export(String from, Integer batchSize, LineWriter writer) throws IOException {
+        int limit = batchSize == null ? defaultBatchSize : Math.max(1, Math.min(batchSize, maxBatchSize));
+        String position = from;
+        long exported = 0;
+        CartScan step;
+        do {
+            step = cartRepository.scanCarts(position, limit);
+            if (!step.cartIds().isEmpty()) {
+                String cursor = cursor(position);
+                List<CartExportLine> lines = new ArrayList<>(step.cartIds().size());
+                // deleted or expired since the step was read: absent from the result
+                for (Cart cart : cartRepository.findAllById(step.cartIds())) {
+                    lines.add(CartExportLine.builder()
+                            .cursor(cursor)
+                            .cart(response.mapToResponse(cart))
+                            .build());
+                }
+                if (!lines.isEmpty()) {
+                    writer.write(lines);
+                    exported += lines.size();
+                }
+            }
+            position = step.cursor();
+        } while (!step.isComplete());
+
+        writer.write(List.of(CartExportLine.builder()
+                .end(true)
+                .exported(exported)
+                .build()));
+        log.info("Cart export finished: {} carts", exported);
+        return exported;
+    }
+
+    private static String cursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+}
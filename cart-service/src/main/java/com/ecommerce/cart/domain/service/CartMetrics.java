@@ -0,0 +1,160 @@
+package com.ecommerce.cart.domain.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Latency of the cart operations, in total ({@code cart.operation}) and split by phase
+ * ({@code cart.operation.phase}): Redis read, catalog call, domain mutation, Redis write, response mapping.
+ * <p>
+ * Tags are limited to the operation name, the phase and the outcome. Timers are registered once per
+ * operation and a {@link Stopwatch} only accumulates {@link System#nanoTime()} deltas, recording
+ * each phase once when the operation completes: a lap costs a few tens of nanoseconds.
+ * <p>
+ * Also tracks the shape of the carts read from Redis: serialized size and number of lines.
+ */
+@Component
+public class CartMetrics {
+
+    public enum Phase {
+        REDIS_READ("redis-read"),
+        CATALOG("catalog"),
+        MUTATION("mutation"),
+        REDIS_WRITE("redis-write"),
+        MAPPING("mapping");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OperationTimers> operations = new ConcurrentHashMap<>();
+    private final DistributionSummary serializedSize;
+    private final DistributionSummary lines;
+
+    public CartMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.serializedSize = DistributionSummary.builder("cart.serialized.size")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(64.0)
+                .maximumExpectedValue(1_048_576.0)
+                .register(meterRegistry);
+        this.lines = DistributionSummary.builder("cart.lines")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(200.0)
+                .register(meterRegistry);
+    }
+
+    public void recordCart(long serializedBytes, int lineCount) {
+        serializedSize.record(serializedBytes);
+        lines.record(lineCount);
+    }
+
+    public <T> T record(String operation, Function<Stopwatch, T> body) {
+        Stopwatch stopwatch = start(operation);
+        try {
+            T result = body.apply(stopwatch);
+            stopwatch.stop(true);
+            return result;
+        } catch (RuntimeException e) {
+            stopwatch.stop(false);
+            throw e;
+        }
+    }
+
+    public void run(String operation, Consumer<Stopwatch> body) {
+        record(operation, stopwatch -> {
+            body.accept(stopwatch);
+            return null;
+        });
+    }
+
+    public Stopwatch start(String operation) {
+        return new Stopwatch(operations.computeIfAbsent(operation, this::register));
+    }
+
+    private OperationTimers register(String operation) {
+        Timer[] phases = new Timer[PHASES.length];
+        for (Phase phase : PHASES) {
+            phases[phase.ordinal()] = histogram(Timer.builder("cart.operation.phase")
+                    .tag("operation", operation)
+                    .tag("phase", phase.tag));
+        }
+        return new OperationTimers(
+                histogram(Timer.builder("cart.operation").tag("operation", operation).tag("outcome", "success")),
+                histogram(Timer.builder("cart.operation").tag("operation", operation).tag("outcome", "error")),
+                phases);
+    }
+
+    private Timer histogram(Timer.Builder builder) {
+        return builder
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    private record OperationTimers(Timer success, Timer error, Timer[] phases) {
+    }
+
+    /**
+     * Times one execution of an operation. Not thread-safe: laps are taken by the request thread.
+     */
+    public static final class Stopwatch {
+        private final OperationTimers timers;
+        private final long start;
+        private final long[] elapsed = new long[PHASES.length];
+        private long mark;
+        private int lapped;
+
+        private Stopwatch(OperationTimers timers) {
+            this.timers = timers;
+            this.start = System.nanoTime();
+            this.mark = start;
+        }
+
+        /**
+         * Charges the time since the previous lap to the phase.
+         */
+        public void lap(Phase phase) {
+            long now = System.nanoTime();
+            elapsed[phase.ordinal()] += now - mark;
+            lapped |= 1 << phase.ordinal();
+            mark = now;
+        }
+
+        /**
+         * Same as {@link #lap(Phase)}, passing the value through: {@code lap(REDIS_READ, repository.findById(id))}.
+         */
+        public <T> T lap(Phase phase, T value) {
+            lap(phase);
+            return value;
+        }
+
+        private void stop(boolean success) {
+            long total = System.nanoTime() - start;
+            (success ? timers.success() : timers.error()).record(total, TimeUnit.NANOSECONDS);
+            for (int i = 0; i < elapsed.length; i++) {
+                if ((lapped & (1 << i)) != 0) {
+                    timers.phases()[i].record(elapsed[i], TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.cart.domain.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Cart versions a conditional update ({@code If-Match}) may be applied to; {@link #NONE} applies it
+ * to whatever version the cart is at.
+ */
+public final class CartPrecondition {
+
+    public static final CartPrecondition NONE = new CartPrecondition(null);
+
+    private final Set<Long> versions;
+
+    private CartPrecondition(Set<Long> versions) {
+        this.versions = versions;
+    }
+
+    public static CartPrecondition anyOf(Collection<Long> versions) {
+        return new CartPrecondition(Set.copyOf(versions));
+    }
+
+    public boolean isConditional() {
+        return versions != null;
+    }
+
+    public boolean isSatisfiedBy(long version) {
+        return versions == null || versions.contains(version);
+    }
+
+    @Override
+    public String toString() {
+        return versions == null ? "any version" : "version " + (versions.size() == 1
+                ? versions.iterator().next().toString() : "in " + versions);
+    }
+}
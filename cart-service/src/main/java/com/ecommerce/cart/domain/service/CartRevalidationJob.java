@@ -0,0 +1,64 @@
+package com.ecommerce.cart.domain.service;
+
+import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.cart.repository.JobLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodic background revalidation of all carts, in batches with a pause in between so that the
+ * catalog and Redis only see a trickle of extra load. One instance at a time runs it.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cart.revalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CartRevalidationJob {
+
+    private final CartRepository cartRepository;
+    private final CartRevalidationService revalidationService;
+    private final JobLock jobLock;
+
+    @Value("${cart.revalidation.batch-size:100}")
+    private int batchSize;
+
+    @Value("${cart.revalidation.pause-between-batches:200ms}")
+    private Duration pauseBetweenBatches;
+
+    @Value("${cart.revalidation.interval:10m}")
+    private Duration interval;
+
+    @Scheduled(fixedDelayString = "${cart.revalidation.interval:10m}",
+            initialDelayString = "${cart.revalidation.initial-delay:1m}")
+    public void revalidateCarts() {
+        jobLock.runExclusively("revalidation", interval, () -> {
+            AtomicInteger batches = new AtomicInteger();
+            try {
+                cartRepository.scanCartIds(batchSize, cartIds -> {
+                    revalidationService.revalidate(cartIds);
+                    batches.incrementAndGet();
+                    pause();
+                });
+                log.info("Cart revalidation done: {} batches", batches.get());
+            } catch (RuntimeException e) {
+                log.error("Cart revalidation stopped after {} batches: {}", batches.get(), e.getMessage());
+            }
+        });
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(pauseBetweenBatches.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cart revalidation interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.ecommerce.cart.domain.service;
+
+import com.ecommerce.cart.client.CatalogClient;
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.exception.CartVersionConflictException;
+import com.ecommerce.cart.dto.external.AvailabilityDTO;
+import com.ecommerce.cart.dto.external.BatchAvailabilityRequest;
+import com.ecommerce.cart.dto.external.BatchGetProductsRequest;
+import com.ecommerce.cart.dto.external.ProductDTO;
+import com.ecommerce.cart.repository.CartRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Refreshes line prices and availability flags from the catalog and records when it was done, so
+ * that a recently revalidated cart can be trusted without asking the catalog again. Availability
+ * is the catalog's own answer with the cart as holder: the stock held by other carts is not
+ * available, what the cart holds itself is.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CartRevalidationService {
+
+    // the catalog's limit for one availability check
+    private static final int MAX_AVAILABILITY_ITEMS = 500;
+
+    private final CartRepository cartRepository;
+    private final CatalogClient catalogClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cart.revalidation.max-age:15m}")
+    private Duration maxAge;
+
+    public boolean isFresh(Cart cart) {
+        return cart.getRevalidatedAt() != null
+                && cart.getRevalidatedAt().isAfter(LocalDateTime.now().minus(maxAge));
+    }
+
+    /**
+     * Revalidates the stale carts among {@code cartIds} with a single product lookup and a single
+     * availability check. A cart modified in the meantime is skipped, it will be picked up by the
+     * next run.
+     */
+    public void revalidate(List<String> cartIds) {
+        List<Cart> carts = cartIds.stream()
+                .map(cartRepository::findById)
+                .flatMap(Optional::stream)
+                .filter(cart -> !cart.getItems().isEmpty() && !isFresh(cart))
+                .collect(Collectors.toList());
+        if (carts.isEmpty()) {
+            return;
+        }
+
+        Map<String, ProductDTO> products = fetchProducts(carts.stream()
+                .flatMap(cart -> cart.getItems().stream())
+                .map(CartItem::getProductId)
+                .collect(Collectors.toSet()));
+        Map<String, AvailabilityDTO> availability = checkAvailability(carts);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Cart cart : carts) {
+            try {
+                String result = apply(cart, products, availability, now) ? "updated" : "unchanged";
+                meterRegistry.counter("cart.revalidation.carts", "result", result).increment();
+            } catch (CartVersionConflictException e) {
+                meterRegistry.counter("cart.revalidation.carts", "result", "conflict").increment();
+            } catch (RuntimeException e) {
+                log.warn("Revalidation of cart {} failed: {}", cart.getCartId(), e.getMessage());
+                meterRegistry.counter("cart.revalidation.carts", "result", "failed").increment();
+            }
+        }
+    }
+
+    /**
+     * Synchronous revalidation of one cart, used when a cart is needed fresh and is not.
+     */
+    public Cart revalidate(Cart cart) {
+        if (cart.getItems().isEmpty()) {
+            apply(cart, Map.of(), Map.of(), LocalDateTime.now());
+            return cart;
+        }
+        Set<String> productIds = cart.getItems().stream()
+                .map(CartItem::getProductId)
+                .collect(Collectors.toSet());
+        apply(cart, fetchProducts(productIds), checkAvailability(List.of(cart)), LocalDateTime.now());
+        return cart;
+    }
+
+    private boolean apply(Cart cart, Map<String, ProductDTO> products, Map<String, AvailabilityDTO> availability,
+                          LocalDateTime now) {
+        List<String> changed = new ArrayList<>();
+        boolean complete = true;
+        for (CartItem item : List.copyOf(cart.getItems())) {
+            ProductDTO product = products.get(item.getProductId());
+            AvailabilityDTO line = availability.get(key(cart.getCartId(), item.getProductId()));
+            if (product == null || product.isPlaceholder() || line == null || line.isPlaceholder()) {
+                // nothing known about the product, the line is left as it is
+                complete = false;
+                continue;
+            }
+            boolean available = Boolean.TRUE.equals(line.getAvailable());
+            // an unavailable line keeps its price, it cannot be checked out anyway
+            if (cart.repriceItem(item.getProductId(), available ? product.getPrice() : item.getUnitPrice(), available)) {
+                changed.add(item.getProductId());
+            }
+        }
+        // a cart is only fresh once every line has been checked
+        if (complete) {
+            cart.setRevalidatedAt(now);
+        }
+        if (changed.isEmpty()) {
+            return false;
+        }
+        // not shopper activity: the cart keeps its remaining TTL
+        cartRepository.saveItems(cart, changed, true);
+        log.debug("Cart {} revalidated, lines {} updated", cart.getCartId(), changed);
+        return true;
+    }
+
+    private Map<String, ProductDTO> fetchProducts(Collection<String> productIds) {
+        return catalogClient.getProducts(BatchGetProductsRequest.builder()
+                        .productIds(new ArrayList<>(productIds))
+                        .build())
+                .stream()
+                .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity(), (a, b) -> a));
+    }
+
+    private Map<String, AvailabilityDTO> checkAvailability(List<Cart> carts) {
+        List<AvailabilityDTO> items = carts.stream()
+                .flatMap(cart -> cart.getItems().stream()
+                        .map(item -> AvailabilityDTO.builder()
+                                .productId(item.getProductId())
+                                .quantity(item.getQuantity())
+                                .holderId(cart.getCartId())
+                                .build()))
+                .collect(Collectors.toList());
+        Map<String, AvailabilityDTO> availability = new HashMap<>();
+        for (int from = 0; from < items.size(); from += MAX_AVAILABILITY_ITEMS) {
+            List<AvailabilityDTO> chunk = items.subList(from, Math.min(from + MAX_AVAILABILITY_ITEMS, items.size()));
+            for (AvailabilityDTO line : catalogClient.checkAvailabilities(
+                    BatchAvailabilityRequest.builder().items(new ArrayList<>(chunk)).build())) {
+                if (line.getHolderId() != null) {
+                    availability.putIfAbsent(key(line.getHolderId(), line.getProductId()), line);
+                }
+            }
+        }
+        return availability;
+    }
+
+    private static String key(String cartId, String productId) {
+        return cartId + '|' + productId;
+    }
+}
@@ -1,17 +1,29 @@
 package com.ecommerce.cart.domain.service;
 
 import com.ecommerce.cart.dto.request.AddItemRequest;
+import com.ecommerce.cart.dto.request.BatchAddItemsRequest;
+import com.ecommerce.cart.dto.request.MergeCartRequest;
 import com.ecommerce.cart.dto.request.UpdateQuantityRequest;
+import com.ecommerce.cart.dto.response.BatchAddItemsResponse;
 import com.ecommerce.cart.dto.response.CartResponse;
+import com.ecommerce.cart.dto.response.CartValidationResponse;
+
+import java.util.Optional;
 
 public interface CartService {
 
     CartResponse createCart(String userId);
     CartResponse getCart(String cartId);
-    CartResponse addItem(String cartId, AddItemRequest itemRequest);
-    CartResponse updateItemQuantity(String cartId, String productId, UpdateQuantityRequest updateQuantityRequest);
-    CartResponse removeItem(String cartId,String productId);
-    void clearCart(String cartId);
+    CartResponse getCartByUser(String userId);
+    Optional<String> getCartETag(String cartId);
+    CartResponse addItem(String cartId, AddItemRequest itemRequest, CartPrecondition precondition);
+    BatchAddItemsResponse addItems(String cartId, BatchAddItemsRequest request, CartPrecondition precondition);
+    CartResponse updateItemQuantity(String cartId, String productId, UpdateQuantityRequest updateQuantityRequest,
+                                    CartPrecondition precondition);
+    CartResponse removeItem(String cartId, String productId, CartPrecondition precondition);
+    CartResponse mergeCarts(String userId, MergeCartRequest request);
+    void clearCart(String cartId, CartPrecondition precondition);
     void deleteCart(String cartId);
+    CartValidationResponse validateCart(String cartId);
 
 }
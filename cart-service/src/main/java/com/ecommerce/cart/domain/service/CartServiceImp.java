@@ -1,23 +1,58 @@
 package com.ecommerce.cart.domain.service;
 
 import com.ecommerce.cart.client.CatalogClient;
+import com.ecommerce.cart.client.ConcurrentCalls;
 import com.ecommerce.cart.domain.entity.Cart;
 import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.enums.CartEventType;
+import com.ecommerce.cart.domain.enums.CartStatus;
+import com.ecommerce.cart.domain.exception.CartAlreadyExistsException;
 import com.ecommerce.cart.domain.exception.CartNotFoundException;
+import com.ecommerce.cart.domain.exception.CartPreconditionFailedException;
+import com.ecommerce.cart.domain.exception.CartVersionConflictException;
 import com.ecommerce.cart.domain.exception.InvalidCartOperationException;
+import com.ecommerce.cart.domain.exception.RemoteCallTimeoutException;
+import com.ecommerce.cart.dto.external.AvailabilityDTO;
+import com.ecommerce.cart.dto.external.BatchAvailabilityRequest;
+import com.ecommerce.cart.dto.external.BatchGetProductsRequest;
 import com.ecommerce.cart.dto.external.ProductDTO;
 import com.ecommerce.cart.dto.request.AddItemRequest;
+import com.ecommerce.cart.dto.request.BatchAddItemsRequest;
+import com.ecommerce.cart.dto.request.MergeCartRequest;
 import com.ecommerce.cart.dto.request.UpdateQuantityRequest;
+import com.ecommerce.cart.dto.response.BatchAddItemsResponse;
+import com.ecommerce.cart.dto.response.BatchItemResult;
 import com.ecommerce.cart.dto.response.CartResponse;
+import com.ecommerce.cart.dto.response.CartValidationResponse;
+import com.ecommerce.cart.mapper.CartETag;
 import com.ecommerce.cart.mapper.MapperToResponse;
 import com.ecommerce.cart.repository.CartRepository;
 import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static com.ecommerce.cart.domain.service.CartMetrics.Phase.CATALOG;
+import static com.ecommerce.cart.domain.service.CartMetrics.Phase.MAPPING;
+import static com.ecommerce.cart.domain.service.CartMetrics.Phase.MUTATION;
+import static com.ecommerce.cart.domain.service.CartMetrics.Phase.REDIS_READ;
+import static com.ecommerce.cart.domain.service.CartMetrics.Phase.REDIS_WRITE;
 
 @Service
 @RequiredArgsConstructor
@@ -26,15 +61,46 @@ public class CartServiceImp implements CartService{
     private final CartRepository cartRepository;
     private final MapperToResponse response;
     private final CatalogClient catalogClient;
+    private final ConcurrentCalls concurrentCalls;
+    private final StockReservations stockReservations;
+    private final CartRevalidationService cartRevalidationService;
+    private final PromotionEngine promotionEngine;
+    private final QuantityUpdateCoalescer quantityUpdateCoalescer;
+    private final CartMetrics cartMetrics;
+    private final MeterRegistry meterRegistry;
 
     @Value("${cart.max-items}")
     private int maxItems;
 
     @Value("${cart.ttl-days}")
     private long timeBeforeCartToExpire;
+
+    @Value("${cart.concurrency.max-attempts:3}")
+    private int maxUpdateAttempts;
     @Override
     public CartResponse createCart(String userId) {
+        return cartMetrics.record("createCart", watch -> createCart(userId, watch));
+    }
+
+    private CartResponse createCart(String userId, CartMetrics.Stopwatch watch) {
         log.info("Creating new Cart for user : {}",userId);
+        if (userId != null) {
+            Optional<Cart> existing = watch.lap(REDIS_READ, cartRepository.findByUserId(userId));
+            if (existing.isPresent()) {
+                Cart cart = existing.get();
+                if (cart.getStatus() == CartStatus.ABANDONED) {
+                    // the shopper is back: active again, with a fresh TTL and its holds renewed
+                    cart = updateWithRetry(cart.getCartId(), "reactivateCart", cart, CartPrecondition.NONE, watch,
+                            current -> {
+                                current.reactivate();
+                                watch.lap(MUTATION);
+                                return watch.lap(REDIS_WRITE, cartRepository.saveHeader(current));
+                            });
+                }
+                log.info("Reusing cart {} of user {}", cart.getCartId(), userId);
+                return watch.lap(MAPPING, response.mapToResponse(cart));
+            }
+        }
         Cart cart = Cart.builder()
                 .cartId(Cart.generateCartId())
                 .userId(userId)
@@ -43,145 +109,591 @@ public class CartServiceImp implements CartService{
                 .expiresAt(LocalDateTime.now().plusDays(timeBeforeCartToExpire))
                 .build();
         cart.calculateTotals();
-        Cart savedCart = cartRepository.save(cart);
+        watch.lap(MUTATION);
+        Cart savedCart;
+        try {
+            savedCart = watch.lap(REDIS_WRITE, cartRepository.save(cart));
+        } catch (CartAlreadyExistsException e) {
+            // Another request created the user's cart in the meantime
+            watch.lap(REDIS_WRITE);
+            savedCart = watch.lap(REDIS_READ, cartRepository.findByUserId(userId)).orElseThrow(() -> e);
+        }
         log.info("Cart created..!!:{}",savedCart.getCreatedAt());
 
-        return response.mapToResponse(savedCart);
+        return watch.lap(MAPPING, response.mapToResponse(savedCart));
     }
 
     @Override
     public CartResponse getCart(String cartId) {
-        log.info("Retrieving cart: {}", cartId);
+        return cartMetrics.record("getCart", watch -> {
+            log.info("Retrieving cart: {}", cartId);
 
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
-        return response.mapToResponse(cart);
+            Cart cart = watch.lap(REDIS_READ, cartRepository.findById(cartId))
+                    .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
+            return watch.lap(MAPPING, response.mapToResponse(cart));
+        });
     }
 
     @Override
-    public CartResponse addItem(String cartId, AddItemRequest request) {
+    public CartResponse getCartByUser(String userId) {
+        return cartMetrics.record("getCartByUser", watch -> {
+            log.info("Retrieving cart of user: {}", userId);
+
+            Cart cart = watch.lap(REDIS_READ, cartRepository.findByUserId(userId))
+                    .orElseThrow(() -> new CartNotFoundException("No cart found for user: " + userId));
+            return watch.lap(MAPPING, response.mapToResponse(cart));
+        });
+    }
+
+    @Override
+    public Optional<String> getCartETag(String cartId) {
+        // one HGET instead of loading, pricing and mapping the cart
+        return cartMetrics.record("getCartETag", watch -> watch.lap(REDIS_READ, cartRepository.findVersion(cartId))
+                .map(version -> CartETag.of(version, promotionEngine.pricingVersion())));
+    }
+
+    @Override
+    public CartResponse addItem(String cartId, AddItemRequest request, CartPrecondition precondition) {
+        return cartMetrics.record("addItem", watch -> addItem(cartId, request, precondition, watch));
+    }
+
+    private CartResponse addItem(String cartId, AddItemRequest request, CartPrecondition precondition,
+                                 CartMetrics.Stopwatch watch) {
         log.info("Adding item to cart {}: productId={}, quantity={}",
                 cartId, request.getProductId(), request.getQuantity());
 
-        Cart cart = cartRepository.findById(cartId)
+        Cart cart = watch.lap(REDIS_READ, cartRepository.findById(cartId))
                 .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
 
-        // ========== VALIDATION VIA CATALOG SERVICE ==========
-        ProductDTO product = validateProduct(request.getProductId());
+        String productId = request.getProductId();
+        // What the line held before this change, to put back on failure; follows the cart on retries
+        Map<String, Integer> held = new HashMap<>(Map.of(productId,
+                cart.findItem(productId).map(CartItem::getQuantity).orElse(0)));
+        Cart savedCart = withHolds(cartId, held, () -> {
+            // ========== VALIDATION VIA CATALOG SERVICE ==========
+            // Product lookup and availability check are independent and run side by side; holding
+            // the whole line is the availability check when stock is reserved
+            ProductDTO product = concurrentCalls.invokeBoth(
+                    () -> validateProduct(request.getProductId()),
+                    () -> stockReservations.isEnabled()
+                            ? holdStock(cartId, productId, held.get(productId) + request.getQuantity())
+                            : validateAvailability(request.getProductId(), request.getQuantity()),
+                    (validated, available) -> available ? validated : null);
+            watch.lap(CATALOG);
+            if (product == null) {
+                throw new InvalidCartOperationException(
+                        "Product " + request.getProductId() + " is not available in requested quantity");
+            }
 
-        boolean isAvailable = validateAvailability(request.getProductId(), request.getQuantity());
-        if (!isAvailable) {
-            throw new InvalidCartOperationException(
-                    "Product " + request.getProductId() + " is not available in requested quantity");
-        }
+            CartItem cartItem = toCartItem(product, request.getQuantity());
+
+            return updateWithRetry(cartId, "addItem", cart, precondition, watch, current -> {
+                if (current.getTotalItems() + request.getQuantity() > maxItems) {
+                    throw new InvalidCartOperationException(
+                            "Cannot add item. Cart limit of " + maxItems );
+                }
+                // after a conflict the reloaded line may differ from the one the hold was taken for
+                int inCart = current.findItem(productId).map(CartItem::getQuantity).orElse(0);
+                if (stockReservations.isEnabled() && inCart != held.get(productId)) {
+                    held.put(productId, inCart);
+                    boolean available = holdStock(cartId, productId, inCart + request.getQuantity());
+                    watch.lap(CATALOG);
+                    if (!available) {
+                        throw new InvalidCartOperationException(
+                                "Product " + productId + " is not available in requested quantity");
+                    }
+                }
+
+                boolean alreadyInCart = current.findItem(cartItem.getProductId()).isPresent();
+                current.addItem(cartItem);
+                current.recordEvent(CartEventType.ITEM_ADDED, cartItem.getProductId(), request.getQuantity());
+
+                watch.lap(MUTATION);
+
+                // An existing line only changes its quantity, a new line is written once
+                return watch.lap(REDIS_WRITE, alreadyInCart
+                        ? cartRepository.saveItemQuantity(current, cartItem.getProductId())
+                        : cartRepository.saveItem(current, cartItem.getProductId()));
+            });
+        });
 
-        if (cart.getTotalItems() + request.getQuantity() > maxItems) {
-            throw new InvalidCartOperationException(
-                    "Cannot add item. Cart limit of " + maxItems );
+        log.info("Item added to cart....!! {}", cartId);
+
+        return watch.lap(MAPPING, response.mapToResponse(savedCart));
+    }
+
+    @Override
+    public BatchAddItemsResponse addItems(String cartId, BatchAddItemsRequest request, CartPrecondition precondition) {
+        return cartMetrics.record("addItems", watch -> addItems(cartId, request, precondition, watch));
+    }
+
+    private BatchAddItemsResponse addItems(String cartId, BatchAddItemsRequest request, CartPrecondition precondition,
+                                           CartMetrics.Stopwatch watch) {
+        log.info("Adding {} items to cart {}", request.getItems().size(), cartId);
+
+        Cart cart = watch.lap(REDIS_READ, cartRepository.findById(cartId))
+                .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
+
+        // Duplicate lines of the batch are merged before validation
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        for (AddItemRequest item : request.getItems()) {
+            lines.merge(item.getProductId(), item.getQuantity(), Integer::sum);
         }
 
-        CartItem cartItem = CartItem.builder()
-                .itemId(CartItem.generateItemId())
-                .productId(product.getProductId())
-                .productName(product.getName())
-                .productImage(product.getImageUrl())
-                .quantity(request.getQuantity())
-                .unitPrice(product.getPrice())
-                .available(true)
-                .build();
+        // Lines held so far, to put back the holds of the lines that end up not added
+        Map<String, Integer> held = new HashMap<>();
+        lines.keySet().forEach(productId ->
+                held.put(productId, cart.findItem(productId).map(CartItem::getQuantity).orElse(0)));
+
+        Map<String, String> errors = new HashMap<>();
+        Map<String, ProductDTO> products = validateLines(cartId, lines, held, errors);
+        watch.lap(CATALOG);
+
+        List<BatchItemResult> results = new ArrayList<>(lines.size());
+        Cart savedCart = withHolds(cartId, held, () -> updateWithRetry(
+                cartId, "addItems", cart, precondition, watch, current -> {
+            results.clear();
+            List<String> added = new ArrayList<>(lines.size());
+            int totalItems = current.getTotalItems();
+
+            for (Map.Entry<String, Integer> line : lines.entrySet()) {
+                String productId = line.getKey();
+                int quantity = line.getValue();
+                String error = errors.get(productId);
+                if (error == null && totalItems + quantity > maxItems) {
+                    error = "Cannot add item. Cart limit of " + maxItems;
+                }
+                if (error != null) {
+                    results.add(BatchItemResult.builder()
+                            .productId(productId).quantity(quantity).added(false).error(error).build());
+                    continue;
+                }
+
+                current.addItem(toCartItem(products.get(productId), quantity));
+                current.recordEvent(CartEventType.ITEM_ADDED, productId, quantity);
+                totalItems += quantity;
+                added.add(productId);
+                results.add(BatchItemResult.builder()
+                        .productId(productId).quantity(quantity).added(true).build());
+            }
 
-        cart.addItem(cartItem);
+            watch.lap(MUTATION);
 
-        Cart savedCart = cartRepository.save(cart);
+            // All accepted lines are persisted with a single write
+            return added.isEmpty() ? current : watch.lap(REDIS_WRITE, cartRepository.saveItems(current, added));
+        }));
 
-        log.info("Item added to cart....!! {}", cartId);
+        if (stockReservations.isEnabled()) {
+            Map<String, Integer> rejected = new HashMap<>();
+            results.stream()
+                    .filter(result -> !result.isAdded())
+                    .forEach(result -> rejected.put(result.getProductId(), held.get(result.getProductId())));
+            stockReservations.adjust(cartId, rejected);
+        }
+
+        log.info("Batch added to cart {}: {}/{} lines accepted", cartId,
+                results.stream().filter(BatchItemResult::isAdded).count(), results.size());
 
-        return response.mapToResponse(savedCart);
+        return watch.lap(MAPPING, BatchAddItemsResponse.builder()
+                .cart(response.mapToResponse(savedCart))
+                .results(results)
+                .build());
     }
 
     @Override
-    public CartResponse updateItemQuantity(String cartId, String productId, UpdateQuantityRequest request) {
+    public CartResponse updateItemQuantity(String cartId, String productId, UpdateQuantityRequest request,
+                                           CartPrecondition precondition) {
+        return cartMetrics.record("updateItemQuantity",
+                watch -> updateItemQuantity(cartId, productId, request, precondition, watch));
+    }
+
+    private CartResponse updateItemQuantity(String cartId, String productId, UpdateQuantityRequest request,
+                                            CartPrecondition precondition, CartMetrics.Stopwatch watch) {
         log.info("Updating item quantity in cart {}: productId={}, newQuantity={}",
                 cartId, productId, request.getQuantity());
 
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
-
-        // Validation via Catalog
-        boolean isAvailable = validateAvailability(productId, request.getQuantity());
-        if (!isAvailable) {
-            throw new InvalidCartOperationException(
-                    "Product not available in requested quantity");
+        // Conditional updates target given versions, they cannot share a write with others
+        if (!precondition.isConditional() && quantityUpdateCoalescer.isEnabled()) {
+            return quantityUpdateCoalescer.update(cartId, productId, request.getQuantity(), this::flushQuantities);
         }
 
-        boolean productExists = false;
-        for (CartItem item : cart.getItems()) {
-            if (item.getProductId().equals(productId)) {
-                productExists = true;
-                break;
+        Cart cart = watch.lap(REDIS_READ, cartRepository.findById(cartId))
+                .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
+        // No catalog call nor hold for a line that is not there
+        int held = cart.findItem(productId).map(CartItem::getQuantity)
+                .orElseThrow(() -> new InvalidCartOperationException("Product not found in cart: " + productId));
+
+        Cart savedCart = withHolds(cartId, Map.of(productId, held), () -> {
+            // Validation via Catalog
+            boolean isAvailable = watch.lap(CATALOG, stockReservations.isEnabled()
+                    ? holdStock(cartId, productId, request.getQuantity())
+                    : validateAvailability(productId, request.getQuantity()));
+            if (!isAvailable) {
+                throw new InvalidCartOperationException(
+                        "Product not available in requested quantity");
             }
-        }
-        if (!productExists) {
-            throw new InvalidCartOperationException(
-                    "Product not found in cart: " + productId);
-        }
 
-        cart.updateItemQuantity(productId, request.getQuantity());
+            return updateWithRetry(cartId, "updateItemQuantity", cart, precondition, watch, current -> {
+                if (current.findItem(productId).isEmpty()) {
+                    throw new InvalidCartOperationException(
+                            "Product not found in cart: " + productId);
+                }
 
-        Cart savedCart = cartRepository.save(cart);
+                current.updateItemQuantity(productId, request.getQuantity());
+                current.recordEvent(CartEventType.ITEM_UPDATED, productId, request.getQuantity());
+                watch.lap(MUTATION);
+                return watch.lap(REDIS_WRITE, cartRepository.saveItemQuantity(current, productId));
+            });
+        });
 
         log.info("Item quantity updated...!!! in cart {}", cartId);
 
-        return response.mapToResponse(savedCart);
+        return watch.lap(MAPPING, response.mapToResponse(savedCart));
+    }
+
+    /**
+     * Writes a batch of coalesced quantity updates: one availability check for all the products,
+     * one write for all the lines.
+     */
+    private QuantityUpdateCoalescer.FlushResult flushQuantities(String cartId, Map<String, Integer> quantities) {
+        return cartMetrics.record("updateItemQuantities", watch -> flushQuantities(cartId, quantities, watch));
+    }
+
+    private QuantityUpdateCoalescer.FlushResult flushQuantities(String cartId, Map<String, Integer> quantities,
+                                                                CartMetrics.Stopwatch watch) {
+        Cart cart = watch.lap(REDIS_READ, cartRepository.findById(cartId))
+                .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
+
+        Map<String, Integer> held = new HashMap<>();
+        quantities.keySet().forEach(productId ->
+                held.put(productId, cart.findItem(productId).map(CartItem::getQuantity).orElse(0)));
+        Map<String, Boolean> availability = watch.lap(CATALOG, stockReservations.isEnabled()
+                ? holdStock(cartId, quantities)
+                : checkAvailabilities(quantities));
+        Map<String, RuntimeException> unavailable = new HashMap<>();
+        quantities.keySet().forEach(productId -> {
+            if (!availability.getOrDefault(productId, false)) {
+                unavailable.put(productId, new InvalidCartOperationException(
+                        "Product not available in requested quantity"));
+            }
+        });
+
+        Map<String, RuntimeException> failures = new HashMap<>();
+        Cart savedCart = withHolds(cartId, held, () -> updateWithRetry(
+                cartId, "updateItemQuantities", cart, CartPrecondition.NONE, watch, current -> {
+            failures.clear();
+            failures.putAll(unavailable);
+            List<String> updated = new ArrayList<>();
+            quantities.forEach((productId, quantity) -> {
+                if (failures.containsKey(productId)) {
+                    return;
+                }
+                if (current.findItem(productId).isEmpty()) {
+                    failures.put(productId, new InvalidCartOperationException(
+                            "Product not found in cart: " + productId));
+                    return;
+                }
+                current.updateItemQuantity(productId, quantity);
+                current.recordEvent(CartEventType.ITEM_UPDATED, productId, quantity);
+                updated.add(productId);
+            });
+            watch.lap(MUTATION);
+            return updated.isEmpty()
+                    ? current
+                    : watch.lap(REDIS_WRITE, cartRepository.saveItemQuantities(current, updated));
+        }));
+
+        if (stockReservations.isEnabled()) {
+            Map<String, Integer> rejected = new HashMap<>();
+            failures.keySet().forEach(productId -> rejected.put(productId, held.get(productId)));
+            stockReservations.adjust(cartId, rejected);
+        }
+
+        log.info("{} item quantities updated in cart {}", quantities.size() - failures.size(), cartId);
+
+        CartResponse cartResponse = watch.lap(MAPPING, response.mapToResponse(savedCart));
+        return new QuantityUpdateCoalescer.FlushResult(cartResponse, failures);
     }
 
     @Override
-    public CartResponse removeItem(String cartId, String productId) {
+    public CartResponse removeItem(String cartId, String productId, CartPrecondition precondition) {
+        return cartMetrics.record("removeItem", watch -> removeItem(cartId, productId, precondition, watch));
+    }
+
+    private CartResponse removeItem(String cartId, String productId, CartPrecondition precondition,
+                                    CartMetrics.Stopwatch watch) {
         log.info("Removing item from cart {}: productId={}", cartId, productId);
 
-        Cart cart = cartRepository.findById(cartId)
+        Cart cart = watch.lap(REDIS_READ, cartRepository.findById(cartId))
                 .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
 
-        cart.removeItem(productId);
-
-        Cart savedCart = cartRepository.save(cart);
+        Cart savedCart = updateWithRetry(cartId, "removeItem", cart, precondition, watch, current -> {
+            current.removeItem(productId);
+            current.recordEvent(CartEventType.ITEM_REMOVED, productId, null);
+            watch.lap(MUTATION);
+            return watch.lap(REDIS_WRITE, cartRepository.removeItem(current, productId));
+        });
 
+        stockReservations.release(cartId, List.of(productId));
         log.info("Item removed successfully from cart {}", cartId);
 
-        return response.mapToResponse(savedCart);
+        return watch.lap(MAPPING, response.mapToResponse(savedCart));
     }
 
     @Override
-    public void clearCart(String cartId) {
+    public void clearCart(String cartId, CartPrecondition precondition) {
+        cartMetrics.run("clearCart", watch -> clearCart(cartId, precondition, watch));
+    }
+
+    private void clearCart(String cartId, CartPrecondition precondition, CartMetrics.Stopwatch watch) {
         log.info("Clearing cart: {}", cartId);
 
-        Cart cart = cartRepository.findById(cartId)
+        Cart cart = watch.lap(REDIS_READ, cartRepository.findById(cartId))
                 .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
 
-        cart.clear();
-        cartRepository.save(cart);
+        updateWithRetry(cartId, "clearCart", cart, precondition, watch, current -> {
+            current.clear();
+            current.recordEvent(CartEventType.CART_CLEARED, null, null);
+            watch.lap(MUTATION);
+            return watch.lap(REDIS_WRITE, cartRepository.save(current));
+        });
 
+        stockReservations.releaseAll(cartId);
         log.info("Cart cleared successfully: {}", cartId);
     }
 
+    @Override
+    public CartResponse mergeCarts(String userId, MergeCartRequest request) {
+        log.info("Merging guest cart {} into cart of user {}", request.getGuestCartId(), userId);
+
+        return cartMetrics.record("mergeCarts", watch -> {
+            // Single atomic script: quantities summed, limit enforced, guest cart deleted
+            Cart merged = watch.lap(REDIS_WRITE,
+                    cartRepository.mergeGuestCart(userId, request.getGuestCartId(), maxItems));
+
+            // The merged lines are held by the user's cart, the guest cart no longer exists
+            stockReservations.releaseAll(request.getGuestCartId());
+            stockReservations.adjust(merged.getCartId(), merged.getItems().stream()
+                    .collect(Collectors.toMap(CartItem::getProductId, CartItem::getQuantity, Integer::sum)));
+
+            log.info("Guest cart {} merged into cart {}", request.getGuestCartId(), merged.getCartId());
+            return watch.lap(MAPPING, response.mapToResponse(merged));
+        });
+    }
+
     @Override
     public void deleteCart(String cartId) {
         log.info("Deleting cart: {}", cartId);
 
-        if (!cartRepository.existsById(cartId)) {
-            throw new CartNotFoundException("Cart not found: " + cartId);
-        }
+        cartMetrics.run("deleteCart", watch -> {
+            if (!watch.lap(REDIS_READ, cartRepository.existsById(cartId))) {
+                throw new CartNotFoundException("Cart not found: " + cartId);
+            }
 
-        cartRepository.deletedById(cartId);
+            cartRepository.deletedById(cartId);
+            watch.lap(REDIS_WRITE);
+        });
+        stockReservations.releaseAll(cartId);
 
         log.info("Cart deleted successfully: {}", cartId);
     }
 
+    @Override
+    public CartValidationResponse validateCart(String cartId) {
+        return cartMetrics.record("validateCart", watch -> validateCart(cartId, watch));
+    }
+
+    private CartValidationResponse validateCart(String cartId, CartMetrics.Stopwatch watch) {
+        log.info("Validating cart: {}", cartId);
 
+        Cart cart = watch.lap(REDIS_READ, cartRepository.findById(cartId))
+                .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
+
+        // A cart revalidated recently in the background is trusted as is
+        boolean revalidated = !cart.getItems().isEmpty() && !cartRevalidationService.isFresh(cart);
+        if (revalidated) {
+            cart = watch.lap(CATALOG, cartRevalidationService.revalidate(cart));
+        }
 
+        List<String> unavailable = cart.getItems().stream()
+                .filter(item -> !item.isAvailable())
+                .map(CartItem::getProductId)
+                .collect(Collectors.toList());
+
+        return watch.lap(MAPPING, CartValidationResponse.builder()
+                .cartId(cartId)
+                .valid(unavailable.isEmpty())
+                .revalidated(revalidated)
+                .revalidatedAt(cart.getRevalidatedAt())
+                .unavailableProductIds(unavailable)
+                .cart(response.mapToResponse(cart))
+                .build());
+    }
+
+
+
+
+    // ========== HELPER METHODS - OPTIMISTIC CONCURRENCY ==========
+
+    /**
+     * Applies a mutation and its write, reloading the cart and re-applying the mutation when another
+     * request changed the cart in between. Catalog validation stays outside, so a conflict only costs
+     * one more Redis read and write.
+     * <p>
+     * With a precondition (from {@code If-Match}) the cart must be at one of its versions when the
+     * mutation is applied; after a conflict the reloaded cart no longer is, so the update fails
+     * instead of being retried.
+     */
+    private Cart updateWithRetry(String cartId, String operation, Cart loaded, CartPrecondition precondition,
+                                 CartMetrics.Stopwatch watch, UnaryOperator<Cart> mutation) {
+        meterRegistry.counter("cart.updates", "operation", operation).increment();
+        Cart cart = loaded;
+        for (int attempt = 1; ; attempt++) {
+            if (!precondition.isSatisfiedBy(cart.getVersion())) {
+                meterRegistry.counter("cart.update.precondition-failed", "operation", operation).increment();
+                throw new CartPreconditionFailedException(
+                        "Cart " + cartId + " is at version " + cart.getVersion() + ", expected " + precondition);
+            }
+            try {
+                Cart saved = mutation.apply(cart);
+                // a change of the cart is activity: its holds must not expire under it
+                stockReservations.renew(cartId, saved.getItems().stream()
+                        .collect(Collectors.toMap(CartItem::getProductId, CartItem::getQuantity, Integer::sum)));
+                return saved;
+            } catch (CartVersionConflictException e) {
+                meterRegistry.counter("cart.update.conflicts", "operation", operation).increment();
+                if (attempt >= maxUpdateAttempts) {
+                    meterRegistry.counter("cart.update.exhausted", "operation", operation).increment();
+                    log.warn("Giving up {} on cart {} after {} conflicting attempts", operation, cartId, attempt);
+                    throw new CartVersionConflictException(
+                            "Cart " + cartId + " is being modified concurrently, please retry");
+                }
+                log.debug("Version conflict on cart {} during {}, retrying (attempt {})", cartId, operation, attempt);
+                watch.lap(REDIS_WRITE);
+                cart = watch.lap(REDIS_READ, cartRepository.findById(cartId))
+                        .orElseThrow(() -> new CartNotFoundException("Cart not found: " + cartId));
+            }
+        }
+    }
+
+    private CartItem toCartItem(ProductDTO product, int quantity) {
+        return CartItem.builder()
+                .itemId(CartItem.generateItemId())
+                .productId(product.getProductId())
+                .productName(product.getName())
+                .productImage(product.getImageUrl())
+                .category(product.getCategory())
+                .quantity(quantity)
+                .unitPrice(product.getPrice())
+                .available(true)
+                .addedAt(LocalDateTime.now())
+                .build();
+    }
 
     // ========== HELPER METHODS - CATALOG VALIDATION ==========
 
+    /**
+     * Validates all lines with one bulk product lookup and one bulk availability check, whatever
+     * the number of lines.
+     */
+    private Map<String, ProductDTO> validateLines(String cartId, Map<String, Integer> lines, Map<String, Integer> held,
+                                                  Map<String, String> errors) {
+        Map<String, ProductDTO> found;
+        Map<String, Boolean> availability;
+        try {
+            log.debug("Validating {} products via Catalog Service", lines.size());
+            LineChecks checks = concurrentCalls.invokeBoth(
+                    () -> fetchProducts(lines.keySet()),
+                    () -> stockReservations.isEnabled()
+                            ? holdStock(cartId, totals(lines, held))
+                            : checkAvailabilities(lines),
+                    LineChecks::new);
+            found = checks.products();
+            availability = checks.availability();
+        } catch (FeignException | RemoteCallTimeoutException e) {
+            log.error("Error communicating with Catalog Service: {}", e.getMessage());
+            lines.keySet().forEach(productId ->
+                    errors.put(productId, "Unable to validate product. Please try again later."));
+            return Map.of();
+        }
+
+        Map<String, ProductDTO> products = new HashMap<>();
+        lines.forEach((productId, quantity) -> {
+            ProductDTO product = found.get(productId);
+            if (product == null) {
+                errors.put(productId, "Product not found: " + productId);
+            } else if (!availability.getOrDefault(productId, false)) {
+                errors.put(productId, "Product " + productId + " is not available in requested quantity");
+            } else {
+                products.put(productId, product);
+            }
+        });
+        return products;
+    }
+
+    private Map<String, ProductDTO> fetchProducts(Collection<String> productIds) {
+        return catalogClient.getProducts(BatchGetProductsRequest.builder()
+                        .productIds(new ArrayList<>(productIds))
+                        .build())
+                .stream()
+                .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity(), (a, b) -> a));
+    }
+
+    private record LineChecks(Map<String, ProductDTO> products, Map<String, Boolean> availability) {
+    }
+
+    private Map<String, Boolean> checkAvailabilities(Map<String, Integer> lines) {
+        List<AvailabilityDTO> items = lines.entrySet().stream()
+                .map(line -> AvailabilityDTO.builder()
+                        .productId(line.getKey())
+                        .quantity(line.getValue())
+                        .build())
+                .collect(Collectors.toList());
+        try {
+            log.debug("Checking availability of {} items", items.size());
+            return catalogClient.checkAvailabilities(BatchAvailabilityRequest.builder().items(items).build())
+                    .stream()
+                    .collect(Collectors.toMap(AvailabilityDTO::getProductId,
+                            item -> Boolean.TRUE.equals(item.getAvailable()), (a, b) -> a && b));
+        } catch (FeignException e) {
+            log.error("Error checking availability: {}", e.getMessage());
+            // fail-safe, as for a single item
+            return Map.of();
+        }
+    }
+
+    // ========== HELPER METHODS - STOCK HOLDS ==========
+
+    /**
+     * Runs a change of the cart whose lines get held, putting the holds back to what the cart held
+     * before when the change fails.
+     */
+    private <T> T withHolds(String cartId, Map<String, Integer> held, Supplier<T> change) {
+        try {
+            return change.get();
+        } catch (RuntimeException e) {
+            stockReservations.adjust(cartId, held);
+            throw e;
+        }
+    }
+
+    private boolean holdStock(String cartId, String productId, int quantity) {
+        return !stockReservations.hold(cartId, Map.of(productId, quantity)).contains(productId);
+    }
+
+    private Map<String, Boolean> holdStock(String cartId, Map<String, Integer> quantities) {
+        Set<String> refused = stockReservations.hold(cartId, quantities);
+        Map<String, Boolean> held = new HashMap<>();
+        quantities.keySet().forEach(productId -> held.put(productId, !refused.contains(productId)));
+        return held;
+    }
+
+    private static Map<String, Integer> totals(Map<String, Integer> added, Map<String, Integer> held) {
+        Map<String, Integer> totals = new HashMap<>(held);
+        added.forEach((productId, quantity) -> totals.merge(productId, quantity, Integer::sum));
+        return totals;
+    }
+
     private ProductDTO validateProduct(String productId) {
         try {
             log.debug("Validating product via Catalog Service: {}", productId);
@@ -0,0 +1,9 @@
+package com.ecommerce.cart.domain.service;
+
+/**
+ * What the price of a cart depends on besides the cart itself: the version of the promotion rules,
+ * and the window of time between two consecutive start or end dates of those promotions. A cart
+ * priced twice with the same pricing version gets the same discounts.
+ */
+public record PricingVersion(long rulesVersion, int window) {
+}
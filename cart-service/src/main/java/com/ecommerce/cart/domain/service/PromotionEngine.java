@@ -0,0 +1,58 @@
+package com.ecommerce.cart.domain.service;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.repository.PromotionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Prices carts against the compiled promotion rules held in memory.
+ * <p>
+ * The compiled rule set is cached along with the version of the promotions it was built from. A
+ * periodic check compares that version with the one in Redis and recompiles only when promotions
+ * changed, so pricing a cart never does any I/O.
+ */
+@Component
+@Slf4j
+public class PromotionEngine {
+
+    private final PromotionRepository promotionRepository;
+    private volatile PromotionRules rules = PromotionRules.EMPTY;
+
+    public PromotionEngine(PromotionRepository promotionRepository, MeterRegistry meterRegistry) {
+        this.promotionRepository = promotionRepository;
+        meterRegistry.gauge("cart.promotions.active", this, engine -> engine.rules.size());
+        meterRegistry.gauge("cart.promotions.version", this, engine -> engine.rules.getVersion());
+    }
+
+    @Scheduled(fixedDelayString = "${cart.promotions.refresh-interval:5s}")
+    public void refresh() {
+        try {
+            long version = promotionRepository.currentVersion();
+            if (version != rules.getVersion()) {
+                PromotionRules compiled = PromotionRules.compile(version, promotionRepository.findAll(), LocalDateTime.now());
+                rules = compiled;
+                log.info("Promotion rules version {} compiled: {} active promotions", version, compiled.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to refresh promotion rules, keeping version {}: {}", rules.getVersion(), e.getMessage());
+        }
+    }
+
+    /**
+     * Evaluates the cart and sets its discount and total.
+     */
+    public PromotionResult apply(Cart cart) {
+        PromotionResult result = rules.evaluate(cart, LocalDateTime.now());
+        cart.applyDiscount(result.discountCents());
+        return result;
+    }
+
+    public PricingVersion pricingVersion() {
+        return rules.pricingVersion(LocalDateTime.now());
+    }
+}
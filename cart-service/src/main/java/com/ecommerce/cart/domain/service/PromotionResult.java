@@ -0,0 +1,18 @@
+package com.ecommerce.cart.domain.service;
+
+import java.util.Map;
+
+/**
+ * Discounts of one cart under a given pricing version.
+ *
+ * @param lines best discount of each discounted line, by product id
+ */
+public record PromotionResult(PricingVersion pricingVersion, long discountCents, Map<String, LineDiscount> lines) {
+
+    public static PromotionResult none(PricingVersion pricingVersion) {
+        return new PromotionResult(pricingVersion, 0, Map.of());
+    }
+
+    public record LineDiscount(String promotionId, long discountCents) {
+    }
+}
@@ -0,0 +1,230 @@
+package com.ecommerce.cart.domain.service;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.entity.Money;
+import com.ecommerce.cart.domain.entity.Promotion;
+import com.ecommerce.cart.domain.enums.DiscountType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Immutable, compiled set of promotions.
+ * <p>
+ * Promotions are turned into rules with their amounts in cents or basis points, and indexed by
+ * product id and category, so pricing a cart only looks at the rules of its own lines plus the
+ * cart-wide ones, whatever the number of active promotions.
+ */
+public final class PromotionRules {
+
+    public static final PromotionRules EMPTY =
+            new PromotionRules(0, Map.of(), Map.of(), new Rule[0], 0, new LocalDateTime[0]);
+
+    private static final Rule[] NONE = new Rule[0];
+
+    private final long version;
+    private final Map<String, Rule[]> byProduct;
+    private final Map<String, Rule[]> byCategory;
+    private final Rule[] global;
+    private final int size;
+    // Sorted start and end dates of the active promotions, ended ones included
+    private final LocalDateTime[] boundaries;
+
+    private PromotionRules(long version, Map<String, Rule[]> byProduct, Map<String, Rule[]> byCategory,
+                           Rule[] global, int size, LocalDateTime[] boundaries) {
+        this.version = version;
+        this.byProduct = byProduct;
+        this.byCategory = byCategory;
+        this.global = global;
+        this.size = size;
+        this.boundaries = boundaries;
+    }
+
+    /**
+     * Compiles the promotions that can still apply at {@code now}; inactive and ended ones are dropped.
+     * The dates of ended ones still count as boundaries, so that every instance derives the same
+     * pricing versions from the same promotions, whenever it compiled them.
+     */
+    public static PromotionRules compile(long version, Collection<Promotion> promotions, LocalDateTime now) {
+        Map<String, List<Rule>> byProduct = new HashMap<>();
+        Map<String, List<Rule>> byCategory = new HashMap<>();
+        List<Rule> global = new ArrayList<>();
+        TreeSet<LocalDateTime> boundaries = new TreeSet<>();
+        int size = 0;
+
+        for (Promotion promotion : promotions) {
+            if (!promotion.isActive()) {
+                continue;
+            }
+            if (promotion.getStartsAt() != null) {
+                boundaries.add(promotion.getStartsAt());
+            }
+            if (promotion.getEndsAt() != null) {
+                boundaries.add(promotion.getEndsAt());
+                if (!promotion.getEndsAt().isAfter(now)) {
+                    continue;
+                }
+            }
+            Rule rule = Rule.of(promotion);
+            size++;
+            boolean scoped = false;
+            if (promotion.getProductIds() != null) {
+                for (String productId : promotion.getProductIds()) {
+                    byProduct.computeIfAbsent(productId, id -> new ArrayList<>()).add(rule);
+                    scoped = true;
+                }
+            }
+            if (promotion.getCategories() != null) {
+                for (String category : promotion.getCategories()) {
+                    byCategory.computeIfAbsent(category, c -> new ArrayList<>()).add(rule);
+                    scoped = true;
+                }
+            }
+            if (!scoped) {
+                global.add(rule);
+            }
+        }
+        return new PromotionRules(version, toArrays(byProduct), toArrays(byCategory), global.toArray(NONE), size,
+                boundaries.toArray(new LocalDateTime[0]));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Pricing version at {@code now}: the window is the number of boundaries already reached, so it
+     * changes whenever a promotion starts or ends, without the rules being recompiled.
+     */
+    public PricingVersion pricingVersion(LocalDateTime now) {
+        int low = 0;
+        int high = boundaries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (boundaries[middle].isAfter(now)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return new PricingVersion(version, low);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Best discount of every line, in one pass over the lines.
+     */
+    public PromotionResult evaluate(Cart cart, LocalDateTime now) {
+        if (size == 0 || cart.getItems().isEmpty()) {
+            return PromotionResult.none(pricingVersion(now));
+        }
+        long discountCents = 0;
+        Map<String, PromotionResult.LineDiscount> lines = new HashMap<>();
+
+        for (CartItem item : cart.getItems()) {
+            if (item.getUnitPrice() == null || item.getQuantity() <= 0) {
+                continue;
+            }
+            long unitCents = Money.toCents(item.getUnitPrice());
+            long lineCents = Money.times(unitCents, item.getQuantity());
+
+            Best best = new Best();
+            best.consider(byProduct.getOrDefault(item.getProductId(), NONE), unitCents, lineCents, item.getQuantity(), now);
+            if (item.getCategory() != null) {
+                best.consider(byCategory.getOrDefault(item.getCategory(), NONE), unitCents, lineCents, item.getQuantity(), now);
+            }
+            best.consider(global, unitCents, lineCents, item.getQuantity(), now);
+
+            if (best.rule != null) {
+                discountCents += best.cents;
+                lines.put(item.getProductId(), new PromotionResult.LineDiscount(best.rule.promotionId, best.cents));
+            }
+        }
+        return new PromotionResult(pricingVersion(now), discountCents, lines);
+    }
+
+    private static Map<String, Rule[]> toArrays(Map<String, List<Rule>> index) {
+        Map<String, Rule[]> arrays = new HashMap<>(index.size() * 2);
+        index.forEach((key, rules) -> arrays.put(key, rules.toArray(NONE)));
+        return arrays;
+    }
+
+    private static final class Best {
+        private Rule rule;
+        private long cents;
+
+        void consider(Rule[] rules, long unitCents, long lineCents, int quantity, LocalDateTime now) {
+            for (Rule candidate : rules) {
+                if (!candidate.isRunning(now)) {
+                    continue;
+                }
+                long discount = Math.min(candidate.discount(unitCents, lineCents, quantity), lineCents);
+                if (discount > cents) {
+                    rule = candidate;
+                    cents = discount;
+                }
+            }
+        }
+    }
+
+    private static final class Rule {
+        private final String promotionId;
+        private final DiscountType type;
+        // basis points for PERCENTAGE, cents for FIXED_AMOUNT
+        private final long amount;
+        private final int buyQuantity;
+        private final int freeQuantity;
+        private final LocalDateTime startsAt;
+        private final LocalDateTime endsAt;
+
+        private Rule(String promotionId, DiscountType type, long amount, int buyQuantity, int freeQuantity,
+                     LocalDateTime startsAt, LocalDateTime endsAt) {
+            this.promotionId = promotionId;
+            this.type = type;
+            this.amount = amount;
+            this.buyQuantity = buyQuantity;
+            this.freeQuantity = freeQuantity;
+            this.startsAt = startsAt;
+            this.endsAt = endsAt;
+        }
+
+        static Rule of(Promotion promotion) {
+            BigDecimal value = promotion.getValue() == null ? BigDecimal.ZERO : promotion.getValue();
+            long amount = switch (promotion.getType()) {
+                case PERCENTAGE -> value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+                case FIXED_AMOUNT -> Money.toCents(value);
+                case BUY_X_GET_Y -> 0;
+            };
+            return new Rule(promotion.getPromotionId(), promotion.getType(), amount,
+                    promotion.getBuyQuantity() == null ? 0 : promotion.getBuyQuantity(),
+                    promotion.getFreeQuantity() == null ? 0 : promotion.getFreeQuantity(),
+                    promotion.getStartsAt(), promotion.getEndsAt());
+        }
+
+        boolean isRunning(LocalDateTime now) {
+            return (startsAt == null || !now.isBefore(startsAt)) && (endsAt == null || now.isBefore(endsAt));
+        }
+
+        long discount(long unitCents, long lineCents, int quantity) {
+            return switch (type) {
+                case PERCENTAGE -> (lineCents * amount + 5_000) / 10_000;
+                case FIXED_AMOUNT -> Money.times(Math.min(amount, unitCents), quantity);
+                case BUY_X_GET_Y -> {
+                    int group = buyQuantity + freeQuantity;
+                    yield group <= 0 || freeQuantity <= 0 ? 0 : Money.times(unitCents, quantity / group * freeQuantity);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.cart.domain.service;
+
+import com.ecommerce.cart.domain.entity.Promotion;
+import com.ecommerce.cart.domain.enums.DiscountType;
+import com.ecommerce.cart.domain.exception.InvalidPromotionException;
+import com.ecommerce.cart.domain.exception.PromotionNotFoundException;
+import com.ecommerce.cart.dto.request.PromotionRequest;
+import com.ecommerce.cart.repository.PromotionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PromotionService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final PromotionRepository promotionRepository;
+    private final PromotionEngine promotionEngine;
+
+    public List<Promotion> getPromotions() {
+        return promotionRepository.findAll();
+    }
+
+    public Promotion savePromotion(String promotionId, PromotionRequest request) {
+        validate(request);
+        Promotion promotion = Promotion.builder()
+                .promotionId(promotionId)
+                .name(request.getName())
+                .type(request.getType())
+                .value(request.getValue())
+                .buyQuantity(request.getBuyQuantity())
+                .freeQuantity(request.getFreeQuantity())
+                .productIds(request.getProductIds() == null ? new HashSet<>() : new HashSet<>(request.getProductIds()))
+                .categories(request.getCategories() == null ? new HashSet<>() : new HashSet<>(request.getCategories()))
+                .startsAt(request.getStartsAt())
+                .endsAt(request.getEndsAt())
+                .active(request.getActive() == null || request.getActive())
+                .build();
+
+        promotionRepository.save(promotion);
+        // other instances pick the change up on their next refresh
+        promotionEngine.refresh();
+        log.info("Promotion {} saved", promotionId);
+        return promotion;
+    }
+
+    public void deletePromotion(String promotionId) {
+        if (!promotionRepository.deleteById(promotionId)) {
+            throw new PromotionNotFoundException("Promotion not found: " + promotionId);
+        }
+        promotionEngine.refresh();
+        log.info("Promotion {} deleted", promotionId);
+    }
+
+    private void validate(PromotionRequest request) {
+        DiscountType type = request.getType();
+        if (type == DiscountType.BUY_X_GET_Y) {
+            if (request.getBuyQuantity() == null || request.getBuyQuantity() < 1
+                    || request.getFreeQuantity() == null || request.getFreeQuantity() < 1) {
+                throw new InvalidPromotionException("Buy and free quantities are required for " + type);
+            }
+        } else if (request.getValue() == null || request.getValue().signum() <= 0) {
+            throw new InvalidPromotionException("A positive value is required for " + type);
+        } else if (type == DiscountType.PERCENTAGE && request.getValue().compareTo(HUNDRED) > 0) {
+            throw new InvalidPromotionException("Percentage cannot exceed 100");
+        }
+        if (request.getStartsAt() != null && request.getEndsAt() != null
+                && !request.getEndsAt().isAfter(request.getStartsAt())) {
+            throw new InvalidPromotionException("Promotion must end after it starts");
+        }
+    }
+}
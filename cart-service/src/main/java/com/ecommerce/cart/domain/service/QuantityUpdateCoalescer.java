@@ -0,0 +1,245 @@
+package com.ecommerce.cart.domain.service;
+
+import com.ecommerce.cart.domain.exception.RemoteCallTimeoutException;
+import com.ecommerce.cart.dto.response.CartResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Merges quantity updates hitting the same cart within a short window ({@code cart.coalescing.window}),
+ * so a burst from a quantity stepper costs one catalog validation and one Redis write.
+ * <p>
+ * The first update of a cart opens its batch and arms a timer; when the timer fires the batch is
+ * flushed on a virtual thread of its own, since a flush blocks on the catalog and on Redis. A cart
+ * has at most one flush running: a batch due meanwhile is flushed by the same thread right after.
+ * <p>
+ * Within a batch the last quantity of a product wins, as if the updates had been applied one after
+ * the other: a caller whose quantity was replaced by a later update of the same batch gets the cart
+ * as written, with the later quantity, and is counted in {@code cart.coalescing.overwritten}. A
+ * product that failed validation fails only the callers that updated it.
+ */
+@Component
+@Slf4j
+public class QuantityUpdateCoalescer implements DisposableBean {
+
+    private final boolean enabled;
+    private final Duration window;
+    private final Duration waitTimeout;
+    // Batches and flush state by cart id, only ever changed inside compute
+    private final ConcurrentHashMap<String, CartBatches> carts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final ExecutorService flushExecutor;
+    private final Counter updates;
+    private final Counter overwritten;
+    private final Counter flushes;
+    private final DistributionSummary batchSize;
+    private final Timer flushLatency;
+
+    public QuantityUpdateCoalescer(MeterRegistry meterRegistry,
+                                   @Value("${cart.coalescing.enabled:false}") boolean enabled,
+                                   @Value("${cart.coalescing.window:50ms}") Duration window,
+                                   @Value("${cart.coalescing.wait-timeout:10s}") Duration waitTimeout) {
+        this.enabled = enabled;
+        this.window = window;
+        this.waitTimeout = waitTimeout;
+        // the timer only hands batches over, it never blocks
+        this.timer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("cart-coalescer-timer").daemon().factory());
+        this.flushExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cart-coalescer-", 0).factory());
+        this.updates = meterRegistry.counter("cart.coalescing.updates");
+        this.overwritten = meterRegistry.counter("cart.coalescing.overwritten");
+        this.flushes = meterRegistry.counter("cart.coalescing.flushes");
+        // updates per flush, i.e. the coalescing ratio
+        this.batchSize = DistributionSummary.builder("cart.coalescing.batch-size")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("cart.coalescing.flush")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the update in the open batch of the cart and waits for that batch to be flushed.
+     */
+    public CartResponse update(String cartId, String productId, int quantity, Flush flush) {
+        CompletableFuture<CartResponse> result = submit(cartId, productId, quantity, flush);
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // the flush is stuck on the catalog or on Redis, not on a concurrent write
+            throw new RemoteCallTimeoutException("Timed out waiting for the quantity update of cart " + cartId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteCallTimeoutException("Interrupted while waiting for the quantity update of cart " + cartId);
+        }
+    }
+
+    public CompletableFuture<CartResponse> submit(String cartId, String productId, int quantity, Flush flush) {
+        if (!enabled) {
+            throw new IllegalStateException("Quantity update coalescing is disabled");
+        }
+        updates.increment();
+        CompletableFuture<CartResponse> result = new CompletableFuture<>();
+        boolean[] opened = new boolean[1];
+        carts.compute(cartId, (id, batches) -> {
+            CartBatches current = batches != null ? batches : new CartBatches();
+            if (current.open == null) {
+                current.open = new Batch(flush);
+                opened[0] = true;
+            }
+            current.open.add(productId, quantity, result);
+            return current;
+        });
+        if (opened[0]) {
+            timer.schedule(() -> due(cartId), window.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+
+    // The window of the open batch is over: flush it now, or after the flush already running
+    private void due(String cartId) {
+        Batch[] next = new Batch[1];
+        carts.computeIfPresent(cartId, (id, batches) -> {
+            batches.open.due = true;
+            if (!batches.flushing) {
+                next[0] = batches.open;
+                batches.open = null;
+                batches.flushing = true;
+            }
+            return batches;
+        });
+        if (next[0] != null) {
+            flushExecutor.execute(() -> flushAll(cartId, next[0]));
+        }
+    }
+
+    private void flushAll(String cartId, Batch first) {
+        for (Batch batch = first; batch != null; batch = nextDue(cartId)) {
+            flush(cartId, batch);
+        }
+    }
+
+    // Hands over the batch that became due during the flush, or ends the flushing of the cart
+    private Batch nextDue(String cartId) {
+        Batch[] next = new Batch[1];
+        carts.computeIfPresent(cartId, (id, batches) -> {
+            if (batches.open != null && batches.open.due) {
+                next[0] = batches.open;
+                batches.open = null;
+                return batches;
+            }
+            batches.flushing = false;
+            return batches.open == null ? null : batches;
+        });
+        return next[0];
+    }
+
+    private void flush(String cartId, Batch batch) {
+        long start = System.nanoTime();
+        FlushResult outcome;
+        try {
+            outcome = batch.flush.apply(cartId, batch.quantities);
+        } catch (RuntimeException e) {
+            log.debug("Flush of {} quantity updates on cart {} failed: {}", batch.requests, cartId, e.getMessage());
+            record(batch, start);
+            batch.waiters.values().forEach(waiters -> waiters.forEach(waiter -> waiter.completeExceptionally(e)));
+            return;
+        }
+        record(batch, start);
+        log.debug("Flushed {} quantity updates on {} products of cart {}",
+                batch.requests, batch.quantities.size(), cartId);
+        batch.waiters.forEach((productId, waiters) -> {
+            RuntimeException failure = outcome.failures().get(productId);
+            waiters.forEach(waiter -> {
+                if (failure != null) {
+                    waiter.completeExceptionally(failure);
+                } else {
+                    waiter.complete(outcome.cart());
+                }
+            });
+        });
+    }
+
+    // Before the waiters are completed, so that a caller sees its flush counted
+    private void record(Batch batch, long start) {
+        flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        flushes.increment();
+        batchSize.record(batch.requests);
+        overwritten.increment(batch.requests - batch.quantities.size());
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        // delayed timers still fire after shutdown, and start their flushes, so no queued update is lost
+        timer.shutdown();
+        timer.awaitTermination(window.toMillis() + waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Validates and writes the latest quantity of every product of a batch at once.
+     */
+    @FunctionalInterface
+    public interface Flush {
+        FlushResult apply(String cartId, Map<String, Integer> quantities);
+    }
+
+    /**
+     * The cart as written, and the products whose update was rejected.
+     */
+    public record FlushResult(CartResponse cart, Map<String, RuntimeException> failures) {
+    }
+
+    private static final class CartBatches {
+        private Batch open;
+        private boolean flushing;
+    }
+
+    private static final class Batch {
+        private final Flush flush;
+        private final Map<String, Integer> quantities = new LinkedHashMap<>();
+        private final Map<String, List<CompletableFuture<CartResponse>>> waiters = new HashMap<>();
+        private int requests;
+        private boolean due;
+
+        private Batch(Flush flush) {
+            this.flush = flush;
+        }
+
+        private void add(String productId, int quantity, CompletableFuture<CartResponse> waiter) {
+            quantities.put(productId, quantity);
+            waiters.computeIfAbsent(productId, id -> new ArrayList<>()).add(waiter);
+            requests++;
+        }
+    }
+}
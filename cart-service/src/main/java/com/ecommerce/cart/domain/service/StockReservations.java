@@ -0,0 +1,161 @@
+package com.ecommerce.cart.domain.service;
+
+import com.ecommerce.cart.client.StockReservationClient;
+import com.ecommerce.cart.dto.external.ReleaseStockRequest;
+import com.ecommerce.cart.dto.external.ReservationDTO;
+import com.ecommerce.cart.dto.external.ReserveStockRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog stock held by a cart for its lines, so that two carts cannot both get the last units.
+ * <p>
+ * A hold carries the total quantity of the line, not an increment, so repeating a call is
+ * harmless. Holds expire after {@code cart.reservations.ttl} without activity of the cart: every
+ * change of the cart renews the holds of all its lines, at most once per
+ * {@code cart.reservations.renew-interval}, and takes back those that expired if the stock is
+ * still there. An inactive cart gives its stock back by itself, and a release that did not reach
+ * the catalog only delays that. Taking a hold is part of the availability check and fails closed;
+ * releasing, adjusting or renewing holds is best effort. Concurrent changes of the same line may
+ * leave its hold at the quantity of the other request, until the next change or the expiry.
+ */
+@Service
+@Slf4j
+public class StockReservations {
+
+    private final StockReservationClient stockReservationClient;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration ttl;
+    // Carts whose holds were renewed lately, on this instance
+    private final Cache<String, Boolean> renewed;
+
+    public StockReservations(StockReservationClient stockReservationClient, MeterRegistry meterRegistry,
+                             @Value("${cart.reservations.enabled:true}") boolean enabled,
+                             @Value("${cart.reservations.ttl:30m}") Duration ttl,
+                             @Value("${cart.reservations.renew-interval:10m}") Duration renewInterval,
+                             @Value("${cart.reservations.renewed-carts:100000}") long renewedCarts) {
+        this.stockReservationClient = stockReservationClient;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.renewed = Caffeine.newBuilder()
+                .expireAfterWrite(renewInterval)
+                .maximumSize(renewedCarts)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Holds the given total quantities, returning the products the catalog refused, or all of
+     * them when it could not be reached.
+     */
+    public Set<String> hold(String cartId, Map<String, Integer> quantities) {
+        if (!enabled || quantities.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            Set<String> held = stockReservationClient.reserve(request(cartId, quantities)).stream()
+                    .filter(reservation -> Boolean.TRUE.equals(reservation.getReserved()))
+                    .map(ReservationDTO::getProductId)
+                    .collect(Collectors.toSet());
+            Set<String> refused = new HashSet<>(quantities.keySet());
+            refused.removeAll(held);
+            count("held", quantities.size() - refused.size());
+            count("refused", refused.size());
+            return refused;
+        } catch (RuntimeException e) {
+            log.error("Unable to hold stock for cart {}: {}", cartId, e.getMessage());
+            count("failed", quantities.size());
+            return quantities.keySet();
+        }
+    }
+
+    /**
+     * Sets holds to the given quantities, 0 releasing them, without checking the outcome: to put
+     * them back after a change of the cart that did not go through, or to move them to another cart.
+     */
+    public void adjust(String cartId, Map<String, Integer> quantities) {
+        if (!enabled || quantities.isEmpty()) {
+            return;
+        }
+        try {
+            stockReservationClient.reserve(request(cartId, quantities));
+            count("adjusted", quantities.size());
+        } catch (RuntimeException e) {
+            log.warn("Unable to adjust stock holds of cart {}, they will expire: {}", cartId, e.getMessage());
+        }
+    }
+
+    /**
+     * Renews the holds of every line of a cart after a change of it, unless they were renewed less
+     * than {@code renew-interval} ago.
+     */
+    public void renew(String cartId, Map<String, Integer> quantities) {
+        if (!enabled || quantities.isEmpty() || renewed.asMap().putIfAbsent(cartId, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            stockReservationClient.reserve(request(cartId, quantities));
+            count("renewed", quantities.size());
+        } catch (RuntimeException e) {
+            renewed.invalidate(cartId);
+            log.warn("Unable to renew stock holds of cart {}, they will expire: {}", cartId, e.getMessage());
+        }
+    }
+
+    public void release(String cartId, Collection<String> productIds) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            stockReservationClient.release(ReleaseStockRequest.builder()
+                    .holderId(cartId)
+                    .productIds(new ArrayList<>(productIds))
+                    .build());
+            count("released", productIds.size());
+        } catch (RuntimeException e) {
+            log.warn("Unable to release stock holds of cart {}, they will expire: {}", cartId, e.getMessage());
+        }
+    }
+
+    public void releaseAll(String cartId) {
+        renewed.invalidate(cartId);
+        release(cartId, List.of());
+    }
+
+    private ReserveStockRequest request(String cartId, Map<String, Integer> quantities) {
+        return ReserveStockRequest.builder()
+                .holderId(cartId)
+                .ttlSeconds(ttl.toSeconds())
+                .items(quantities.entrySet().stream()
+                        .map(line -> ReservationDTO.builder()
+                                .productId(line.getKey())
+                                .quantity(line.getValue())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private void count(String result, int lines) {
+        if (lines > 0) {
+            meterRegistry.counter("cart.stock-holds", "result", result).increment(lines);
+        }
+    }
+}
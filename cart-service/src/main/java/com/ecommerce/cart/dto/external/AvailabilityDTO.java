@@ -0,0 +1,22 @@
+package com.ecommerce.cart.dto.external;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityDTO {
+    private String productId;
+    private Integer quantity;
+    // optional, the stock held by this cart counts as available to it
+    private String holderId;
+    private Boolean available;
+    // stands for an answer the catalog could not give, see CatalogClientFallback
+    @JsonIgnore
+    private boolean placeholder;
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.cart.dto.external;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAvailabilityRequest {
+    private List<AvailabilityDTO> items;
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.cart.dto.external;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +21,7 @@ public class ProductDTO {
     private String category;
     private Integer stockQuantity;
     private Boolean available;
+    // stands for a product the catalog could not be asked about, see CatalogClientFallback
+    @JsonIgnore
+    private boolean placeholder;
 }
\ No newline at end of file
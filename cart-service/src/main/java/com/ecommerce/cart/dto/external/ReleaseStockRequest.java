@@ -0,0 +1,18 @@
+package com.ecommerce.cart.dto.external;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReleaseStockRequest {
+    private String holderId;
+    // Empty for all the products held
+    private List<String> productIds;
+}
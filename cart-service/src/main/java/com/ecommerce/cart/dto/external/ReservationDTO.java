@@ -0,0 +1,19 @@
+package com.ecommerce.cart.dto.external;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDTO {
+    private String productId;
+    private Integer quantity;
+    private Boolean reserved;
+    private Instant expiresAt;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.cart.dto.external;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReserveStockRequest {
+    private String holderId;
+    private Long ttlSeconds;
+    private List<ReservationDTO> items;
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.cart.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchAddItemsRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 100, message = "A batch cannot contain more than 100 items")
+    private List<@Valid AddItemRequest> items;
+}
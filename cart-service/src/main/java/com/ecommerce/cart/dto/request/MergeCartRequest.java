@@ -0,0 +1,10 @@
+package com.ecommerce.cart.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class MergeCartRequest {
+    @NotBlank(message = "Guest cart Id is required")
+    private String guestCartId;
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.cart.dto.request;
+
+import com.ecommerce.cart.domain.enums.DiscountType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+public class PromotionRequest {
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @NotNull(message = "Discount type is required")
+    private DiscountType type;
+
+    private BigDecimal value;
+    private Integer buyQuantity;
+    private Integer freeQuantity;
+    private Set<String> productIds;
+    private Set<String> categories;
+    private LocalDateTime startsAt;
+    private LocalDateTime endsAt;
+    private Boolean active;
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.cart.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the NDJSON cart export: a cart, or the closing line once every cart has been written.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CartExportLine {
+    // resumes the export from the page of this line
+    private String cursor;
+    private CartResponse cart;
+    private Boolean end;
+    private Long exported;
+}
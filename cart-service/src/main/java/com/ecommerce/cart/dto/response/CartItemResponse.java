@@ -19,5 +19,7 @@ public class CartItemResponse {
     private int quantity;
     private BigDecimal unitPrice;
     private BigDecimal lineTotal;
+    private BigDecimal discount;
+    private String promotionId;
     private boolean available;
 }
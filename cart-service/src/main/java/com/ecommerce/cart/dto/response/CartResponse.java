@@ -1,5 +1,7 @@
 package com.ecommerce.cart.dto.response;
 
+import com.ecommerce.cart.domain.enums.CartStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,7 +22,14 @@ public class CartResponse {
     private List<CartItemResponse> items;
     private int totalItems;
     private BigDecimal subtotal;
+    private BigDecimal discount;
     private BigDecimal total;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private CartStatus status;
+    private long version;
+
+    // sent as the ETag header, not in the body
+    @JsonIgnore
+    private String entityTag;
 }
@@ -0,0 +1,23 @@
+package com.ecommerce.cart.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartValidationResponse {
+    private String cartId;
+    private boolean valid;
+    // false when the last background revalidation was recent enough to be trusted
+    private boolean revalidated;
+    private LocalDateTime revalidatedAt;
+    private List<String> unavailableProductIds;
+    private CartResponse cart;
+}
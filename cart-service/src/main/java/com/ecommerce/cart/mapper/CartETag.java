@@ -0,0 +1,83 @@
+package com.ecommerce.cart.mapper;
+
+import com.ecommerce.cart.domain.exception.CartPreconditionFailedException;
+import com.ecommerce.cart.domain.service.CartPrecondition;
+import com.ecommerce.cart.domain.service.PricingVersion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity tags of cart representations: {@code "<cart version>.<promotion rules version>.<window>"}.
+ * <p>
+ * The pricing part is needed because the same cart is priced differently once promotions change,
+ * or once one of them starts or ends. Preconditions on writes ({@code If-Match}) only look at the
+ * cart version, a promotion change does not make an update unsafe.
+ */
+public final class CartETag {
+
+    private CartETag() {
+    }
+
+    public static String of(long cartVersion, PricingVersion pricing) {
+        return "\"" + cartVersion + "." + pricing.rulesVersion() + "." + pricing.window() + "\"";
+    }
+
+    /**
+     * Weak comparison against an {@code If-None-Match} header, which may list several tags or be {@code *}.
+     */
+    public static boolean matches(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cart versions accepted by an {@code If-Match} header, which may list several tags; none when it
+     * is absent or {@code *}.
+     */
+    public static CartPrecondition precondition(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return CartPrecondition.NONE;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return CartPrecondition.NONE;
+            }
+            if (!tag.isEmpty()) {
+                versions.add(cartVersion(tag, ifMatch));
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new CartPreconditionFailedException("Unrecognized entity tag: " + ifMatch);
+        }
+        return CartPrecondition.anyOf(versions);
+    }
+
+    private static long cartVersion(String tag, String header) {
+        String value = opaque(tag);
+        int separator = value.indexOf('.');
+        try {
+            return Long.parseLong(separator < 0 ? value : value.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new CartPreconditionFailedException("Unrecognized entity tag: " + header);
+        }
+    }
+
+    private static String opaque(String tag) {
+        String value = tag.startsWith("W/") ? tag.substring(2) : tag;
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+}
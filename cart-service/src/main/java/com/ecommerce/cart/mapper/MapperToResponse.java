@@ -2,17 +2,26 @@ package com.ecommerce.cart.mapper;
 
 import com.ecommerce.cart.domain.entity.Cart;
 import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.entity.Money;
+import com.ecommerce.cart.domain.service.PromotionEngine;
+import com.ecommerce.cart.domain.service.PromotionResult;
 import com.ecommerce.cart.dto.response.CartItemResponse;
 import com.ecommerce.cart.dto.response.CartResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.stream.Collectors;
 @Component
+@RequiredArgsConstructor
 public class MapperToResponse {
+    private final PromotionEngine promotionEngine;
+
     public CartResponse mapToResponse(Cart cart) {
+        // carts are priced with the current promotions every time they are presented
+        PromotionResult promotions = promotionEngine.apply(cart);
         List<CartItemResponse> itemResponses = cart.getItems().stream()
-                .map(this::mapItemToResponse)
+                .map(item -> mapItemToResponse(item, promotions.lines().get(item.getProductId())))
                 .collect(Collectors.toList());
 
         return CartResponse.builder()
@@ -21,12 +30,20 @@ public class MapperToResponse {
                 .items(itemResponses)
                 .totalItems(cart.getTotalItems())
                 .subtotal(cart.getSubtotal())
+                .discount(cart.getDiscount())
                 .total(cart.getTotal())
                 .createdAt(cart.getCreatedAt())
                 .updatedAt(cart.getUpdatedAt())
+                .status(cart.getStatus())
+                .version(cart.getVersion())
+                .entityTag(CartETag.of(cart.getVersion(), promotions.pricingVersion()))
                 .build();
     }
     public CartItemResponse mapItemToResponse(CartItem item) {
+        return mapItemToResponse(item, null);
+    }
+
+    private CartItemResponse mapItemToResponse(CartItem item, PromotionResult.LineDiscount discount) {
         return CartItemResponse.builder()
                 .itemId(item.getItemId())
                 .productId(item.getProductId())
@@ -35,6 +52,8 @@ public class MapperToResponse {
                 .quantity(item.getQuantity())
                 .unitPrice(item.getUnitPrice())
                 .lineTotal(item.getLineTotal())
+                .discount(discount == null ? null : Money.fromCents(discount.discountCents()))
+                .promotionId(discount == null ? null : discount.promotionId())
                 .available(item.isAvailable())
                 .build();
     }
@@ -0,0 +1,38 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.config.RedisConfig;
+import com.ecommerce.cart.domain.entity.AbandonnedCart;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Most recent abandoned-cart records, newest first, in a Redis list capped at
+ * {@code cart.abandonment.max-records}.
+ */
+@Repository
+public class AbandonedCartRepository {
+
+    public static final String RECORDS_KEY = "carts:abandoned";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper = RedisConfig.plainObjectMapper();
+    private final long maxRecords;
+
+    public AbandonedCartRepository(StringRedisTemplate stringRedisTemplate,
+                                   @Value("${cart.abandonment.max-records:10000}") long maxRecords) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.maxRecords = maxRecords;
+    }
+
+    public void save(AbandonnedCart record) {
+        try {
+            stringRedisTemplate.opsForList().leftPush(RECORDS_KEY, objectMapper.writeValueAsString(record));
+            stringRedisTemplate.opsForList().trim(RECORDS_KEY, 0, maxRecords - 1);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize abandoned cart " + record.getCartId(), e);
+        }
+    }
+}
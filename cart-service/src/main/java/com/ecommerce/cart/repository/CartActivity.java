@@ -0,0 +1,14 @@
+package com.ecommerce.cart.repository;
+
+/**
+ * Position of a cart in the activity index: its last activity in epoch milliseconds, ties broken
+ * by cart id, which is the order of the sorted set in Redis.
+ */
+public record CartActivity(long score, String cartId) implements Comparable<CartActivity> {
+
+    @Override
+    public int compareTo(CartActivity other) {
+        int byScore = Long.compare(score, other.score);
+        return byScore != 0 ? byScore : cartId.compareTo(other.cartId);
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.domain.entity.CartEvent;
+import com.ecommerce.cart.domain.enums.CartEventType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStreamCommands.XClaimOptions;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consumer-group access to the {@code carts:events} stream. Events are appended by the cart write
+ * scripts; this class only reads, acknowledges and recovers them.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class CartEventStream {
+
+    public static final String STREAM_KEY = "carts:events";
+    public static final String DEAD_LETTER_KEY = "carts:events:dead";
+    private static final long DEAD_LETTER_MAX_LENGTH = 10_000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * Creates the group, and the stream if needed. A new group starts with the events appended
+     * from now on.
+     */
+    public void createGroup(String group) {
+        try {
+            stringRedisTemplate.opsForStream().createGroup(STREAM_KEY, ReadOffset.latest(), group);
+            log.info("Consumer group {} created on {}", group, STREAM_KEY);
+        } catch (DataAccessException e) {
+            if (!String.valueOf(e.getMostSpecificCause().getMessage()).contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Next events never delivered to the group, waiting up to {@code block} when there are none.
+     */
+    public List<CartEvent> read(String group, String consumer, int count, Duration block) {
+        List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream().read(
+                Consumer.from(group, consumer),
+                StreamReadOptions.empty().count(count).block(block),
+                StreamOffset.create(STREAM_KEY, ReadOffset.lastConsumed()));
+        return toEvents(records);
+    }
+
+    public void acknowledge(String group, Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            stringRedisTemplate.opsForStream().acknowledge(STREAM_KEY, group, ids.toArray(String[]::new));
+        }
+    }
+
+    /**
+     * Delivered but unacknowledged events, oldest first.
+     */
+    public List<PendingMessage> pending(String group, int count) {
+        PendingMessages pending = stringRedisTemplate.opsForStream().pending(STREAM_KEY, group, Range.unbounded(), count);
+        List<PendingMessage> messages = new ArrayList<>(pending.size());
+        pending.forEach(messages::add);
+        return messages;
+    }
+
+    /**
+     * Takes over events left pending by a consumer for at least {@code minIdle}.
+     */
+    public List<CartEvent> claim(String group, String consumer, Duration minIdle, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        RecordId[] recordIds = ids.stream().map(RecordId::of).toArray(RecordId[]::new);
+        List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream()
+                .claim(STREAM_KEY, group, consumer, XClaimOptions.minIdle(minIdle).ids(recordIds));
+        return toEvents(records);
+    }
+
+    /**
+     * Copies the entries to the dead-letter stream, then acknowledges them so they leave the group.
+     */
+    public void deadLetter(String group, Collection<String> ids) {
+        for (String id : ids) {
+            List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream()
+                    .range(STREAM_KEY, Range.closed(id, id));
+            Map<String, String> fields = new HashMap<>();
+            if (records != null && !records.isEmpty()) {
+                records.get(0).getValue().forEach((field, value) -> fields.put(field.toString(), value.toString()));
+            }
+            fields.put("sourceId", id);
+            fields.put("group", group);
+            stringRedisTemplate.opsForStream().add(StreamRecords.string(fields).withStreamKey(DEAD_LETTER_KEY));
+        }
+        stringRedisTemplate.opsForStream().trim(DEAD_LETTER_KEY, DEAD_LETTER_MAX_LENGTH, true);
+        acknowledge(group, ids);
+    }
+
+    private static List<CartEvent> toEvents(List<MapRecord<String, Object, Object>> records) {
+        if (records == null || records.isEmpty()) {
+            return List.of();
+        }
+        List<CartEvent> events = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            Map<Object, Object> fields = record.getValue();
+            events.add(CartEvent.builder()
+                    .id(record.getId().getValue())
+                    .type(CartEventType.valueOf(string(fields, "type")))
+                    .cartId(string(fields, "cartId"))
+                    .userId(string(fields, "userId"))
+                    .productId(string(fields, "productId"))
+                    .quantity(fields.containsKey("quantity") ? Integer.valueOf(string(fields, "quantity")) : null)
+                    .guestCartId(string(fields, "guestCartId"))
+                    .version(fields.containsKey("version") ? Long.parseLong(string(fields, "version")) : 0L)
+                    .occurredAt(fields.containsKey("occurredAt") ? LocalDateTime.parse(string(fields, "occurredAt")) : null)
+                    .build());
+        }
+        return events;
+    }
+
+    private static String string(Map<Object, Object> fields, String field) {
+        Object value = fields.get(field);
+        return value == null ? null : value.toString();
+    }
+}
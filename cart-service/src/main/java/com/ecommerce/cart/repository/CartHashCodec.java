@@ -0,0 +1,162 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.enums.CartStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps a {@link Cart} to the fields of its Redis hash and back.
+ * <p>
+ * Layout of {@code cart:{cartId}}:
+ * <ul>
+ *     <li>header fields ({@code cartId}, {@code userId}, {@code createdAt}, ...) stored as plain strings</li>
+ *     <li>{@code item:{productId}} holding the serialized line</li>
+ *     <li>{@code qty:{productId}} holding the line quantity as an integer, so quantity changes
+ *     never rewrite the line itself</li>
+ * </ul>
+ * Totals are not stored, they are recomputed when the cart is loaded. The {@code version} field is
+ * owned by the write script and is never part of an encoded patch.
+ */
+@Component
+@RequiredArgsConstructor
+public class CartHashCodec {
+
+    public static final String CART_ID = "cartId";
+    public static final String USER_ID = "userId";
+    public static final String CREATED_AT = "createdAt";
+    public static final String UPDATED_AT = "updatedAt";
+    public static final String EXPIRES_AT = "expiresAt";
+    public static final String REVALIDATED_AT = "revalidatedAt";
+    public static final String STATUS = "status";
+    public static final String VERSION = "version";
+    public static final String ITEM_PREFIX = "item:";
+    public static final String QUANTITY_PREFIX = "qty:";
+
+    private static final Comparator<CartItem> LINE_ORDER = Comparator
+            .comparing(CartItem::getAddedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(CartItem::getProductId);
+
+    private final RedisSerializer<CartItem> cartItemSerializer;
+
+    public Map<String, byte[]> encode(Cart cart) {
+        Map<String, byte[]> fields = new LinkedHashMap<>();
+        putString(fields, CART_ID, cart.getCartId());
+        putString(fields, USER_ID, cart.getUserId());
+        putDate(fields, CREATED_AT, cart.getCreatedAt());
+        putDate(fields, EXPIRES_AT, cart.getExpiresAt());
+        fields.putAll(encodeHeaderUpdate(cart));
+        for (CartItem item : cart.getItems()) {
+            fields.putAll(encodeItem(item));
+        }
+        return fields;
+    }
+
+    /**
+     * Header fields that change on every mutation.
+     */
+    public Map<String, byte[]> encodeHeaderUpdate(Cart cart) {
+        Map<String, byte[]> fields = new LinkedHashMap<>();
+        putDate(fields, UPDATED_AT, cart.getUpdatedAt());
+        putDate(fields, REVALIDATED_AT, cart.getRevalidatedAt());
+        if (cart.getStatus() != null) {
+            putString(fields, STATUS, cart.getStatus().name());
+        }
+        return fields;
+    }
+
+    public Map<String, byte[]> encodeItem(CartItem item) {
+        Map<String, byte[]> fields = new LinkedHashMap<>();
+        fields.put(ITEM_PREFIX + item.getProductId(), cartItemSerializer.serialize(item));
+        fields.putAll(encodeQuantity(item));
+        return fields;
+    }
+
+    public Map<String, byte[]> encodeQuantity(CartItem item) {
+        return Map.of(QUANTITY_PREFIX + item.getProductId(), bytes(String.valueOf(item.getQuantity())));
+    }
+
+    public List<String> itemFields(String productId) {
+        return List.of(ITEM_PREFIX + productId, QUANTITY_PREFIX + productId);
+    }
+
+    /**
+     * Rebuilds a cart from the flat {@code field, value, field, value...} list returned by {@code HGETALL}.
+     */
+    public Cart decode(List<byte[]> flatFields) {
+        Map<String, String> header = new HashMap<>();
+        Map<String, CartItem> items = new HashMap<>();
+        Map<String, Integer> quantities = new HashMap<>();
+
+        for (int i = 0; i + 1 < flatFields.size(); i += 2) {
+            String field = string(flatFields.get(i));
+            byte[] value = flatFields.get(i + 1);
+            if (field.startsWith(ITEM_PREFIX)) {
+                items.put(field.substring(ITEM_PREFIX.length()), cartItemSerializer.deserialize(value));
+            } else if (field.startsWith(QUANTITY_PREFIX)) {
+                quantities.put(field.substring(QUANTITY_PREFIX.length()), Integer.parseInt(string(value)));
+            } else {
+                header.put(field, string(value));
+            }
+        }
+
+        List<CartItem> lines = new ArrayList<>(items.size());
+        items.forEach((productId, item) -> {
+            Integer quantity = quantities.get(productId);
+            if (quantity != null) {
+                item.setQuantity(quantity);
+            }
+            lines.add(item);
+        });
+        lines.sort(LINE_ORDER);
+
+        Cart cart = Cart.builder()
+                .cartId(header.get(CART_ID))
+                .userId(header.get(USER_ID))
+                .items(lines)
+                .createdAt(date(header.get(CREATED_AT)))
+                .updatedAt(date(header.get(UPDATED_AT)))
+                .expiresAt(date(header.get(EXPIRES_AT)))
+                .revalidatedAt(date(header.get(REVALIDATED_AT)))
+                .status(header.containsKey(STATUS) ? CartStatus.valueOf(header.get(STATUS)) : CartStatus.ACTIVE)
+                .version(header.containsKey(VERSION) ? Long.parseLong(header.get(VERSION)) : 0L)
+                .build();
+        cart.calculateTotals();
+        return cart;
+    }
+
+    public static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static void putString(Map<String, byte[]> fields, String field, String value) {
+        if (value != null) {
+            fields.put(field, bytes(value));
+        }
+    }
+
+    private static void putDate(Map<String, byte[]> fields, String field, LocalDateTime value) {
+        if (value != null) {
+            fields.put(field, bytes(value.toString()));
+        }
+    }
+
+    private static LocalDateTime date(String value) {
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+}
@@ -1,44 +1,287 @@
 package com.ecommerce.cart.repository;
 
 import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartEvent;
+import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.enums.CartStatus;
+import com.ecommerce.cart.domain.exception.CartAccessDeniedException;
+import com.ecommerce.cart.domain.exception.CartAlreadyExistsException;
+import com.ecommerce.cart.domain.exception.CartNotFoundException;
+import com.ecommerce.cart.domain.exception.CartVersionConflictException;
+import com.ecommerce.cart.domain.exception.InvalidCartOperationException;
+import com.ecommerce.cart.domain.service.CartMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static com.ecommerce.cart.repository.CartHashCodec.bytes;
 
 @RequiredArgsConstructor
 @Slf4j
 @Repository
+@Profile("!inmemory")
 public class CartRedisRepository implements CartRepository{
+    private static final String CART_PREFIX= "cart:";
+    public static final String ACTIVITY_KEY = "carts:activity";
+    private static final String USER_PREFIX = "cart-user:";
+    private static final long USER_HAS_CART = -2;
+    private static final long USER_INDEX_MOVED = -3;
+    // Scripts resolving the user's cart are re-run when the user index moves under them
+    private static final int MAX_INDEX_READS = 3;
+    private static final String HASH_TYPE = "hash";
+    private static final String LEGACY_TYPE = "string";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LOAD_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart-load.lua"), List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LOAD_BATCH_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart-load-batch.lua"), List.class);
+    private static final RedisScript<Long> WRITE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart-write.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LOAD_BY_USER_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart-load-by-user.lua"), List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> MERGE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart-merge.lua"), List.class);
+    private static final RedisScript<Long> DELETE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart-delete.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCAN_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart-scan.lua"), List.class);
+
     private final RedisTemplate<String,Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CartHashCodec codec;
+    private final RedisSerializer<Cart> cartSerializer;
+    private final CartMetrics cartMetrics;
 
     @Value("${cart.ttl-days:7}")
     private long timeBeforeCartToExpire;
-    private static final String CART_PREFIX= "cart:";
+
+    @Value("${cart.events.max-length:100000}")
+    private long eventStreamMaxLength;
 
     @Override
     public Cart save(Cart cart) {
-        String key = CART_PREFIX + cart.getCartId();
-        redisTemplate.opsForValue().set(key,cart, Duration.ofDays(timeBeforeCartToExpire));
+        write(cart, true, false, List.of(), codec.encode(cart));
         log.debug("Cart saved to Redis: {} with TTL expiration  {} days", cart.getCartId(), timeBeforeCartToExpire);
         return cart;    }
 
+    @Override
+    public Cart saveItem(Cart cart, String productId) {
+        return saveItems(cart, List.of(productId));
+    }
+
+    @Override
+    public Cart saveItems(Cart cart, Collection<String> productIds, boolean keepTtl) {
+        Map<String, byte[]> fields = codec.encodeHeaderUpdate(cart);
+        for (String productId : productIds) {
+            CartItem item = cart.findItem(productId)
+                    .orElseThrow(() -> new IllegalArgumentException("Product not in cart: " + productId));
+            fields.putAll(codec.encodeItem(item));
+        }
+        write(cart, false, keepTtl, List.of(), fields);
+        log.debug("Cart lines {} saved to Redis: {}", productIds, cart.getCartId());
+        return cart;
+    }
+
+    @Override
+    public Cart saveItemQuantity(Cart cart, String productId) {
+        return saveItemQuantities(cart, List.of(productId));
+    }
+
+    @Override
+    public Cart saveItemQuantities(Cart cart, Collection<String> productIds) {
+        Map<String, byte[]> fields = codec.encodeHeaderUpdate(cart);
+        for (String productId : productIds) {
+            CartItem item = cart.findItem(productId)
+                    .orElseThrow(() -> new IllegalArgumentException("Product not in cart: " + productId));
+            fields.putAll(codec.encodeQuantity(item));
+        }
+        write(cart, false, false, List.of(), fields);
+        log.debug("Cart line quantities {} saved to Redis: {}", productIds, cart.getCartId());
+        return cart;
+    }
+
+    @Override
+    public Cart saveHeader(Cart cart, boolean keepTtl) {
+        write(cart, false, keepTtl, List.of(), codec.encodeHeaderUpdate(cart));
+        log.debug("Cart header saved to Redis: {}", cart.getCartId());
+        return cart;
+    }
+
+    @Override
+    public Cart removeItem(Cart cart, String productId) {
+        write(cart, false, false, codec.itemFields(productId), codec.encodeHeaderUpdate(cart));
+        log.debug("Cart line {} removed from Redis: {}", productId, cart.getCartId());
+        return cart;
+    }
+
     @Override
     public Optional<Cart> findById(String cartId) {
         String key = CART_PREFIX + cartId;
-        Cart cart =(Cart) redisTemplate.opsForValue().get(key);
+        List<byte[]> result = execute(LOAD_SCRIPT, List.of(key), List.of());
+        if (result == null || result.isEmpty()) {
+            return Optional.empty();
+        }
+        return decodeLoaded(cartId, result);
+    }
+
+    /**
+     * Loads the carts with one script call; missing carts are left out.
+     */
+    @Override
+    public List<Cart> findAllById(List<String> cartIds) {
+        if (cartIds.isEmpty()) {
+            return List.of();
+        }
+        List<String> keys = cartIds.stream().map(cartId -> CART_PREFIX + cartId).toList();
+        List<List<byte[]>> results = execute(LOAD_BATCH_SCRIPT, keys, List.of());
+        List<Cart> carts = new ArrayList<>(cartIds.size());
+        for (int i = 0; i < cartIds.size(); i++) {
+            List<byte[]> result = results.get(i);
+            if (result != null && !result.isEmpty()) {
+                decodeLoaded(cartIds.get(i), result).ifPresent(carts::add);
+            }
+        }
+        return carts;
+    }
+
+    /**
+     * Version of the cart with a single {@code HGET}, without loading it. Empty when the cart does
+     * not exist or is still in the legacy layout, in which case callers fall back to a full load.
+     */
+    @Override
+    public Optional<Long> findVersion(String cartId) {
+        try {
+            Object version = stringRedisTemplate.opsForHash().get(CART_PREFIX + cartId, CartHashCodec.VERSION);
+            return version == null ? Optional.empty() : Optional.of(Long.parseLong((String) version));
+        } catch (InvalidDataAccessApiUsageException e) {
+            // WRONGTYPE: legacy JSON document
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<Cart> findByUserId(String userId) {
+        List<byte[]> result = execute(LOAD_BY_USER_SCRIPT, List.of(USER_PREFIX + userId), List.of(bytes(CART_PREFIX)));
+        if (result == null || result.isEmpty()) {
+            return Optional.empty();
+        }
+        String cartId = new String(result.get(0), StandardCharsets.UTF_8);
+        return decodeLoaded(cartId, result.subList(1, result.size()));
+    }
+
+    /**
+     * Decodes the {@code type, payload...} reply of the load scripts.
+     */
+    private Optional<Cart> decodeLoaded(String cartId, List<byte[]> result) {
+        String type = new String(result.get(0), StandardCharsets.UTF_8);
+        if (LEGACY_TYPE.equals(type)) {
+            return Optional.ofNullable(migrateLegacyCart(cartId, result.get(1)));
+        }
+        if (!HASH_TYPE.equals(type)) {
+            log.warn("Unexpected Redis type {} for cart {}", type, cartId);
+            return Optional.empty();
+        }
+        List<byte[]> hash = result.subList(1, result.size());
+        Cart cart = codec.decode(hash);
+        long size = 0;
+        for (byte[] part : hash) {
+            size += part.length;
+        }
+        cartMetrics.recordCart(size, cart.getItems().size());
         log.debug("Cart rretrieved from Redis: {}",cartId);
-        return Optional.ofNullable(cart);
+        return Optional.of(cart);
+    }
+
+    /**
+     * Merges the guest cart into the user's cart with a single script. The user's cart is resolved
+     * beforehand so that the script declares every key it touches; if the user index moved in the
+     * meantime the merge is attempted again. Carts still in the legacy layout are migrated by
+     * loading them, then the merge is attempted once more.
+     */
+    @Override
+    public Cart mergeGuestCart(String userId, String guestCartId, int maxItems) {
+        boolean migrated = false;
+        for (int attempt = 1; ; attempt++) {
+            String userCartId = stringRedisTemplate.opsForValue().get(USER_PREFIX + userId);
+            List<String> keys = userCartId == null
+                    ? List.of(USER_PREFIX + userId, CART_PREFIX + guestCartId, ACTIVITY_KEY, CartEventStream.STREAM_KEY)
+                    : List.of(USER_PREFIX + userId, CART_PREFIX + guestCartId, ACTIVITY_KEY, CartEventStream.STREAM_KEY,
+                            CART_PREFIX + userCartId);
+            LocalDateTime now = LocalDateTime.now();
+            List<byte[]> result = execute(MERGE_SCRIPT, keys,
+                    List.of(bytes(String.valueOf(Duration.ofDays(timeBeforeCartToExpire).toSeconds())),
+                            bytes(String.valueOf(maxItems)),
+                            bytes(guestCartId),
+                            bytes(userCartId == null ? "" : userCartId),
+                            bytes(userId),
+                            bytes(now.toString()),
+                            bytes(String.valueOf(activityScore(now))),
+                            bytes(String.valueOf(eventStreamMaxLength))));
+
+            String outcome = new String(result.get(0), StandardCharsets.UTF_8);
+            switch (outcome) {
+                case HASH_TYPE -> {
+                    Cart cart = codec.decode(result.subList(2, result.size()));
+                    log.debug("Guest cart {} merged into cart {} of user {}", guestCartId, cart.getCartId(), userId);
+                    return cart;
+                }
+                case "missing" -> throw new CartNotFoundException("Cart not found: " + guestCartId);
+                case "forbidden" -> throw new CartAccessDeniedException(
+                        "Cart " + guestCartId + " belongs to another user");
+                case "limit" -> throw new InvalidCartOperationException(
+                        "Cannot merge carts. Cart limit of " + maxItems + " items");
+                case "moved" -> {
+                    if (attempt >= MAX_INDEX_READS) {
+                        throw new CartVersionConflictException(
+                                "Cart of user " + userId + " was replaced concurrently");
+                    }
+                }
+                case "legacy" -> {
+                    if (migrated) {
+                        throw new IllegalStateException("Unable to migrate carts of user " + userId);
+                    }
+                    findById(guestCartId);
+                    findByUserId(userId);
+                    migrated = true;
+                }
+                default -> throw new IllegalStateException("Unexpected merge outcome " + outcome);
+            }
+        }
     }
 
     @Override
     public void deletedById(String cartId) {
         String key = CART_PREFIX + cartId;
-        redisTemplate.delete(key);
+        execute(DELETE_SCRIPT, List.of(key, ACTIVITY_KEY, CartEventStream.STREAM_KEY),
+                List.of(bytes(cartId), bytes(USER_PREFIX), bytes(String.valueOf(eventStreamMaxLength)),
+                        bytes(LocalDateTime.now().toString())));
         log.debug("Cart deleted from Redis: {}",key);
     }
 
@@ -58,4 +301,152 @@ public class CartRedisRepository implements CartRepository{
             return false;
         }
     }
+
+    @Override
+    public List<String> findIdleCartIds(LocalDateTime idleSince, int offset, int limit) {
+        Set<String> cartIds = stringRedisTemplate.opsForZSet()
+                .rangeByScore(ACTIVITY_KEY, Double.NEGATIVE_INFINITY, activityScore(idleSince), offset, limit);
+        return cartIds == null ? List.of() : new ArrayList<>(cartIds);
+    }
+
+    @Override
+    public void removeFromActivityIndex(String cartId) {
+        stringRedisTemplate.opsForZSet().remove(ACTIVITY_KEY, cartId);
+    }
+
+    /**
+     * One {@code SCAN} step over the cart keys, run as a script so that it resumes from the cursor
+     * of a previous call; the cursor is the one Redis returns.
+     */
+    @Override
+    public CartScan scanCarts(String cursor, int count) {
+        if (cursor.isEmpty() || !cursor.chars().allMatch(Character::isDigit)) {
+            throw new InvalidCartOperationException("Invalid cart scan cursor: " + cursor);
+        }
+        List<byte[]> result = execute(SCAN_SCRIPT, List.of(),
+                List.of(bytes(cursor), bytes(CART_PREFIX + "*"), bytes(String.valueOf(count))));
+        List<String> cartIds = new ArrayList<>(result.size() - 1);
+        for (byte[] key : result.subList(1, result.size())) {
+            cartIds.add(new String(key, StandardCharsets.UTF_8).substring(CART_PREFIX.length()));
+        }
+        return new CartScan(new String(result.get(0), StandardCharsets.UTF_8), cartIds);
+    }
+
+    /**
+     * Walks all cart keys with {@code SCAN}, handing their ids over in batches of about {@code batchSize}.
+     */
+    @Override
+    public void scanCartIds(int batchSize, Consumer<List<String>> batchConsumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(CART_PREFIX + "*").count(batchSize).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(batchSize);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next().substring(CART_PREFIX.length()));
+                if (batch.size() >= batchSize) {
+                    batchConsumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batchConsumer.accept(batch);
+            }
+        }
+    }
+
+    /**
+     * Carts written before the hash layout are single documents. They are rewritten as
+     * hashes the first time they are read, so that field-level writes can be applied afterwards.
+     */
+    private Cart migrateLegacyCart(String cartId, byte[] blob) {
+        Cart cart = cartSerializer.deserialize(blob);
+        if (cart == null) {
+            return null;
+        }
+        cart.calculateTotals();
+        try {
+            save(cart);
+        } catch (CartAlreadyExistsException e) {
+            // the user has moved on to another cart, this one stays readable as it is
+            log.info("Legacy cart {} not migrated: {}", cartId, e.getMessage());
+            return cart;
+        }
+        log.info("Legacy cart {} migrated to hash layout", cartId);
+        return cart;
+    }
+
+    /**
+     * Compare-and-set write: the patch is only applied if the stored version is still the one the
+     * cart was loaded with. On success the cart carries the new version. Unless {@code keepTtl}, the
+     * time to live of the cart and of its user index starts over.
+     */
+    private void write(Cart cart, boolean replace, boolean keepTtl, Collection<String> deletedFields,
+                       Map<String, byte[]> fields) {
+        List<CartEvent> events = cart.drainEvents();
+        List<byte[]> args = new ArrayList<>(9 + events.size() * 4 + deletedFields.size() + fields.size() * 2);
+        args.add(bytes(keepTtl ? "" : String.valueOf(Duration.ofDays(timeBeforeCartToExpire).toSeconds())));
+        args.add(bytes(replace ? "1" : "0"));
+        args.add(bytes(String.valueOf(cart.getVersion())));
+        args.add(bytes(cart.getCartId()));
+        // Abandoned carts leave the activity index until the shopper touches them again
+        args.add(bytes(cart.getStatus() == CartStatus.ABANDONED ? "" : String.valueOf(activityScore(
+                cart.getUpdatedAt() != null ? cart.getUpdatedAt() : LocalDateTime.now()))));
+        // Events ride along with the write: no extra round trip, and only appended if the write applies
+        args.add(bytes(String.valueOf(eventStreamMaxLength)));
+        args.add(bytes(""));
+        args.add(bytes(String.valueOf(events.size())));
+        for (CartEvent event : events) {
+            args.add(bytes(event.getType().name()));
+            args.add(bytes(event.getProductId() == null ? "" : event.getProductId()));
+            args.add(bytes(event.getQuantity() == null ? "" : String.valueOf(event.getQuantity())));
+            args.add(bytes(event.getOccurredAt().toString()));
+        }
+        args.add(bytes(String.valueOf(deletedFields.size())));
+        deletedFields.forEach(field -> args.add(bytes(field)));
+        fields.forEach((field, value) -> {
+            args.add(bytes(field));
+            args.add(value);
+        });
+
+        List<String> keys = new ArrayList<>(5);
+        keys.addAll(List.of(CART_PREFIX + cart.getCartId(), ACTIVITY_KEY, CartEventStream.STREAM_KEY));
+        if (cart.getUserId() != null) {
+            keys.add(USER_PREFIX + cart.getUserId());
+        }
+        Long version;
+        for (int attempt = 1; ; attempt++) {
+            // A new cart must not replace another live cart of its user, which the script is handed
+            if (cart.getVersion() == 0 && cart.getUserId() != null) {
+                String existing = stringRedisTemplate.opsForValue().get(USER_PREFIX + cart.getUserId());
+                boolean other = existing != null && !existing.equals(cart.getCartId());
+                keys.subList(4, keys.size()).clear();
+                if (other) {
+                    keys.add(CART_PREFIX + existing);
+                }
+                args.set(6, bytes(other ? existing : ""));
+            }
+            version = execute(WRITE_SCRIPT, keys, args);
+            if (version == null || version != USER_INDEX_MOVED || attempt >= MAX_INDEX_READS) {
+                break;
+            }
+        }
+        if (version != null && version == USER_HAS_CART) {
+            throw new CartAlreadyExistsException("User " + cart.getUserId() + " already has a cart");
+        }
+        if (version == null || version < 0) {
+            log.debug("Version conflict on cart {} (expected version {})", cart.getCartId(), cart.getVersion());
+            throw new CartVersionConflictException(
+                    "Cart " + cart.getCartId() + " was modified concurrently");
+        }
+        cart.setVersion(version);
+    }
+
+    private static long activityScore(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> T execute(RedisScript<?> script, List<String> keys, List<byte[]> args) {
+        return (T) redisTemplate.execute((RedisScript) script, RedisSerializer.byteArray(),
+                (RedisSerializer) RedisSerializer.byteArray(), keys, args.toArray());
+    }
 }
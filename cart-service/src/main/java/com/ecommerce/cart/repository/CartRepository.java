@@ -2,11 +2,47 @@ package com.ecommerce.cart.repository;
 
 import com.ecommerce.cart.domain.entity.Cart;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CartRepository {
     Cart save(Cart cart);
+    Cart saveItem(Cart cart, String productId);
+    default Cart saveItems(Cart cart, Collection<String> productIds) {
+        return saveItems(cart, productIds, false);
+    }
+
+    /**
+     * {@code keepTtl} leaves the remaining time to live of the cart as it is, for writes that are
+     * not shopper activity (background revalidation, abandonment) and must not keep a cart alive.
+     */
+    Cart saveItems(Cart cart, Collection<String> productIds, boolean keepTtl);
+    Cart saveItemQuantity(Cart cart, String productId);
+    Cart saveItemQuantities(Cart cart, Collection<String> productIds);
+    default Cart saveHeader(Cart cart) {
+        return saveHeader(cart, false);
+    }
+
+    Cart saveHeader(Cart cart, boolean keepTtl);
+    Cart removeItem(Cart cart, String productId);
     Optional<Cart> findById(String cartId);
+    List<Cart> findAllById(List<String> cartIds);
+    Optional<Cart> findByUserId(String userId);
+    Optional<Long> findVersion(String cartId);
+    Cart mergeGuestCart(String userId, String guestCartId, int maxItems);
     void deletedById(String cartId);
     boolean existsById(String cartId);
+    void scanCartIds(int batchSize, Consumer<List<String>> batchConsumer);
+    List<String> findIdleCartIds(LocalDateTime idleSince, int offset, int limit);
+    void removeFromActivityIndex(String cartId);
+
+    /**
+     * Walks every stored cart, abandoned and legacy ones included, from a cursor a client can keep
+     * between calls ({@link CartScan#START} to begin). Like {@code SCAN}, a cart stored for the whole
+     * walk is returned at least once, and may be returned more than once.
+     */
+    CartScan scanCarts(String cursor, int count);
 }
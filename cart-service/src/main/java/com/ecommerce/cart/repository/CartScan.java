@@ -0,0 +1,16 @@
+package com.ecommerce.cart.repository;
+
+import java.util.List;
+
+/**
+ * One step of a walk over every stored cart: the ids found, possibly none, and the cursor to
+ * continue from, {@link #START} again once the walk is complete.
+ */
+public record CartScan(String cursor, List<String> cartIds) {
+
+    public static final String START = "0";
+
+    public boolean isComplete() {
+        return START.equals(cursor);
+    }
+}
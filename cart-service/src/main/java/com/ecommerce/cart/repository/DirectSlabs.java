@@ -0,0 +1,101 @@
+package com.ecommerce.cart.repository;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Direct memory of the off-heap cart store, carved from slabs instead of one direct buffer per
+ * write: a direct allocation zeroes its memory and is only given back by the collector, so a store
+ * rewritten at a high rate would churn through it.
+ * <p>
+ * A slab is split into chunks of one size class, the powers of two from {@value #MIN_CHUNK} bytes
+ * up to the slab size. A freed chunk goes back to the free list of its class and is reused by the
+ * next value of that class; values larger than a slab get a buffer of their own. Slabs are never
+ * given back, the store's byte bound caps how many are needed.
+ * <p>
+ * Chunks are written and read with absolute operations only, so their position and limit never
+ * change and a reader racing with the next owner of a chunk can at worst copy wrong bytes, never
+ * fail: callers validate what they read.
+ */
+class DirectSlabs {
+
+    static final int MIN_CHUNK = 256;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_CHUNK);
+
+    private final int slabSize;
+    private final Queue<ByteBuffer>[] free;
+    private final AtomicLong reserved = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    DirectSlabs(int slabSize) {
+        if (Integer.bitCount(slabSize) != 1 || slabSize < MIN_CHUNK) {
+            throw new IllegalArgumentException("Slab size must be a power of two of at least " + MIN_CHUNK
+                    + ": " + slabSize);
+        }
+        this.slabSize = slabSize;
+        this.free = new Queue[sizeClass(slabSize) + 1];
+        for (int i = 0; i < free.length; i++) {
+            free[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Returns a chunk holding {@code bytes} from index 0, of a capacity that may be larger.
+     */
+    ByteBuffer store(byte[] bytes) {
+        ByteBuffer chunk = allocate(bytes.length);
+        chunk.put(0, bytes);
+        return chunk;
+    }
+
+    void read(ByteBuffer chunk, byte[] into) {
+        chunk.get(0, into);
+    }
+
+    /**
+     * Gives a chunk back for reuse. Its owner must be unreachable for new readers already.
+     */
+    void free(ByteBuffer chunk) {
+        if (chunk.capacity() <= slabSize) {
+            free[sizeClass(chunk.capacity())].offer(chunk);
+        } else {
+            reserved.addAndGet(-chunk.capacity()); // left to the collector
+        }
+    }
+
+    /**
+     * Direct memory held by the slabs and the dedicated buffers still in use, in bytes.
+     */
+    long reservedBytes() {
+        return reserved.get();
+    }
+
+    private ByteBuffer allocate(int size) {
+        if (size > slabSize) {
+            reserved.addAndGet(size);
+            return ByteBuffer.allocateDirect(size);
+        }
+        int sizeClass = sizeClass(size);
+        ByteBuffer chunk = free[sizeClass].poll();
+        return chunk != null ? chunk : carve(sizeClass);
+    }
+
+    // Concurrent writers may both carve a slab for the same class, the spare chunks are kept either way
+    private ByteBuffer carve(int sizeClass) {
+        int chunkSize = MIN_CHUNK << sizeClass;
+        ByteBuffer slab = ByteBuffer.allocateDirect(slabSize);
+        reserved.addAndGet(slabSize);
+        for (int offset = chunkSize; offset < slabSize; offset += chunkSize) {
+            free[sizeClass].offer(slab.slice(offset, chunkSize));
+        }
+        return slab.slice(0, chunkSize);
+    }
+
+    private static int sizeClass(int size) {
+        int shift = size <= MIN_CHUNK ? MIN_SHIFT : 32 - Integer.numberOfLeadingZeros(size - 1);
+        return shift - MIN_SHIFT;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.config.RedisConfig;
+import com.ecommerce.cart.domain.entity.IdempotencyRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Idempotency records in Redis, one key per scope ({@code idempotency:{scope}}).
+ * <p>
+ * A key is reserved with a pending record that expires after {@code cart.idempotency.lock-timeout},
+ * so a key held by an instance that died frees itself. The completed record replaces it and is kept
+ * for {@code cart.idempotency.ttl}. Completing and releasing are scripts comparing the owner of the
+ * stored record, so an owner whose reservation expired cannot overwrite or free the next one.
+ */
+@Repository
+@Profile("!inmemory")
+@Slf4j
+public class IdempotencyRedisStore implements IdempotencyStore {
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final RedisScript<Long> COMPLETE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/idempotency-complete.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/idempotency-release.lua"), Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper = RedisConfig.plainObjectMapper();
+    private final Duration ttl;
+    private final Duration lockTimeout;
+
+    public IdempotencyRedisStore(StringRedisTemplate stringRedisTemplate,
+                                 @Value("${cart.idempotency.ttl:10m}") Duration ttl,
+                                 @Value("${cart.idempotency.lock-timeout:30s}") Duration lockTimeout) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> reserve(String scope, IdempotencyRecord pending) {
+        String key = KEY_PREFIX + scope;
+        if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, write(pending), lockTimeout))) {
+            return Optional.empty();
+        }
+        Optional<IdempotencyRecord> existing = find(scope);
+        // expired or released in between: reported as pending, the caller's next attempt reserves it
+        return existing.isPresent() ? existing : Optional.of(IdempotencyRecord.pending(null, pending.getFingerprint()));
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String scope) {
+        String value = stringRedisTemplate.opsForValue().get(KEY_PREFIX + scope);
+        return Optional.ofNullable(value).map(this::read);
+    }
+
+    @Override
+    public boolean complete(String scope, IdempotencyRecord record) {
+        Long stored = stringRedisTemplate.execute(COMPLETE_SCRIPT, List.of(KEY_PREFIX + scope),
+                record.getOwner(), write(record), String.valueOf(ttl.toMillis()));
+        return Long.valueOf(1).equals(stored);
+    }
+
+    @Override
+    public void release(String scope, String owner) {
+        stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + scope), owner);
+    }
+
+    private String write(IdempotencyRecord record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize idempotency record", e);
+        }
+    }
+
+    private IdempotencyRecord read(String value) {
+        try {
+            return objectMapper.readValue(value, IdempotencyRecord.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable idempotency record: " + e.getOriginalMessage(), e);
+        }
+    }
+}
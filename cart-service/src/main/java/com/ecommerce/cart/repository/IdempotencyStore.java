@@ -0,0 +1,35 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.domain.entity.IdempotencyRecord;
+
+import java.util.Optional;
+
+/**
+ * Idempotency records, one per scope. A scope is reserved with a pending record that expires after
+ * {@code cart.idempotency.lock-timeout}, so a scope held by an instance that died frees itself; the
+ * completed record replaces it and is kept for {@code cart.idempotency.ttl}.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Reserves the scope for {@code pending.getOwner()}.
+     *
+     * @return empty when the reservation succeeded, otherwise the record already stored
+     */
+    Optional<IdempotencyRecord> reserve(String scope, IdempotencyRecord pending);
+
+    Optional<IdempotencyRecord> find(String scope);
+
+    /**
+     * Replaces the reservation of {@code record.getOwner()} with the completed record.
+     *
+     * @return false, storing nothing, when the scope is reserved by another owner or already completed
+     */
+    boolean complete(String scope, IdempotencyRecord record);
+
+    /**
+     * Frees a reservation whose outcome is not worth replaying, so that a retry executes again.
+     * Does nothing unless the scope is still reserved by {@code owner}.
+     */
+    void release(String scope, String owner);
+}
@@ -0,0 +1,586 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.enums.CartStatus;
+import com.ecommerce.cart.domain.exception.CartAccessDeniedException;
+import com.ecommerce.cart.domain.exception.CartAlreadyExistsException;
+import com.ecommerce.cart.domain.exception.CartNotFoundException;
+import com.ecommerce.cart.domain.exception.CartVersionConflictException;
+import com.ecommerce.cart.domain.exception.InvalidCartOperationException;
+import com.ecommerce.cart.domain.service.CartMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-process cart store for single-node deployments and performance tests, selected with the
+ * {@code inmemory} profile in place of {@link CartRedisRepository}.
+ * <p>
+ * It keeps the semantics of the Redis engine: versioned compare-and-set writes, one cart per user,
+ * the activity index, and a TTL refreshed on every write but the background ones. Expiry is driven
+ * by a {@link TimerWheel} advanced every {@code cart.in-memory.tick}; an expired cart is invisible
+ * to readers even before the wheel reaches it. The store is bounded by {@code cart.in-memory.maximum-entries} and, for the
+ * off-heap storage, {@code cart.in-memory.maximum-bytes}: the least recently active carts are
+ * evicted first.
+ * <p>
+ * With {@code cart.in-memory.storage=off-heap} carts are kept serialized with the binary cart format
+ * in chunks of {@link DirectSlabs}, reused from one write to the next, so a large store adds nothing
+ * for the collector to trace; {@code heap} keeps private copies instead. Callers always get their
+ * own copy either way.
+ * <p>
+ * Change events are dropped: the event stream only exists in Redis.
+ */
+@Repository
+@Profile("inmemory")
+@Slf4j
+public class InMemoryCartRepository implements CartRepository, DisposableBean {
+
+    private static final String USER_LOCK_PREFIX = "user:";
+    private static final int LOCK_STRIPES = 256;
+    private static final int SLAB_SIZE = 1 << 20;
+
+    private final ConcurrentHashMap<String, Entry> carts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> cartsByUser = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<CartActivity> activity = new ConcurrentSkipListSet<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    private final RedisSerializer<Cart> cartSerializer;
+    private final CartMetrics cartMetrics;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final boolean offHeap;
+    private final DirectSlabs slabs;
+    private final long maximumEntries;
+    private final long maximumBytes;
+    private final TimerWheel wheel;
+    private final ScheduledExecutorService sweeper;
+    private final Counter expired;
+    private final Counter evicted;
+
+    @Autowired
+    public InMemoryCartRepository(RedisSerializer<Cart> cartSerializer, CartMetrics cartMetrics,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${cart.ttl-days:7}") long ttlDays,
+                                  @Value("${cart.in-memory.storage:heap}") String storage,
+                                  @Value("${cart.in-memory.maximum-entries:100000}") long maximumEntries,
+                                  @Value("${cart.in-memory.maximum-bytes:0}") long maximumBytes,
+                                  @Value("${cart.in-memory.tick:1s}") Duration tick,
+                                  @Value("${cart.in-memory.wheel-size:4096}") int wheelSize) {
+        this(cartSerializer, cartMetrics, meterRegistry, Clock.systemDefaultZone(), Duration.ofDays(ttlDays),
+                "off-heap".equalsIgnoreCase(storage), maximumEntries, maximumBytes, tick, wheelSize);
+    }
+
+    InMemoryCartRepository(RedisSerializer<Cart> cartSerializer, CartMetrics cartMetrics, MeterRegistry meterRegistry,
+                           Clock clock, Duration ttl, boolean offHeap, long maximumEntries, long maximumBytes,
+                           Duration tick, int wheelSize) {
+        this.cartSerializer = cartSerializer;
+        this.cartMetrics = cartMetrics;
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.offHeap = offHeap;
+        this.slabs = offHeap ? new DirectSlabs(SLAB_SIZE) : null;
+        this.maximumEntries = maximumEntries;
+        this.maximumBytes = maximumBytes;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.wheel = new TimerWheel(tick.toMillis(), wheelSize, clock.millis());
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("cart-in-memory-expiry").daemon().factory());
+        sweeper.scheduleAtFixedRate(this::expire, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+
+        this.expired = meterRegistry.counter("cart.in-memory.evictions", "cause", "expired");
+        this.evicted = meterRegistry.counter("cart.in-memory.evictions", "cause", "capacity");
+        meterRegistry.gauge("cart.in-memory.entries", carts, ConcurrentHashMap::size);
+        meterRegistry.gauge("cart.in-memory.bytes", storedBytes, AtomicLong::get);
+        if (offHeap) {
+            meterRegistry.gauge("cart.in-memory.direct-bytes", slabs, DirectSlabs::reservedBytes);
+        }
+        log.info("In-memory cart store: {} storage, at most {} carts{}", offHeap ? "off-heap" : "heap",
+                maximumEntries, offHeap && maximumBytes > 0 ? " and " + maximumBytes + " bytes" : "");
+    }
+
+    @Override
+    public Cart save(Cart cart) {
+        return write(cart);
+    }
+
+    // Field-level writes are a Redis optimisation: here the whole cart is stored each time
+
+    @Override
+    public Cart saveItem(Cart cart, String productId) {
+        return write(cart);
+    }
+
+    @Override
+    public Cart saveItems(Cart cart, Collection<String> productIds, boolean keepTtl) {
+        return write(cart, keepTtl);
+    }
+
+    @Override
+    public Cart saveItemQuantity(Cart cart, String productId) {
+        return write(cart);
+    }
+
+    @Override
+    public Cart saveItemQuantities(Cart cart, Collection<String> productIds) {
+        return write(cart);
+    }
+
+    @Override
+    public Cart saveHeader(Cart cart, boolean keepTtl) {
+        return write(cart, keepTtl);
+    }
+
+    @Override
+    public Cart removeItem(Cart cart, String productId) {
+        return write(cart);
+    }
+
+    @Override
+    public Optional<Cart> findById(String cartId) {
+        return Optional.ofNullable(read(cartId, clock.millis()));
+    }
+
+    @Override
+    public List<Cart> findAllById(List<String> cartIds) {
+        long now = clock.millis();
+        List<Cart> found = new ArrayList<>(cartIds.size());
+        for (String cartId : cartIds) {
+            Cart cart = read(cartId, now);
+            if (cart != null) {
+                found.add(cart);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Optional<Cart> findByUserId(String userId) {
+        String cartId = cartsByUser.get(userId);
+        return cartId == null ? Optional.empty() : findById(cartId);
+    }
+
+    @Override
+    public Optional<Long> findVersion(String cartId) {
+        return Optional.ofNullable(live(cartId, clock.millis())).map(Entry::version);
+    }
+
+    /**
+     * Same outcome as the merge script: the guest cart becomes the user's cart when the user has
+     * none, otherwise its lines are added to the user's cart (quantities summed) and it is deleted.
+     * A guest cart owned by another user is refused.
+     */
+    @Override
+    public Cart mergeGuestCart(String userId, String guestCartId, int maxItems) {
+        while (true) {
+            String userCartId = cartsByUser.get(userId);
+            List<String> keys = userCartId == null
+                    ? List.of(guestCartId, USER_LOCK_PREFIX + userId)
+                    : List.of(guestCartId, USER_LOCK_PREFIX + userId, userCartId);
+            Cart merged = locked(keys, () -> {
+                if (!Objects.equals(userCartId, cartsByUser.get(userId))) {
+                    return null; // the user's cart changed before the locks were taken
+                }
+                long now = clock.millis();
+                Entry guestEntry = live(guestCartId, now);
+                if (guestEntry == null) {
+                    throw new CartNotFoundException("Cart not found: " + guestCartId);
+                }
+                String owner = guestEntry.userId();
+                if (owner != null && !owner.isEmpty() && !owner.equals(userId)) {
+                    throw new CartAccessDeniedException("Cart " + guestCartId + " belongs to another user");
+                }
+                Entry userEntry = userCartId == null || userCartId.equals(guestCartId) ? null : live(userCartId, now);
+                Cart guest = load(guestEntry);
+                if (userEntry == null) {
+                    return stamp(guest, userId, guestEntry, now);
+                }
+
+                Cart target = load(userEntry);
+                if (target.getTotalItems() + guest.getTotalItems() > maxItems) {
+                    throw new InvalidCartOperationException(
+                            "Cannot merge carts. Cart limit of " + maxItems + " items");
+                }
+                for (CartItem item : guest.getItems()) {
+                    // a line already in the user's cart keeps its data, with the summed quantity
+                    target.addItem(item);
+                }
+                Cart result = stamp(target, userId, userEntry, now);
+                remove(guestCartId, carts.get(guestCartId));
+                return result;
+            });
+            if (merged != null) {
+                log.debug("Guest cart {} merged into cart {} of user {}", guestCartId, merged.getCartId(), userId);
+                return merged;
+            }
+        }
+    }
+
+    @Override
+    public void deletedById(String cartId) {
+        locked(List.of(cartId), () -> {
+            Entry entry = carts.get(cartId);
+            if (entry != null) {
+                remove(cartId, entry);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean existsById(String cartId) {
+        return live(cartId, clock.millis()) != null;
+    }
+
+    @Override
+    public void scanCartIds(int batchSize, Consumer<List<String>> batchConsumer) {
+        long now = clock.millis();
+        List<String> batch = new ArrayList<>(batchSize);
+        for (String cartId : carts.keySet()) {
+            if (live(cartId, now) == null) {
+                continue;
+            }
+            batch.add(cartId);
+            if (batch.size() >= batchSize) {
+                batchConsumer.accept(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+        }
+    }
+
+    @Override
+    public List<String> findIdleCartIds(LocalDateTime idleSince, int offset, int limit) {
+        long maxScore = activityScore(idleSince);
+        List<String> cartIds = new ArrayList<>(limit);
+        int skipped = 0;
+        for (CartActivity entry : activity) {
+            if (entry.score() > maxScore || cartIds.size() >= limit) {
+                break;
+            }
+            if (skipped++ >= offset) {
+                cartIds.add(entry.cartId());
+            }
+        }
+        return cartIds;
+    }
+
+    @Override
+    public void removeFromActivityIndex(String cartId) {
+        locked(List.of(cartId), () -> {
+            Entry entry = carts.get(cartId);
+            if (entry != null && entry.activity() != null) {
+                activity.remove(new CartActivity(entry.activity(), cartId));
+                carts.put(cartId, entry.withActivity(null));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Walks the cart ids in order, the cursor being the last id returned: the {@code count} ids
+     * following it are selected in one pass over the map, keeping only the smallest ones.
+     */
+    @Override
+    public CartScan scanCarts(String cursor, int count) {
+        String after = CartScan.START.equals(cursor) ? null : cursor;
+        TreeSet<String> page = new TreeSet<>();
+        for (String cartId : carts.keySet()) {
+            if (after != null && cartId.compareTo(after) <= 0) {
+                continue;
+            }
+            if (page.size() < count) {
+                page.add(cartId);
+            } else if (cartId.compareTo(page.last()) < 0) {
+                page.pollLast();
+                page.add(cartId);
+            }
+        }
+        long now = clock.millis();
+        List<String> cartIds = page.stream().filter(cartId -> live(cartId, now) != null).toList();
+        return new CartScan(page.size() < count ? CartScan.START : page.last(), cartIds);
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Runs one sweep of the timer wheel. Called by the sweeper thread every tick.
+     */
+    void expire() {
+        try {
+            long now = clock.millis();
+            wheel.advance(now, cartId -> {
+                Entry entry = carts.get(cartId);
+                if (entry == null) {
+                    return true;
+                }
+                if (entry.deadline() > now) {
+                    return false; // due in a later revolution
+                }
+                locked(List.of(cartId), () -> {
+                    Entry current = carts.get(cartId);
+                    if (current != null && current.deadline() <= now) {
+                        remove(cartId, current);
+                        expired.increment();
+                    }
+                    return null;
+                });
+                return true;
+            });
+        } catch (RuntimeException e) {
+            log.warn("In-memory cart expiry sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Compare-and-set write, as the write script does: applied only if the stored version is still
+     * the one the cart was loaded with, and the cart then carries the new version.
+     */
+    private Cart write(Cart cart) {
+        return write(cart, false);
+    }
+
+    private Cart write(Cart cart, boolean keepTtl) {
+        cart.drainEvents();
+        String cartId = cart.getCartId();
+        List<String> keys = cart.getUserId() == null
+                ? List.of(cartId)
+                : List.of(cartId, USER_LOCK_PREFIX + cart.getUserId());
+        locked(keys, () -> {
+            long now = clock.millis();
+            Entry current = live(cartId, now);
+            long currentVersion = current == null ? 0 : current.version();
+            if (currentVersion != cart.getVersion()) {
+                log.debug("Version conflict on cart {} (expected version {})", cartId, cart.getVersion());
+                throw new CartVersionConflictException("Cart " + cartId + " was modified concurrently");
+            }
+            if (current == null && cart.getUserId() != null) {
+                String existing = cartsByUser.get(cart.getUserId());
+                if (existing != null && !existing.equals(cartId) && live(existing, now) != null) {
+                    throw new CartAlreadyExistsException("User " + cart.getUserId() + " already has a cart");
+                }
+            }
+            long version = currentVersion + 1;
+            Long score = cart.getStatus() == CartStatus.ABANDONED ? null : activityScore(
+                    cart.getUpdatedAt() != null ? cart.getUpdatedAt() : LocalDateTime.now(clock));
+            long deadline = keepTtl && current != null ? current.deadline() : now + ttlMillis;
+            put(cartId, entry(cart, version, deadline, score));
+            cart.setVersion(version);
+            return null;
+        });
+        evictIfOverCapacity();
+        return cart;
+    }
+
+    // Stamps the merge result as the script's finish() does and stores it
+    private Cart stamp(Cart cart, String userId, Entry previous, long now) {
+        cart.setUserId(userId);
+        cart.setUpdatedAt(LocalDateTime.now(clock));
+        cart.setStatus(CartStatus.ACTIVE);
+        long version = previous.version() + 1;
+        put(cart.getCartId(), entry(cart, version, now + ttlMillis, activityScore(cart.getUpdatedAt())));
+        cart.setVersion(version);
+        return cart;
+    }
+
+    private Entry entry(Cart cart, long version, long deadline, Long score) {
+        if (offHeap) {
+            byte[] bytes = cartSerializer.serialize(cart);
+            return new Entry(version, cart.getUserId(), deadline, score, null, slabs.store(bytes), bytes.length);
+        }
+        return new Entry(version, cart.getUserId(), deadline, score, cart.copy(), null, 0);
+    }
+
+    /**
+     * Reads a cart without its lock. A chunk is only freed once its entry left the map, so bytes
+     * copied while the entry is still mapped afterwards are that entry's; otherwise the read is
+     * retried on the new entry.
+     */
+    private Cart read(String cartId, long now) {
+        while (true) {
+            Entry entry = live(cartId, now);
+            if (entry == null || entry.serialized() == null) {
+                return entry == null ? null : load(entry);
+            }
+            byte[] bytes = new byte[entry.size()];
+            slabs.read(entry.serialized(), bytes);
+            // the copy must not be reordered after the check
+            VarHandle.acquireFence();
+            if (carts.get(cartId) == entry) {
+                return decode(entry, bytes);
+            }
+        }
+    }
+
+    // Callers hold the lock of the cart, so that its chunk cannot be freed meanwhile
+    private Cart load(Entry entry) {
+        if (entry.serialized() != null) {
+            byte[] bytes = new byte[entry.size()];
+            slabs.read(entry.serialized(), bytes);
+            return decode(entry, bytes);
+        }
+        Cart cart = entry.cart().copy();
+        cart.setVersion(entry.version());
+        return cart;
+    }
+
+    private Cart decode(Entry entry, byte[] bytes) {
+        Cart cart = cartSerializer.deserialize(bytes);
+        cartMetrics.recordCart(entry.size(), cart.getItems().size());
+        cart.setVersion(entry.version());
+        return cart;
+    }
+
+    // Callers hold the lock of the cart, and of its user when it has one
+    private void put(String cartId, Entry next) {
+        Entry previous = carts.put(cartId, next);
+        if (previous != null) {
+            unindex(cartId, previous, next);
+        }
+        wheel.schedule(cartId, next.deadline());
+        if (next.activity() != null) {
+            activity.add(new CartActivity(next.activity(), cartId));
+        }
+        if (next.userId() != null) {
+            cartsByUser.put(next.userId(), cartId);
+        }
+        storedBytes.addAndGet(next.size());
+    }
+
+    private void remove(String cartId, Entry entry) {
+        if (entry != null && carts.remove(cartId, entry)) {
+            unindex(cartId, entry, null);
+        }
+    }
+
+    // Called once the entry left the map, replaced by next or removed
+    private void unindex(String cartId, Entry entry, Entry next) {
+        String nextUserId = next == null ? null : next.userId();
+        wheel.cancel(cartId, entry.deadline());
+        if (entry.activity() != null) {
+            activity.remove(new CartActivity(entry.activity(), cartId));
+        }
+        if (entry.userId() != null && !entry.userId().equals(nextUserId)) {
+            cartsByUser.remove(entry.userId(), cartId);
+        }
+        storedBytes.addAndGet(-entry.size());
+        if (entry.serialized() != null && (next == null || next.serialized() != entry.serialized())) {
+            slabs.free(entry.serialized());
+        }
+    }
+
+    private Entry live(String cartId, long now) {
+        Entry entry = carts.get(cartId);
+        return entry == null || entry.deadline() <= now ? null : entry;
+    }
+
+    private boolean overCapacity() {
+        return carts.size() > maximumEntries || (maximumBytes > 0 && storedBytes.get() > maximumBytes);
+    }
+
+    /**
+     * Evicts the least recently active carts until the store is back within its bounds. Carts out
+     * of the activity index (abandoned ones) go last, in timer wheel order. One writer evicts at a
+     * time, the others do not wait for it.
+     */
+    private void evictIfOverCapacity() {
+        if (!overCapacity() || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            Iterator<CartActivity> leastActive = activity.iterator();
+            while (overCapacity() && leastActive.hasNext()) {
+                evict(leastActive.next().cartId());
+            }
+            Iterator<String> upcoming = wheel.upcoming();
+            while (overCapacity() && upcoming.hasNext()) {
+                evict(upcoming.next());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void evict(String cartId) {
+        locked(List.of(cartId), () -> {
+            Entry entry = carts.get(cartId);
+            if (entry != null) {
+                remove(cartId, entry);
+                evicted.increment();
+                log.debug("Cart {} evicted from the in-memory store", cartId);
+            }
+            return null;
+        });
+    }
+
+    // Stripes are always locked in ascending order, so multi-key operations cannot deadlock
+    private <T> T locked(List<String> keys, Supplier<T> action) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (String key : keys) {
+            stripes.add(Math.floorMod(key.hashCode(), LOCK_STRIPES));
+        }
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        try {
+            return action.get();
+        } finally {
+            for (int stripe : stripes.descendingSet()) {
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    private static long activityScore(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * A stored cart: a private copy on the heap, or its serialized form in the first {@code size}
+     * bytes of a slab chunk.
+     */
+    private record Entry(long version, String userId, long deadline, Long activity, Cart cart,
+                         ByteBuffer serialized, int size) {
+        Entry withActivity(Long score) {
+            return new Entry(version, userId, deadline, score, cart, serialized, size);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.domain.entity.IdempotencyRecord;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * In-process idempotency records for the {@code inmemory} profile: a bounded Caffeine cache whose
+ * entries expire after the lock timeout while pending and after the TTL once completed, as the
+ * Redis keys do. Records are copied in and out, callers never share an instance.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, IdempotencyRecord> records;
+
+    public InMemoryIdempotencyStore(@Value("${cart.idempotency.ttl:10m}") Duration ttl,
+                                    @Value("${cart.idempotency.lock-timeout:30s}") Duration lockTimeout,
+                                    @Value("${cart.idempotency.in-memory.maximum-size:100000}") long maximumSize) {
+        this.records = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, IdempotencyRecord>() {
+                    @Override
+                    public long expireAfterCreate(String scope, IdempotencyRecord record, long currentTime) {
+                        return (record.isPending() ? lockTimeout : ttl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String scope, IdempotencyRecord record, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(scope, record, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String scope, IdempotencyRecord record, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> reserve(String scope, IdempotencyRecord pending) {
+        return Optional.ofNullable(records.asMap().putIfAbsent(scope, copy(pending)))
+                .map(InMemoryIdempotencyStore::copy);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String scope) {
+        return Optional.ofNullable(records.getIfPresent(scope)).map(InMemoryIdempotencyStore::copy);
+    }
+
+    @Override
+    public boolean complete(String scope, IdempotencyRecord record) {
+        boolean[] stored = new boolean[1];
+        records.asMap().compute(scope, (key, current) -> {
+            if (current != null && (current.isCompleted() || !record.getOwner().equals(current.getOwner()))) {
+                return current;
+            }
+            stored[0] = true;
+            return copy(record);
+        });
+        return stored[0];
+    }
+
+    @Override
+    public void release(String scope, String owner) {
+        records.asMap().computeIfPresent(scope,
+                (key, current) -> current.isPending() && owner.equals(current.getOwner()) ? null : current);
+    }
+
+    private static IdempotencyRecord copy(IdempotencyRecord record) {
+        return IdempotencyRecord.builder()
+                .owner(record.getOwner())
+                .fingerprint(record.getFingerprint())
+                .completed(record.isCompleted())
+                .status(record.getStatus())
+                .contentType(record.getContentType())
+                .etag(record.getEtag())
+                .body(record.getBody())
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.config.RedisConfig;
+import com.ecommerce.cart.domain.entity.Promotion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process promotions for the {@code inmemory} profile, kept as JSON like in Redis so that
+ * callers never share an instance. The map is written before the version, as in
+ * {@link PromotionRedisRepository}.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryPromotionRepository implements PromotionRepository {
+
+    private final ConcurrentHashMap<String, String> promotions = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final ObjectMapper objectMapper = RedisConfig.plainObjectMapper();
+
+    @Override
+    public List<Promotion> findAll() {
+        List<Promotion> found = new ArrayList<>(promotions.size());
+        for (String value : promotions.values()) {
+            try {
+                found.add(objectMapper.readValue(value, Promotion.class));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable promotion: " + e.getOriginalMessage(), e);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Promotion save(Promotion promotion) {
+        try {
+            promotions.put(promotion.getPromotionId(), objectMapper.writeValueAsString(promotion));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize promotion " + promotion.getPromotionId(), e);
+        }
+        version.incrementAndGet();
+        return promotion;
+    }
+
+    @Override
+    public boolean deleteById(String promotionId) {
+        boolean deleted = promotions.remove(promotionId) != null;
+        if (deleted) {
+            version.incrementAndGet();
+        }
+        return deleted;
+    }
+
+    @Override
+    public long currentVersion() {
+        return version.get();
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.cart.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Redis lease so that a scheduled job runs on a single instance at a time. The lease expires on its
+ * own if the instance holding it dies.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobLock {
+
+    private static final String KEY_PREFIX = "carts:lock:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * @return whether the job ran on this instance
+     */
+    public boolean runExclusively(String job, Duration lease, Runnable task) {
+        String key = KEY_PREFIX + job;
+        String owner = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, owner, lease))) {
+            log.debug("Job {} already running on another instance", job);
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            if (owner.equals(stringRedisTemplate.opsForValue().get(key))) {
+                stringRedisTemplate.delete(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-process L1 cache in front of another {@link CartRepository}.
+ * <p>
+ * Every write goes to the delegate, evicts the local entry and publishes the cart id on
+ * {@link #INVALIDATION_CHANNEL} so the other instances evict theirs. Callers always receive a copy,
+ * so a cached cart is never mutated in place. Stale entries are also bounded by the cache TTL in
+ * case an invalidation message is lost, and a stale cart used for a write is caught by the version
+ * check of the delegate.
+ */
+@Slf4j
+public class NearCacheCartRepository implements CartRepository, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "carts:invalidation";
+    private static final char SEPARATOR = '|';
+
+    private final CartRepository delegate;
+    private final Cache<String, Cart> cache;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+
+    public NearCacheCartRepository(CartRepository delegate, Cache<String, Cart> cache,
+                                   StringRedisTemplate stringRedisTemplate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.localInvalidations = meterRegistry.counter("cart.near-cache.invalidations", "source", "local");
+        this.remoteInvalidations = meterRegistry.counter("cart.near-cache.invalidations", "source", "remote");
+    }
+
+    @Override
+    public Optional<Cart> findById(String cartId) {
+        // Loading through the cache means a concurrent invalidation waits for the load and then
+        // removes its result, instead of racing with it
+        Cart cart = cache.get(cartId, id -> delegate.findById(id).orElse(null));
+        return Optional.ofNullable(cart).map(Cart::copy);
+    }
+
+    @Override
+    public List<Cart> findAllById(List<String> cartIds) {
+        // bulk reads (exports) bypass the cache rather than evict the working set
+        return delegate.findAllById(cartIds);
+    }
+
+    @Override
+    public Optional<Cart> findByUserId(String userId) {
+        // resolved in Redis, the index is not mirrored locally
+        return delegate.findByUserId(userId);
+    }
+
+    @Override
+    public Optional<Long> findVersion(String cartId) {
+        Cart cached = cache.getIfPresent(cartId);
+        return cached != null ? Optional.of(cached.getVersion()) : delegate.findVersion(cartId);
+    }
+
+    @Override
+    public Cart save(Cart cart) {
+        return write(cart.getCartId(), () -> delegate.save(cart));
+    }
+
+    @Override
+    public Cart saveItem(Cart cart, String productId) {
+        return write(cart.getCartId(), () -> delegate.saveItem(cart, productId));
+    }
+
+    @Override
+    public Cart saveItems(Cart cart, Collection<String> productIds, boolean keepTtl) {
+        return write(cart.getCartId(), () -> delegate.saveItems(cart, productIds, keepTtl));
+    }
+
+    @Override
+    public Cart saveItemQuantity(Cart cart, String productId) {
+        return write(cart.getCartId(), () -> delegate.saveItemQuantity(cart, productId));
+    }
+
+    @Override
+    public Cart saveItemQuantities(Cart cart, Collection<String> productIds) {
+        return write(cart.getCartId(), () -> delegate.saveItemQuantities(cart, productIds));
+    }
+
+    @Override
+    public Cart saveHeader(Cart cart, boolean keepTtl) {
+        return write(cart.getCartId(), () -> delegate.saveHeader(cart, keepTtl));
+    }
+
+    @Override
+    public Cart removeItem(Cart cart, String productId) {
+        return write(cart.getCartId(), () -> delegate.removeItem(cart, productId));
+    }
+
+    @Override
+    public Cart mergeGuestCart(String userId, String guestCartId, int maxItems) {
+        Cart merged = write(guestCartId, () -> delegate.mergeGuestCart(userId, guestCartId, maxItems));
+        if (!merged.getCartId().equals(guestCartId)) {
+            invalidate(merged.getCartId());
+            publishInvalidation(merged.getCartId());
+        }
+        return merged;
+    }
+
+    @Override
+    public void deletedById(String cartId) {
+        write(cartId, () -> {
+            delegate.deletedById(cartId);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean existsById(String cartId) {
+        return cache.getIfPresent(cartId) != null || delegate.existsById(cartId);
+    }
+
+    @Override
+    public void scanCartIds(int batchSize, Consumer<List<String>> batchConsumer) {
+        delegate.scanCartIds(batchSize, batchConsumer);
+    }
+
+    @Override
+    public List<String> findIdleCartIds(LocalDateTime idleSince, int offset, int limit) {
+        return delegate.findIdleCartIds(idleSince, offset, limit);
+    }
+
+    @Override
+    public void removeFromActivityIndex(String cartId) {
+        delegate.removeFromActivityIndex(cartId);
+    }
+
+    @Override
+    public CartScan scanCarts(String cursor, int count) {
+        return delegate.scanCarts(cursor, count);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(SEPARATOR);
+        if (separator < 0 || body.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        cache.invalidate(body.substring(separator + 1));
+        remoteInvalidations.increment();
+    }
+
+    private <T> T write(String cartId, Supplier<T> operation) {
+        try {
+            T result = operation.get();
+            publishInvalidation(cartId);
+            return result;
+        } finally {
+            // Evicted even when the write fails: a version conflict means the cached copy is stale
+            invalidate(cartId);
+        }
+    }
+
+    private void invalidate(String cartId) {
+        cache.invalidate(cartId);
+        localInvalidations.increment();
+    }
+
+    private void publishInvalidation(String cartId) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + SEPARATOR + cartId);
+        } catch (RuntimeException e) {
+            log.warn("Unable to publish near-cache invalidation for cart {}: {}", cartId, e.getMessage());
+        }
+    }
+}
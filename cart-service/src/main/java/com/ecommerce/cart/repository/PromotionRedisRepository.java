@@ -0,0 +1,71 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.config.RedisConfig;
+import com.ecommerce.cart.domain.entity.Promotion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Promotions stored as JSON in the {@code promotions} hash, the version in {@code promotions:version}.
+ * The hash is written before the version, so a reader that sees a version always sees data at
+ * least that recent.
+ */
+@Repository
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class PromotionRedisRepository implements PromotionRepository {
+
+    public static final String PROMOTIONS_KEY = "promotions";
+    public static final String VERSION_KEY = "promotions:version";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper = RedisConfig.plainObjectMapper();
+
+    @Override
+    public List<Promotion> findAll() {
+        List<Object> values = stringRedisTemplate.opsForHash().values(PROMOTIONS_KEY);
+        List<Promotion> promotions = new ArrayList<>(values.size());
+        for (Object value : values) {
+            try {
+                promotions.add(objectMapper.readValue((String) value, Promotion.class));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable promotion: " + e.getOriginalMessage(), e);
+            }
+        }
+        return promotions;
+    }
+
+    @Override
+    public Promotion save(Promotion promotion) {
+        try {
+            stringRedisTemplate.opsForHash().put(PROMOTIONS_KEY, promotion.getPromotionId(),
+                    objectMapper.writeValueAsString(promotion));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize promotion " + promotion.getPromotionId(), e);
+        }
+        stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+        return promotion;
+    }
+
+    @Override
+    public boolean deleteById(String promotionId) {
+        boolean deleted = stringRedisTemplate.opsForHash().delete(PROMOTIONS_KEY, promotionId) > 0;
+        if (deleted) {
+            stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+        }
+        return deleted;
+    }
+
+    @Override
+    public long currentVersion() {
+        String version = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+        return version == null ? 0L : Long.parseLong(version);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.domain.entity.Promotion;
+
+import java.util.List;
+
+/**
+ * Promotion rules. Every change bumps a version, which is what instances poll to know when to
+ * recompile their rules.
+ */
+public interface PromotionRepository {
+
+    List<Promotion> findAll();
+
+    Promotion save(Promotion promotion);
+
+    boolean deleteById(String promotionId);
+
+    long currentVersion();
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.cart.repository;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Hashed timer wheel for entry expiry: a deadline hashes to the bucket of its tick, modulo the wheel
+ * size, and each tick only visits its own bucket. Entries due in a later revolution share the bucket
+ * and stay in it until their round comes, so scheduling and cancelling cost O(1) and a full
+ * revolution visits every entry once, whatever the number of entries.
+ * <p>
+ * Scheduling and cancelling are thread-safe; {@link #advance} is called by a single sweeper thread.
+ */
+class TimerWheel {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Set<String>[] buckets;
+    private volatile long cursor;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new Set[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.cursor = nowMillis / tickMillis;
+    }
+
+    void schedule(String id, long deadlineMillis) {
+        bucket(deadlineMillis).add(id);
+    }
+
+    void cancel(String id, long deadlineMillis) {
+        bucket(deadlineMillis).remove(id);
+    }
+
+    /**
+     * Visits the buckets of every tick elapsed since the previous call. {@code expire} is offered
+     * each id of those buckets and returns whether it is gone (expired, or no longer scheduled
+     * there); ids it keeps are due in a later revolution.
+     *
+     * @return the number of ids removed from the wheel
+     */
+    int advance(long nowMillis, Predicate<String> expire) {
+        long target = nowMillis / tickMillis;
+        // after a long pause one revolution covers every bucket
+        long from = Math.max(cursor + 1, target - mask);
+        int removed = 0;
+        for (long tick = from; tick <= target; tick++) {
+            Iterator<String> ids = buckets[(int) (tick & mask)].iterator();
+            while (ids.hasNext()) {
+                if (expire.test(ids.next())) {
+                    ids.remove();
+                    removed++;
+                }
+            }
+        }
+        cursor = Math.max(cursor, target);
+        return removed;
+    }
+
+    /**
+     * Ids in wheel order starting with the next tick, i.e. roughly the soonest deadlines first.
+     * Used to pick victims when the store is over capacity.
+     */
+    Iterator<String> upcoming() {
+        long start = cursor + 1;
+        return new Iterator<>() {
+            private int visited;
+            private Iterator<String> current = buckets[(int) (start & mask)].iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    if (++visited > mask) {
+                        return false;
+                    }
+                    current = buckets[(int) ((start + visited) & mask)].iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    private Set<String> bucket(long deadlineMillis) {
+        return buckets[(int) ((deadlineMillis / tickMillis) & mask)];
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.cart.repository.serializer;
+
+/**
+ * Schema of one type in the binary cart format. {@code formatVersion} is the version the
+ * payload was written with, so a codec can keep reading payloads from older schemas.
+ */
+public interface BinaryCodec<T> {
+
+    void write(T value, BinaryWriter out);
+
+    T read(BinaryReader in, int formatVersion);
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.cart.repository.serializer;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Reads the encodings produced by {@link BinaryWriter}.
+ */
+public final class BinaryReader {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    public BinaryReader(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int readByte() {
+        if (position >= limit) {
+            throw new SerializationException("Truncated cart payload");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new SerializationException("Malformed varint in cart payload");
+    }
+
+    public int readVarInt() {
+        return (int) readVarLong();
+    }
+
+    public long readSignedVarLong() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public String readString() {
+        int length = readVarInt();
+        if (length == 0) {
+            return null;
+        }
+        length--;
+        checkAvailable(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public BigDecimal readDecimal() {
+        int kind = readByte();
+        switch (kind) {
+            case BinaryWriter.DECIMAL_NULL:
+                return null;
+            case BinaryWriter.DECIMAL_COMPACT: {
+                int scale = (int) readSignedVarLong();
+                return BigDecimal.valueOf(readSignedVarLong(), scale);
+            }
+            case BinaryWriter.DECIMAL_BIG: {
+                int scale = (int) readSignedVarLong();
+                int length = readVarInt();
+                checkAvailable(length);
+                byte[] unscaled = Arrays.copyOfRange(buffer, position, position + length);
+                position += length;
+                return new BigDecimal(new BigInteger(unscaled), scale);
+            }
+            default:
+                throw new SerializationException("Unknown decimal encoding " + kind);
+        }
+    }
+
+    public LocalDateTime readDateTime() {
+        if (!readBoolean()) {
+            return null;
+        }
+        long epochSecond = readSignedVarLong();
+        int nano = readVarInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    public int remaining() {
+        return limit - position;
+    }
+
+    private void checkAvailable(int length) {
+        if (length < 0 || position + length > limit) {
+            throw new SerializationException("Truncated cart payload");
+        }
+    }
+}
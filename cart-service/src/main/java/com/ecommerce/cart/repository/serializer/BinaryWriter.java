@@ -0,0 +1,117 @@
+package com.ecommerce.cart.repository.serializer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer with the primitive encodings used by the binary cart format:
+ * LEB128 varints, zig-zag signed values and length-prefixed UTF-8 strings.
+ */
+public final class BinaryWriter {
+
+    static final int DECIMAL_NULL = 0;
+    static final int DECIMAL_COMPACT = 1;
+    static final int DECIMAL_BIG = 2;
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * Unsigned LEB128, 1 byte for values below 128.
+     */
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeVarInt(int value) {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    public void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * {@code null} is encoded as length 0, any other string as {@code length + 1} followed by its UTF-8 bytes.
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    public void writeDecimal(BigDecimal value) {
+        if (value == null) {
+            writeByte(DECIMAL_NULL);
+            return;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            writeByte(DECIMAL_COMPACT);
+            writeSignedVarLong(value.scale());
+            writeSignedVarLong(unscaled.longValue());
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            writeByte(DECIMAL_BIG);
+            writeSignedVarLong(value.scale());
+            writeVarInt(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+    }
+
+    public void writeDateTime(LocalDateTime value) {
+        if (value == null) {
+            writeBoolean(false);
+            return;
+        }
+        writeBoolean(true);
+        writeSignedVarLong(value.toEpochSecond(ZoneOffset.UTC));
+        writeVarInt(value.getNano());
+    }
+
+    public int size() {
+        return position;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.cart.repository.serializer;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.enums.CartStatus;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Whole-cart schema. Totals are derived data and are recomputed on read instead of being stored.
+ * <p>
+ * Version 2 appends {@code revalidatedAt}, version 3 the cart status, version 4 the line category.
+ */
+@RequiredArgsConstructor
+public class CartBinaryCodec implements BinaryCodec<Cart> {
+
+    private final BinaryCodec<CartItem> itemCodec;
+
+    @Override
+    public void write(Cart cart, BinaryWriter out) {
+        out.writeString(cart.getCartId());
+        out.writeString(cart.getUserId());
+        out.writeDateTime(cart.getCreatedAt());
+        out.writeDateTime(cart.getUpdatedAt());
+        out.writeDateTime(cart.getExpiresAt());
+        out.writeVarLong(cart.getVersion());
+        out.writeVarInt(cart.getItems().size());
+        for (CartItem item : cart.getItems()) {
+            itemCodec.write(item, out);
+        }
+        out.writeDateTime(cart.getRevalidatedAt());
+        out.writeString(cart.getStatus() == null ? null : cart.getStatus().name());
+    }
+
+    @Override
+    public Cart read(BinaryReader in, int formatVersion) {
+        Cart cart = Cart.builder()
+                .cartId(in.readString())
+                .userId(in.readString())
+                .createdAt(in.readDateTime())
+                .updatedAt(in.readDateTime())
+                .expiresAt(in.readDateTime())
+                .version(in.readVarLong())
+                .build();
+        int count = in.readVarInt();
+        List<CartItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(itemCodec.read(in, formatVersion));
+        }
+        cart.setItems(items);
+        if (formatVersion >= 2) {
+            cart.setRevalidatedAt(in.readDateTime());
+        }
+        if (formatVersion >= 3) {
+            String status = in.readString();
+            cart.setStatus(status == null ? CartStatus.ACTIVE : CartStatus.valueOf(status));
+        }
+        cart.calculateTotals();
+        return cart;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.cart.repository.serializer;
+
+import com.ecommerce.cart.domain.entity.CartItem;
+
+/**
+ * Line schema. Version 4 appends the product category.
+ */
+public class CartItemBinaryCodec implements BinaryCodec<CartItem> {
+
+    @Override
+    public void write(CartItem item, BinaryWriter out) {
+        out.writeString(item.getItemId());
+        out.writeString(item.getProductId());
+        out.writeString(item.getProductName());
+        out.writeString(item.getProductImage());
+        out.writeVarInt(item.getQuantity());
+        out.writeDecimal(item.getUnitPrice());
+        out.writeBoolean(item.isAvailable());
+        out.writeDateTime(item.getAddedAt());
+        out.writeString(item.getCategory());
+    }
+
+    @Override
+    public CartItem read(BinaryReader in, int formatVersion) {
+        CartItem item = CartItem.builder()
+                .itemId(in.readString())
+                .productId(in.readString())
+                .productName(in.readString())
+                .productImage(in.readString())
+                .quantity(in.readVarInt())
+                .unitPrice(in.readDecimal())
+                .available(in.readBoolean())
+                .addedAt(in.readDateTime())
+                .build();
+        if (formatVersion >= 4) {
+            item.setCategory(in.readString());
+        }
+        return item;
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.cart.repository.serializer;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis serializer for the compact binary format, with a JSON serializer kept as fallback.
+ * <p>
+ * Binary frame: {@code [magic][format version][flags][raw length if deflated][payload]}. Payloads
+ * larger than the compression threshold are deflated when it actually saves space. Values that do
+ * not start with the magic byte are JSON written before the binary format and are handed to the
+ * fallback, so both formats stay readable whichever one is configured for writes.
+ */
+public class VersionedRedisSerializer<T> implements RedisSerializer<T> {
+
+    static final byte MAGIC = (byte) 0xCB;
+    static final int FORMAT_VERSION = 4;
+    static final int FLAG_DEFLATED = 1;
+
+    private final BinaryCodec<T> codec;
+    private final RedisSerializer<T> json;
+    private final boolean writeBinary;
+    private final int compressionThreshold;
+
+    public VersionedRedisSerializer(BinaryCodec<T> codec, RedisSerializer<T> json,
+                                    boolean writeBinary, int compressionThreshold) {
+        this.codec = codec;
+        this.json = json;
+        this.writeBinary = writeBinary;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        if (!writeBinary) {
+            return json.serialize(value);
+        }
+
+        BinaryWriter payload = new BinaryWriter(256);
+        codec.write(value, payload);
+        byte[] raw = payload.toByteArray();
+
+        byte[] body = raw;
+        int flags = 0;
+        if (compressionThreshold > 0 && raw.length >= compressionThreshold) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                body = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+
+        BinaryWriter frame = new BinaryWriter(body.length + 8);
+        frame.writeByte(MAGIC);
+        frame.writeByte(FORMAT_VERSION);
+        frame.writeByte(flags);
+        if ((flags & FLAG_DEFLATED) != 0) {
+            frame.writeVarInt(raw.length);
+        }
+        frame.writeBytes(body, 0, body.length);
+        return frame.toByteArray();
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return json.deserialize(bytes);
+        }
+
+        BinaryReader header = new BinaryReader(bytes, 1, bytes.length - 1);
+        int version = header.readByte();
+        if (version > FORMAT_VERSION) {
+            throw new SerializationException("Unsupported cart format version " + version);
+        }
+        int flags = header.readByte();
+
+        if ((flags & FLAG_DEFLATED) != 0) {
+            int rawLength = header.readVarInt();
+            int offset = bytes.length - header.remaining();
+            byte[] raw = inflate(bytes, offset, bytes.length - offset, rawLength);
+            return codec.read(new BinaryReader(raw, 0, raw.length), version);
+        }
+        int offset = bytes.length - header.remaining();
+        return codec.read(new BinaryReader(bytes, offset, bytes.length - offset), version);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] chunk = new byte[Math.min(raw.length, 4096)];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(chunk);
+                out.write(chunk, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset, int length, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, length);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new SerializationException("Corrupted compressed cart payload");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupted compressed cart payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+-- Deletes a cart together with its index entries, and records the deletion in the event stream.
+-- KEYS[1] = cart key
+-- KEYS[2] = activity index
+-- KEYS[3] = event stream
+-- ARGV[1] = cart id
+-- ARGV[2] = prefix of the user index keys
+-- ARGV[3] = approximate maximum length of the event stream
+-- ARGV[4] = occurredAt of the deletion
+-- Returns the number of deleted cart keys.
+local userId
+local version = 0
+if redis.call('TYPE', KEYS[1])['ok'] == 'hash' then
+    userId = redis.call('HGET', KEYS[1], 'userId')
+    version = tonumber(redis.call('HGET', KEYS[1], 'version') or '0')
+    if userId then
+        local userKey = ARGV[2] .. userId
+        if redis.call('GET', userKey) == ARGV[1] then
+            redis.call('DEL', userKey)
+        end
+    end
+end
+redis.call('ZREM', KEYS[2], ARGV[1])
+local deleted = redis.call('DEL', KEYS[1])
+if deleted > 0 then
+    local entry = { 'type', 'CART_DELETED', 'cartId', ARGV[1], 'version', version + 1, 'occurredAt', ARGV[4] }
+    if userId then
+        table.insert(entry, 'userId')
+        table.insert(entry, userId)
+    end
+    redis.call('XADD', KEYS[3], 'MAXLEN', '~', ARGV[3], '*', unpack(entry))
+end
+return deleted
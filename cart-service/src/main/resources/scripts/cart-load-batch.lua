@@ -0,0 +1,17 @@
+-- Loads several carts in a single round trip, each as cart-load.lua does.
+-- KEYS = cart keys
+-- Returns one reply per key, in order: {'hash', field1, value1, ...}, {'string', blob} or {}.
+local carts = {}
+for i, key in ipairs(KEYS) do
+    local kind = redis.call('TYPE', key)['ok']
+    if kind == 'hash' then
+        local fields = redis.call('HGETALL', key)
+        table.insert(fields, 1, 'hash')
+        carts[i] = fields
+    elseif kind == 'string' then
+        carts[i] = { 'string', redis.call('GET', key) }
+    else
+        carts[i] = {}
+    end
+end
+return carts
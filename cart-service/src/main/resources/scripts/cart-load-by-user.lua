@@ -0,0 +1,21 @@
+-- Resolves and loads the cart of a user in a single round trip.
+-- KEYS[1] = user index key
+-- ARGV[1] = prefix of the cart keys
+-- Returns {cartId, 'hash', field1, value1, ...}, {cartId, 'string', blob}, or {} when the user has
+-- no cart. An index entry left behind by a vanished cart is removed.
+local cartId = redis.call('GET', KEYS[1])
+if not cartId then
+    return {}
+end
+local key = ARGV[1] .. cartId
+local kind = redis.call('TYPE', key)['ok']
+if kind == 'hash' then
+    local fields = redis.call('HGETALL', key)
+    table.insert(fields, 1, 'hash')
+    table.insert(fields, 1, cartId)
+    return fields
+elseif kind == 'string' then
+    return { cartId, 'string', redis.call('GET', key) }
+end
+redis.call('DEL', KEYS[1])
+return {}
@@ -0,0 +1,14 @@
+-- Loads a cart in a single round trip whatever its storage layout.
+-- KEYS[1] = cart key
+-- Returns {'hash', field1, value1, ...} for hash carts,
+--         {'string', blob} for legacy whole-document carts,
+--         {} when the cart does not exist.
+local kind = redis.call('TYPE', KEYS[1])['ok']
+if kind == 'hash' then
+    local fields = redis.call('HGETALL', KEYS[1])
+    table.insert(fields, 1, 'hash')
+    return fields
+elseif kind == 'string' then
+    return { 'string', redis.call('GET', KEYS[1]) }
+end
+return {}
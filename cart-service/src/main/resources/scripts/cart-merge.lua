@@ -0,0 +1,111 @@
+-- Merges a guest cart into the cart of a user, atomically.
+-- KEYS[1] = user index key
+-- KEYS[2] = guest cart key
+-- KEYS[3] = activity index
+-- KEYS[4] = event stream
+-- KEYS[5] = optional key of the user's cart, as the user index pointed to when the caller read it
+-- ARGV[1] = ttl in seconds
+-- ARGV[2] = maximum number of items in a cart
+-- ARGV[3] = guest cart id
+-- ARGV[4] = id of the user's cart the caller read from the user index, '' when there was none
+-- ARGV[5] = user id
+-- ARGV[6] = updatedAt of the merged cart
+-- ARGV[7] = activity score of the merged cart
+-- ARGV[8] = approximate maximum length of the event stream
+-- Returns {'hash', cartId, field1, value1, ...} with the merged cart, {'missing'} when the guest
+-- cart does not exist, {'forbidden'} when it belongs to another user, {'legacy'} when a cart still
+-- has to be migrated to the hash layout, {'limit'} when the merged cart would exceed the maximum
+-- number of items, or {'moved'} when the user index no longer points to the cart in ARGV[4]. Nothing
+-- is changed in the last five cases.
+local guestKey = KEYS[2]
+local guestId = ARGV[3]
+local guestType = redis.call('TYPE', guestKey)['ok']
+if guestType == 'none' then
+    return { 'missing' }
+elseif guestType ~= 'hash' then
+    return { 'legacy' }
+end
+-- only an anonymous cart, or one the user already owns, can be merged
+local owner = redis.call('HGET', guestKey, 'userId')
+if owner and owner ~= '' and owner ~= ARGV[5] then
+    return { 'forbidden' }
+end
+
+-- Stamps the resulting cart, refreshes its TTL and indexes, and returns it
+local function finish(cartKey, cartId)
+    local version = tonumber(redis.call('HGET', cartKey, 'version') or '0') + 1
+    redis.call('HSET', cartKey, 'version', version, 'userId', ARGV[5], 'updatedAt', ARGV[6], 'status', 'ACTIVE')
+    redis.call('EXPIRE', cartKey, ARGV[1])
+    redis.call('ZADD', KEYS[3], ARGV[7], cartId)
+    redis.call('SET', KEYS[1], cartId, 'EX', ARGV[1])
+    redis.call('XADD', KEYS[4], 'MAXLEN', '~', ARGV[8], '*', 'type', 'CARTS_MERGED', 'cartId', cartId,
+        'version', version, 'occurredAt', ARGV[6], 'userId', ARGV[5], 'guestCartId', guestId)
+    local fields = redis.call('HGETALL', cartKey)
+    table.insert(fields, 1, cartId)
+    table.insert(fields, 1, 'hash')
+    return fields
+end
+
+-- every key is declared up front, so the caller resolves the user's cart; it re-reads if it moved
+local userCartId = redis.call('GET', KEYS[1])
+if (userCartId or '') ~= ARGV[4] then
+    return { 'moved' }
+end
+local userKey = KEYS[5]
+local userType = userKey and redis.call('TYPE', userKey)['ok'] or 'none'
+if userType == 'none' or userCartId == guestId then
+    -- nothing to merge into, the guest cart becomes the user's cart
+    return finish(guestKey, guestId)
+elseif userType ~= 'hash' then
+    return { 'legacy' }
+end
+
+local total = 0
+local userQuantities = {}
+local userFields = redis.call('HGETALL', userKey)
+for i = 1, #userFields, 2 do
+    local field = userFields[i]
+    if string.sub(field, 1, 4) == 'qty:' then
+        local quantity = tonumber(userFields[i + 1])
+        userQuantities[string.sub(field, 5)] = quantity
+        total = total + quantity
+    end
+end
+
+local guestItems = {}
+local guestQuantities = {}
+local guestFields = redis.call('HGETALL', guestKey)
+for i = 1, #guestFields, 2 do
+    local field = guestFields[i]
+    if string.sub(field, 1, 5) == 'item:' then
+        guestItems[string.sub(field, 6)] = guestFields[i + 1]
+    elseif string.sub(field, 1, 4) == 'qty:' then
+        local quantity = tonumber(guestFields[i + 1])
+        guestQuantities[string.sub(field, 5)] = quantity
+        total = total + quantity
+    end
+end
+if total > tonumber(ARGV[2]) then
+    return { 'limit' }
+end
+
+local updates = {}
+for productId, quantity in pairs(guestQuantities) do
+    local existing = userQuantities[productId]
+    if existing then
+        -- same product on both sides: the user's line is kept with the summed quantity
+        table.insert(updates, 'qty:' .. productId)
+        table.insert(updates, existing + quantity)
+    elseif guestItems[productId] then
+        table.insert(updates, 'item:' .. productId)
+        table.insert(updates, guestItems[productId])
+        table.insert(updates, 'qty:' .. productId)
+        table.insert(updates, quantity)
+    end
+end
+if #updates > 0 then
+    redis.call('HSET', userKey, unpack(updates))
+end
+redis.call('DEL', guestKey)
+redis.call('ZREM', KEYS[3], guestId)
+return finish(userKey, userCartId)
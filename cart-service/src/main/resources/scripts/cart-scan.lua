@@ -0,0 +1,11 @@
+-- One SCAN step over the cart keys, for walks that resume from a cursor kept by the client.
+-- ARGV[1] = SCAN cursor, '0' to start
+-- ARGV[2] = key pattern
+-- ARGV[3] = COUNT hint
+-- Returns {nextCursor, key1, key2, ...}; the next cursor is '0' once the keyspace has been walked.
+local result = redis.call('SCAN', ARGV[1], 'MATCH', ARGV[2], 'COUNT', ARGV[3])
+local reply = { result[1] }
+for _, key in ipairs(result[2]) do
+    table.insert(reply, key)
+end
+return reply
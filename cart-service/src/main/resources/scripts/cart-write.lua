@@ -0,0 +1,96 @@
+-- Applies a field-level patch to a cart hash if its version still matches, then
+-- bumps the version, refreshes the TTL unless asked to keep it, updates the activity index and appends the
+-- change events to the event stream.
+-- KEYS[1] = cart key
+-- KEYS[2] = activity index (sorted set of cart ids scored by last activity)
+-- KEYS[3] = event stream
+-- KEYS[4] = optional user index key, pointing the cart's user to the cart
+-- KEYS[5] = optional key of another cart the user index pointed to when the caller read it
+-- ARGV[1] = ttl in seconds, or '' to keep the remaining TTL of an existing cart
+-- ARGV[2] = '1' to replace the whole cart (also drops legacy blob keys), '0' to patch
+-- ARGV[3] = expected version (0 for a cart that does not exist yet)
+-- ARGV[4] = cart id
+-- ARGV[5] = activity score, or '' to take the cart out of the activity index
+-- ARGV[6] = approximate maximum length of the event stream
+-- ARGV[7] = id of the cart in KEYS[5], '' when the user index pointed to no other cart
+-- ARGV[8] = number m of events, followed by m (type, productId, quantity, occurredAt)
+--           tuples, '' for absent values
+-- then the number n of fields to delete, followed by the n fields
+-- remaining ARGV = field/value pairs to set
+-- Returns the new version, -1 when the expected version does not match, -2 when a new cart
+-- is created for a user who already has one, or -3 when the user index no longer points to the
+-- cart in ARGV[7].
+local key = KEYS[1]
+local current = 0
+if redis.call('TYPE', key)['ok'] == 'hash' then
+    current = tonumber(redis.call('HGET', key, 'version') or '0')
+end
+if current ~= tonumber(ARGV[3]) then
+    return -1
+end
+if current == 0 and KEYS[4] then
+    -- every key is declared up front, so the caller resolves the user's cart; it re-reads if it moved
+    local existing = redis.call('GET', KEYS[4])
+    if existing == ARGV[4] then
+        existing = false
+    end
+    if (existing or '') ~= ARGV[7] then
+        return -3
+    end
+    if KEYS[5] and redis.call('EXISTS', KEYS[5]) == 1 then
+        return -2
+    end
+end
+
+if ARGV[2] == '1' then
+    redis.call('DEL', key)
+end
+local events = tonumber(ARGV[8])
+local eventsStart = 9
+local i = eventsStart + events * 4
+local deletes = tonumber(ARGV[i])
+i = i + 1
+if deletes > 0 then
+    redis.call('HDEL', key, unpack(ARGV, i, i + deletes - 1))
+    i = i + deletes
+end
+if #ARGV >= i then
+    redis.call('HSET', key, unpack(ARGV, i, #ARGV))
+end
+local version = current + 1
+redis.call('HSET', key, 'version', version)
+if ARGV[1] ~= '' then
+    redis.call('EXPIRE', key, ARGV[1])
+    if KEYS[4] then
+        redis.call('SET', KEYS[4], ARGV[4], 'EX', ARGV[1])
+    end
+elseif KEYS[4] then
+    redis.call('SET', KEYS[4], ARGV[4], 'KEEPTTL')
+end
+
+if ARGV[5] == '' then
+    redis.call('ZREM', KEYS[2], ARGV[4])
+else
+    redis.call('ZADD', KEYS[2], ARGV[5], ARGV[4])
+end
+
+if events > 0 then
+    local userId = redis.call('HGET', key, 'userId')
+    for e = eventsStart, eventsStart + events * 4 - 1, 4 do
+        local entry = { 'type', ARGV[e], 'cartId', ARGV[4], 'version', version, 'occurredAt', ARGV[e + 3] }
+        if userId then
+            table.insert(entry, 'userId')
+            table.insert(entry, userId)
+        end
+        if ARGV[e + 1] ~= '' then
+            table.insert(entry, 'productId')
+            table.insert(entry, ARGV[e + 1])
+        end
+        if ARGV[e + 2] ~= '' then
+            table.insert(entry, 'quantity')
+            table.insert(entry, ARGV[e + 2])
+        end
+        redis.call('XADD', KEYS[3], 'MAXLEN', '~', ARGV[6], '*', unpack(entry))
+    end
+end
+return version
@@ -0,0 +1,15 @@
+-- Stores the outcome of a request, unless the key was taken over by another owner meanwhile.
+-- KEYS[1] = idempotency:{scope}
+-- ARGV[1] = owner of the reservation
+-- ARGV[2] = completed record (JSON)
+-- ARGV[3] = TTL of the record in milliseconds
+-- Returns 1 when stored, 0 when the key holds a record of another owner or a completed one.
+local current = redis.call('GET', KEYS[1])
+if current then
+    local record = cjson.decode(current)
+    if record.completed or record.owner ~= ARGV[1] then
+        return 0
+    end
+end
+redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+return 1
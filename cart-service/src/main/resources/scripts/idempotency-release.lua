@@ -0,0 +1,13 @@
+-- Frees a reservation, only while it is still pending and held by the given owner.
+-- KEYS[1] = idempotency:{scope}
+-- ARGV[1] = owner of the reservation
+-- Returns 1 when the key was deleted, 0 otherwise.
+local current = redis.call('GET', KEYS[1])
+if not current then
+    return 0
+end
+local record = cjson.decode(current)
+if record.completed or record.owner ~= ARGV[1] then
+    return 0
+end
+return redis.call('DEL', KEYS[1])
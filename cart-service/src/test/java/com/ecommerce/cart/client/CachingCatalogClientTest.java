@@ -0,0 +1,102 @@
+package com.ecommerce.cart.client;
+
+import com.ecommerce.cart.dto.external.ProductDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingCatalogClientTest {
+
+    @Mock
+    private CatalogClient delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingCatalogClient client;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        client = new CachingCatalogClient(delegate, 100, Duration.ofMinutes(1), Duration.ofMinutes(5),
+                10, Runnable::run, meterRegistry);
+    }
+
+    @Test
+    void getProduct_ShouldServeRepeatedReadsFromSnapshot() {
+        // Given
+        when(delegate.getProduct("PROD-001")).thenReturn(product("PROD-001", true, 50));
+
+        // When
+        client.getProduct("PROD-001");
+        ProductDTO result = client.getProduct("PROD-001");
+
+        // Then
+        assertThat(result.getProductId()).isEqualTo("PROD-001");
+        verify(delegate, times(1)).getProduct("PROD-001");
+        assertThat(meterRegistry.get("cart.product-snapshots.load").tag("result", "success").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void getProduct_ShouldNotKeepUnavailableProducts() {
+        // Given
+        when(delegate.getProduct("PROD-001")).thenReturn(product("PROD-001", false, 0));
+
+        // When
+        client.getProduct("PROD-001");
+        client.getProduct("PROD-001");
+
+        // Then
+        verify(delegate, times(2)).getProduct("PROD-001");
+    }
+
+    @Test
+    void checkAvailability_ShouldAnswerLocallyOnlyAboveLowStockThreshold() {
+        // Given
+        when(delegate.getProduct("PROD-001")).thenReturn(product("PROD-001", true, 50));
+        when(delegate.checkAvailability("PROD-001", 45)).thenReturn(true);
+        client.getProduct("PROD-001");
+
+        // When
+        boolean plentyLeft = client.checkAvailability("PROD-001", 5);
+        boolean lowStock = client.checkAvailability("PROD-001", 45);
+
+        // Then
+        assertThat(plentyLeft).isTrue();
+        assertThat(lowStock).isTrue();
+        verify(delegate, never()).checkAvailability("PROD-001", 5);
+        verify(delegate, times(1)).checkAvailability("PROD-001", 45);
+    }
+
+    @Test
+    void checkAvailability_ShouldGoToCatalogForUnknownProducts() {
+        // Given
+        when(delegate.checkAvailability("PROD-002", 1)).thenReturn(false);
+
+        // When
+        boolean result = client.checkAvailability("PROD-002", 1);
+
+        // Then
+        assertThat(result).isFalse();
+        verify(delegate, never()).getProduct("PROD-002");
+    }
+
+    private static ProductDTO product(String productId, boolean available, int stock) {
+        return ProductDTO.builder()
+                .productId(productId)
+                .name("Product " + productId)
+                .price(new BigDecimal("10.00"))
+                .available(available)
+                .stockQuantity(stock)
+                .build();
+    }
+}
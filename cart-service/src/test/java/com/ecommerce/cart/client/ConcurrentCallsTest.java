@@ -0,0 +1,85 @@
+package com.ecommerce.cart.client;
+
+import com.ecommerce.cart.domain.exception.RemoteCallTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrentCallsTest {
+
+    private final ConcurrentCalls concurrentCalls = new ConcurrentCalls(Duration.ofMillis(500));
+
+    @AfterEach
+    void tearDown() {
+        concurrentCalls.destroy();
+    }
+
+    @Test
+    void invokeBoth_ShouldRunCallsConcurrently() {
+        // Given
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        // When
+        String result = concurrentCalls.invokeBoth(
+                () -> awaitSibling(bothStarted, "product"),
+                () -> awaitSibling(bothStarted, "available"),
+                (first, second) -> first + ":" + second);
+
+        // Then
+        assertThat(result).isEqualTo("product:available");
+    }
+
+    @Test
+    void invokeBoth_ShouldFailFastAndInterruptSibling() throws InterruptedException {
+        // Given
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+        CountDownLatch siblingInterrupted = new CountDownLatch(1);
+
+        // When / Then
+        assertThatThrownBy(() -> concurrentCalls.invokeBoth(
+                () -> {
+                    siblingStarted.await();
+                    throw new IllegalArgumentException("not found");
+                },
+                () -> {
+                    siblingStarted.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        siblingInterrupted.countDown();
+                    }
+                    return true;
+                },
+                (first, second) -> first))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("not found");
+        assertThat(siblingInterrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void invokeBoth_ShouldEnforceSharedDeadline() {
+        assertThatThrownBy(() -> concurrentCalls.invokeBoth(
+                () -> "fast",
+                () -> {
+                    Thread.sleep(10_000);
+                    return "slow";
+                },
+                (first, second) -> first))
+                .isInstanceOf(RemoteCallTimeoutException.class);
+    }
+
+    private static String awaitSibling(CountDownLatch bothStarted, String value) throws InterruptedException {
+        bothStarted.countDown();
+        // Only returns if the other call is running at the same time
+        if (!bothStarted.await(400, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("calls did not overlap");
+        }
+        return value;
+    }
+}
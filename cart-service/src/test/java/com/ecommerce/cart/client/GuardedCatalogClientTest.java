@@ -0,0 +1,158 @@
+package com.ecommerce.cart.client;
+
+import com.ecommerce.cart.domain.exception.RemoteCallTimeoutException;
+import com.ecommerce.cart.dto.external.BatchGetProductsRequest;
+import com.ecommerce.cart.dto.external.ProductDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GuardedCatalogClientTest {
+
+    @Mock
+    private CatalogClient delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GuardedCatalogClient client;
+
+    @BeforeEach
+    void setUp() {
+        guardedClient(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.destroy();
+    }
+
+    @Test
+    void getProduct_ShouldHedgeSlowRequestAndReturnFirstAnswer() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        when(delegate.getProduct("PROD-001")).thenAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                Thread.sleep(10_000);
+            }
+            return product("PROD-001");
+        });
+
+        // When
+        ProductDTO result = client.getProduct("PROD-001");
+
+        // Then
+        assertThat(result.getProductId()).isEqualTo("PROD-001");
+        verify(delegate, times(2)).getProduct("PROD-001");
+        assertThat(hedges("sent")).isEqualTo(1);
+        assertThat(hedges("won")).isEqualTo(1);
+    }
+
+    @Test
+    void getProducts_ShouldNotHedgeAndTimeOut() {
+        // Given
+        when(delegate.getProducts(any())).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return List.of();
+        });
+
+        // When / Then
+        assertThatThrownBy(() -> client.getProducts(request()))
+                .isInstanceOf(RemoteCallTimeoutException.class);
+        verify(delegate, times(1)).getProducts(any());
+        assertThat(meterRegistry.get("cart.catalog.timeouts").tag("operation", "get-products").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void getProducts_ShouldRejectWhileAbandonedRequestHoldsPermit() {
+        // Given
+        client.destroy();
+        guardedClient(1);
+        CountDownLatch catalogAnswers = new CountDownLatch(1);
+        when(delegate.getProducts(any())).thenAnswer(invocation -> {
+            // Like a blocking socket read, ignores the cancellation
+            awaitUninterruptibly(catalogAnswers);
+            return List.of(product("PROD-001"));
+        }).thenReturn(List.of(product("PROD-002")));
+        assertThatThrownBy(() -> client.getProducts(request()))
+                .isInstanceOf(RemoteCallTimeoutException.class);
+
+        // When / Then
+        assertThatThrownBy(() -> client.getProducts(request()))
+                .isInstanceOf(RemoteCallTimeoutException.class)
+                .hasMessageContaining("bulkhead full");
+        assertThat(meterRegistry.get("cart.catalog.bulkhead.rejected").tag("operation", "get-products").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("cart.catalog.bulkhead.in-flight").tag("operation", "get-products").gauge().value())
+                .isEqualTo(1);
+
+        catalogAnswers.countDown();
+        assertThat(client.getProducts(request())).extracting(ProductDTO::getProductId).containsExactly("PROD-002");
+    }
+
+    @Test
+    void checkAvailability_ShouldPropagateCatalogFailure() {
+        // Given
+        when(delegate.checkAvailability("PROD-001", 1)).thenThrow(new IllegalArgumentException("not found"));
+
+        // When / Then
+        assertThatThrownBy(() -> client.checkAvailability("PROD-001", 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("not found");
+        assertThat(meterRegistry.get("cart.catalog.calls").tag("operation", "check-availability").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("cart.catalog.bulkhead.in-flight").tag("operation", "check-availability").gauge().value())
+                .isZero();
+    }
+
+    private double hedges(String result) {
+        return meterRegistry.get("cart.catalog.hedges").tag("operation", "get-product").tag("result", result)
+                .counter().count();
+    }
+
+    private void guardedClient(int maxConcurrent) {
+        meterRegistry = new SimpleMeterRegistry();
+        // No warm-up: timeout of 300ms and hedge after 50ms from the first call
+        client = new GuardedCatalogClient(delegate, new GuardedCatalogClient.Settings(maxConcurrent,
+                Duration.ofMillis(100), 0.99, 2, Duration.ofMillis(300), Duration.ofMillis(300), true, 0.95,
+                Duration.ofMillis(50), 0, Duration.ZERO), meterRegistry);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static BatchGetProductsRequest request() {
+        return BatchGetProductsRequest.builder().productIds(List.of("PROD-001")).build();
+    }
+
+    private static ProductDTO product(String productId) {
+        return ProductDTO.builder().productId(productId).build();
+    }
+}
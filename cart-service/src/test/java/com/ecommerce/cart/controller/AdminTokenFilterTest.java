@@ -0,0 +1,83 @@
+package com.ecommerce.cart.controller;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class AdminTokenFilterTest {
+
+    private final FilterChain chain = mock(FilterChain.class);
+
+    @Test
+    void adminRequest_ShouldPassWithToken() throws Exception {
+        // Given
+        AdminTokenFilter filter = new AdminTokenFilter("s3cret");
+        MockHttpServletRequest request = request("/api/v1/cart/admin/export");
+        request.addHeader(AdminTokenFilter.ADMIN_TOKEN, "s3cret");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        verify(chain).doFilter(request, response);
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void adminRequest_ShouldBeRefusedWithWrongOrMissingToken() throws Exception {
+        // Given
+        AdminTokenFilter filter = new AdminTokenFilter("s3cret");
+        MockHttpServletRequest wrong = request("/api/v1/cart/admin/export");
+        wrong.addHeader(AdminTokenFilter.ADMIN_TOKEN, "guess");
+        MockHttpServletResponse wrongResponse = new MockHttpServletResponse();
+        MockHttpServletResponse missingResponse = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(wrong, wrongResponse, chain);
+        filter.doFilter(request("/api/v1/cart/admin/export"), missingResponse, chain);
+
+        // Then
+        verifyNoInteractions(chain);
+        assertThat(wrongResponse.getStatus()).isEqualTo(403);
+        assertThat(missingResponse.getStatus()).isEqualTo(403);
+    }
+
+    @Test
+    void adminRequest_ShouldBeRefusedWithoutConfiguredToken() throws Exception {
+        // Given
+        AdminTokenFilter filter = new AdminTokenFilter("");
+        MockHttpServletRequest request = request("/api/v1/cart/admin/export");
+        request.addHeader(AdminTokenFilter.ADMIN_TOKEN, "");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        verifyNoInteractions(chain);
+        assertThat(response.getStatus()).isEqualTo(403);
+    }
+
+    @Test
+    void cartRequest_ShouldNotNeedToken() throws Exception {
+        // Given
+        AdminTokenFilter filter = new AdminTokenFilter("s3cret");
+        MockHttpServletRequest request = request("/api/v1/cart/CART-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        verify(chain).doFilter(request, response);
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
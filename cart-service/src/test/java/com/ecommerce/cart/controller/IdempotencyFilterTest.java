@@ -0,0 +1,174 @@
+package com.ecommerce.cart.controller;
+
+import com.ecommerce.cart.domain.entity.IdempotencyRecord;
+import com.ecommerce.cart.repository.IdempotencyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    private static final String SCOPE = "POST:/api/v1/cart/CART-1/items:key-1";
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(idempotencyStore, new SimpleMeterRegistry(),
+                Duration.ofMillis(200), Duration.ofMillis(10));
+    }
+
+    @Test
+    void firstRequest_ShouldExecuteAndStoreResponse() throws Exception {
+        // Given
+        when(idempotencyStore.reserve(eq(SCOPE), any(IdempotencyRecord.class))).thenReturn(Optional.empty());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request("{\"productId\":\"PROD-001\",\"quantity\":1}"), response, (req, res) -> {
+            assertThat(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).contains("PROD-001");
+            res.setContentType("application/json");
+            res.getWriter().write("{\"cartId\":\"CART-1\"}");
+        });
+
+        // Then
+        ArgumentCaptor<IdempotencyRecord> stored = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyStore).complete(eq(SCOPE), stored.capture());
+        assertThat(stored.getValue().isCompleted()).isTrue();
+        assertThat(stored.getValue().getBody()).isEqualTo("{\"cartId\":\"CART-1\"}");
+        assertThat(response.getContentAsString()).isEqualTo("{\"cartId\":\"CART-1\"}");
+        verify(idempotencyStore, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void retry_ShouldReplayStoredResponseWithoutExecuting() throws Exception {
+        // Given
+        IdempotencyRecord completed = completedRecord("{\"productId\":\"PROD-001\",\"quantity\":1}");
+        when(idempotencyStore.reserve(eq(SCOPE), any(IdempotencyRecord.class))).thenReturn(Optional.of(completed));
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request("{\"productId\":\"PROD-001\",\"quantity\":1}"), response, chain);
+
+        // Then
+        verifyNoInteractions(chain);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED)).isEqualTo("true");
+        assertThat(response.getContentAsString()).isEqualTo("{\"cartId\":\"CART-1\"}");
+    }
+
+    @Test
+    void reusedKeyWithDifferentBody_ShouldBeRejected() throws Exception {
+        // Given
+        IdempotencyRecord completed = completedRecord("{\"productId\":\"PROD-001\",\"quantity\":1}");
+        when(idempotencyStore.reserve(eq(SCOPE), any(IdempotencyRecord.class))).thenReturn(Optional.of(completed));
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request("{\"productId\":\"PROD-001\",\"quantity\":5}"), response, chain);
+
+        // Then
+        verifyNoInteractions(chain);
+        assertThat(response.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void serverError_ShouldReleaseKeyForRetry() throws Exception {
+        // Given
+        when(idempotencyStore.reserve(eq(SCOPE), any(IdempotencyRecord.class))).thenReturn(Optional.empty());
+
+        // When
+        filter.doFilter(request("{}"), new MockHttpServletResponse(),
+                (req, res) -> ((HttpServletResponse) res).setStatus(503));
+
+        // Then
+        verify(idempotencyStore, never()).complete(anyString(), any());
+        verify(idempotencyStore).release(eq(SCOPE), anyString());
+    }
+
+    @Test
+    void firstRequest_ShouldServeBodyToReadListener() throws Exception {
+        // Given
+        when(idempotencyStore.reserve(eq(SCOPE), any(IdempotencyRecord.class))).thenReturn(Optional.empty());
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        // When
+        filter.doFilter(request("{\"productId\":\"PROD-001\"}"), new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        // Then
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo("{\"productId\":\"PROD-001\"}");
+        assertThat(allRead).isTrue();
+    }
+
+    // Runs a first request to get the record the filter would have stored for this body
+    private IdempotencyRecord completedRecord(String body) throws Exception {
+        IdempotencyStore recorder = mock(IdempotencyStore.class);
+        when(recorder.reserve(eq(SCOPE), any(IdempotencyRecord.class))).thenReturn(Optional.empty());
+        new IdempotencyFilter(recorder, new SimpleMeterRegistry(), Duration.ofMillis(200), Duration.ofMillis(10))
+                .doFilter(request(body), new MockHttpServletResponse(), (req, res) -> {
+                    res.setContentType("application/json");
+                    res.getWriter().write("{\"cartId\":\"CART-1\"}");
+                });
+        ArgumentCaptor<IdempotencyRecord> stored = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(recorder).complete(eq(SCOPE), stored.capture());
+        return stored.getValue();
+    }
+
+    private MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/cart/CART-1/items");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, "key-1");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.cart.controller;
+
+import com.ecommerce.cart.domain.service.PromotionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PromotionControllerTest {
+
+    private static final String PROMOTION =
+            "{\"name\":\"Everything free\",\"type\":\"PERCENTAGE\",\"value\":100,\"active\":true}";
+
+    private final PromotionService promotionService = mock(PromotionService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new PromotionController(promotionService))
+                .addFilters(new AdminTokenFilter("s3cret"))
+                .build();
+    }
+
+    @Test
+    void savePromotion_ShouldBeRefusedWithoutAdminToken() throws Exception {
+        // When / Then
+        mockMvc.perform(put("/api/v1/cart/admin/promotions/PROMO-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PROMOTION))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/v1/cart/admin/promotions/PROMO-1"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(promotionService);
+    }
+
+    @Test
+    void savePromotion_ShouldPassWithAdminToken() throws Exception {
+        // When / Then
+        mockMvc.perform(put("/api/v1/cart/admin/promotions/PROMO-1")
+                        .header(AdminTokenFilter.ADMIN_TOKEN, "s3cret")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PROMOTION))
+                .andExpect(status().isOk());
+        verify(promotionService).savePromotion(eq("PROMO-1"), any());
+    }
+
+    @Test
+    void promotions_ShouldOnlyBeWrittenUnderTheAdminPath() throws Exception {
+        // Given
+        when(promotionService.getPromotions()).thenReturn(List.of());
+
+        // When / Then
+        mockMvc.perform(get("/api/v1/cart/promotions")).andExpect(status().isOk());
+        mockMvc.perform(put("/api/v1/cart/promotions/PROMO-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PROMOTION))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(delete("/api/v1/cart/promotions/PROMO-1"))
+                .andExpect(status().is4xxClientError());
+        verify(promotionService, never()).savePromotion(any(), any());
+        verify(promotionService, never()).deletePromotion(any());
+    }
+}
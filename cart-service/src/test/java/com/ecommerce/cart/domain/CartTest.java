@@ -0,0 +1,93 @@
+package com.ecommerce.cart.domain;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CartTest {
+
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        cart = Cart.builder()
+                .cartId("CART-TEST-123")
+                .userId("user123")
+                .items(new ArrayList<>())
+                .build();
+        cart.calculateTotals();
+    }
+
+    @Test
+    void lineOperations_ShouldKeepRunningTotalsInSync() {
+        // When
+        cart.addItem(item("PROD-001", 2, "999.99"));
+        cart.addItem(item("PROD-002", 1, "0.10"));
+        cart.addItem(item("PROD-001", 1, "999.99"));
+        cart.updateItemQuantity("PROD-002", 3);
+        cart.removeItem("PROD-003");
+
+        // Then
+        assertThat(cart.getItems()).extracting(CartItem::getProductId).containsExactly("PROD-001", "PROD-002");
+        assertThat(cart.getTotalItems()).isEqualTo(6);
+        assertThat(cart.getSubtotal()).isEqualByComparingTo("3000.27");
+        assertThat(cart.getTotal()).isEqualByComparingTo("3000.27");
+
+        cart.removeItem("PROD-001");
+
+        assertThat(cart.getTotalItems()).isEqualTo(3);
+        assertThat(cart.getSubtotal()).isEqualByComparingTo("0.30");
+        assertThat(cart.findItem("PROD-001")).isEmpty();
+    }
+
+    @Test
+    void index_ShouldFollowLinesReplacedOrAddedDirectly() {
+        // Given
+        cart.addItem(item("PROD-001", 2, "10.00"));
+
+        // When
+        cart.getItems().add(item("PROD-002", 1, "5.00"));
+
+        // Then
+        assertThat(cart.findItem("PROD-002")).isPresent();
+        assertThat(cart.getTotalItems()).isEqualTo(3);
+
+        cart.setItems(new ArrayList<>(List.of(item("PROD-003", 4, "1.00"))));
+
+        assertThat(cart.findItem("PROD-001")).isEmpty();
+        assertThat(cart.getTotalItems()).isEqualTo(4);
+    }
+
+    @Test
+    void copy_ShouldNotShareIndexWithOriginal() {
+        // Given
+        cart.addItem(item("PROD-001", 2, "10.00"));
+
+        // When
+        Cart copy = cart.copy();
+        copy.updateItemQuantity("PROD-001", 5);
+
+        // Then
+        assertThat(cart.getTotalItems()).isEqualTo(2);
+        assertThat(copy.getTotalItems()).isEqualTo(5);
+        assertThat(copy.getSubtotal()).isEqualByComparingTo(new BigDecimal("50.00"));
+    }
+
+    private static CartItem item(String productId, int quantity, String price) {
+        return CartItem.builder()
+                .itemId(CartItem.generateItemId())
+                .productId(productId)
+                .productName("Product " + productId)
+                .quantity(quantity)
+                .unitPrice(new BigDecimal(price))
+                .available(true)
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.cart.mapper;
+
+import com.ecommerce.cart.domain.exception.CartPreconditionFailedException;
+import com.ecommerce.cart.domain.service.CartPrecondition;
+import com.ecommerce.cart.domain.service.PricingVersion;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CartETagTest {
+
+    @Test
+    void matches_ShouldAcceptListsWeakTagsAndWildcard() {
+        String etag = CartETag.of(12, new PricingVersion(4, 1));
+
+        assertThat(etag).isEqualTo("\"12.4.1\"");
+        assertThat(CartETag.matches("\"11.4.1\", \"12.4.1\"", etag)).isTrue();
+        assertThat(CartETag.matches("W/\"12.4.1\"", etag)).isTrue();
+        assertThat(CartETag.matches("*", etag)).isTrue();
+        assertThat(CartETag.matches("\"12.4.0\"", etag)).isFalse();
+        assertThat(CartETag.matches("\"12.5.1\"", etag)).isFalse();
+        assertThat(CartETag.matches(null, etag)).isFalse();
+    }
+
+    @Test
+    void precondition_ShouldOnlyLookAtCartVersions() {
+        assertThat(CartETag.precondition("\"12.4.1\"").isSatisfiedBy(12)).isTrue();
+        assertThat(CartETag.precondition("\"12.9.0\"").isSatisfiedBy(13)).isFalse();
+        assertThat(CartETag.precondition("*")).isSameAs(CartPrecondition.NONE);
+        assertThat(CartETag.precondition(null)).isSameAs(CartPrecondition.NONE);
+        assertThatThrownBy(() -> CartETag.precondition("\"abc\""))
+                .isInstanceOf(CartPreconditionFailedException.class);
+    }
+
+    @Test
+    void precondition_ShouldAcceptAnyVersionOfList() {
+        CartPrecondition precondition = CartETag.precondition("\"11.4.1\", W/\"12.4.1\"");
+
+        assertThat(precondition.isConditional()).isTrue();
+        assertThat(precondition.isSatisfiedBy(11)).isTrue();
+        assertThat(precondition.isSatisfiedBy(12)).isTrue();
+        assertThat(precondition.isSatisfiedBy(13)).isFalse();
+    }
+}
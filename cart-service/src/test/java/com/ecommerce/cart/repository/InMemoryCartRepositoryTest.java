@@ -0,0 +1,247 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.config.RedisConfig;
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.enums.CartStatus;
+import com.ecommerce.cart.domain.exception.CartAccessDeniedException;
+import com.ecommerce.cart.domain.exception.CartAlreadyExistsException;
+import com.ecommerce.cart.domain.exception.CartVersionConflictException;
+import com.ecommerce.cart.domain.service.CartMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class InMemoryCartRepositoryTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InMemoryCartRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.destroy();
+    }
+
+    @Test
+    void save_ShouldStoreCopyAndBumpVersion() {
+        // Given
+        repository = repository(false, 100);
+        Cart cart = cart("CART-1", "user-1");
+
+        // When
+        repository.save(cart);
+        cart.getItems().get(0).setQuantity(42);
+
+        // Then
+        Cart stored = repository.findById("CART-1").orElseThrow();
+        assertThat(cart.getVersion()).isEqualTo(1);
+        assertThat(stored.getVersion()).isEqualTo(1);
+        assertThat(stored.getItems().get(0).getQuantity()).isEqualTo(2);
+        assertThat(repository.findByUserId("user-1")).isPresent();
+        assertThat(repository.findVersion("CART-1")).contains(1L);
+    }
+
+    @Test
+    void save_ShouldRejectStaleVersion() {
+        // Given
+        repository = repository(false, 100);
+        repository.save(cart("CART-1", null));
+        Cart first = repository.findById("CART-1").orElseThrow();
+        Cart second = repository.findById("CART-1").orElseThrow();
+        repository.saveHeader(first);
+
+        // When & Then
+        assertThatThrownBy(() -> repository.saveHeader(second))
+                .isInstanceOf(CartVersionConflictException.class);
+    }
+
+    @Test
+    void save_ShouldRejectSecondCartOfUser() {
+        // Given
+        repository = repository(false, 100);
+        repository.save(cart("CART-1", "user-1"));
+
+        // When & Then
+        assertThatThrownBy(() -> repository.save(cart("CART-2", "user-1")))
+                .isInstanceOf(CartAlreadyExistsException.class);
+    }
+
+    @Test
+    void expire_ShouldDropCartsPastTheirTtl() {
+        // Given
+        repository = repository(true, 100);
+        repository.save(cart("CART-1", "user-1"));
+
+        // When
+        clock.advance(Duration.ofDays(7).plusSeconds(2));
+        repository.expire();
+
+        // Then
+        assertThat(repository.findById("CART-1")).isEmpty();
+        assertThat(repository.findByUserId("user-1")).isEmpty();
+        assertThat(meterRegistry.counter("cart.in-memory.evictions", "cause", "expired").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cart.in-memory.bytes").gauge().value()).isZero();
+    }
+
+    @Test
+    void save_ShouldReuseDirectMemoryAcrossRewrites() {
+        // Given
+        repository = repository(true, 100);
+        repository.save(cart("CART-1", "user-1"));
+
+        // When
+        for (int quantity = 1; quantity <= 1_000; quantity++) {
+            Cart cart = repository.findById("CART-1").orElseThrow();
+            cart.getItems().get(0).setQuantity(quantity);
+            repository.save(cart);
+        }
+
+        // Then
+        assertThat(repository.findById("CART-1").orElseThrow().getItems().get(0).getQuantity()).isEqualTo(1_000);
+        assertThat(meterRegistry.get("cart.in-memory.direct-bytes").gauge().value()).isEqualTo(1 << 20);
+    }
+
+    @Test
+    void save_ShouldEvictLeastRecentlyActiveCartOverCapacity() {
+        // Given
+        repository = repository(false, 2);
+        LocalDateTime now = LocalDateTime.now(clock);
+        repository.save(cart("CART-1", null, now.minusMinutes(3)));
+        repository.save(cart("CART-2", null, now.minusMinutes(2)));
+
+        // When
+        repository.save(cart("CART-3", null, now.minusMinutes(1)));
+
+        // Then
+        assertThat(repository.existsById("CART-1")).isFalse();
+        assertThat(repository.existsById("CART-2")).isTrue();
+        assertThat(repository.existsById("CART-3")).isTrue();
+        assertThat(repository.findIdleCartIds(now, 0, 10)).containsExactly("CART-2", "CART-3");
+    }
+
+    @Test
+    void scanCarts_ShouldWalkAllCartsIncludingAbandoned() {
+        // Given
+        repository = repository(true, 100);
+        repository.save(cart("CART-3", null));
+        repository.save(cart("CART-1", null));
+        Cart abandoned = cart("CART-2", null);
+        abandoned.setStatus(CartStatus.ABANDONED);
+        repository.save(abandoned);
+
+        // When
+        CartScan first = repository.scanCarts(CartScan.START, 2);
+        CartScan second = repository.scanCarts(first.cursor(), 2);
+
+        // Then
+        assertThat(first.cartIds()).containsExactly("CART-1", "CART-2");
+        assertThat(first.isComplete()).isFalse();
+        assertThat(second.cartIds()).containsExactly("CART-3");
+        assertThat(second.isComplete()).isTrue();
+        repository.deletedById("CART-2");
+        assertThat(repository.findAllById(List.of("CART-1", "CART-2", "CART-3")))
+                .extracting(Cart::getCartId).containsExactly("CART-1", "CART-3");
+    }
+
+    @Test
+    void mergeGuestCart_ShouldSumQuantitiesOffHeap() {
+        // Given
+        repository = repository(true, 100);
+        repository.save(cart("CART-USER", "user-1"));
+        repository.save(cart("CART-GUEST", null));
+
+        // When
+        Cart merged = repository.mergeGuestCart("user-1", "CART-GUEST", 100);
+
+        // Then
+        assertThat(merged.getCartId()).isEqualTo("CART-USER");
+        assertThat(merged.getTotalItems()).isEqualTo(4);
+        assertThat(merged.getVersion()).isEqualTo(2);
+        assertThat(repository.existsById("CART-GUEST")).isFalse();
+        assertThat(repository.findByUserId("user-1").orElseThrow().getTotalItems()).isEqualTo(4);
+    }
+
+    @Test
+    void mergeGuestCart_ShouldRefuseCartOfAnotherUser() {
+        // Given
+        repository = repository(false, 100);
+        repository.save(cart("CART-OTHER", "user-2"));
+
+        // When / Then
+        assertThatThrownBy(() -> repository.mergeGuestCart("user-1", "CART-OTHER", 100))
+                .isInstanceOf(CartAccessDeniedException.class);
+        assertThat(repository.findByUserId("user-2")).map(Cart::getCartId).contains("CART-OTHER");
+        assertThat(repository.findByUserId("user-1")).isEmpty();
+    }
+
+    private InMemoryCartRepository repository(boolean offHeap, long maximumEntries) {
+        return new InMemoryCartRepository(new RedisConfig().cartSerializer("binary", 1024),
+                new CartMetrics(meterRegistry), meterRegistry, clock, Duration.ofDays(7), offHeap,
+                maximumEntries, 0, Duration.ofHours(1), 64);
+    }
+
+    private Cart cart(String cartId, String userId) {
+        return cart(cartId, userId, LocalDateTime.now(clock));
+    }
+
+    private Cart cart(String cartId, String userId, LocalDateTime updatedAt) {
+        Cart cart = Cart.builder()
+                .cartId(cartId)
+                .userId(userId)
+                .items(new ArrayList<>())
+                .createdAt(updatedAt)
+                .updatedAt(updatedAt)
+                .expiresAt(updatedAt.plusDays(7))
+                .build();
+        cart.getItems().add(CartItem.builder()
+                .itemId(CartItem.generateItemId())
+                .productId("PROD-001")
+                .productName("Laptop")
+                .quantity(2)
+                .unitPrice(new BigDecimal("999.99"))
+                .available(true)
+                .addedAt(updatedAt)
+                .build());
+        cart.calculateTotals();
+        return cart;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.domain.entity.IdempotencyRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryIdempotencyStoreTest {
+
+    private final InMemoryIdempotencyStore store =
+            new InMemoryIdempotencyStore(Duration.ofMinutes(10), Duration.ofSeconds(30), 100);
+
+    @Test
+    void complete_ShouldOnlyReplaceReservationOfSameOwner() {
+        // Given
+        store.reserve("scope", IdempotencyRecord.pending("owner-2", "fingerprint"));
+
+        // When
+        boolean stale = store.complete("scope", completed("owner-1"));
+        boolean current = store.complete("scope", completed("owner-2"));
+
+        // Then
+        assertThat(stale).isFalse();
+        assertThat(current).isTrue();
+        assertThat(store.find("scope").orElseThrow().getOwner()).isEqualTo("owner-2");
+        assertThat(store.complete("scope", completed("owner-2"))).isFalse();
+    }
+
+    @Test
+    void release_ShouldKeepReservationOfAnotherOwner() {
+        // Given
+        store.reserve("scope", IdempotencyRecord.pending("owner-2", "fingerprint"));
+
+        // When
+        store.release("scope", "owner-1");
+
+        // Then
+        assertThat(store.find("scope")).isPresent();
+        store.release("scope", "owner-2");
+        assertThat(store.find("scope")).isEmpty();
+    }
+
+    private static IdempotencyRecord completed(String owner) {
+        return IdempotencyRecord.builder()
+                .owner(owner)
+                .fingerprint("fingerprint")
+                .completed(true)
+                .status(201)
+                .body("{}")
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.cart.repository;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NearCacheCartRepositoryTest {
+
+    @Mock
+    private CartRepository delegate;
+    @Mock
+    private StringRedisTemplate localRedis;
+    @Mock
+    private StringRedisTemplate remoteRedis;
+
+    // Redis as both instances see it
+    private final AtomicReference<Cart> stored = new AtomicReference<>();
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry localMeters = new SimpleMeterRegistry();
+    private NearCacheCartRepository local;
+    private NearCacheCartRepository remote;
+
+    @BeforeEach
+    void setUp() {
+        when(delegate.findById("CART-1")).thenAnswer(invocation -> Optional.ofNullable(stored.get()));
+        local = new NearCacheCartRepository(delegate, cache(), localRedis, localMeters);
+        remote = new NearCacheCartRepository(delegate, cache(), remoteRedis, new SimpleMeterRegistry());
+        stored.set(cart(1));
+    }
+
+    @Test
+    void findById_ShouldServeStaleCartUntilRemoteInvalidationArrives() {
+        // Given
+        when(delegate.save(any(Cart.class))).thenAnswer(invocation -> {
+            stored.set(cart(2));
+            return stored.get();
+        });
+        assertThat(local.findById("CART-1")).map(Cart::getVersion).contains(1L);
+
+        // When
+        Cart write = remote.findById("CART-1").orElseThrow();
+        remote.save(write);
+
+        // Then
+        assertThat(local.findById("CART-1")).map(Cart::getVersion).contains(1L);
+        local.onMessage(published(remoteRedis), null);
+        assertThat(local.findById("CART-1")).map(Cart::getVersion).contains(2L);
+        assertThat(localMeters.counter("cart.near-cache.invalidations", "source", "remote").count()).isEqualTo(1);
+        verify(delegate, times(3)).findById("CART-1");
+    }
+
+    @Test
+    void onMessage_ShouldIgnoreInvalidationsOfItsOwnWrites() {
+        // Given
+        local.deletedById("CART-1");
+        stored.set(cart(2));
+        local.findById("CART-1");
+        stored.set(cart(3));
+
+        // When
+        local.onMessage(published(localRedis), null);
+
+        // Then
+        assertThat(local.findById("CART-1")).map(Cart::getVersion).contains(2L);
+        assertThat(localMeters.counter("cart.near-cache.invalidations", "source", "remote").count()).isZero();
+    }
+
+    @Test
+    void deletedById_ShouldEvictLocallyAndPublishInvalidation() {
+        // Given
+        doAnswer(invocation -> {
+            stored.set(null);
+            return null;
+        }).when(delegate).deletedById("CART-1");
+        assertThat(local.findById("CART-1")).isPresent();
+
+        // When
+        local.deletedById("CART-1");
+
+        // Then
+        assertThat(local.findById("CART-1")).isEmpty();
+        verify(localRedis).convertAndSend(eq(NearCacheCartRepository.INVALIDATION_CHANNEL), endsWith("|CART-1"));
+    }
+
+    @Test
+    void findById_ShouldReloadAfterExpiryWhenInvalidationIsLost() {
+        // Given
+        assertThat(local.findById("CART-1")).map(Cart::getVersion).contains(1L);
+        stored.set(cart(2));
+
+        // When
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        // Then
+        assertThat(local.findById("CART-1")).map(Cart::getVersion).contains(2L);
+    }
+
+    private Cache<String, Cart> cache() {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(30))
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    private static Message published(StringRedisTemplate redis) {
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(redis).convertAndSend(eq(NearCacheCartRepository.INVALIDATION_CHANNEL), body.capture());
+        return new DefaultMessage(NearCacheCartRepository.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getValue().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cart cart(long version) {
+        Cart cart = Cart.builder()
+                .cartId("CART-1")
+                .items(new ArrayList<>())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusDays(7))
+                .version(version)
+                .build();
+        cart.calculateTotals();
+        return cart;
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecommerce.cart.repository.serializer;
+
+import com.ecommerce.cart.config.RedisConfig;
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionedRedisSerializerTest {
+
+    private final RedisConfig config = new RedisConfig();
+
+    private Cart testCart;
+
+    @BeforeEach
+    void setUp() {
+        testCart = Cart.builder()
+                .cartId("CART-TEST-123")
+                .userId("user123")
+                .items(new ArrayList<>())
+                .createdAt(LocalDateTime.of(2025, 1, 15, 10, 30, 0, 123_000))
+                .updatedAt(LocalDateTime.of(2025, 1, 15, 11, 0))
+                .expiresAt(LocalDateTime.of(2025, 1, 22, 10, 30))
+                .version(42)
+                .build();
+        for (int i = 0; i < 20; i++) {
+            testCart.getItems().add(CartItem.builder()
+                    .itemId("ITEM-" + i)
+                    .productId("PROD-" + i)
+                    .productName("iPhone 15 Pro")
+                    .quantity(i + 1)
+                    .unitPrice(new BigDecimal("999.99"))
+                    .available(i % 2 == 0)
+                    .addedAt(LocalDateTime.of(2025, 1, 15, 10, 30).plusSeconds(i))
+                    .build());
+        }
+        testCart.calculateTotals();
+    }
+
+    @Test
+    void binaryRoundTrip_ShouldPreserveCart() {
+        RedisSerializer<Cart> serializer = config.cartSerializer("binary", 0);
+
+        Cart result = serializer.deserialize(serializer.serialize(testCart));
+
+        assertThat(result).usingRecursiveComparison().isEqualTo(testCart);
+        assertThat(result.getSubtotal()).isEqualByComparingTo(testCart.getSubtotal());
+    }
+
+    @Test
+    void binaryWithCompression_ShouldBeSmallerAndRoundTrip() {
+        RedisSerializer<Cart> plain = config.cartSerializer("binary", 0);
+        RedisSerializer<Cart> compressed = config.cartSerializer("binary", 64);
+
+        byte[] plainBytes = plain.serialize(testCart);
+        byte[] compressedBytes = compressed.serialize(testCart);
+
+        assertThat(compressedBytes.length).isLessThan(plainBytes.length);
+        assertThat(compressed.deserialize(compressedBytes)).usingRecursiveComparison().isEqualTo(testCart);
+        // the threshold only matters for writes, both serializers read both payloads
+        assertThat(plain.deserialize(compressedBytes)).usingRecursiveComparison().isEqualTo(testCart);
+    }
+
+    @Test
+    void binary_ShouldBeMuchSmallerThanLegacyJson() {
+        byte[] legacy = new GenericJackson2JsonRedisSerializer(RedisConfig.typedObjectMapper()).serialize(testCart);
+        byte[] binary = config.cartSerializer("binary", 0).serialize(testCart);
+
+        assertThat(binary.length).isLessThan(legacy.length / 2);
+    }
+
+    @Test
+    void deserialize_ShouldReadLegacyJsonDocuments() {
+        byte[] legacy = new GenericJackson2JsonRedisSerializer(RedisConfig.typedObjectMapper()).serialize(testCart);
+
+        Cart result = config.cartSerializer("binary", 1024).deserialize(legacy);
+
+        assertThat(result.getCartId()).isEqualTo(testCart.getCartId());
+        assertThat(result.getItems()).hasSize(20);
+        assertThat(result.getItems().get(3).getUnitPrice()).isEqualByComparingTo("999.99");
+    }
+
+    @Test
+    void jsonFormat_ShouldStillReadBinaryItems() {
+        CartItem item = testCart.getItems().get(0);
+        byte[] binary = config.cartItemSerializer("binary", 1024).serialize(item);
+
+        RedisSerializer<CartItem> json = config.cartItemSerializer("json", 1024);
+
+        assertThat(json.deserialize(binary)).isEqualTo(item);
+        assertThat(json.deserialize(json.serialize(item))).isEqualTo(item);
+    }
+}
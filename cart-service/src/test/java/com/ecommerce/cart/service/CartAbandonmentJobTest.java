@@ -0,0 +1,110 @@
+package com.ecommerce.cart.service;
+
+import com.ecommerce.cart.domain.entity.AbandonnedCart;
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.enums.CartStatus;
+import com.ecommerce.cart.domain.exception.CartVersionConflictException;
+import com.ecommerce.cart.domain.service.CartAbandonmentJob;
+import com.ecommerce.cart.repository.AbandonedCartRepository;
+import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.cart.repository.JobLock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartAbandonmentJobTest {
+
+    @Mock
+    private CartRepository cartRepository;
+    @Mock
+    private AbandonedCartRepository abandonedCartRepository;
+    @Mock
+    private JobLock jobLock;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private CartAbandonmentJob job;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 1, 20, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(job, "idleAfter", Duration.ofHours(24));
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+    }
+
+    @Test
+    void processIdleCarts_ShouldMarkIdleCartsAndDropExpiredOnes() {
+        // Given
+        LocalDateTime idleSince = now.minusHours(24);
+        Cart idle = cart("CART-1", now.minusDays(3));
+        when(cartRepository.findIdleCartIds(idleSince, 0, 2))
+                .thenReturn(List.of("CART-1", "CART-2"))
+                .thenReturn(List.of());
+        when(cartRepository.findById("CART-1")).thenReturn(Optional.of(idle));
+        when(cartRepository.findById("CART-2")).thenReturn(Optional.empty());
+
+        // When
+        int abandoned = job.processIdleCarts(now);
+
+        // Then
+        assertThat(abandoned).isEqualTo(1);
+        assertThat(idle.getStatus()).isEqualTo(CartStatus.ABANDONED);
+        verify(cartRepository).saveHeader(idle, true);
+        verify(cartRepository).removeFromActivityIndex("CART-2");
+        ArgumentCaptor<AbandonnedCart> record = ArgumentCaptor.forClass(AbandonnedCart.class);
+        verify(abandonedCartRepository).save(record.capture());
+        assertThat(record.getValue().getCartId()).isEqualTo("CART-1");
+        assertThat(record.getValue().getAbandonedAt()).isEqualTo(now);
+    }
+
+    @Test
+    void processIdleCarts_ShouldSkipPastCartsThatFailed() {
+        // Given
+        LocalDateTime idleSince = now.minusHours(24);
+        Cart conflicting = cart("CART-1", now.minusDays(3));
+        Cart idle = cart("CART-2", now.minusDays(2));
+        when(cartRepository.findIdleCartIds(idleSince, 0, 2)).thenReturn(List.of("CART-1", "CART-2"));
+        // the failed cart is still first in the index and is skipped by the offset
+        when(cartRepository.findIdleCartIds(idleSince, 1, 2)).thenReturn(List.of());
+        when(cartRepository.findById("CART-1")).thenReturn(Optional.of(conflicting));
+        when(cartRepository.findById("CART-2")).thenReturn(Optional.of(idle));
+        when(cartRepository.saveHeader(conflicting, true)).thenThrow(new CartVersionConflictException("conflict"));
+
+        // When
+        int abandoned = job.processIdleCarts(now);
+
+        // Then
+        assertThat(abandoned).isEqualTo(1);
+        verify(cartRepository).findIdleCartIds(idleSince, 1, 2);
+    }
+
+    private static Cart cart(String cartId, LocalDateTime updatedAt) {
+        Cart cart = Cart.builder()
+                .cartId(cartId)
+                .userId("user123")
+                .items(new ArrayList<>())
+                .updatedAt(updatedAt)
+                .build();
+        cart.calculateTotals();
+        return cart;
+    }
+}
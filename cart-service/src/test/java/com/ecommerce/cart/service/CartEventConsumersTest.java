@@ -0,0 +1,99 @@
+package com.ecommerce.cart.service;
+
+import com.ecommerce.cart.domain.entity.CartEvent;
+import com.ecommerce.cart.domain.enums.CartEventType;
+import com.ecommerce.cart.domain.service.CartEventConsumers;
+import com.ecommerce.cart.domain.service.CartEventHandler;
+import com.ecommerce.cart.repository.CartEventStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartEventConsumersTest {
+
+    @Mock
+    private CartEventStream eventStream;
+
+    private final List<String> handledIds = new ArrayList<>();
+    private final CartEventHandler handler = new CartEventHandler() {
+        @Override
+        public String group() {
+            return "test-group";
+        }
+
+        @Override
+        public void handle(CartEvent event) {
+            if ("PROD-BAD".equals(event.getProductId())) {
+                throw new IllegalStateException("boom");
+            }
+            handledIds.add(event.getId());
+        }
+    };
+
+    private CartEventConsumers consumers;
+
+    @BeforeEach
+    void setUp() {
+        consumers = new CartEventConsumers(eventStream, List.of(handler), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(consumers, "batchSize", 10);
+        ReflectionTestUtils.setField(consumers, "retryAfter", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(consumers, "maxDeliveries", 3);
+    }
+
+    @Test
+    void dispatch_ShouldOnlyAcknowledgeHandledEvents() {
+        // Given
+        List<CartEvent> batch = List.of(event("1-0", "PROD-001"), event("2-0", "PROD-BAD"), event("3-0", "PROD-002"));
+
+        // When
+        consumers.dispatch(handler, batch);
+
+        // Then
+        assertThat(handledIds).containsExactly("1-0", "3-0");
+        verify(eventStream).acknowledge("test-group", List.of("1-0", "3-0"));
+    }
+
+    @Test
+    void recover_ShouldRetryIdleEventsAndDeadLetterExhaustedOnes() {
+        // Given
+        when(eventStream.pending("test-group", 10)).thenReturn(List.of(
+                pending("1-0", Duration.ofSeconds(5), 1),
+                pending("2-0", Duration.ofMinutes(1), 1),
+                pending("3-0", Duration.ofMinutes(1), 3)));
+        when(eventStream.claim(eq("test-group"), eq("consumer-1"), eq(Duration.ofSeconds(30)), eq(List.of("2-0"))))
+                .thenReturn(List.of(event("2-0", "PROD-002")));
+
+        // When
+        consumers.recover(handler, "consumer-1");
+
+        // Then
+        verify(eventStream).deadLetter("test-group", List.of("3-0"));
+        assertThat(handledIds).containsExactly("2-0");
+        verify(eventStream).acknowledge("test-group", List.of("2-0"));
+        verify(eventStream, never()).acknowledge(eq("test-group"), eq(List.of("1-0")));
+    }
+
+    private static CartEvent event(String id, String productId) {
+        return CartEvent.builder().id(id).type(CartEventType.ITEM_ADDED).cartId("CART-1").productId(productId).quantity(1).build();
+    }
+
+    private static PendingMessage pending(String id, Duration idle, long deliveries) {
+        return new PendingMessage(RecordId.of(id), Consumer.from("test-group", "other"), idle, deliveries);
+    }
+}
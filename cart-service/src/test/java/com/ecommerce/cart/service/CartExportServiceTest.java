@@ -0,0 +1,100 @@
+package com.ecommerce.cart.service;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.exception.InvalidCartOperationException;
+import com.ecommerce.cart.domain.service.CartExportService;
+import com.ecommerce.cart.dto.response.CartExportLine;
+import com.ecommerce.cart.dto.response.CartResponse;
+import com.ecommerce.cart.mapper.MapperToResponse;
+import com.ecommerce.cart.repository.CartRepository;
+import com.ecommerce.cart.repository.CartScan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartExportServiceTest {
+
+    @Mock
+    private CartRepository cartRepository;
+    @Mock
+    private MapperToResponse response;
+    @InjectMocks
+    private CartExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportService, "defaultBatchSize", 2);
+        ReflectionTestUtils.setField(exportService, "maxBatchSize", 2);
+    }
+
+    @Test
+    void export_ShouldWalkKeyspaceWithResumableCursors() throws Exception {
+        // Given
+        when(cartRepository.scanCarts(CartScan.START, 2))
+                .thenReturn(new CartScan("17", List.of("CART-1", "CART-2")));
+        // a SCAN step may find nothing and still have to be followed
+        when(cartRepository.scanCarts("17", 2)).thenReturn(new CartScan("42", List.of()));
+        when(cartRepository.scanCarts("42", 2)).thenReturn(new CartScan(CartScan.START, List.of("CART-3")));
+        // CART-2 was deleted after it was scanned
+        when(cartRepository.findAllById(List.of("CART-1", "CART-2"))).thenReturn(List.of(cart("CART-1")));
+        when(cartRepository.findAllById(List.of("CART-3"))).thenReturn(List.of(cart("CART-3")));
+        when(response.mapToResponse(any(Cart.class)))
+                .thenAnswer(invocation -> CartResponse.builder()
+                        .cartId(invocation.<Cart>getArgument(0).getCartId()).build());
+        List<List<CartExportLine>> pages = new ArrayList<>();
+
+        // When
+        long exported = exportService.export(exportService.parseCursor(null), 10, pages::add);
+
+        // Then
+        assertThat(exported).isEqualTo(2);
+        assertThat(pages).hasSize(3);
+        assertThat(pages.get(0)).extracting(line -> line.getCart().getCartId()).containsExactly("CART-1");
+        assertThat(pages.get(1)).extracting(line -> line.getCart().getCartId()).containsExactly("CART-3");
+        CartExportLine end = pages.get(2).get(0);
+        assertThat(end.getEnd()).isTrue();
+        assertThat(end.getExported()).isEqualTo(2);
+        assertThat(end.getCursor()).isNull();
+        assertThat(exportService.parseCursor(pages.get(0).get(0).getCursor())).isEqualTo(CartScan.START);
+        assertThat(exportService.parseCursor(pages.get(1).get(0).getCursor())).isEqualTo("42");
+    }
+
+    @Test
+    void export_ShouldResumeFromCursor() throws Exception {
+        // Given
+        when(cartRepository.scanCarts("42", 2)).thenReturn(new CartScan(CartScan.START, List.of()));
+        List<List<CartExportLine>> pages = new ArrayList<>();
+
+        // When
+        long exported = exportService.export("42", null, pages::add);
+
+        // Then
+        assertThat(exported).isZero();
+        assertThat(pages).singleElement().satisfies(page -> assertThat(page.get(0).getEnd()).isTrue());
+        verify(cartRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void parseCursor_ShouldRejectMalformedCursor() {
+        // When & Then
+        assertThat(exportService.parseCursor(null)).isEqualTo(CartScan.START);
+        assertThatThrownBy(() -> exportService.parseCursor("not a cursor"))
+                .isInstanceOf(InvalidCartOperationException.class);
+    }
+
+    private Cart cart(String cartId) {
+        return Cart.builder().cartId(cartId).items(new ArrayList<>()).build();
+    }
+}
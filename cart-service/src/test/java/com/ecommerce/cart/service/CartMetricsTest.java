@@ -0,0 +1,60 @@
+package com.ecommerce.cart.service;
+
+import com.ecommerce.cart.domain.exception.CartNotFoundException;
+import com.ecommerce.cart.domain.service.CartMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static com.ecommerce.cart.domain.service.CartMetrics.Phase.MAPPING;
+import static com.ecommerce.cart.domain.service.CartMetrics.Phase.REDIS_READ;
+import static org.assertj.core.api.Assertions.*;
+
+class CartMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CartMetrics cartMetrics = new CartMetrics(meterRegistry);
+
+    @Test
+    void record_ShouldTimeOperationAndLappedPhasesOnly() {
+        // When
+        String result = cartMetrics.record("getCart", watch -> {
+            watch.lap(REDIS_READ);
+            return watch.lap(MAPPING, "cart");
+        });
+
+        // Then
+        assertThat(result).isEqualTo("cart");
+        assertThat(meterRegistry.get("cart.operation")
+                .tags("operation", "getCart", "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cart.operation.phase")
+                .tags("operation", "getCart", "phase", "redis-read").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cart.operation.phase")
+                .tags("operation", "getCart", "phase", "mapping").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cart.operation.phase")
+                .tags("operation", "getCart", "phase", "catalog").timer().count()).isZero();
+    }
+
+    @Test
+    void record_ShouldTimeFailedOperationAsError() {
+        // When & Then
+        assertThatThrownBy(() -> cartMetrics.record("getCart", watch -> {
+            watch.lap(REDIS_READ);
+            throw new CartNotFoundException("Cart not found: CART-1");
+        })).isInstanceOf(CartNotFoundException.class);
+
+        assertThat(meterRegistry.get("cart.operation")
+                .tags("operation", "getCart", "outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cart.operation")
+                .tags("operation", "getCart", "outcome", "success").timer().count()).isZero();
+    }
+
+    @Test
+    void recordCart_ShouldRecordSizeAndLines() {
+        // When
+        cartMetrics.recordCart(2048, 12);
+
+        // Then
+        assertThat(meterRegistry.get("cart.serialized.size").summary().totalAmount()).isEqualTo(2048);
+        assertThat(meterRegistry.get("cart.lines").summary().totalAmount()).isEqualTo(12);
+    }
+}
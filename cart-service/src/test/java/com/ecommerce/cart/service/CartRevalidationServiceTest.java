@@ -0,0 +1,189 @@
+package com.ecommerce.cart.service;
+
+import com.ecommerce.cart.client.CatalogClient;
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.exception.CartVersionConflictException;
+import com.ecommerce.cart.domain.service.CartRevalidationService;
+import com.ecommerce.cart.dto.external.AvailabilityDTO;
+import com.ecommerce.cart.dto.external.BatchAvailabilityRequest;
+import com.ecommerce.cart.dto.external.BatchGetProductsRequest;
+import com.ecommerce.cart.dto.external.ProductDTO;
+import com.ecommerce.cart.repository.CartRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartRevalidationServiceTest {
+
+    @Mock
+    private CartRepository cartRepository;
+    @Mock
+    private CatalogClient catalogClient;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private CartRevalidationService revalidationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(revalidationService, "maxAge", Duration.ofMinutes(15));
+    }
+
+    @Test
+    void revalidate_ShouldRefreshAllCartsOfBatchWithOneLookup() {
+        // Given
+        Cart first = cart("CART-1", item("PROD-001", 2, "10.00"));
+        Cart second = cart("CART-2", item("PROD-001", 1, "10.00"), item("PROD-002", 1, "5.00"));
+        when(cartRepository.findById("CART-1")).thenReturn(Optional.of(first));
+        when(cartRepository.findById("CART-2")).thenReturn(Optional.of(second));
+        when(catalogClient.getProducts(any(BatchGetProductsRequest.class))).thenReturn(List.of(
+                product("PROD-001", "12.00", true, 5),
+                product("PROD-002", "5.00", false, 0)));
+        // the stock of PROD-001 is enough for CART-1 with its own hold, not for CART-2
+        when(catalogClient.checkAvailabilities(any(BatchAvailabilityRequest.class))).thenReturn(List.of(
+                availability("CART-1", "PROD-001", true),
+                availability("CART-2", "PROD-001", false),
+                availability("CART-2", "PROD-002", false)));
+
+        // When
+        revalidationService.revalidate(List.of("CART-1", "CART-2"));
+
+        // Then
+        verify(catalogClient, times(1)).getProducts(any(BatchGetProductsRequest.class));
+        ArgumentCaptor<BatchAvailabilityRequest> checked = ArgumentCaptor.forClass(BatchAvailabilityRequest.class);
+        verify(catalogClient, times(1)).checkAvailabilities(checked.capture());
+        assertThat(checked.getValue().getItems()).extracting(AvailabilityDTO::getHolderId)
+                .containsExactly("CART-1", "CART-2", "CART-2");
+        assertThat(first.getSubtotal()).isEqualByComparingTo("24.00");
+        assertThat(first.getRevalidatedAt()).isNotNull();
+        assertThat(second.findItem("PROD-001").orElseThrow().isAvailable()).isFalse();
+        assertThat(second.findItem("PROD-002").orElseThrow().isAvailable()).isFalse();
+        verify(cartRepository).saveItems(eq(first), eq(List.of("PROD-001")), eq(true));
+        verify(cartRepository).saveItems(eq(second), eq(List.of("PROD-001", "PROD-002")), eq(true));
+    }
+
+    @Test
+    void revalidate_ShouldSkipFreshCartsAndSurviveConflicts() {
+        // Given
+        Cart fresh = cart("CART-1", item("PROD-001", 1, "10.00"));
+        fresh.setRevalidatedAt(LocalDateTime.now());
+        Cart stale = cart("CART-2", item("PROD-001", 1, "10.00"));
+        when(cartRepository.findById("CART-1")).thenReturn(Optional.of(fresh));
+        when(cartRepository.findById("CART-2")).thenReturn(Optional.of(stale));
+        when(catalogClient.getProducts(any(BatchGetProductsRequest.class)))
+                .thenReturn(List.of(product("PROD-001", "12.00", true, 5)));
+        when(catalogClient.checkAvailabilities(any(BatchAvailabilityRequest.class)))
+                .thenReturn(List.of(availability("CART-2", "PROD-001", true)));
+        when(cartRepository.saveItems(eq(stale), any(), eq(true)))
+                .thenThrow(new CartVersionConflictException("conflict"));
+
+        // When
+        revalidationService.revalidate(List.of("CART-1", "CART-2"));
+
+        // Then
+        verify(cartRepository, never()).saveItems(eq(fresh), any(), anyBoolean());
+        assertThat(meterRegistry.counter("cart.revalidation.carts", "result", "conflict").count()).isEqualTo(1);
+    }
+
+    @Test
+    void revalidate_ShouldNotWriteUnchangedCart() {
+        // Given
+        Cart unchanged = cart("CART-1", item("PROD-001", 1, "10.00"));
+        when(cartRepository.findById("CART-1")).thenReturn(Optional.of(unchanged));
+        when(catalogClient.getProducts(any(BatchGetProductsRequest.class)))
+                .thenReturn(List.of(product("PROD-001", "10.00", true, 5)));
+        when(catalogClient.checkAvailabilities(any(BatchAvailabilityRequest.class)))
+                .thenReturn(List.of(availability("CART-1", "PROD-001", true)));
+
+        // When
+        revalidationService.revalidate(List.of("CART-1"));
+
+        // Then
+        verify(cartRepository, never()).saveItems(any(), any(), anyBoolean());
+        assertThat(meterRegistry.counter("cart.revalidation.carts", "result", "unchanged").count()).isEqualTo(1);
+    }
+
+    @Test
+    void revalidate_ShouldLeaveLinesWithoutProductDataAndNotStampCart() {
+        // Given
+        Cart cart = cart("CART-1", item("PROD-001", 1, "10.00"), item("PROD-002", 1, "5.00"),
+                item("PROD-003", 1, "7.00"));
+        when(cartRepository.findById("CART-1")).thenReturn(Optional.of(cart));
+        ProductDTO placeholder = product("PROD-002", "0", false, 0);
+        placeholder.setPlaceholder(true);
+        // PROD-003 is missing from the product lookup
+        when(catalogClient.getProducts(any(BatchGetProductsRequest.class)))
+                .thenReturn(List.of(product("PROD-001", "12.00", true, 5), placeholder));
+        when(catalogClient.checkAvailabilities(any(BatchAvailabilityRequest.class))).thenReturn(List.of(
+                availability("CART-1", "PROD-001", true),
+                availability("CART-1", "PROD-002", false),
+                availability("CART-1", "PROD-003", true)));
+
+        // When
+        revalidationService.revalidate(List.of("CART-1"));
+
+        // Then
+        verify(cartRepository).saveItems(eq(cart), eq(List.of("PROD-001")), eq(true));
+        assertThat(cart.findItem("PROD-002").orElseThrow().isAvailable()).isTrue();
+        assertThat(cart.findItem("PROD-002").orElseThrow().getUnitPrice()).isEqualByComparingTo("5.00");
+        assertThat(cart.findItem("PROD-003").orElseThrow().isAvailable()).isTrue();
+        assertThat(cart.getRevalidatedAt()).isNull();
+    }
+
+    private static Cart cart(String cartId, CartItem... items) {
+        Cart cart = Cart.builder()
+                .cartId(cartId)
+                .items(new ArrayList<>(List.of(items)))
+                .build();
+        cart.calculateTotals();
+        return cart;
+    }
+
+    private static CartItem item(String productId, int quantity, String price) {
+        return CartItem.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .unitPrice(new BigDecimal(price))
+                .available(true)
+                .build();
+    }
+
+    private static AvailabilityDTO availability(String cartId, String productId, boolean available) {
+        return AvailabilityDTO.builder()
+                .holderId(cartId)
+                .productId(productId)
+                .available(available)
+                .build();
+    }
+
+    private static ProductDTO product(String productId, String price, boolean available, int stock) {
+        return ProductDTO.builder()
+                .productId(productId)
+                .price(new BigDecimal(price))
+                .available(available)
+                .stockQuantity(stock)
+                .build();
+    }
+}
@@ -1,30 +1,60 @@
 package com.ecommerce.cart.service;
 
+import com.ecommerce.cart.client.CatalogClient;
+import com.ecommerce.cart.client.ConcurrentCalls;
 import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartEvent;
 import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.enums.CartEventType;
+import com.ecommerce.cart.domain.enums.CartStatus;
 import com.ecommerce.cart.domain.exception.CartNotFoundException;
+import com.ecommerce.cart.domain.exception.CartPreconditionFailedException;
+import com.ecommerce.cart.domain.exception.CartVersionConflictException;
 import com.ecommerce.cart.domain.exception.InvalidCartOperationException;
+import com.ecommerce.cart.domain.service.CartMetrics;
+import com.ecommerce.cart.domain.service.CartPrecondition;
+import com.ecommerce.cart.domain.service.CartRevalidationService;
 import com.ecommerce.cart.domain.service.CartServiceImp;
+import com.ecommerce.cart.domain.service.PricingVersion;
+import com.ecommerce.cart.domain.service.PromotionEngine;
+import com.ecommerce.cart.domain.service.QuantityUpdateCoalescer;
+import com.ecommerce.cart.domain.service.StockReservations;
+import com.ecommerce.cart.dto.external.AvailabilityDTO;
+import com.ecommerce.cart.dto.external.BatchAvailabilityRequest;
+import com.ecommerce.cart.dto.external.BatchGetProductsRequest;
+import com.ecommerce.cart.dto.external.ProductDTO;
 import com.ecommerce.cart.dto.request.AddItemRequest;
+import com.ecommerce.cart.dto.request.BatchAddItemsRequest;
+import com.ecommerce.cart.dto.request.MergeCartRequest;
 import com.ecommerce.cart.dto.request.UpdateQuantityRequest;
+import com.ecommerce.cart.dto.response.BatchAddItemsResponse;
+import com.ecommerce.cart.dto.response.CartItemResponse;
 import com.ecommerce.cart.dto.response.CartResponse;
 import com.ecommerce.cart.mapper.MapperToResponse;
 import com.ecommerce.cart.repository.CartRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +64,22 @@ class CartServiceTest {
     private CartRepository cartRepository;
     @Mock
     private MapperToResponse response;
+    @Mock
+    private CatalogClient catalogClient;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private CartRevalidationService cartRevalidationService;
+    @Mock
+    private PromotionEngine promotionEngine;
+    @Mock
+    private QuantityUpdateCoalescer quantityUpdateCoalescer;
+    @Mock
+    private StockReservations stockReservations;
+    @Spy
+    private CartMetrics cartMetrics = new CartMetrics(new SimpleMeterRegistry());
+    @Spy
+    private ConcurrentCalls concurrentCalls = new ConcurrentCalls(Duration.ofSeconds(5));
     @InjectMocks
     private CartServiceImp cartService;
 
@@ -46,6 +92,7 @@ class CartServiceTest {
         // Configurer les propriétés
         ReflectionTestUtils.setField(cartService, "maxItems", 100);
         ReflectionTestUtils.setField(cartService, "timeBeforeCartToExpire", 7L);
+        ReflectionTestUtils.setField(cartService, "maxUpdateAttempts", 3);
 
         // Créer un panier de test
         testCart = Cart.builder()
@@ -63,6 +110,7 @@ class CartServiceTest {
     void createCart_ShouldReturnNewCart() {
         // Given
         when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
+        mapsCarts();
 
         // When
         CartResponse result = cartService.createCart(testUserId);
@@ -76,10 +124,58 @@ class CartServiceTest {
         verify(cartRepository, times(1)).save(any(Cart.class));
     }
 
+    @Test
+    void createCart_WhenUserAlreadyHasCart_ShouldReuseIt() {
+        // Given
+        when(cartRepository.findByUserId(testUserId)).thenReturn(Optional.of(testCart));
+        when(response.mapToResponse(testCart)).thenReturn(CartResponse.builder().cartId(testCartId).build());
+
+        // When
+        CartResponse result = cartService.createCart(testUserId);
+
+        // Then
+        assertThat(result.getCartId()).isEqualTo(testCartId);
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void createCart_WhenUserCartIsAbandoned_ShouldReactivateIt() {
+        // Given
+        testCart.setStatus(CartStatus.ABANDONED);
+        when(cartRepository.findByUserId(testUserId)).thenReturn(Optional.of(testCart));
+        when(cartRepository.saveHeader(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        mapsCarts();
+
+        // When
+        CartResponse result = cartService.createCart(testUserId);
+
+        // Then
+        assertThat(result.getCartId()).isEqualTo(testCartId);
+        verify(cartRepository).saveHeader(argThat(cart -> cart.getStatus() == CartStatus.ACTIVE));
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void mergeCarts_ShouldMergeGuestCartIntoUserCart() {
+        // Given
+        MergeCartRequest request = new MergeCartRequest();
+        request.setGuestCartId("CART-GUEST");
+        when(cartRepository.mergeGuestCart(testUserId, "CART-GUEST", 100)).thenReturn(testCart);
+        when(response.mapToResponse(testCart)).thenReturn(CartResponse.builder().cartId(testCartId).build());
+
+        // When
+        CartResponse result = cartService.mergeCarts(testUserId, request);
+
+        // Then
+        assertThat(result.getCartId()).isEqualTo(testCartId);
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+
     @Test
     void getCart_WhenCartExists_ShouldReturnCart() {
         // Given
         when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
+        mapsCarts();
 
         // When
         CartResponse result = cartService.getCart(testCartId);
@@ -116,10 +212,13 @@ class CartServiceTest {
                 .build();
 
         when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
-        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
+        when(catalogClient.getProduct("PROD-001")).thenReturn(product("PROD-001", "999.99"));
+        when(catalogClient.checkAvailability("PROD-001", 2)).thenReturn(true);
+        when(cartRepository.saveItem(any(Cart.class), eq("PROD-001"))).thenReturn(testCart);
+        mapsCarts();
 
         // When
-        CartResponse result = cartService.addItem(testCartId, request);
+        CartResponse result = cartService.addItem(testCartId, request, CartPrecondition.NONE);
 
         // Then
         assertThat(result).isNotNull();
@@ -128,7 +227,8 @@ class CartServiceTest {
         assertThat(result.getTotal()).isEqualByComparingTo(new BigDecimal("1999.98"));
 
         verify(cartRepository, times(1)).findById(testCartId);
-        verify(cartRepository, times(1)).save(any(Cart.class));
+        verify(cartRepository, times(1)).saveItem(any(Cart.class), eq("PROD-001"));
+        verify(cartRepository, never()).save(any(Cart.class));
     }
 
     @Test
@@ -144,14 +244,16 @@ class CartServiceTest {
                 .build();
 
         when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
+        when(catalogClient.getProduct("PROD-001")).thenReturn(product("PROD-001", "999.99"));
+        when(catalogClient.checkAvailability("PROD-001", 5)).thenReturn(true);
 
         // When & Then
-        assertThatThrownBy(() -> cartService.addItem(testCartId, request))
+        assertThatThrownBy(() -> cartService.addItem(testCartId, request, CartPrecondition.NONE))
                 .isInstanceOf(InvalidCartOperationException.class)
                 .hasMessageContaining("Cart limit");
 
         verify(cartRepository, times(1)).findById(testCartId);
-        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository, never()).saveItem(any(Cart.class), any());
     }
 
     @Test
@@ -177,14 +279,18 @@ class CartServiceTest {
                 .build();
 
         when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
-        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
+        when(catalogClient.getProduct("PROD-001")).thenReturn(product("PROD-001", "999.99"));
+        when(catalogClient.checkAvailability("PROD-001", 3)).thenReturn(true);
+        when(cartRepository.saveItemQuantity(any(Cart.class), eq("PROD-001"))).thenReturn(testCart);
+        mapsCarts();
 
         // When
-        CartResponse result = cartService.addItem(testCartId, request);
+        CartResponse result = cartService.addItem(testCartId, request, CartPrecondition.NONE);
 
         // Then
         assertThat(result.getItems()).hasSize(1); // Toujours 1 item
         assertThat(result.getTotalItems()).isEqualTo(5); // 2 + 3 = 5
+        verify(cartRepository, never()).saveItem(any(Cart.class), any());
     }
 
     @Test
@@ -207,10 +313,12 @@ class CartServiceTest {
                 .build();
 
         when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
-        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
+        when(catalogClient.checkAvailability("PROD-001", 5)).thenReturn(true);
+        when(cartRepository.saveItemQuantity(any(Cart.class), eq("PROD-001"))).thenReturn(testCart);
+        mapsCarts();
 
         // When
-        CartResponse result = cartService.updateItemQuantity(testCartId, "PROD-001", request);
+        CartResponse result = cartService.updateItemQuantity(testCartId, "PROD-001", request, CartPrecondition.NONE);
 
         // Then
         assertThat(result.getItems().get(0).getQuantity()).isEqualTo(5);
@@ -227,7 +335,8 @@ class CartServiceTest {
         when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
 
         // When & Then
-        assertThatThrownBy(() -> cartService.updateItemQuantity(testCartId, "PROD-999", request))
+        assertThatThrownBy(() -> cartService.updateItemQuantity(testCartId, "PROD-999", request,
+                CartPrecondition.NONE))
                 .isInstanceOf(InvalidCartOperationException.class)
                 .hasMessageContaining("Product not found in cart");
     }
@@ -248,10 +357,11 @@ class CartServiceTest {
         testCart.calculateTotals();
 
         when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
-        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
+        when(cartRepository.removeItem(any(Cart.class), eq("PROD-001"))).thenReturn(testCart);
+        mapsCarts();
 
         // When
-        CartResponse result = cartService.removeItem(testCartId, "PROD-001");
+        CartResponse result = cartService.removeItem(testCartId, "PROD-001", CartPrecondition.NONE);
 
         // Then
         assertThat(result.getItems()).isEmpty();
@@ -276,7 +386,7 @@ class CartServiceTest {
         when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
 
         // When
-        cartService.clearCart(testCartId);
+        cartService.clearCart(testCartId, CartPrecondition.NONE);
 
         // Then
         verify(cartRepository, times(1)).save(any(Cart.class));
@@ -307,4 +417,267 @@ class CartServiceTest {
 
         verify(cartRepository, never()).deletedById(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCartETag_ShouldUseStoredVersionWithoutLoadingCart() {
+        // Given
+        when(cartRepository.findVersion(testCartId)).thenReturn(Optional.of(7L));
+        when(promotionEngine.pricingVersion()).thenReturn(new PricingVersion(3, 1));
+
+        // When
+        Optional<String> etag = cartService.getCartETag(testCartId);
+
+        // Then
+        assertThat(etag).contains("\"7.3.1\"");
+        verify(cartRepository, never()).findById(any());
+    }
+
+    @Test
+    void clearCart_ShouldRecordEventForTheWrite() {
+        // Given
+        when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
+        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        cartService.clearCart(testCartId, CartPrecondition.NONE);
+
+        // Then
+        List<CartEvent> events = testCart.drainEvents();
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getType()).isEqualTo(CartEventType.CART_CLEARED);
+        assertThat(events.get(0).getCartId()).isEqualTo(testCartId);
+    }
+
+    @Test
+    void removeItem_WhenIfMatchVersionIsStale_ShouldFailPrecondition() {
+        // Given
+        testCart.setVersion(5);
+        when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
+
+        // When & Then
+        assertThatThrownBy(() -> cartService.removeItem(testCartId, "PROD-001",
+                CartPrecondition.anyOf(List.of(4L))))
+                .isInstanceOf(CartPreconditionFailedException.class);
+        verify(cartRepository, never()).removeItem(any(Cart.class), any());
+    }
+
+    @Test
+    void removeItem_WhenVersionConflicts_ShouldReloadAndRetry() {
+        // Given
+        CartItem item = CartItem.builder()
+                .itemId("ITEM-001")
+                .productId("PROD-001")
+                .quantity(2)
+                .unitPrice(new BigDecimal("999.99"))
+                .available(true)
+                .build();
+        testCart.getItems().add(item);
+        testCart.calculateTotals();
+
+        when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
+        when(cartRepository.removeItem(any(Cart.class), eq("PROD-001")))
+                .thenThrow(new CartVersionConflictException("conflict"))
+                .thenReturn(testCart);
+
+        // When
+        cartService.removeItem(testCartId, "PROD-001", CartPrecondition.NONE);
+
+        // Then
+        verify(cartRepository, times(2)).findById(testCartId);
+        verify(cartRepository, times(2)).removeItem(any(Cart.class), eq("PROD-001"));
+        assertThat(meterRegistry.counter("cart.update.conflicts", "operation", "removeItem").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void removeItem_WhenConflictsPersist_ShouldGiveUpAfterMaxAttempts() {
+        // Given
+        when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
+        when(cartRepository.removeItem(any(Cart.class), eq("PROD-001")))
+                .thenThrow(new CartVersionConflictException("conflict"));
+
+        // When & Then
+        assertThatThrownBy(() -> cartService.removeItem(testCartId, "PROD-001", CartPrecondition.NONE))
+                .isInstanceOf(CartVersionConflictException.class)
+                .hasMessageContaining("modified concurrently");
+
+        verify(cartRepository, times(3)).removeItem(any(Cart.class), eq("PROD-001"));
+        assertThat(meterRegistry.counter("cart.update.exhausted", "operation", "removeItem").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void addItems_ShouldMergeDuplicatesAndPersistAcceptedLinesOnce() {
+        // Given
+        BatchAddItemsRequest request = BatchAddItemsRequest.builder()
+                .items(List.of(addItemRequest("PROD-001", 2), addItemRequest("PROD-002", 1),
+                        addItemRequest("PROD-001", 1)))
+                .build();
+
+        when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
+        when(catalogClient.getProducts(any(BatchGetProductsRequest.class)))
+                .thenReturn(List.of(product("PROD-001", "999.99"), product("PROD-002", "499.99")));
+        when(catalogClient.checkAvailabilities(any(BatchAvailabilityRequest.class))).thenReturn(List.of(
+                AvailabilityDTO.builder().productId("PROD-001").quantity(3).available(true).build(),
+                AvailabilityDTO.builder().productId("PROD-002").quantity(1).available(false).build()));
+        when(cartRepository.saveItems(any(Cart.class), eq(List.of("PROD-001")))).thenReturn(testCart);
+
+        // When
+        BatchAddItemsResponse result = cartService.addItems(testCartId, request, CartPrecondition.NONE);
+
+        // Then
+        assertThat(result.getResults()).hasSize(2);
+        assertThat(result.getResults().get(0).isAdded()).isTrue();
+        assertThat(result.getResults().get(0).getQuantity()).isEqualTo(3);
+        assertThat(result.getResults().get(1).isAdded()).isFalse();
+        assertThat(result.getResults().get(1).getError()).contains("not available");
+        assertThat(testCart.getTotalItems()).isEqualTo(3);
+
+        verify(cartRepository, times(1)).saveItems(any(Cart.class), eq(List.of("PROD-001")));
+        verify(catalogClient, times(1)).getProducts(any(BatchGetProductsRequest.class));
+        verify(catalogClient, never()).getProduct(anyString());
+    }
+
+    @Test
+    void addItem_WhenStockCannotBeHeld_ShouldPutHoldBackAndThrow() {
+        // Given
+        testCart.getItems().add(CartItem.builder()
+                .itemId("ITEM-001")
+                .productId("PROD-001")
+                .quantity(2)
+                .unitPrice(new BigDecimal("999.99"))
+                .available(true)
+                .build());
+        testCart.calculateTotals();
+
+        when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
+        when(catalogClient.getProduct("PROD-001")).thenReturn(product("PROD-001", "999.99"));
+        when(stockReservations.isEnabled()).thenReturn(true);
+        // The whole line is held, not the added quantity
+        when(stockReservations.hold(testCartId, Map.of("PROD-001", 5))).thenReturn(Set.of("PROD-001"));
+
+        // When & Then
+        assertThatThrownBy(() -> cartService.addItem(testCartId, addItemRequest("PROD-001", 3),
+                CartPrecondition.NONE))
+                .isInstanceOf(InvalidCartOperationException.class)
+                .hasMessageContaining("not available");
+
+        verify(stockReservations).adjust(testCartId, Map.of("PROD-001", 2));
+        verify(catalogClient, never()).checkAvailability(anyString(), anyInt());
+        verify(cartRepository, never()).saveItemQuantity(any(Cart.class), any());
+    }
+
+    @Test
+    void addItem_WhenLineChangedBeforeRetry_ShouldHoldFromReloadedLine() {
+        // Given
+        Cart reloaded = cartWithLine("PROD-001", 4);
+        when(cartRepository.findById(testCartId))
+                .thenReturn(Optional.of(cartWithLine("PROD-001", 2)))
+                .thenReturn(Optional.of(reloaded));
+        when(catalogClient.getProduct("PROD-001")).thenReturn(product("PROD-001", "999.99"));
+        when(stockReservations.isEnabled()).thenReturn(true);
+        when(stockReservations.hold(eq(testCartId), any())).thenReturn(Set.of());
+        when(cartRepository.saveItemQuantity(any(Cart.class), eq("PROD-001")))
+                .thenThrow(new CartVersionConflictException("conflict"))
+                .thenReturn(reloaded);
+        mapsCarts();
+
+        // When
+        cartService.addItem(testCartId, addItemRequest("PROD-001", 3), CartPrecondition.NONE);
+
+        // Then
+        verify(stockReservations).hold(testCartId, Map.of("PROD-001", 5));
+        verify(stockReservations).hold(testCartId, Map.of("PROD-001", 7));
+        assertThat(reloaded.findItem("PROD-001")).get().extracting(CartItem::getQuantity).isEqualTo(7);
+    }
+
+    @Test
+    void addItem_WhenReloadedLineCannotBeHeld_ShouldPutBackHoldOfReloadedLine() {
+        // Given
+        when(cartRepository.findById(testCartId))
+                .thenReturn(Optional.of(cartWithLine("PROD-001", 2)))
+                .thenReturn(Optional.of(cartWithLine("PROD-001", 4)));
+        when(catalogClient.getProduct("PROD-001")).thenReturn(product("PROD-001", "999.99"));
+        when(stockReservations.isEnabled()).thenReturn(true);
+        when(stockReservations.hold(testCartId, Map.of("PROD-001", 5))).thenReturn(Set.of());
+        when(stockReservations.hold(testCartId, Map.of("PROD-001", 7))).thenReturn(Set.of("PROD-001"));
+        when(cartRepository.saveItemQuantity(any(Cart.class), eq("PROD-001")))
+                .thenThrow(new CartVersionConflictException("conflict"));
+
+        // When & Then
+        assertThatThrownBy(() -> cartService.addItem(testCartId, addItemRequest("PROD-001", 3),
+                CartPrecondition.NONE))
+                .isInstanceOf(InvalidCartOperationException.class)
+                .hasMessageContaining("not available");
+
+        verify(stockReservations).adjust(testCartId, Map.of("PROD-001", 4));
+        verify(cartRepository, times(1)).saveItemQuantity(any(Cart.class), eq("PROD-001"));
+    }
+
+    @Test
+    void removeItem_ShouldReleaseHeldStock() {
+        // Given
+        when(cartRepository.findById(testCartId)).thenReturn(Optional.of(testCart));
+        when(cartRepository.removeItem(any(Cart.class), eq("PROD-001"))).thenReturn(testCart);
+
+        // When
+        cartService.removeItem(testCartId, "PROD-001", CartPrecondition.NONE);
+
+        // Then
+        verify(stockReservations).release(testCartId, List.of("PROD-001"));
+    }
+
+    private Cart cartWithLine(String productId, int quantity) {
+        Cart cart = Cart.builder()
+                .cartId(testCartId)
+                .userId(testUserId)
+                .items(new ArrayList<>(List.of(CartItem.builder()
+                        .itemId("ITEM-001")
+                        .productId(productId)
+                        .quantity(quantity)
+                        .unitPrice(new BigDecimal("999.99"))
+                        .available(true)
+                        .build())))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        cart.calculateTotals();
+        return cart;
+    }
+
+    // The mapper as far as these tests look at it, promotions aside
+    private void mapsCarts() {
+        when(response.mapToResponse(any(Cart.class))).thenAnswer(invocation -> {
+            Cart cart = invocation.getArgument(0);
+            return CartResponse.builder()
+                    .cartId(cart.getCartId())
+                    .userId(cart.getUserId())
+                    .items(cart.getItems().stream()
+                            .map(item -> CartItemResponse.builder()
+                                    .productId(item.getProductId())
+                                    .quantity(item.getQuantity())
+                                    .build())
+                            .toList())
+                    .totalItems(cart.getTotalItems())
+                    .total(cart.getTotal())
+                    .build();
+        });
+    }
+
+    private static AddItemRequest addItemRequest(String productId, int quantity) {
+        AddItemRequest request = new AddItemRequest();
+        request.setProductId(productId);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private static ProductDTO product(String productId, String price) {
+        return ProductDTO.builder()
+                .productId(productId)
+                .name("Product " + productId)
+                .price(new BigDecimal(price))
+                .available(true)
+                .stockQuantity(10)
+                .build();
+    }
+}
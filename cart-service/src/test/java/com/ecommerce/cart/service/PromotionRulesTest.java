@@ -0,0 +1,159 @@
+package com.ecommerce.cart.service;
+
+import com.ecommerce.cart.domain.entity.Cart;
+import com.ecommerce.cart.domain.entity.CartItem;
+import com.ecommerce.cart.domain.entity.Promotion;
+import com.ecommerce.cart.domain.enums.DiscountType;
+import com.ecommerce.cart.domain.service.PricingVersion;
+import com.ecommerce.cart.domain.service.PromotionResult;
+import com.ecommerce.cart.domain.service.PromotionRules;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromotionRulesTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Test
+    void evaluate_ShouldApplyEachKindOfDiscount() {
+        // Given
+        Cart cart = cart(
+                item("PROD-001", "shoes", 2, "50.00"),
+                item("PROD-002", "books", 3, "10.00"),
+                item("PROD-003", "toys", 5, "4.00"));
+        PromotionRules rules = PromotionRules.compile(1, List.of(
+                promotion("P-PCT", DiscountType.PERCENTAGE, "10", Set.of("PROD-001"), Set.of()),
+                promotion("P-FIX", DiscountType.FIXED_AMOUNT, "2.50", Set.of(), Set.of("books")),
+                buyXGetY("P-BOGO", 2, 1, Set.of("PROD-003"))), now);
+
+        // When
+        PromotionResult result = rules.evaluate(cart, now);
+        cart.applyDiscount(result.discountCents());
+
+        // Then
+        assertThat(result.lines().get("PROD-001").discountCents()).isEqualTo(1000);
+        assertThat(result.lines().get("PROD-002").discountCents()).isEqualTo(750);
+        // 5 units: one complete group of 2 + 1
+        assertThat(result.lines().get("PROD-003").discountCents()).isEqualTo(400);
+        assertThat(cart.getDiscount()).isEqualByComparingTo("21.50");
+        assertThat(cart.getTotal()).isEqualByComparingTo("128.50");
+        assertThat(cart.getSubtotal()).isEqualByComparingTo("150.00");
+    }
+
+    @Test
+    void evaluate_ShouldKeepBestDiscountPerLine() {
+        // Given
+        Cart cart = cart(item("PROD-001", "shoes", 1, "100.00"));
+        PromotionRules rules = PromotionRules.compile(1, List.of(
+                promotion("P-SITE", DiscountType.PERCENTAGE, "5", Set.of(), Set.of()),
+                promotion("P-CAT", DiscountType.PERCENTAGE, "20", Set.of(), Set.of("shoes")),
+                promotion("P-FIX", DiscountType.FIXED_AMOUNT, "150", Set.of("PROD-001"), Set.of())), now);
+
+        // When
+        PromotionResult result = rules.evaluate(cart, now);
+
+        // Then
+        // the fixed amount is capped at the unit price
+        assertThat(result.lines().get("PROD-001").promotionId()).isEqualTo("P-FIX");
+        assertThat(result.discountCents()).isEqualTo(10000);
+    }
+
+    @Test
+    void compile_ShouldSkipInactiveAndEndedPromotions() {
+        // Given
+        Promotion inactive = promotion("P-OFF", DiscountType.PERCENTAGE, "50", Set.of(), Set.of());
+        inactive.setActive(false);
+        Promotion ended = promotion("P-OLD", DiscountType.PERCENTAGE, "50", Set.of(), Set.of());
+        ended.setEndsAt(now.minusDays(1));
+        Promotion upcoming = promotion("P-NEXT", DiscountType.PERCENTAGE, "50", Set.of(), Set.of());
+        upcoming.setStartsAt(now.plusDays(1));
+
+        // When
+        PromotionRules rules = PromotionRules.compile(7, List.of(inactive, ended, upcoming), now);
+
+        // Then
+        assertThat(rules.size()).isEqualTo(1);
+        assertThat(rules.getVersion()).isEqualTo(7);
+        assertThat(rules.evaluate(cart(item("PROD-001", "shoes", 1, "10.00")), now).discountCents()).isZero();
+        assertThat(rules.evaluate(cart(item("PROD-001", "shoes", 1, "10.00")), now.plusDays(2)).discountCents())
+                .isEqualTo(500);
+    }
+
+    @Test
+    void pricingVersion_ShouldChangeWhenPromotionStartsOrEnds() {
+        // Given
+        Promotion upcoming = promotion("P-NEXT", DiscountType.PERCENTAGE, "50", Set.of(), Set.of());
+        upcoming.setStartsAt(now.plusHours(1));
+        upcoming.setEndsAt(now.plusHours(2));
+        PromotionRules rules = PromotionRules.compile(7, List.of(upcoming), now);
+
+        // When
+        PricingVersion before = rules.pricingVersion(now);
+        PricingVersion started = rules.pricingVersion(now.plusHours(1));
+        PricingVersion ended = rules.pricingVersion(now.plusHours(3));
+
+        // Then
+        assertThat(before).isEqualTo(new PricingVersion(7, 0));
+        assertThat(started).isEqualTo(new PricingVersion(7, 1));
+        assertThat(ended).isEqualTo(new PricingVersion(7, 2));
+        assertThat(rules.evaluate(cart(item("PROD-001", "shoes", 1, "10.00")), now.plusHours(1)).pricingVersion())
+                .isEqualTo(started);
+    }
+
+    @Test
+    void lineChange_ShouldResetDiscount() {
+        // Given
+        Cart cart = cart(item("PROD-001", "shoes", 1, "10.00"));
+        cart.applyDiscount(300);
+
+        // When
+        cart.updateItemQuantity("PROD-001", 2);
+
+        // Then
+        assertThat(cart.getDiscount()).isEqualByComparingTo("0");
+        assertThat(cart.getTotal()).isEqualByComparingTo("20.00");
+    }
+
+    private Cart cart(CartItem... items) {
+        Cart cart = Cart.builder().cartId("CART-1").items(new ArrayList<>(List.of(items))).build();
+        cart.calculateTotals();
+        return cart;
+    }
+
+    private CartItem item(String productId, String category, int quantity, String price) {
+        return CartItem.builder()
+                .productId(productId)
+                .category(category)
+                .quantity(quantity)
+                .unitPrice(new BigDecimal(price))
+                .available(true)
+                .build();
+    }
+
+    private Promotion promotion(String id, DiscountType type, String value, Set<String> productIds, Set<String> categories) {
+        return Promotion.builder()
+                .promotionId(id)
+                .type(type)
+                .value(new BigDecimal(value))
+                .productIds(productIds)
+                .categories(categories)
+                .build();
+    }
+
+    private Promotion buyXGetY(String id, int buy, int free, Set<String> productIds) {
+        return Promotion.builder()
+                .promotionId(id)
+                .type(DiscountType.BUY_X_GET_Y)
+                .buyQuantity(buy)
+                .freeQuantity(free)
+                .productIds(productIds)
+                .build();
+    }
+}
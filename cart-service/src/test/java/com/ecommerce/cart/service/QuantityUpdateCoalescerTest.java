@@ -0,0 +1,190 @@
+package com.ecommerce.cart.service;
+
+import com.ecommerce.cart.domain.exception.CartNotFoundException;
+import com.ecommerce.cart.domain.exception.InvalidCartOperationException;
+import com.ecommerce.cart.domain.exception.RemoteCallTimeoutException;
+import com.ecommerce.cart.domain.service.QuantityUpdateCoalescer;
+import com.ecommerce.cart.dto.response.CartResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class QuantityUpdateCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Map<String, Integer>> flushed = new CopyOnWriteArrayList<>();
+    private QuantityUpdateCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new QuantityUpdateCoalescer(meterRegistry, true, Duration.ofMillis(100), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        coalescer.destroy();
+    }
+
+    @Test
+    void submit_ShouldFlushUpdatesOfACartInOneBatch() {
+        // Given
+        CartResponse cart = CartResponse.builder().cartId("CART-1").build();
+        QuantityUpdateCoalescer.Flush flush = (cartId, quantities) -> {
+            flushed.add(new LinkedHashMap<>(quantities));
+            return new QuantityUpdateCoalescer.FlushResult(cart, Map.of());
+        };
+
+        // When
+        CompletableFuture<CartResponse> first = coalescer.submit("CART-1", "PROD-001", 2, flush);
+        CompletableFuture<CartResponse> second = coalescer.submit("CART-1", "PROD-001", 3, flush);
+        CompletableFuture<CartResponse> third = coalescer.submit("CART-1", "PROD-002", 1, flush);
+
+        // Then
+        assertThat(first.join()).isSameAs(cart);
+        assertThat(second.join()).isSameAs(cart);
+        assertThat(third.join()).isSameAs(cart);
+        assertThat(flushed).containsExactly(Map.of("PROD-001", 3, "PROD-002", 1));
+        assertThat(meterRegistry.counter("cart.coalescing.updates").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("cart.coalescing.flushes").count()).isEqualTo(1);
+        assertThat(meterRegistry.summary("cart.coalescing.batch-size").mean()).isEqualTo(3);
+        assertThat(meterRegistry.counter("cart.coalescing.overwritten").count()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_ShouldOnlyFailCallersOfARejectedProduct() {
+        // Given
+        CartResponse cart = CartResponse.builder().cartId("CART-1").build();
+        InvalidCartOperationException rejected =
+                new InvalidCartOperationException("Product not available in requested quantity");
+        QuantityUpdateCoalescer.Flush flush = (cartId, quantities) ->
+                new QuantityUpdateCoalescer.FlushResult(cart, Map.of("PROD-002", rejected));
+
+        // When
+        CompletableFuture<CartResponse> accepted = coalescer.submit("CART-1", "PROD-001", 2, flush);
+        CompletableFuture<CartResponse> failed = coalescer.submit("CART-1", "PROD-002", 50, flush);
+
+        // Then
+        assertThat(accepted.join()).isSameAs(cart);
+        assertThatThrownBy(failed::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCause(rejected);
+    }
+
+    @Test
+    void update_ShouldRethrowFlushFailure() {
+        // Given
+        QuantityUpdateCoalescer.Flush flush = (cartId, quantities) -> {
+            throw new CartNotFoundException("Cart not found: " + cartId);
+        };
+
+        // When & Then
+        assertThatThrownBy(() -> coalescer.update("CART-404", "PROD-001", 2, flush))
+                .isInstanceOf(CartNotFoundException.class)
+                .hasMessageContaining("CART-404");
+    }
+
+    @Test
+    void update_ShouldReportUnavailableWhenFlushTakesTooLong() throws InterruptedException {
+        // Given
+        QuantityUpdateCoalescer slow = new QuantityUpdateCoalescer(
+                meterRegistry, true, Duration.ofMillis(10), Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        QuantityUpdateCoalescer.Flush flush = (cartId, quantities) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new QuantityUpdateCoalescer.FlushResult(CartResponse.builder().cartId(cartId).build(), Map.of());
+        };
+
+        // When & Then
+        try {
+            assertThatThrownBy(() -> slow.update("CART-1", "PROD-001", 2, flush))
+                    .isInstanceOf(RemoteCallTimeoutException.class)
+                    .hasMessageContaining("CART-1");
+        } finally {
+            release.countDown();
+            slow.destroy();
+        }
+    }
+
+    @Test
+    void update_ShouldKeepInterruptFlagWhenInterruptedWhileWaiting() {
+        // Given
+        QuantityUpdateCoalescer.Flush flush = (cartId, quantities) ->
+                new QuantityUpdateCoalescer.FlushResult(CartResponse.builder().cartId(cartId).build(), Map.of());
+        Thread.currentThread().interrupt();
+
+        // When & Then
+        assertThatThrownBy(() -> coalescer.update("CART-1", "PROD-001", 2, flush))
+                .isInstanceOf(RemoteCallTimeoutException.class);
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    void submit_ShouldKeepCartsInSeparateBatches() {
+        // Given
+        QuantityUpdateCoalescer.Flush flush = (cartId, quantities) -> {
+            flushed.add(new LinkedHashMap<>(quantities));
+            return new QuantityUpdateCoalescer.FlushResult(CartResponse.builder().cartId(cartId).build(), Map.of());
+        };
+
+        // When
+        CartResponse first = coalescer.submit("CART-1", "PROD-001", 2, flush).join();
+        CartResponse second = coalescer.submit("CART-2", "PROD-001", 4, flush).join();
+
+        // Then
+        assertThat(first.getCartId()).isEqualTo("CART-1");
+        assertThat(second.getCartId()).isEqualTo("CART-2");
+        assertThat(flushed).hasSize(2);
+    }
+
+    @Test
+    void submit_ShouldFlushNextBatchOfACartOnlyAfterTheRunningOne() throws InterruptedException {
+        // Given
+        CountDownLatch firstFlushing = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        QuantityUpdateCoalescer.Flush flush = (cartId, quantities) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                firstFlushing.countDown();
+                releaseFirst.await();
+                flushed.add(new LinkedHashMap<>(quantities));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return new QuantityUpdateCoalescer.FlushResult(CartResponse.builder().cartId(cartId).build(), Map.of());
+        };
+        CompletableFuture<CartResponse> first = coalescer.submit("CART-1", "PROD-001", 2, flush);
+        firstFlushing.await();
+
+        // When
+        CompletableFuture<CartResponse> second = coalescer.submit("CART-1", "PROD-001", 5, flush);
+        Thread.sleep(300);
+        releaseFirst.countDown();
+
+        // Then
+        first.join();
+        second.join();
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(flushed).containsExactly(Map.of("PROD-001", 2), Map.of("PROD-001", 5));
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.catalog.controller;
+
+import com.ecommerce.catalog.dto.AvailabilityResponse;
+import com.ecommerce.catalog.dto.BatchAvailabilityRequest;
+import com.ecommerce.catalog.dto.BatchGetRequest;
+import com.ecommerce.catalog.dto.ProductResponse;
+import com.ecommerce.catalog.service.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Multi-product endpoints. They live outside {@link ProductController} because a custom method
+ * such as {@code /products:batchGet} cannot be expressed below its {@code /api/v1/products} prefix.
+ */
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductBatchController {
+
+    private final ProductService productService;
+
+    @Operation(summary = "Get several products by ID")
+    @PostMapping("/products:batchGet")
+    public ResponseEntity<List<ProductResponse>> getProducts(@Valid @RequestBody BatchGetRequest request) {
+        log.info("Rest request to get {} products", request.getProductIds().size());
+        List<ProductResponse> products = productService.getProducts(request.getProductIds());
+        return ResponseEntity.ok(products);
+    }
+
+    @Operation(summary = "Check availability of several products")
+    @PostMapping("/products/availability:batch")
+    public ResponseEntity<List<AvailabilityResponse>> checkAvailability(
+            @Valid @RequestBody BatchAvailabilityRequest request) {
+        log.info("Rest request to check availability of {} items", request.getItems().size());
+        List<AvailabilityResponse> availability = productService.checkAvailability(request.getItems());
+        return ResponseEntity.ok(availability);
+    }
+}
@@ -58,10 +58,11 @@ public class ProductController {
     @GetMapping("/{productId}/availability")
     public ResponseEntity<Boolean> checkAvailability(
             @PathVariable String productId,
-            @RequestParam int quantity) {
+            @RequestParam int quantity,
+            @RequestParam(required = false) String holderId) {
 
         log.info("Rest request to check availability: productId={}, quantity={}", productId, quantity);
-        boolean available = productService.isProductAvailable(productId, quantity);
+        boolean available = productService.isProductAvailable(productId, quantity, holderId);
         return ResponseEntity.ok(available);
     }
 
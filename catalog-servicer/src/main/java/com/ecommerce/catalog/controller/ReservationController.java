@@ -0,0 +1,54 @@
+package com.ecommerce.catalog.controller;
+
+import com.ecommerce.catalog.dto.ReservationHolderRequest;
+import com.ecommerce.catalog.dto.ReservationResponse;
+import com.ecommerce.catalog.dto.ReserveRequest;
+import com.ecommerce.catalog.service.ReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Stock reservations with expiry, held per holder (a cart) and per product. Reserving sets the
+ * quantity held, so repeating a request is harmless.
+ * <p>
+ * Internal to the services: the cart service calls it directly, and the gateway blocks these paths.
+ */
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    @Operation(summary = "Hold stock of several products until the reservations expire")
+    @PostMapping("/reservations:reserve")
+    public ResponseEntity<List<ReservationResponse>> reserve(@Valid @RequestBody ReserveRequest request) {
+        log.info("Rest request to reserve {} items for {}", request.getItems().size(), request.getHolderId());
+        return ResponseEntity.ok(reservationService.reserve(request));
+    }
+
+    @Operation(summary = "Release the reservations of a holder")
+    @PostMapping("/reservations:release")
+    public ResponseEntity<Void> release(@Valid @RequestBody ReservationHolderRequest request) {
+        log.info("Rest request to release reservations of {}", request.getHolderId());
+        reservationService.release(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Confirm the reservations of a holder, taking the held quantities from the stock")
+    @PostMapping("/reservations:confirm")
+    public ResponseEntity<List<ReservationResponse>> confirm(@Valid @RequestBody ReservationHolderRequest request) {
+        log.info("Rest request to confirm reservations of {}", request.getHolderId());
+        return ResponseEntity.ok(reservationService.confirm(request));
+    }
+}
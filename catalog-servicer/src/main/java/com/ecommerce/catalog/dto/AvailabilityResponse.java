@@ -0,0 +1,17 @@
+package com.ecommerce.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityResponse {
+    private String productId;
+    private Integer quantity;
+    private String holderId;
+    private Boolean available;
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.catalog.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAvailabilityRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 500, message = "Cannot check more than 500 items at once")
+    private List<@Valid AvailabilityRequest> items;
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.catalog.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetRequest {
+
+    @NotEmpty(message = "At least one product ID is required")
+    @Size(max = 500, message = "Cannot request more than 500 products at once")
+    private List<String> productIds;
+}
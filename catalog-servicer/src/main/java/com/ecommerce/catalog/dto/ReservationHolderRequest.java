@@ -0,0 +1,22 @@
+package com.ecommerce.catalog.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationHolderRequest {
+
+    @NotBlank(message = "Holder ID is required")
+    private String holderId;
+
+    // Empty for all the holds of the holder
+    private List<String> productIds;
+}
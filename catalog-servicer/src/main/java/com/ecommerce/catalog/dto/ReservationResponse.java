@@ -0,0 +1,22 @@
+package com.ecommerce.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResponse {
+    private String productId;
+    private Integer quantity;
+    // Set by reserve: the hold is in place until expiresAt
+    private Boolean reserved;
+    private Instant expiresAt;
+    // Set by confirm: the held quantity was taken from the stock
+    private Boolean confirmed;
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.catalog.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReserveRequest {
+
+    @NotBlank(message = "Holder ID is required")
+    private String holderId;
+
+    // Defaults to catalog.reservations.default-ttl, capped at catalog.reservations.max-ttl
+    @Positive(message = "TTL must be positive")
+    private Long ttlSeconds;
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 500, message = "Cannot reserve more than 500 items at once")
+    private List<@Valid ReservationItem> items;
+}
@@ -2,8 +2,14 @@ package com.ecommerce.catalog.repository;
 
 import com.ecommerce.catalog.domain.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,9 +18,24 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Optional<Product> findByProductId(String productId);
 
+    List<Product> findByProductIdIn(Collection<String> productIds);
+
     List<Product> findByCategory(String category);
 
     List<Product> findByAvailableTrue();
 
     boolean existsByProductId(String productId);
+
+    /**
+     * Takes a quantity from the stock in a single conditional update, returning 0 when the stock
+     * is lower.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.stockQuantity = p.stockQuantity - :quantity, "
+            + "p.available = case when p.stockQuantity > :quantity then true else false end, "
+            + "p.updatedAt = :now "
+            + "where p.productId = :productId and p.stockQuantity >= :quantity")
+    int decrementStock(@Param("productId") String productId, @Param("quantity") int quantity,
+                       @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.ecommerce.catalog.service;
 
+import com.ecommerce.catalog.dto.AvailabilityRequest;
+import com.ecommerce.catalog.dto.AvailabilityResponse;
 import com.ecommerce.catalog.dto.ProductRequest;
 import com.ecommerce.catalog.dto.ProductResponse;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductService {
@@ -11,6 +14,8 @@ public interface ProductService {
 
     ProductResponse getProduct(String productId);
 
+    List<ProductResponse> getProducts(Collection<String> productIds);
+
     List<ProductResponse> getAllProducts();
 
     List<ProductResponse> getProductsByCategory(String category);
@@ -19,5 +24,7 @@ public interface ProductService {
 
     void deleteProduct(String productId);
 
-    boolean isProductAvailable(String productId, int quantity);
+    boolean isProductAvailable(String productId, int quantity, String holderId);
+
+    List<AvailabilityResponse> checkAvailability(List<AvailabilityRequest> requests);
 }
\ No newline at end of file
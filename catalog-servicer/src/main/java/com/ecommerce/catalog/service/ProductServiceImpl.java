@@ -1,6 +1,8 @@
 package com.ecommerce.catalog.service;
 
 import com.ecommerce.catalog.domain.Product;
+import com.ecommerce.catalog.dto.AvailabilityRequest;
+import com.ecommerce.catalog.dto.AvailabilityResponse;
 import com.ecommerce.catalog.dto.ProductRequest;
 import com.ecommerce.catalog.dto.ProductResponse;
 import com.ecommerce.catalog.exception.ProductNotFoundException;
@@ -10,7 +12,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,6 +26,7 @@ import java.util.stream.Collectors;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final ReservationLedger reservationLedger;
 
     @Override
     public ProductResponse createProduct(ProductRequest request) {
@@ -53,6 +60,16 @@ public class ProductServiceImpl implements ProductService {
         return mapToResponse(product);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProducts(Collection<String> productIds) {
+        log.info("Getting {} products", productIds.size());
+
+        return productRepository.findByProductIdIn(productIds).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ProductResponse> getAllProducts() {
@@ -107,13 +124,45 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional(readOnly = true)
-    public boolean isProductAvailable(String productId, int quantity) {
+    public boolean isProductAvailable(String productId, int quantity, String holderId) {
         log.info("Checking availability for product {} with quantity {}", productId, quantity);
 
         Product product = productRepository.findByProductId(productId)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found: " + productId));
 
-        return product.getAvailable() && product.getStockQuantity() >= quantity;
+        return isAvailable(product, quantity, holderId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AvailabilityResponse> checkAvailability(List<AvailabilityRequest> requests) {
+        log.info("Checking availability for {} items", requests.size());
+
+        Set<String> productIds = requests.stream()
+                .map(AvailabilityRequest::getProductId)
+                .collect(Collectors.toSet());
+        Map<String, Product> products = productRepository.findByProductIdIn(productIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        return requests.stream()
+                .map(request -> {
+                    Product product = products.get(request.getProductId());
+                    return AvailabilityResponse.builder()
+                            .productId(request.getProductId())
+                            .quantity(request.getQuantity())
+                            .holderId(request.getHolderId())
+                            .available(product != null
+                                    && isAvailable(product, request.getQuantity(), request.getHolderId()))
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    // Stock held by carts is not available to others, what the holder itself holds is
+    private boolean isAvailable(Product product, int quantity, String holderId) {
+        int heldByOthers = reservationLedger.reserved(product.getProductId())
+                - (holderId == null ? 0 : reservationLedger.heldBy(product.getProductId(), holderId));
+        return Boolean.TRUE.equals(product.getAvailable()) && product.getStockQuantity() - heldByOthers >= quantity;
     }
 
     private ProductResponse mapToResponse(Product product) {
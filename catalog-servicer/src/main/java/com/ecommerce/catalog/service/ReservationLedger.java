@@ -0,0 +1,198 @@
+package com.ecommerce.catalog.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stock held by carts (holders) ahead of checkout, in memory.
+ * <p>
+ * Each product has the sum of its holds in an {@link AtomicInteger}, raised by compare-and-set
+ * against the stock, so concurrent reservations of a product never wait on each other nor on the
+ * product row, and an availability read costs one volatile read. Each hold is changed inside a
+ * {@link ConcurrentHashMap#compute} on its (product, holder) entry, which keeps the sum equal to
+ * the holds while different holders of a product proceed in parallel.
+ * <p>
+ * Expired holds count until {@link #sweep} drops them, or until a reservation of the same product
+ * misses stock and reclaims them first. Holds are lost on restart, they are only ever temporary.
+ */
+@Component
+public class ReservationLedger {
+
+    public record Hold(String productId, String holderId, int quantity, Instant expiresAt) {
+
+        boolean isExpired(Instant now) {
+            return !expiresAt.isAfter(now);
+        }
+    }
+
+    private static final class ProductHolds {
+        private final AtomicInteger reserved = new AtomicInteger();
+        private final ConcurrentMap<String, Hold> byHolder = new ConcurrentHashMap<>();
+    }
+
+    // Entries are kept once created: one per product ever reserved
+    private final ConcurrentMap<String, ProductHolds> products = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> productsByHolder = new ConcurrentHashMap<>();
+
+    public int reserved(String productId) {
+        ProductHolds product = products.get(productId);
+        return product == null ? 0 : product.reserved.get();
+    }
+
+    /**
+     * Quantity of a product held by a holder, counted in {@link #reserved} until it is released.
+     */
+    public int heldBy(String productId, String holderId) {
+        ProductHolds product = products.get(productId);
+        Hold hold = product == null ? null : product.byHolder.get(holderId);
+        return hold == null ? 0 : hold.quantity();
+    }
+
+    /**
+     * Sets the quantity a holder holds on a product and its expiry; a quantity of 0 releases the
+     * hold. Returns false, leaving the previous hold as it was, when the stock not held by others
+     * is lower than the quantity.
+     */
+    public boolean hold(String productId, String holderId, int quantity, int stock, Instant expiresAt, Instant now) {
+        if (quantity == 0) {
+            release(productId, holderId);
+            return true;
+        }
+        ProductHolds product = products.computeIfAbsent(productId, id -> new ProductHolds());
+        return tryHold(product, productId, holderId, quantity, stock, expiresAt)
+                || (sweep(product, now) > 0 && tryHold(product, productId, holderId, quantity, stock, expiresAt));
+    }
+
+    public Optional<Hold> release(String productId, String holderId) {
+        ProductHolds product = products.get(productId);
+        if (product == null) {
+            return Optional.empty();
+        }
+        Hold[] released = new Hold[1];
+        product.byHolder.computeIfPresent(holderId, (id, hold) -> {
+            product.reserved.addAndGet(-hold.quantity());
+            unindex(holderId, productId);
+            released[0] = hold;
+            return null;
+        });
+        return Optional.ofNullable(released[0]);
+    }
+
+    /**
+     * Removes an unexpired hold while its quantity stays reserved, so that it cannot be confirmed
+     * twice nor be reserved by others until {@link #settle} once the stock has been taken.
+     */
+    public Optional<Hold> claim(String productId, String holderId, Instant now) {
+        ProductHolds product = products.get(productId);
+        if (product == null) {
+            return Optional.empty();
+        }
+        Hold[] claimed = new Hold[1];
+        product.byHolder.computeIfPresent(holderId, (id, hold) -> {
+            if (hold.isExpired(now)) {
+                return hold;
+            }
+            unindex(holderId, productId);
+            claimed[0] = hold;
+            return null;
+        });
+        return Optional.ofNullable(claimed[0]);
+    }
+
+    public void settle(Hold claimed) {
+        products.get(claimed.productId()).reserved.addAndGet(-claimed.quantity());
+    }
+
+    public List<Hold> holdsOf(String holderId) {
+        return productsByHolder.getOrDefault(holderId, Set.of()).stream()
+                .map(productId -> products.get(productId).byHolder.get(holderId))
+                .filter(hold -> hold != null)
+                .toList();
+    }
+
+    /**
+     * Releases every hold expired at {@code now}, returning how many.
+     */
+    public int sweep(Instant now) {
+        return products.values().stream().mapToInt(product -> sweep(product, now)).sum();
+    }
+
+    private boolean tryHold(ProductHolds product, String productId, String holderId, int quantity, int stock,
+                            Instant expiresAt) {
+        boolean[] held = new boolean[1];
+        product.byHolder.compute(holderId, (id, current) -> {
+            // An expired hold not swept yet still counts in the sum, hence the delta from it
+            int delta = quantity - (current == null ? 0 : current.quantity());
+            if (!reserve(product.reserved, delta, stock)) {
+                return current;
+            }
+            if (current == null) {
+                index(holderId, productId);
+            }
+            held[0] = true;
+            return new Hold(productId, holderId, quantity, expiresAt);
+        });
+        return held[0];
+    }
+
+    private static boolean reserve(AtomicInteger reserved, int delta, int stock) {
+        while (true) {
+            int current = reserved.get();
+            int next = current + delta;
+            // Lowering a hold always succeeds, even when the stock went below what is held
+            if (delta > 0 && next > stock) {
+                return false;
+            }
+            if (reserved.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    private int sweep(ProductHolds product, Instant now) {
+        int swept = 0;
+        for (Hold hold : product.byHolder.values()) {
+            if (hold.isExpired(now) && release(product, hold, now)) {
+                swept++;
+            }
+        }
+        return swept;
+    }
+
+    private boolean release(ProductHolds product, Hold expired, Instant now) {
+        boolean[] released = new boolean[1];
+        product.byHolder.computeIfPresent(expired.holderId(), (id, hold) -> {
+            // Renewed in the meantime
+            if (!hold.isExpired(now)) {
+                return hold;
+            }
+            product.reserved.addAndGet(-hold.quantity());
+            unindex(hold.holderId(), hold.productId());
+            released[0] = true;
+            return null;
+        });
+        return released[0];
+    }
+
+    private void index(String holderId, String productId) {
+        productsByHolder.compute(holderId, (id, productIds) -> {
+            Set<String> indexed = productIds == null ? ConcurrentHashMap.newKeySet() : productIds;
+            indexed.add(productId);
+            return indexed;
+        });
+    }
+
+    private void unindex(String holderId, String productId) {
+        productsByHolder.computeIfPresent(holderId, (id, productIds) -> {
+            productIds.remove(productId);
+            return productIds.isEmpty() ? null : productIds;
+        });
+    }
+}
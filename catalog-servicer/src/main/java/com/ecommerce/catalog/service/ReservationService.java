@@ -0,0 +1,18 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.dto.ReservationHolderRequest;
+import com.ecommerce.catalog.dto.ReservationResponse;
+import com.ecommerce.catalog.dto.ReserveRequest;
+
+import java.util.List;
+
+public interface ReservationService {
+
+    List<ReservationResponse> reserve(ReserveRequest request);
+
+    void release(ReservationHolderRequest request);
+
+    List<ReservationResponse> confirm(ReservationHolderRequest request);
+
+    void sweepExpired();
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.domain.Product;
+import com.ecommerce.catalog.dto.ReservationHolderRequest;
+import com.ecommerce.catalog.dto.ReservationItem;
+import com.ecommerce.catalog.dto.ReservationResponse;
+import com.ecommerce.catalog.dto.ReserveRequest;
+import com.ecommerce.catalog.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reservations on top of the {@link ReservationLedger}: the ledger arbitrates the holds, the
+ * database only provides the stock to hold against and, on confirm, has it decremented.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationServiceImpl implements ReservationService {
+
+    private final ProductRepository productRepository;
+    private final ReservationLedger reservationLedger;
+
+    @Value("${catalog.reservations.default-ttl:15m}")
+    private Duration defaultTtl;
+
+    @Value("${catalog.reservations.max-ttl:2h}")
+    private Duration maxTtl;
+
+    @Override
+    public List<ReservationResponse> reserve(ReserveRequest request) {
+        log.info("Reserving {} items for {}", request.getItems().size(), request.getHolderId());
+
+        Set<String> productIds = request.getItems().stream()
+                .map(ReservationItem::getProductId)
+                .collect(Collectors.toSet());
+        // A plain read: the stock is only the ceiling the ledger holds against, no row is locked
+        Map<String, Product> products = productRepository.findByProductIdIn(productIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl(request.getTtlSeconds()));
+        return request.getItems().stream()
+                .map(item -> {
+                    Product product = products.get(item.getProductId());
+                    boolean reserved = item.getQuantity() == 0
+                            ? reservationLedger.hold(item.getProductId(), request.getHolderId(), 0, 0, expiresAt, now)
+                            : product != null && Boolean.TRUE.equals(product.getAvailable()) && reservationLedger.hold(
+                                    item.getProductId(), request.getHolderId(), item.getQuantity(),
+                                    product.getStockQuantity(), expiresAt, now);
+                    return ReservationResponse.builder()
+                            .productId(item.getProductId())
+                            .quantity(item.getQuantity())
+                            .reserved(reserved)
+                            .expiresAt(reserved && item.getQuantity() > 0 ? expiresAt : null)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void release(ReservationHolderRequest request) {
+        List<String> productIds = productIdsOf(request);
+        log.info("Releasing {} holds of {}", productIds.size(), request.getHolderId());
+
+        productIds.forEach(productId -> reservationLedger.release(productId, request.getHolderId()));
+    }
+
+    @Override
+    public List<ReservationResponse> confirm(ReservationHolderRequest request) {
+        List<String> productIds = productIdsOf(request);
+        log.info("Confirming {} holds of {}", productIds.size(), request.getHolderId());
+
+        Instant now = Instant.now();
+        List<ReservationResponse> confirmed = new ArrayList<>(productIds.size());
+        for (String productId : productIds) {
+            ReservationResponse.ReservationResponseBuilder result = ReservationResponse.builder()
+                    .productId(productId)
+                    .confirmed(false);
+            reservationLedger.claim(productId, request.getHolderId(), now).ifPresent(hold -> {
+                // Held quantity leaves the ledger only once it left the stock, never both counted out
+                try {
+                    boolean taken = productRepository.decrementStock(
+                            productId, hold.quantity(), LocalDateTime.now()) == 1;
+                    result.quantity(hold.quantity()).confirmed(taken);
+                    if (!taken) {
+                        log.warn("Stock of {} went below the {} held by {}", productId, hold.quantity(),
+                                request.getHolderId());
+                    }
+                } finally {
+                    reservationLedger.settle(hold);
+                }
+            });
+            confirmed.add(result.build());
+        }
+        return confirmed;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${catalog.reservations.sweep-interval:10s}")
+    public void sweepExpired() {
+        int swept = reservationLedger.sweep(Instant.now());
+        if (swept > 0) {
+            log.info("Released {} expired reservations", swept);
+        }
+    }
+
+    private List<String> productIdsOf(ReservationHolderRequest request) {
+        if (request.getProductIds() != null && !request.getProductIds().isEmpty()) {
+            return request.getProductIds();
+        }
+        return reservationLedger.holdsOf(request.getHolderId()).stream()
+                .map(ReservationLedger.Hold::productId)
+                .collect(Collectors.toList());
+    }
+
+    private Duration ttl(Long ttlSeconds) {
+        if (ttlSeconds == null) {
+            return defaultTtl;
+        }
+        Duration requested = Duration.ofSeconds(ttlSeconds);
+        return requested.compareTo(maxTtl) > 0 ? maxTtl : requested;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecommerce.catalog.controller;
+
+import com.ecommerce.catalog.dto.AvailabilityRequest;
+import com.ecommerce.catalog.dto.AvailabilityResponse;
+import com.ecommerce.catalog.dto.ProductResponse;
+import com.ecommerce.catalog.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductBatchController.class)
+class ProductBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @Test
+    void getProducts_ShouldReturnProductsOfTheBatch() throws Exception {
+        // Given
+        when(productService.getProducts(List.of("PROD-001", "PROD-002"))).thenReturn(List.of(
+                ProductResponse.builder().productId("PROD-001").build(),
+                ProductResponse.builder().productId("PROD-002").build()));
+
+        // When / Then
+        mockMvc.perform(post("/api/v1/products:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productIds\":[\"PROD-001\",\"PROD-002\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].productId").value("PROD-001"))
+                .andExpect(jsonPath("$[1].productId").value("PROD-002"));
+    }
+
+    @Test
+    void getProducts_ShouldRejectEmptyBatch() throws Exception {
+        // When / Then
+        mockMvc.perform(post("/api/v1/products:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productIds\":[]}"))
+                .andExpect(status().isBadRequest());
+        verify(productService, never()).getProducts(any());
+    }
+
+    @Test
+    void checkAvailability_ShouldReturnOneAnswerPerItem() throws Exception {
+        // Given
+        when(productService.checkAvailability(List.of(
+                AvailabilityRequest.builder().productId("PROD-001").quantity(2).holderId("cart-1").build())))
+                .thenReturn(List.of(AvailabilityResponse.builder()
+                        .productId("PROD-001").quantity(2).holderId("cart-1").available(true).build()));
+
+        // When / Then
+        mockMvc.perform(post("/api/v1/products/availability:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[{\"productId\":\"PROD-001\",\"quantity\":2,\"holderId\":\"cart-1\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId").value("PROD-001"))
+                .andExpect(jsonPath("$[0].available").value(true));
+    }
+
+    @Test
+    void checkAvailability_ShouldRejectInvalidItem() throws Exception {
+        // When / Then
+        mockMvc.perform(post("/api/v1/products/availability:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[{\"productId\":\"PROD-001\",\"quantity\":0}]}"))
+                .andExpect(status().isBadRequest());
+        verify(productService, never()).checkAvailability(any());
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.domain.Product;
+import com.ecommerce.catalog.dto.AvailabilityRequest;
+import com.ecommerce.catalog.dto.AvailabilityResponse;
+import com.ecommerce.catalog.dto.ProductResponse;
+import com.ecommerce.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final ReservationLedger reservationLedger = new ReservationLedger();
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        productService = new ProductServiceImpl(productRepository, reservationLedger);
+    }
+
+    @Test
+    void getProducts_ShouldLoadAllProductsInOneQueryAndSkipUnknownOnes() {
+        // Given
+        when(productRepository.findByProductIdIn(List.of("PROD-001", "PROD-404", "PROD-002")))
+                .thenReturn(List.of(product("PROD-001", 5), product("PROD-002", 0)));
+
+        // When
+        List<ProductResponse> products = productService.getProducts(List.of("PROD-001", "PROD-404", "PROD-002"));
+
+        // Then
+        assertThat(products).extracting(ProductResponse::getProductId).containsExactly("PROD-001", "PROD-002");
+        verify(productRepository, times(1)).findByProductIdIn(any());
+        verify(productRepository, never()).findByProductId(any());
+    }
+
+    @Test
+    void checkAvailability_ShouldAnswerEveryItemInRequestOrder() {
+        // Given
+        Product unavailable = product("PROD-003", 10);
+        unavailable.setAvailable(false);
+        when(productRepository.findByProductIdIn(Set.of("PROD-001", "PROD-002", "PROD-003", "PROD-404")))
+                .thenReturn(List.of(product("PROD-001", 5), product("PROD-002", 1), unavailable));
+
+        // When
+        List<AvailabilityResponse> availability = productService.checkAvailability(List.of(
+                item("PROD-001", 5, null),
+                item("PROD-002", 2, null),
+                item("PROD-003", 1, null),
+                item("PROD-404", 1, null)));
+
+        // Then
+        assertThat(availability).extracting(AvailabilityResponse::getProductId)
+                .containsExactly("PROD-001", "PROD-002", "PROD-003", "PROD-404");
+        assertThat(availability).extracting(AvailabilityResponse::getAvailable)
+                .containsExactly(true, false, false, false);
+        verify(productRepository, times(1)).findByProductIdIn(any());
+    }
+
+    @Test
+    void checkAvailability_ShouldOnlyCountStockHeldByOthers() {
+        // Given
+        Instant now = Instant.now();
+        reservationLedger.hold("PROD-001", "cart-1", 3, 5, now.plus(Duration.ofMinutes(15)), now);
+        when(productRepository.findByProductIdIn(Set.of("PROD-001"))).thenReturn(List.of(product("PROD-001", 5)));
+
+        // When
+        List<AvailabilityResponse> availability = productService.checkAvailability(List.of(
+                item("PROD-001", 4, "cart-1"),
+                item("PROD-001", 4, "cart-2"),
+                item("PROD-001", 2, null)));
+
+        // Then
+        assertThat(availability).extracting(AvailabilityResponse::getAvailable).containsExactly(true, false, true);
+        assertThat(availability).extracting(AvailabilityResponse::getHolderId)
+                .containsExactly("cart-1", "cart-2", null);
+    }
+
+    private static AvailabilityRequest item(String productId, int quantity, String holderId) {
+        return AvailabilityRequest.builder().productId(productId).quantity(quantity).holderId(holderId).build();
+    }
+
+    private static Product product(String productId, int stock) {
+        return Product.builder()
+                .productId(productId)
+                .name("Product " + productId)
+                .price(new BigDecimal("19.99"))
+                .category("Test")
+                .stockQuantity(stock)
+                .available(true)
+                .build();
+    }
+}
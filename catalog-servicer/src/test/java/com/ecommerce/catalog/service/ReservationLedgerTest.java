@@ -0,0 +1,128 @@
+package com.ecommerce.catalog.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationLedgerTest {
+
+    private final ReservationLedger ledger = new ReservationLedger();
+    private final Instant now = Instant.parse("2026-01-01T10:00:00Z");
+    private final Instant expiresAt = now.plus(Duration.ofMinutes(15));
+
+    @Test
+    void hold_ShouldRefuseStockHeldByOthers() {
+        // Given
+        assertThat(ledger.hold("PROD-001", "cart-1", 3, 5, expiresAt, now)).isTrue();
+
+        // When
+        boolean held = ledger.hold("PROD-001", "cart-2", 3, 5, expiresAt, now);
+
+        // Then
+        assertThat(held).isFalse();
+        assertThat(ledger.reserved("PROD-001")).isEqualTo(3);
+        assertThat(ledger.holdsOf("cart-2")).isEmpty();
+    }
+
+    @Test
+    void heldBy_ShouldReturnQuantityOfHolderOnly() {
+        // Given
+        ledger.hold("PROD-001", "cart-1", 3, 5, expiresAt, now);
+        ledger.hold("PROD-001", "cart-2", 1, 5, expiresAt, now);
+
+        // When / Then
+        assertThat(ledger.heldBy("PROD-001", "cart-1")).isEqualTo(3);
+        assertThat(ledger.heldBy("PROD-001", "cart-3")).isZero();
+        assertThat(ledger.heldBy("PROD-002", "cart-1")).isZero();
+        assertThat(ledger.reserved("PROD-001") - ledger.heldBy("PROD-001", "cart-1")).isEqualTo(1);
+    }
+
+    @Test
+    void hold_ShouldSetQuantityOfExistingHold() {
+        // Given
+        ledger.hold("PROD-001", "cart-1", 3, 5, expiresAt, now);
+
+        // When
+        ledger.hold("PROD-001", "cart-1", 5, 5, expiresAt, now);
+        ledger.hold("PROD-001", "cart-1", 2, 5, expiresAt, now);
+
+        // Then
+        assertThat(ledger.reserved("PROD-001")).isEqualTo(2);
+        assertThat(ledger.holdsOf("cart-1")).singleElement()
+                .extracting(ReservationLedger.Hold::quantity).isEqualTo(2);
+    }
+
+    @Test
+    void hold_ShouldNeverReserveMoreThanStockUnderContention() throws Exception {
+        // Given
+        int stock = 100;
+        List<Future<Boolean>> attempts = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1000; i++) {
+                String holderId = "cart-" + i;
+                attempts.add(executor.submit(() -> ledger.hold("PROD-001", holderId, 1, stock, expiresAt, now)));
+            }
+        }
+
+        // Then
+        long held = 0;
+        for (Future<Boolean> attempt : attempts) {
+            held += attempt.get() ? 1 : 0;
+        }
+        assertThat(held).isEqualTo(stock);
+        assertThat(ledger.reserved("PROD-001")).isEqualTo(stock);
+    }
+
+    @Test
+    void sweep_ShouldReleaseExpiredHoldsOnly() {
+        // Given
+        ledger.hold("PROD-001", "cart-1", 2, 10, now.plusSeconds(10), now);
+        ledger.hold("PROD-001", "cart-2", 3, 10, now.plusSeconds(60), now);
+
+        // When
+        int swept = ledger.sweep(now.plusSeconds(30));
+
+        // Then
+        assertThat(swept).isEqualTo(1);
+        assertThat(ledger.reserved("PROD-001")).isEqualTo(3);
+        assertThat(ledger.holdsOf("cart-1")).isEmpty();
+    }
+
+    @Test
+    void hold_ShouldReclaimExpiredHoldsWhenStockIsShort() {
+        // Given
+        ledger.hold("PROD-001", "cart-1", 5, 5, now.plusSeconds(10), now);
+
+        // When
+        boolean held = ledger.hold("PROD-001", "cart-2", 5, 5, expiresAt, now.plusSeconds(30));
+
+        // Then
+        assertThat(held).isTrue();
+        assertThat(ledger.reserved("PROD-001")).isEqualTo(5);
+    }
+
+    @Test
+    void claim_ShouldKeepQuantityReservedUntilSettled() {
+        // Given
+        ledger.hold("PROD-001", "cart-1", 4, 5, expiresAt, now);
+
+        // When
+        ReservationLedger.Hold claimed = ledger.claim("PROD-001", "cart-1", now).orElseThrow();
+
+        // Then
+        assertThat(ledger.reserved("PROD-001")).isEqualTo(4);
+        assertThat(ledger.claim("PROD-001", "cart-1", now)).isEmpty();
+        ledger.settle(claimed);
+        assertThat(ledger.reserved("PROD-001")).isZero();
+    }
+}
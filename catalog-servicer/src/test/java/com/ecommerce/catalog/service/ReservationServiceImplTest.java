@@ -0,0 +1,76 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.domain.Product;
+import com.ecommerce.catalog.dto.ReservationItem;
+import com.ecommerce.catalog.dto.ReservationResponse;
+import com.ecommerce.catalog.dto.ReserveRequest;
+import com.ecommerce.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final ReservationLedger reservationLedger = new ReservationLedger();
+    private ReservationServiceImpl reservationService;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationServiceImpl(productRepository, reservationLedger);
+        ReflectionTestUtils.setField(reservationService, "defaultTtl", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(reservationService, "maxTtl", Duration.ofHours(2));
+    }
+
+    @Test
+    void reserve_ShouldRefuseProductsNotMarkedAvailable() {
+        // Given
+        Product unmarked = product("PROD-002", 10);
+        unmarked.setAvailable(null);
+        Product unavailable = product("PROD-003", 10);
+        unavailable.setAvailable(false);
+        when(productRepository.findByProductIdIn(Set.of("PROD-001", "PROD-002", "PROD-003", "PROD-404")))
+                .thenReturn(List.of(product("PROD-001", 10), unmarked, unavailable));
+
+        // When
+        List<ReservationResponse> reservations = reservationService.reserve(ReserveRequest.builder()
+                .holderId("cart-1")
+                .items(List.of(item("PROD-001", 2), item("PROD-002", 2), item("PROD-003", 2), item("PROD-404", 2)))
+                .build());
+
+        // Then
+        assertThat(reservations).extracting(ReservationResponse::getReserved)
+                .containsExactly(true, false, false, false);
+        assertThat(reservationLedger.reserved("PROD-001")).isEqualTo(2);
+        assertThat(reservationLedger.reserved("PROD-002")).isZero();
+    }
+
+    private static ReservationItem item(String productId, int quantity) {
+        return ReservationItem.builder().productId(productId).quantity(quantity).build();
+    }
+
+    private static Product product(String productId, int stock) {
+        return Product.builder()
+                .productId(productId)
+                .name("Product " + productId)
+                .price(new BigDecimal("19.99"))
+                .category("Test")
+                .stockQuantity(stock)
+                .available(true)
+                .build();
+    }
+}
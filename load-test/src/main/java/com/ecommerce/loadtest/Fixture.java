@@ -0,0 +1,81 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Data the scenarios draw from, set up before the first arrival and not measured: the products of
+ * the catalog and a pool of registered users.
+ */
+record Fixture(List<String> productIds, List<String> categories, List<Credentials> users) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    record Credentials(String username, String password) {
+    }
+
+    static Fixture prepare(HttpClient client, URI target, LoadTestOptions options)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(target.resolve("/api/v1/products")).timeout(options.timeout()).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Cannot list the catalog: HTTP " + response.statusCode());
+        }
+        List<String> productIds = new ArrayList<>();
+        List<String> categories = new ArrayList<>();
+        for (JsonNode product : MAPPER.readTree(response.body())) {
+            productIds.add(product.path("productId").asText());
+            String category = product.path("category").asText();
+            if (!category.isEmpty() && !categories.contains(category)) {
+                categories.add(category);
+            }
+        }
+        if (productIds.isEmpty()) {
+            throw new IllegalStateException("The catalog has no product to load test with");
+        }
+
+        List<Credentials> users = new ArrayList<>();
+        List<Future<HttpResponse<Void>>> registrations = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.users(); i++) {
+                Credentials user = new Credentials("loadtest-" + i, "loadtest-password-" + i);
+                users.add(user);
+                byte[] body = MAPPER.writeValueAsBytes(Map.of(
+                        "username", user.username(), "password", user.password(),
+                        "email", user.username() + "@loadtest.example.com"));
+                HttpRequest request = HttpRequest.newBuilder(target.resolve(options.authPrefix() + "/api/v1/auth/register"))
+                        .timeout(options.timeout())
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                        .build();
+                registrations.add(executor.submit(() -> client.send(request, HttpResponse.BodyHandlers.discarding())));
+            }
+        }
+        // against a running stack the users may exist from a previous run, which is just as good
+        long registered = registrations.stream().filter(Fixture::succeeded).count();
+        System.out.printf("Fixture: %d products in %d categories, %d users (%d newly registered)%n",
+                productIds.size(), categories.size(), users.size(), registered);
+        return new Fixture(List.copyOf(productIds), List.copyOf(categories), List.copyOf(users));
+    }
+
+    private static boolean succeeded(Future<HttpResponse<Void>> registration) {
+        try {
+            return registration.get().statusCode() / 100 == 2;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Open-model load: sessions arrive on a fixed schedule, constant or Poisson, computed up front from
+ * the rate and independent of the response times. Each arrival runs on its own virtual thread, so
+ * a slow system faces more concurrent sessions instead of fewer arrivals, as with real users.
+ * Arrivals beyond {@code max-sessions} in flight are dropped and counted, which keeps a collapsed
+ * system from exhausting the load generator itself.
+ */
+final class LoadGenerator {
+
+    private final HttpClient client;
+    private final URI target;
+    private final LoadTestOptions options;
+    private final Fixture fixture;
+
+    LoadGenerator(HttpClient client, URI target, LoadTestOptions options, Fixture fixture) {
+        this.client = client;
+        this.target = target;
+        this.options = options;
+        this.fixture = fixture;
+    }
+
+    LoadReport run() {
+        SplittableRandom random = new SplittableRandom(options.seed());
+        List<Scenario> draw = weightedDraw(options.scenarios());
+        Semaphore inFlight = new Semaphore(options.maxSessions());
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long measureUntil = measureFrom + options.duration().toNanos();
+        LoadReport report = new LoadReport(measureFrom, measureUntil);
+        System.out.printf("Running %.1f arrivals/s, %ds warm-up then %ds measured%n",
+                options.rate(), options.warmup().toSeconds(), options.duration().toSeconds());
+
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            long arrival = start;
+            while (arrival - measureUntil < 0) {
+                Session.awaitUntil(arrival);
+                Scenario scenario = draw.get(random.nextInt(draw.size()));
+                long arrivalNanos = arrival;
+                if (inFlight.tryAcquire()) {
+                    report.started(scenario, arrivalNanos);
+                    Session session = new Session(client, target, options, fixture, report, random.split(), arrivalNanos);
+                    sessions.execute(() -> {
+                        try {
+                            scenario.run(session);
+                            report.completed(scenario, arrivalNanos);
+                        } catch (RuntimeException e) {
+                            report.aborted(scenario, arrivalNanos);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } else {
+                    report.dropped(scenario, arrivalNanos);
+                }
+                arrival += nextInterval(random);
+            }
+            // closing waits for the sessions still running, whose requests due before the end count
+        }
+        return report;
+    }
+
+    private long nextInterval(SplittableRandom random) {
+        double meanNanos = 1e9 / options.rate();
+        return switch (options.arrivals()) {
+            case CONSTANT -> Math.round(meanNanos);
+            case POISSON -> Math.round(-Math.log(1 - random.nextDouble()) * meanNanos);
+        };
+    }
+
+    private static List<Scenario> weightedDraw(Map<Scenario, Integer> weights) {
+        List<Scenario> draw = new ArrayList<>();
+        weights.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                draw.add(scenario);
+            }
+        });
+        return draw;
+    }
+}
@@ -0,0 +1,202 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies per route and session counts per scenario, for requests and arrivals whose intended
+ * start falls in the measured window; the warm-up before it and the drain after it are left out.
+ * Latencies are kept in microseconds in HDR histograms, so percentiles up to p99.9 stay exact to
+ * three significant digits whatever the number of samples.
+ */
+final class LoadReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final long measureFromNanos;
+    private final long measureUntilNanos;
+    private final ConcurrentMap<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final Map<Scenario, ScenarioStats> scenarios = new EnumMap<>(Scenario.class);
+
+    LoadReport(long measureFromNanos, long measureUntilNanos) {
+        this.measureFromNanos = measureFromNanos;
+        this.measureUntilNanos = measureUntilNanos;
+        for (Scenario scenario : Scenario.values()) {
+            scenarios.put(scenario, new ScenarioStats());
+        }
+    }
+
+    void record(String route, long intendedNanos, long completedNanos, String outcome, boolean success) {
+        if (measured(intendedNanos)) {
+            routes.computeIfAbsent(route, name -> new RouteStats())
+                    .record(TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos), outcome, success);
+        }
+    }
+
+    void started(Scenario scenario, long arrivalNanos) {
+        count(scenario, arrivalNanos, scenarios.get(scenario).started);
+    }
+
+    void completed(Scenario scenario, long arrivalNanos) {
+        count(scenario, arrivalNanos, scenarios.get(scenario).completed);
+    }
+
+    void aborted(Scenario scenario, long arrivalNanos) {
+        count(scenario, arrivalNanos, scenarios.get(scenario).aborted);
+    }
+
+    void dropped(Scenario scenario, long arrivalNanos) {
+        count(scenario, arrivalNanos, scenarios.get(scenario).dropped);
+    }
+
+    Map<String, Object> toMap(LoadTestOptions options) {
+        double seconds = (measureUntilNanos - measureFromNanos) / 1e9;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("options", options.describe());
+
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long errors = 0;
+        Map<String, Object> routeResults = new LinkedHashMap<>();
+        for (Map.Entry<String, RouteStats> entry : new TreeMap<>(routes).entrySet()) {
+            RouteStats stats = entry.getValue();
+            Histogram latencies = stats.latencies.copy();
+            all.add(latencies);
+            errors += stats.errors.sum();
+            routeResults.put(entry.getKey(), summary(latencies, stats.errors.sum(), seconds, stats.outcomes()));
+        }
+        result.put("total", summary(all, errors, seconds, null));
+        result.put("routes", routeResults);
+
+        Map<String, Object> scenarioResults = new LinkedHashMap<>();
+        scenarios.forEach((scenario, stats) -> {
+            if (options.scenarios().containsKey(scenario)) {
+                scenarioResults.put(scenario.label(), stats.toMap());
+            }
+        });
+        result.put("scenarios", scenarioResults);
+        return result;
+    }
+
+    void write(Path file, LoadTestOptions options) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), toMap(options));
+    }
+
+    /**
+     * The same figures as a table for the console.
+     */
+    String table() {
+        double seconds = (measureUntilNanos - measureFromNanos) / 1e9;
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%-45s %9s %8s %7s %9s %9s %9s %9s %9s%n",
+                "route", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        new TreeMap<>(routes).forEach((route, stats) -> {
+            Histogram latencies = stats.latencies.copy();
+            table.append(String.format(Locale.ROOT, "%-45s %9d %8.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    route, latencies.getTotalCount(), latencies.getTotalCount() / seconds, stats.errors.sum(),
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue())));
+        });
+        return table.toString();
+    }
+
+    private boolean measured(long nanoTime) {
+        return nanoTime - measureFromNanos >= 0 && nanoTime - measureUntilNanos < 0;
+    }
+
+    private void count(Scenario scenario, long arrivalNanos, LongAdder counter) {
+        if (measured(arrivalNanos)) {
+            counter.increment();
+        }
+    }
+
+    private static Map<String, Object> summary(Histogram latencies, long errors, double seconds,
+                                               Map<String, Long> outcomes) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long count = latencies.getTotalCount();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", round(count / seconds));
+        Map<String, Object> latency = new LinkedHashMap<>();
+        if (count > 0) {
+            latency.put("min", millis(latencies.getMinValue()));
+            latency.put("mean", round(latencies.getMean() / 1000));
+            for (double percentile : PERCENTILES) {
+                latency.put("p" + (percentile == Math.rint(percentile)
+                                ? Long.toString((long) percentile) : Double.toString(percentile)),
+                        millis(latencies.getValueAtPercentile(percentile)));
+            }
+            latency.put("max", millis(latencies.getMaxValue()));
+        }
+        summary.put("latencyMillis", latency);
+        if (outcomes != null) {
+            summary.put("outcomes", outcomes);
+        }
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static final class RouteStats {
+
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final ConcurrentMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+        void record(long micros, String outcome, boolean success) {
+            latencies.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+            if (!success) {
+                errors.increment();
+            }
+            outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        }
+
+        Map<String, Long> outcomes() {
+            Map<String, Long> counts = new TreeMap<>();
+            outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+            return counts;
+        }
+    }
+
+    private static final class ScenarioStats {
+
+        private final LongAdder started = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder aborted = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        Map<String, Object> toMap() {
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("started", started.sum());
+            counts.put("completed", completed.sum());
+            counts.put("aborted", aborted.sum());
+            counts.put("dropped", dropped.sum());
+            return counts;
+        }
+    }
+}
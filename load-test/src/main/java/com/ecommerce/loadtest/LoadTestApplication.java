@@ -0,0 +1,52 @@
+package com.ecommerce.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * End-to-end load test through the gateway: boots the services in this JVM (or targets a running
+ * gateway with {@code --target}), registers the users the scenarios need, drives the configured
+ * arrivals and writes per-route latency percentiles and throughput as JSON.
+ * <pre>
+ * ./mvnw compile exec:exec -Dload-test.args="--rate=200 --duration=2m --scenarios=cart:1 --items=10"
+ * </pre>
+ * In process, the load generator shares the CPUs with the services: compare runs made the same
+ * way, and use {@code --target} against separate processes or hosts for absolute figures.
+ */
+public final class LoadTestApplication {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private LoadTestApplication() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        URI target = options.target() != null
+                ? options.target()
+                : ServiceLauncher.start(options.servicesDir(), STARTUP_TIMEOUT);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .build();
+
+        Fixture fixture = Fixture.prepare(client, target, options);
+        LoadReport report = new LoadGenerator(client, target, options, fixture).run();
+        report.write(options.output(), options);
+
+        System.out.print(report.table());
+        System.out.println("Report written to " + options.output().toAbsolutePath());
+        // the in-process services stop with the JVM
+        System.exit(0);
+    }
+}
@@ -0,0 +1,147 @@
+package com.ecommerce.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Command line options, all given as {@code --name=value}; see {@link #USAGE}.
+ *
+ * @param target      base URI of an already running gateway, {@code null} to boot the services in process
+ * @param rate        scenario arrivals per second, whatever the response times
+ * @param scenarios   relative weight of each scenario in the arrivals
+ * @param think       time between two requests of a session, from their intended start times
+ * @param maxSessions sessions in flight beyond which an arrival is dropped (and counted) instead of started
+ */
+record LoadTestOptions(URI target, Path servicesDir, double rate, Arrivals arrivals, Duration warmup,
+                       Duration duration, Map<Scenario, Integer> scenarios, int items, int polls,
+                       Duration think, int users, int maxSessions, Duration timeout, String authPrefix,
+                       Path output, long seed) {
+
+    static final String USAGE = """
+            Usage: LoadTestApplication [--name=value ...]
+              --target=URI          running gateway to drive instead of booting the services (default: boot them)
+              --services-dir=PATH   directory holding the service modules and their built jars (default: ..)
+              --rate=N              scenario arrivals per second (default: 20)
+              --arrivals=KIND       poisson or constant inter-arrival times (default: poisson)
+              --warmup=DURATION     arrivals run but not reported, e.g. 10s (default: 10s)
+              --duration=DURATION   measured period, e.g. 60s or 5m (default: 60s)
+              --scenarios=LIST      weighted scenarios among browse, login, cart (default: browse:3,login:1,cart:2)
+              --items=N             items added by a cart session (default: 5)
+              --polls=N             cart polls by a cart session, with If-None-Match (default: 3)
+              --think=DURATION      pause between the requests of a session (default: 100ms)
+              --users=N             users registered before the run, used by login and cart (default: 100)
+              --max-sessions=N      sessions in flight beyond which arrivals are dropped (default: 5000)
+              --timeout=DURATION    request timeout (default: 10s)
+              --auth-prefix=PATH    gateway path of the auth service: the discovery locator route of its
+                                    service id, upper case as registered in Eureka (default: /AUTH-SERVICE)
+              --output=PATH         JSON report (default: target/load-test-result.json)
+              --seed=N              seed of arrivals and scenario choices (default: 1)
+            """;
+
+    private static final Pattern DURATION = Pattern.compile("(\\d+)(ms|s|m|h)");
+
+    enum Arrivals {
+        CONSTANT, POISSON
+    }
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value: " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        String target = values.remove("target");
+        LoadTestOptions options = new LoadTestOptions(
+                target == null ? null : URI.create(target),
+                Path.of(take(values, "services-dir", "..")),
+                Double.parseDouble(take(values, "rate", "20")),
+                Arrivals.valueOf(take(values, "arrivals", "poisson").toUpperCase(Locale.ROOT)),
+                duration(take(values, "warmup", "10s")),
+                duration(take(values, "duration", "60s")),
+                scenarios(take(values, "scenarios", "browse:3,login:1,cart:2")),
+                Integer.parseInt(take(values, "items", "5")),
+                Integer.parseInt(take(values, "polls", "3")),
+                duration(take(values, "think", "100ms")),
+                Integer.parseInt(take(values, "users", "100")),
+                Integer.parseInt(take(values, "max-sessions", "5000")),
+                duration(take(values, "timeout", "10s")),
+                take(values, "auth-prefix", "/AUTH-SERVICE"),
+                Path.of(take(values, "output", "target/load-test-result.json")),
+                Long.parseLong(take(values, "seed", "1")));
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.rate <= 0 || options.duration.isZero() || options.users <= 0 || options.maxSessions <= 0) {
+            throw new IllegalArgumentException("rate, duration, users and max-sessions must be positive");
+        }
+        return options;
+    }
+
+    /**
+     * The options as reported next to the results.
+     */
+    Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("target", target == null ? "in-process" : target.toString());
+        description.put("rate", rate);
+        description.put("arrivals", arrivals.name().toLowerCase(Locale.ROOT));
+        description.put("warmupSeconds", warmup.toMillis() / 1000.0);
+        description.put("durationSeconds", duration.toMillis() / 1000.0);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        scenarios.forEach((scenario, weight) -> weights.put(scenario.label(), weight));
+        description.put("scenarios", weights);
+        description.put("items", items);
+        description.put("polls", polls);
+        description.put("thinkMillis", think.toMillis());
+        description.put("users", users);
+        description.put("maxSessions", maxSessions);
+        description.put("timeoutMillis", timeout.toMillis());
+        description.put("seed", seed);
+        return description;
+    }
+
+    static Duration duration(String value) {
+        Matcher matcher = DURATION.matcher(value.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Expected a duration such as 250ms, 30s, 5m or 1h: " + value);
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        return switch (matcher.group(2)) {
+            case "ms" -> Duration.ofMillis(amount);
+            case "s" -> Duration.ofSeconds(amount);
+            case "m" -> Duration.ofMinutes(amount);
+            default -> Duration.ofHours(amount);
+        };
+    }
+
+    private static Map<Scenario, Integer> scenarios(String value) {
+        Map<Scenario, Integer> weights = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Scenario weights must be positive: " + entry);
+            }
+            weights.put(Scenario.valueOf(parts[0].toUpperCase(Locale.ROOT)), weight);
+        }
+        return Collections.unmodifiableMap(weights);
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * What a session does once it has arrived. Requests are named by route template so that their
+ * latencies are reported per route, whatever the ids in the path.
+ */
+enum Scenario {
+
+    /**
+     * An anonymous visitor: the product list, a category, then a product page.
+     */
+    BROWSE {
+        @Override
+        void run(Session session) {
+            session.get("GET /api/v1/products", "/api/v1/products");
+            session.get("GET /api/v1/products/category/{category}",
+                    "/api/v1/products/category/" + Session.encode(session.pick(session.fixture().categories())));
+            session.get("GET /api/v1/products/{productId}",
+                    "/api/v1/products/" + Session.encode(session.pick(session.fixture().productIds())));
+        }
+    },
+
+    /**
+     * A registered user signing in through the gateway.
+     */
+    LOGIN {
+        @Override
+        void run(Session session) {
+            Fixture.Credentials user = session.pick(session.fixture().users());
+            session.post("POST /api/v1/auth/login", session.options().authPrefix() + "/api/v1/auth/login",
+                    Map.of("username", user.username(), "password", user.password()));
+        }
+    },
+
+    /**
+     * A shopper filling a cart item by item, then polling it as the cart page does, answered by 304
+     * while the cart is unchanged.
+     */
+    CART {
+        @Override
+        void run(Session session) {
+            Fixture.Credentials user = session.pick(session.fixture().users());
+            HttpResponse<String> created = session.post("POST /api/v1/cart",
+                    "/api/v1/cart?userId=" + Session.encode(user.username()), null);
+            String cartId = Session.encode(session.json(created).path("cartId").asText());
+
+            String entityTag = null;
+            for (int i = 0; i < session.options().items(); i++) {
+                HttpResponse<String> added = session.post("POST /api/v1/cart/{cartId}/items",
+                        "/api/v1/cart/" + cartId + "/items",
+                        Map.of("productId", session.pick(session.fixture().productIds()), "quantity", 1));
+                entityTag = added.headers().firstValue("ETag").orElse(entityTag);
+            }
+            for (int i = 0; i < session.options().polls(); i++) {
+                HttpResponse<String> polled = entityTag == null
+                        ? session.get("GET /api/v1/cart/{cartId}", "/api/v1/cart/" + cartId)
+                        : session.get("GET /api/v1/cart/{cartId}", "/api/v1/cart/" + cartId, "If-None-Match", entityTag);
+                entityTag = polled.headers().firstValue("ETag").orElse(entityTag);
+            }
+        }
+    };
+
+    abstract void run(Session session);
+
+    String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
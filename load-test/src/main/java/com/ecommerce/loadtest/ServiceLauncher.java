@@ -0,0 +1,170 @@
+package com.ecommerce.loadtest;
+
+import com.github.fppt.jedismock.RedisServer;
+import org.springframework.boot.loader.launch.Archive;
+import org.springframework.boot.loader.launch.JarLauncher;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Boots the executable jars of the services in this JVM. Each one gets its own class loader, built
+ * by the Boot launcher exactly as in its own process, so the reactive gateway and the servlet
+ * services, and their databases, never share a class. The services stop with the JVM.
+ * <p>
+ * Nothing outside the JVM is needed: Eureka is switched off and every service finds the others
+ * through static instances of the simple discovery client, and the cart service runs its default
+ * profile against a RESP server started in this JVM, Lua scripts included. That server is not
+ * Redis: its latencies are not those of a real one, only the code paths are.
+ */
+final class ServiceLauncher {
+
+    private static final List<String> COMMON_ARGUMENTS = List.of(
+            "--eureka.client.enabled=false",
+            "--spring.main.banner-mode=off",
+            "--spring.jpa.show-sql=false",
+            "--spring.h2.console.enabled=false",
+            // request logging would be the first thing measured
+            "--logging.level.root=WARN");
+
+    enum Service {
+        CATALOG("catalog-servicer", 8083, List.of("CATALOG-SERVICE", "catalog-service"), List.of(), false),
+        AUTH("auth-service", 8084, List.of("AUTH-SERVICE", "auth-service"),
+                List.of("--logging.level.com.ecommerce.auth=WARN"), false),
+        CART("cart-service", 8082, List.of("CART-SERVICE", "cart-service"), List.of(), true),
+        GATEWAY("api-gateway", 8080, List.of(), List.of(), false);
+
+        private final String module;
+        private final int port;
+        // gateway routes use the upper case Eureka names, Feign clients the application names
+        private final List<String> serviceIds;
+        private final List<String> arguments;
+        private final boolean redis;
+
+        Service(String module, int port, List<String> serviceIds, List<String> arguments, boolean redis) {
+            this.module = module;
+            this.port = port;
+            this.serviceIds = serviceIds;
+            this.arguments = arguments;
+            this.redis = redis;
+        }
+    }
+
+    private ServiceLauncher() {
+    }
+
+    /**
+     * Starts every service concurrently and waits for all of them.
+     *
+     * @return the base URI of the gateway
+     */
+    static URI start(Path servicesDir, Duration timeout) throws IOException, InterruptedException {
+        List<String> discovery = discoveryArguments();
+        RedisServer redis = startRedis();
+        Map<Service, CompletableFuture<Void>> started = new EnumMap<>(Service.class);
+        for (Service service : Service.values()) {
+            File jar = executableJar(servicesDir, service.module);
+            List<String> arguments = new ArrayList<>(COMMON_ARGUMENTS);
+            arguments.addAll(discovery);
+            arguments.addAll(service.arguments);
+            if (service.redis) {
+                arguments.add("--spring.data.redis.host=" + redis.getHost());
+                arguments.add("--spring.data.redis.port=" + redis.getBindPort());
+            }
+
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    // returns once the application context is refreshed and the server listens
+                    new ServiceJarLauncher(jar).start(arguments.toArray(String[]::new));
+                    future.complete(null);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            }, "launch-" + service.module);
+            thread.start();
+            started.put(service, future);
+            System.out.printf("Starting %s from %s%n", service.module, jar);
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Map.Entry<Service, CompletableFuture<Void>> entry : started.entrySet()) {
+            String module = entry.getKey().module;
+            try {
+                entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(module + " failed to start", e.getCause());
+            } catch (TimeoutException e) {
+                throw new IllegalStateException(module + " did not start within " + timeout);
+            }
+        }
+        System.out.println("All services started");
+        return URI.create("http://localhost:" + Service.GATEWAY.port);
+    }
+
+    private static RedisServer startRedis() throws IOException {
+        RedisServer redis = RedisServer.newRedisServer().start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                redis.stop();
+            } catch (IOException e) {
+                // the JVM is going away anyway
+            }
+        }, "stop-redis"));
+        System.out.printf("RESP server listening on %s:%d%n", redis.getHost(), redis.getBindPort());
+        return redis;
+    }
+
+    private static List<String> discoveryArguments() {
+        List<String> arguments = new ArrayList<>();
+        for (Service service : Service.values()) {
+            for (String serviceId : service.serviceIds) {
+                // brackets keep the case of the service id
+                arguments.add("--spring.cloud.discovery.client.simple.instances[" + serviceId + "][0].uri=http://localhost:"
+                        + service.port);
+            }
+        }
+        return arguments;
+    }
+
+    private static File executableJar(Path servicesDir, String module) throws IOException {
+        Path target = servicesDir.resolve(module).resolve("target");
+        if (!Files.isDirectory(target)) {
+            throw new IllegalStateException("No " + target + ", build " + module + " first with ./mvnw package -DskipTests");
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(module) && name.endsWith(".jar") && !name.endsWith("-plain.jar");
+                    })
+                    .findFirst()
+                    .map(Path::toFile)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "No executable jar in " + target + ", build " + module + " first with ./mvnw package -DskipTests"));
+        }
+    }
+
+    private static final class ServiceJarLauncher extends JarLauncher {
+
+        ServiceJarLauncher(File jar) throws Exception {
+            super(Archive.create(jar));
+        }
+
+        void start(String[] args) throws Exception {
+            launch(args);
+        }
+    }
+}
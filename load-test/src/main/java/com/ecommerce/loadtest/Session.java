@@ -0,0 +1,140 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One arrival running its scenario on its own virtual thread.
+ * <p>
+ * Every request has an intended start time: the arrival time for the first one, then one think
+ * time later than the previous intended start. A request is sent at its intended time, or as soon
+ * as the previous one completed if that is later, and its latency is measured from the intended
+ * time. A stalled response therefore delays the rest of the session and that delay is charged to
+ * the requests that should have been sent meanwhile, instead of silently lowering the offered
+ * load (coordinated omission).
+ * <p>
+ * A request that fails or answers an unexpected status ends the session; it has been recorded.
+ */
+final class Session {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client;
+    private final URI target;
+    private final LoadTestOptions options;
+    private final Fixture fixture;
+    private final LoadReport report;
+    private final SplittableRandom random;
+    private long intendedNanos;
+
+    Session(HttpClient client, URI target, LoadTestOptions options, Fixture fixture, LoadReport report,
+            SplittableRandom random, long arrivalNanos) {
+        this.client = client;
+        this.target = target;
+        this.options = options;
+        this.fixture = fixture;
+        this.report = report;
+        this.random = random;
+        this.intendedNanos = arrivalNanos;
+    }
+
+    static final class Aborted extends RuntimeException {
+        Aborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    LoadTestOptions options() {
+        return options;
+    }
+
+    Fixture fixture() {
+        return fixture;
+    }
+
+    <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    HttpResponse<String> get(String route, String path, String... headers) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(target.resolve(path)).GET();
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return send(route, request);
+    }
+
+    HttpResponse<String> post(String route, String path, Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(target.resolve(path));
+        if (body == null) {
+            request.POST(HttpRequest.BodyPublishers.noBody());
+        } else {
+            try {
+                request.header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return send(route, request);
+    }
+
+    JsonNode json(HttpResponse<String> response) {
+        try {
+            return MAPPER.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private HttpResponse<String> send(String route, HttpRequest.Builder request) {
+        long intended = intendedNanos;
+        intendedNanos += options.think().toNanos();
+        awaitUntil(intended);
+
+        String outcome;
+        HttpResponse<String> response = null;
+        try {
+            response = client.send(request.timeout(options.timeout()).build(), HttpResponse.BodyHandlers.ofString());
+            outcome = Integer.toString(response.statusCode());
+        } catch (HttpTimeoutException e) {
+            outcome = "timeout";
+        } catch (IOException e) {
+            outcome = "io-error";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Aborted();
+        }
+
+        boolean success = response != null && (response.statusCode() / 100 == 2 || response.statusCode() == 304);
+        report.record(route, intended, System.nanoTime(), outcome, success);
+        if (!success) {
+            throw new Aborted();
+        }
+        return response;
+    }
+
+    static void awaitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
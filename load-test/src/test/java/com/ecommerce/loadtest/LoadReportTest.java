@@ -0,0 +1,80 @@
+package com.ecommerce.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LoadReportTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LoadReport report = new LoadReport(10 * SECOND, 20 * SECOND);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void toMap_ShouldReportMeasuredRequestsPerRoute() {
+        // Given
+        for (int i = 0; i < 99; i++) {
+            report.record("GET /api/v1/products", 11 * SECOND, 11 * SECOND + 10 * MILLI, "200", true);
+        }
+        report.record("GET /api/v1/products", 11 * SECOND, 11 * SECOND + 1000 * MILLI, "timeout", false);
+        // warm-up and drain
+        report.record("GET /api/v1/products", 9 * SECOND, 9 * SECOND + 10 * MILLI, "200", true);
+        report.record("GET /api/v1/products", 20 * SECOND, 20 * SECOND + 10 * MILLI, "200", true);
+
+        // When
+        Map<String, Object> result = report.toMap(LoadTestOptions.parse("--scenarios=browse:1"));
+
+        // Then
+        Map<String, Object> route = (Map<String, Object>) ((Map<String, Object>) result.get("routes"))
+                .get("GET /api/v1/products");
+        assertThat(route).containsEntry("requests", 100L).containsEntry("errors", 1L)
+                .containsEntry("throughputPerSecond", 10.0);
+        assertThat((Map<String, Long>) route.get("outcomes")).containsEntry("200", 99L).containsEntry("timeout", 1L);
+        Map<String, Object> latency = (Map<String, Object>) route.get("latencyMillis");
+        assertThat((double) latency.get("p50")).isCloseTo(10, within(0.1));
+        assertThat((double) latency.get("max")).isCloseTo(1000, within(1.0));
+        assertThat((Map<String, Object>) result.get("total")).containsEntry("requests", 100L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void toMap_ShouldChargeLatencyFromIntendedStart() {
+        // Given: a request sent 500ms late, after a stalled one, completing 5ms after it was sent
+        report.record("GET /api/v1/cart/{cartId}", 12 * SECOND, 12 * SECOND + 505 * MILLI, "304", true);
+
+        // When
+        Map<String, Object> result = report.toMap(LoadTestOptions.parse("--scenarios=cart:1"));
+
+        // Then
+        Map<String, Object> route = (Map<String, Object>) ((Map<String, Object>) result.get("routes"))
+                .get("GET /api/v1/cart/{cartId}");
+        assertThat((double) ((Map<String, Object>) route.get("latencyMillis")).get("p99")).isCloseTo(505, within(1.0));
+        assertThat(route).containsEntry("errors", 0L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void toMap_ShouldCountSessionsOfConfiguredScenarios() {
+        // Given
+        report.started(Scenario.CART, 15 * SECOND);
+        report.completed(Scenario.CART, 15 * SECOND);
+        report.started(Scenario.CART, 16 * SECOND);
+        report.aborted(Scenario.CART, 16 * SECOND);
+        report.dropped(Scenario.CART, 17 * SECOND);
+        report.started(Scenario.CART, 5 * SECOND);
+
+        // When
+        Map<String, Object> result = report.toMap(LoadTestOptions.parse("--scenarios=cart:1"));
+
+        // Then
+        Map<String, Object> scenarios = (Map<String, Object>) result.get("scenarios");
+        assertThat(scenarios).containsOnlyKeys("cart");
+        assertThat((Map<String, Object>) scenarios.get("cart")).containsEntry("started", 2L)
+                .containsEntry("completed", 1L).containsEntry("aborted", 1L).containsEntry("dropped", 1L);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LoadTestOptionsTest {
+
+    @Test
+    void parse_ShouldApplyDefaults() {
+        // When
+        LoadTestOptions options = LoadTestOptions.parse();
+
+        // Then
+        assertThat(options.target()).isNull();
+        assertThat(options.rate()).isEqualTo(20);
+        assertThat(options.arrivals()).isEqualTo(LoadTestOptions.Arrivals.POISSON);
+        assertThat(options.duration()).isEqualTo(Duration.ofSeconds(60));
+        assertThat(options.scenarios()).containsExactly(
+                entry(Scenario.BROWSE, 3), entry(Scenario.LOGIN, 1), entry(Scenario.CART, 2));
+        assertThat(options.authPrefix()).isEqualTo("/AUTH-SERVICE");
+    }
+
+    @Test
+    void parse_ShouldReadOptions() {
+        // When
+        LoadTestOptions options = LoadTestOptions.parse("--target=http://localhost:9080", "--rate=150.5",
+                "--arrivals=constant", "--warmup=0s", "--duration=2m", "--scenarios=cart:1", "--items=10",
+                "--think=250ms");
+
+        // Then
+        assertThat(options.target()).hasToString("http://localhost:9080");
+        assertThat(options.rate()).isEqualTo(150.5);
+        assertThat(options.arrivals()).isEqualTo(LoadTestOptions.Arrivals.CONSTANT);
+        assertThat(options.warmup()).isZero();
+        assertThat(options.duration()).isEqualTo(Duration.ofMinutes(2));
+        assertThat(options.scenarios()).containsExactly(entry(Scenario.CART, 1));
+        assertThat(options.items()).isEqualTo(10);
+        assertThat(options.think()).isEqualTo(Duration.ofMillis(250));
+    }
+
+    @Test
+    void parse_ShouldRejectUnknownOrMalformedOptions() {
+        // When & Then
+        assertThatThrownBy(() -> LoadTestOptions.parse("--rte=10"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("rte");
+        assertThatThrownBy(() -> LoadTestOptions.parse("rate=10"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LoadTestOptions.parse("--duration=10 seconds"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LoadTestOptions.parse("--scenarios=checkout:1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}